@@ -1,4 +1,4 @@
-import React, { useState, useEffect, useCallback, useMemo } from 'react';
+import React, { useState, useEffect, useCallback, useMemo, useRef } from 'react';
 import axios from 'axios';
 import {
   Layout, Typography, Tag, Spin, Alert, Space, Button,
@@ -16,6 +16,33 @@ const API_BASE_URL = '/api/v2';
 const DEFAULT_ERROR_MESSAGE = "An unexpected error occurred.";
 const MAX_NAME_LENGTH = 40;
 const MAX_CATEGORIES_PER_BOOK = 5;
+const CHANGES_PAGE_SIZE = 500;
+// /changes читается с реплики: пока она не догнала версию из события, запрос повторяется
+const REPLICA_RETRY_DELAY_MS = 200;
+const REPLICA_MAX_RETRIES = 25;
+
+const delay = ms => new Promise(resolve => setTimeout(resolve, ms));
+
+// Заменяет записи с id из fresh (null — запись удалена), новые добавляет в конец
+const mergeById = (items, fresh) => {
+  const seen = new Set();
+  const merged = items.flatMap(item => {
+    if (!fresh.has(item.id)) return [item];
+    seen.add(item.id);
+    const updated = fresh.get(item.id);
+    return updated ? [updated] : [];
+  });
+  fresh.forEach((item, id) => {
+    if (item && !seen.has(id)) merged.push(item);
+  });
+  return merged;
+};
+
+const toAuthorSelectItem = a => ({ id: a.id, name: a.authorName });
+const toCategorySelectItem = c => ({ id: c.id, name: c.name });
+const toBookSelectItem = b => ({
+  id: b.id, name: b.bookName, authorName: b.authorName, categories: b.categories
+});
 
 const App = () => {
   const [activeTabKey, setActiveTabKey] = useState('books');
@@ -71,11 +98,11 @@ const App = () => {
     }
   }, []);
 
-  const fetchAllDataForTables = useCallback(() => {
-    fetchData('books', setBooks, 'books', setLoading, setError);
-    fetchData('authors', setAuthors, 'authors', setLoading, setError);
-    fetchData('categories', setCategories, 'categories', setLoading, setError);
-  }, [fetchData]);
+  const fetchAllDataForTables = useCallback(() => Promise.all([
+    fetchData('books', setBooks, 'books', setLoading, setError),
+    fetchData('authors', setAuthors, 'authors', setLoading, setError),
+    fetchData('categories', setCategories, 'categories', setLoading, setError)
+  ]), [fetchData]);
 
   const fetchSelectData = useCallback(async () => {
     setLoading(prev => ({ ...prev, selectData: true }));
@@ -86,17 +113,9 @@ const App = () => {
         axios.get(`${API_BASE_URL}/categories`),
         axios.get(`${API_BASE_URL}/books`)
       ]);
-      setAllAuthorsForSelect(
-          (authorsRes.data || []).map(a => ({ id: a.id, name: a.authorName }))
-      );
-      setAllCategoriesForSelect(
-          (categoriesRes.data || []).map(c => ({ id: c.id, name: c.name }))
-      );
-      setAllBooksForSelect(
-          (booksRes.data || []).map(b => ({
-            id: b.id, name: b.bookName, authorName: b.authorName, categories: b.categories
-          }))
-      );
+      setAllAuthorsForSelect((authorsRes.data || []).map(toAuthorSelectItem));
+      setAllCategoriesForSelect((categoriesRes.data || []).map(toCategorySelectItem));
+      setAllBooksForSelect((booksRes.data || []).map(toBookSelectItem));
     } catch (err) {
       const errorMsg = err.response?.data?.message || err.response?.data || err.message || DEFAULT_ERROR_MESSAGE;
       message.error(`Failed to load data for forms: ${errorMsg}`);
@@ -107,11 +126,90 @@ const App = () => {
   }, []);
 
 
-  useEffect(() => {
-    fetchAllDataForTables();
-    fetchSelectData();
+  // Версия журнала /changes, до которой таблицы уже обновлены; null — неизвестна
+  const changeVersionRef = useRef(null);
+  // Полные загрузки и дочитывание изменений выполняются по очереди, чтобы
+  // ответ полной загрузки не затёр изменения, применённые после неё
+  const syncQueueRef = useRef(Promise.resolve());
+
+  const enqueueSync = useCallback(task => {
+    syncQueueRef.current = syncQueueRef.current.then(task, task);
+    return syncQueueRef.current;
+  }, []);
+
+  // Версия берётся до загрузки таблиц: всё, что загрузка не увидела, придёт из /changes
+  const loadAll = useCallback(async () => {
+    try {
+      changeVersionRef.current = (await axios.get(`${API_BASE_URL}/changes/version`)).data;
+    } catch (err) {
+      changeVersionRef.current = null;
+    }
+    await Promise.all([fetchAllDataForTables(), fetchSelectData()]);
   }, [fetchAllDataForTables, fetchSelectData]);
 
+  const refreshAll = useCallback(() => enqueueSync(loadAll), [enqueueSync, loadAll]);
+
+  // Записи журнала несут текущее состояние (null — запись удалена). Триггеры
+  // журнала отмечают и зависимые записи: автора, у которого изменился список
+  // книг, книги переименованного автора, — поэтому меняются только они
+  const applyEntries = useCallback(entries => {
+    const fresh = { books: new Map(), authors: new Map(), categories: new Map() };
+    entries.forEach(entry => fresh[entry.type]?.set(entry.id, entry.deleted ? null : entry.data));
+    const patch = (records, setData, setSelectData, toSelectItem) => {
+      if (records.size === 0) return;
+      const selectItems = new Map([...records].map(([id, record]) => [id, record && toSelectItem(record)]));
+      setData(prev => mergeById(prev, records));
+      setSelectData(prev => mergeById(prev, selectItems));
+    };
+    patch(fresh.books, setBooks, setAllBooksForSelect, toBookSelectItem);
+    patch(fresh.authors, setAuthors, setAllAuthorsForSelect, toAuthorSelectItem);
+    patch(fresh.categories, setCategories, setAllCategoriesForSelect, toCategorySelectItem);
+  }, []);
+
+  // Дочитывает журнал, пока не дойдёт до версии target из события. Если журнал
+  // сжат (410) или реплика так и не догнала, данные перечитываются полностью
+  const catchUp = useCallback(async target => {
+    try {
+      if (changeVersionRef.current == null) throw new Error('change version unknown');
+      for (let retries = 0; ;) {
+        const { data } = await axios.get(`${API_BASE_URL}/changes`, {
+          params: { since: changeVersionRef.current, limit: CHANGES_PAGE_SIZE }
+        });
+        applyEntries(data.changes);
+        changeVersionRef.current = data.version;
+        if (data.hasMore) continue;
+        if (target == null || data.version >= target) return;
+        if (++retries > REPLICA_MAX_RETRIES) throw new Error('replica is behind');
+        await delay(REPLICA_RETRY_DELAY_MS);
+      }
+    } catch (err) {
+      await loadAll();
+    }
+  }, [applyEntries, loadAll]);
+
+  // Событие /changes/stream: id — версия журнала, в которую изменение уже вошло
+  const applyChange = useCallback(event => {
+    const target = event.lastEventId ? Number(event.lastEventId) : null;
+    return enqueueSync(() => catchUp(target));
+  }, [enqueueSync, catchUp]);
+
+  useEffect(() => {
+    refreshAll();
+  }, [refreshAll]);
+
+  // После переподключения пропущенные изменения неизвестны — данные
+  // перечитываются полностью
+  useEffect(() => {
+    const source = new EventSource(`${API_BASE_URL}/changes/stream`);
+    let connectedBefore = false;
+    source.onopen = () => {
+      if (connectedBefore) refreshAll();
+      connectedBefore = true;
+    };
+    source.addEventListener('change', applyChange);
+    return () => source.close();
+  }, [refreshAll, applyChange]);
+
   useEffect(() => {
     if (!isBookModalVisible) return;
     if (editingBook && allAuthorsForSelect.length > 0 && allCategoriesForSelect.length > 0) {
@@ -169,8 +267,6 @@ const App = () => {
     try {
       await axios.delete(`${API_BASE_URL}/${endpoint}/${id}`);
       message.success(`${entityName} deleted successfully!`);
-      fetchAllDataForTables();
-      fetchSelectData();
     } catch (err) {
       const errorMsg = err.response?.data || err.message || `Failed to delete ${entityName}.`;
       message.error(`Failed to delete ${entityName}: ${errorMsg}`);
@@ -215,8 +311,6 @@ const App = () => {
       setIsBookModalVisible(false);
       setEditingBook(null);
       bookForm.resetFields();
-      fetchAllDataForTables();
-      fetchSelectData();
     } catch (err) {
       message.error(`Failed to save book: ${parseBackendError(err)}`, 7);
     } finally {
@@ -258,8 +352,6 @@ const App = () => {
       setIsAuthorModalVisible(false);
       setEditingAuthor(null);
       authorForm.resetFields();
-      fetchAllDataForTables();
-      fetchSelectData();
     } catch (err) {
       message.error(`Failed to save author: ${parseBackendError(err)}`, 7);
     } finally {
@@ -300,8 +392,6 @@ const App = () => {
       setIsCategoryModalVisible(false);
       setEditingCategory(null);
       categoryForm.resetFields();
-      fetchAllDataForTables();
-      fetchSelectData();
     } catch (err) {
       message.error(`Failed to save category: ${parseBackendError(err)}`, 7);
     } finally {
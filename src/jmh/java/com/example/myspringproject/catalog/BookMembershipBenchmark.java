@@ -0,0 +1,183 @@
+package com.example.myspringproject.catalog;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Книги категории, автора и автора в нескольких категориях: SQL тех же
+// запросов, что у BookRepository (без сборки сущностей Hibernate), против
+// битовых карт снимка. База — H2 в памяти, так что SQL-сторона не платит за
+// сеть и результат для неё оптимистичен.
+//
+// mvn -Pbenchmark test-compile exec:exec -Djmh.args="BookMembershipBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookMembershipBenchmark {
+
+    private static final int AUTHORS = 2_000;
+    private static final int CATEGORIES = 200;
+
+    @Param({"100000"})
+    private int books;
+
+    private Connection connection;
+    private PreparedStatement byCategory;
+    private PreparedStatement byAuthor;
+    private PreparedStatement byAuthorInCategories;
+    private CatalogSnapshot snapshot;
+
+    // Самые частые автор и категории, чтобы пересечение было непустым
+    private final int categoryId = 1;
+    private final int otherCategoryId = 2;
+    private final int authorId = 1;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // Без OPTIMIZE_REUSE_RESULTS=0 H2 отдаёт повторный запрос из кэша результата
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE books (book_id INTEGER PRIMARY KEY, "
+                    + "name VARCHAR(255), author_id INTEGER)");
+            ddl.execute("CREATE INDEX ix_books_author_id ON books (author_id)");
+            ddl.execute("CREATE TABLE books_categories (book_id INTEGER NOT NULL, "
+                    + "category_id INTEGER NOT NULL, PRIMARY KEY (book_id, category_id))");
+            ddl.execute("CREATE INDEX ix_books_categories_category_id "
+                    + "ON books_categories (category_id, book_id)");
+        }
+
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder(0);
+        for (int a = 1; a <= AUTHORS; a++) {
+            builder.addAuthor(a, "Author " + a);
+        }
+        for (int c = 1; c <= CATEGORIES; c++) {
+            builder.addCategory(c, "Category " + c);
+        }
+        Random random = new Random(42);
+        try (PreparedStatement book = connection.prepareStatement(
+                     "INSERT INTO books VALUES (?, ?, ?)");
+             PreparedStatement link = connection.prepareStatement(
+                     "INSERT INTO books_categories VALUES (?, ?)")) {
+            for (int b = 1; b <= books; b++) {
+                // Распределение с длинным хвостом: немногие авторы и категории популярны
+                int author = 1 + (int) (AUTHORS * Math.pow(random.nextDouble(), 3));
+                book.setInt(1, b);
+                book.setString(2, "Book " + b);
+                book.setInt(3, author);
+                book.addBatch();
+                builder.addBook(b, "Book " + b, author);
+                int[] categories = random.ints(1 + random.nextInt(3), 0, CATEGORIES)
+                        .map(c -> 1 + (int) (CATEGORIES * Math.pow(c / (double) CATEGORIES, 2)))
+                        .distinct().sorted().toArray();
+                for (int category : categories) {
+                    link.setInt(1, b);
+                    link.setInt(2, category);
+                    link.addBatch();
+                    builder.addLink(b, category);
+                }
+            }
+            book.executeBatch();
+            link.executeBatch();
+        }
+        snapshot = builder.build();
+
+        byCategory = connection.prepareStatement(
+                "SELECT b.book_id, b.name, b.author_id FROM books b "
+                + "JOIN books_categories bc ON bc.book_id = b.book_id WHERE bc.category_id = ?");
+        byAuthor = connection.prepareStatement(
+                "SELECT b.book_id, b.name, b.author_id FROM books b WHERE b.author_id = ?");
+        byAuthorInCategories = connection.prepareStatement(
+                "SELECT b.book_id, b.name, b.author_id FROM books b WHERE b.author_id = ? "
+                        + "AND EXISTS (SELECT 1 FROM books_categories bc "
+                        + "WHERE bc.book_id = b.book_id AND bc.category_id = ?) "
+                        + "AND EXISTS (SELECT 1 FROM books_categories bc "
+                        + "WHERE bc.book_id = b.book_id AND bc.category_id = ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement drop = connection.createStatement()) {
+            drop.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void repositoryBooksOfCategory(Blackhole blackhole) throws SQLException {
+        byCategory.setInt(1, categoryId);
+        consume(byCategory, blackhole);
+    }
+
+    @Benchmark
+    public void bitmapBooksOfCategory(Blackhole blackhole) {
+        consume(snapshot.booksOf(snapshot.bitmaps().booksOfCategory(categoryId)), blackhole);
+    }
+
+    @Benchmark
+    public void repositoryBooksOfAuthor(Blackhole blackhole) throws SQLException {
+        byAuthor.setInt(1, authorId);
+        consume(byAuthor, blackhole);
+    }
+
+    @Benchmark
+    public void bitmapBooksOfAuthor(Blackhole blackhole) {
+        consume(snapshot.booksOf(snapshot.bitmaps().booksOfAuthor(authorId)), blackhole);
+    }
+
+    @Benchmark
+    public void repositoryAuthorInCategories(Blackhole blackhole) throws SQLException {
+        byAuthorInCategories.setInt(1, authorId);
+        byAuthorInCategories.setInt(2, categoryId);
+        byAuthorInCategories.setInt(3, otherCategoryId);
+        consume(byAuthorInCategories, blackhole);
+    }
+
+    @Benchmark
+    public void bitmapAuthorInCategories(Blackhole blackhole) {
+        consume(snapshot.booksOf(snapshot.bitmaps()
+                .booksMatching(authorId, List.of(categoryId, otherCategoryId))), blackhole);
+    }
+
+    // Обе стороны читают одни и те же колонки найденных книг
+    private static void consume(PreparedStatement query, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getInt(1));
+                blackhole.consume(rs.getString(2));
+                blackhole.consume(rs.getInt(3));
+            }
+        }
+    }
+
+    private void consume(int[] books, Blackhole blackhole) {
+        for (int book : books) {
+            blackhole.consume(snapshot.bookId(book));
+            blackhole.consume(snapshot.bookName(book));
+            blackhole.consume(snapshot.bookAuthor(book));
+        }
+    }
+}
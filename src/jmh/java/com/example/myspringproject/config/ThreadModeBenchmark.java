@@ -0,0 +1,123 @@
+package com.example.myspringproject.config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+// Запросы в секунду: пул платформенных потоков размером с Tomcat по умолчанию
+// (server.tomcat.threads.max = 200) против виртуального потока на запрос с
+// семафором ConnectionLimitFilter по размеру пула соединений. Запрос — работа
+// процессора (сериализация ответа) и время с соединением из пула на connections
+// мест, как у Hikari; ни сети, ни базы нет, так что сравниваются только
+// модели потоков. virtual требует Java 21: на Java 17 его setUp падает с
+// UnsupportedOperationException, а platform измеряется как обычно.
+//
+// mvn -Pbenchmark test-compile exec:exec -Djmh.args="ThreadModeBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    // Одновременно пришедшие запросы на один вызов бенчмарка
+    private static final int REQUESTS = 2_000;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"20"})
+    private int connections;
+
+    @Param({"500"})
+    private long dbMicros;
+
+    @Param({"2000"})
+    private long cpuTokens;
+
+    private ExecutorService platformExecutor;
+    private TaskExecutor virtualExecutor;
+    private Semaphore connectionPool;
+    private Semaphore requestLimit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connectionPool = new Semaphore(connections, true);
+        if ("platform".equals(mode)) {
+            platformExecutor = Executors.newFixedThreadPool(200);
+        } else {
+            virtualExecutor = new VirtualThreadTaskExecutor("bench-");
+            requestLimit = new Semaphore(connections, true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformExecutor != null) {
+            platformExecutor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void handleRequests(Blackhole blackhole) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        Runnable request = () -> {
+            try {
+                handle(blackhole);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        };
+        for (int i = 0; i < REQUESTS; i++) {
+            if (platformExecutor != null) {
+                platformExecutor.execute(request);
+            } else {
+                virtualExecutor.execute(request);
+            }
+        }
+        done.await();
+    }
+
+    private void handle(Blackhole blackhole) throws InterruptedException {
+        if (requestLimit != null) {
+            requestLimit.acquire();
+        }
+        try {
+            connectionPool.acquire();
+            try {
+                TimeUnit.MICROSECONDS.sleep(dbMicros);
+            } finally {
+                connectionPool.release();
+            }
+            Blackhole.consumeCPU(cpuTokens);
+            blackhole.consume(dbMicros);
+        } finally {
+            if (requestLimit != null) {
+                requestLimit.release();
+            }
+        }
+    }
+}
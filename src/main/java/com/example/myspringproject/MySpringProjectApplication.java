@@ -1,16 +1,32 @@
 package com.example.myspringproject;
 
+import com.example.myspringproject.reactive.ReactiveReadApplication;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
 // import org.springframework.scheduling.annotation.EnableAsync;
 
-@SpringBootApplication
+// R2DBC нужен только реактивному API (профиль reactive), сервлетное
+// приложение работает через JDBC
+@SpringBootApplication(exclude = {
+		R2dbcAutoConfiguration.class,
+		R2dbcDataAutoConfiguration.class,
+		R2dbcRepositoriesAutoConfiguration.class,
+		R2dbcTransactionManagerAutoConfiguration.class
+})
 // @EnableAsync
 public class MySpringProjectApplication {
 
 	public static void main(String[] args) {
+		if (ReactiveReadApplication.isActive(args)) {
+			ReactiveReadApplication.run(args);
+			return;
+		}
 		SpringApplication.run(MySpringProjectApplication.class, args);
 	}
 
-}
\ No newline at end of file
+}
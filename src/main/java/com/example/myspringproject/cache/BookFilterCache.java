@@ -0,0 +1,96 @@
+package com.example.myspringproject.cache;
+
+import com.example.myspringproject.catalog.CatalogChangedEvent;
+import com.example.myspringproject.model.BookView;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Результаты /api/v2/books/filter по ключу нормализованного предиката.
+// Сбрасывается после коммита любой записи в каталог. Поколение не даёт
+// положить результат, посчитанный до сброса: иначе он пережил бы изменение.
+// Фильтр читает с реплики, поэтому результат запроса, начатого в пределах
+// replica-lag после сброса, мог не увидеть коммит: он живёт только до конца этого окна.
+@Component
+public class BookFilterCache {
+    private static final Logger log =
+            LoggerFactory.getLogger(BookFilterCache.class);
+    private static final int SIZE = 100;
+
+    private final Map<String, Entry> cache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > SIZE;
+                }
+            };
+    private final long replicaLagNanos;
+    private final LongSupplier nanoClock;
+    private long generation;
+    private long clearedAt;
+
+    @Autowired
+    public BookFilterCache(@Value("${library.filter.replica-lag:2s}") Duration replicaLag) {
+        this(replicaLag, System::nanoTime);
+    }
+
+    public BookFilterCache(Duration replicaLag, LongSupplier nanoClock) {
+        this.replicaLagNanos = replicaLag.toNanos();
+        this.nanoClock = nanoClock;
+        this.clearedAt = nanoClock.getAsLong();
+    }
+
+    public synchronized List<BookView> get(String key) {
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.provisional() && nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+            cache.remove(key);
+            return null;
+        }
+        return entry.books();
+    }
+
+    public synchronized Stamp stamp() {
+        return new Stamp(generation, nanoClock.getAsLong());
+    }
+
+    public synchronized void put(String key, List<BookView> value, Stamp computedAt) {
+        if (computedAt.generation() != generation) {
+            return;
+        }
+        long settledAt = clearedAt + replicaLagNanos;
+        cache.put(key, new Entry(value, computedAt.startedAt() - settledAt < 0, settledAt));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        clearedAt = nanoClock.getAsLong();
+        if (!cache.isEmpty()) {
+            log.info("Filter cache cleared. Previous size: {}", cache.size());
+            cache.clear();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        clear();
+    }
+
+    // Поколение и время начала запроса, результат которого кладётся в кэш
+    public record Stamp(long generation, long startedAt) {
+    }
+
+    private record Entry(List<BookView> books, boolean provisional, long expiresAt) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.myspringproject.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Битовые индексы членства: у каждой категории и каждого автора своя карта id
+// книг. Порядковым номером книги служит её id: он не меняется при вставках и
+// удалениях, поэтому индекс обновляется точечно, без перенумерации.
+// Неизменяем; Patch строит новый индекс, разделяя с текущим нетронутые карты.
+public final class BookBitmapIndex {
+
+    static final BookBitmapIndex EMPTY =
+            new BookBitmapIndex(RoaringBitmap.EMPTY, Map.of(), Map.of());
+
+    private final RoaringBitmap allBooks;
+    private final Map<Integer, RoaringBitmap> byCategory;
+    private final Map<Integer, RoaringBitmap> byAuthor;
+
+    private BookBitmapIndex(RoaringBitmap allBooks, Map<Integer, RoaringBitmap> byCategory,
+                            Map<Integer, RoaringBitmap> byAuthor) {
+        this.allBooks = allBooks;
+        this.byCategory = byCategory;
+        this.byAuthor = byAuthor;
+    }
+
+    // Карты собираются целиком, например при полной загрузке снимка
+    static BookBitmapIndex of(RoaringBitmap allBooks, Map<Integer, RoaringBitmap> byCategory,
+                              Map<Integer, RoaringBitmap> byAuthor) {
+        return new BookBitmapIndex(allBooks, Map.copyOf(byCategory), Map.copyOf(byAuthor));
+    }
+
+    public RoaringBitmap allBooks() {
+        return allBooks;
+    }
+
+    public RoaringBitmap booksOfCategory(int categoryId) {
+        return byCategory.getOrDefault(categoryId, RoaringBitmap.EMPTY);
+    }
+
+    public RoaringBitmap booksOfAuthor(int authorId) {
+        return byAuthor.getOrDefault(authorId, RoaringBitmap.EMPTY);
+    }
+
+    // Книги автора (если он задан), входящие во все перечисленные категории
+    public RoaringBitmap booksMatching(Integer authorId, Collection<Integer> categoryIds) {
+        return booksMatching(categoryIds.stream().map(Set::of).toList(),
+                authorId == null ? Set.of() : Set.of(authorId), Set.of(), Set.of());
+    }
+
+    // Книги, у которых есть категория из каждой группы и автор из authorIds
+    // (если они заданы), кроме исключённых. Пересечение начинается с самого
+    // маленького множества, поэтому каждое следующее AND работает с уже
+    // сузившимся результатом.
+    public RoaringBitmap booksMatching(Collection<? extends Collection<Integer>> categoryGroups,
+                                       Collection<Integer> authorIds,
+                                       Collection<Integer> excludedCategoryIds,
+                                       Collection<Integer> excludedAuthorIds) {
+        List<RoaringBitmap> terms = new ArrayList<>();
+        categoryGroups.forEach(group -> terms.add(union(byCategory, group)));
+        if (!authorIds.isEmpty()) {
+            terms.add(union(byAuthor, authorIds));
+        }
+        terms.sort(Comparator.comparingInt(RoaringBitmap::cardinality));
+
+        RoaringBitmap result = terms.isEmpty() ? allBooks : terms.get(0);
+        for (int i = 1; i < terms.size() && !result.isEmpty(); i++) {
+            result = result.and(terms.get(i));
+        }
+        if (!result.isEmpty() && !excludedCategoryIds.isEmpty()) {
+            result = result.andNot(union(byCategory, excludedCategoryIds));
+        }
+        if (!result.isEmpty() && !excludedAuthorIds.isEmpty()) {
+            result = result.andNot(union(byAuthor, excludedAuthorIds));
+        }
+        return result;
+    }
+
+    private static RoaringBitmap union(Map<Integer, RoaringBitmap> bitmaps,
+                                       Collection<Integer> ids) {
+        RoaringBitmap union = RoaringBitmap.EMPTY;
+        for (Integer id : ids) {
+            union = union.or(bitmaps.getOrDefault(id, RoaringBitmap.EMPTY));
+        }
+        return union;
+    }
+
+    Patch patch() {
+        return new Patch(this);
+    }
+
+    // Накапливает изменения членства книг и применяет их одной копией карт
+    static final class Patch {
+        private RoaringBitmap allBooks;
+        private final Map<Integer, RoaringBitmap> byCategory;
+        private final Map<Integer, RoaringBitmap> byAuthor;
+
+        private Patch(BookBitmapIndex base) {
+            this.allBooks = base.allBooks;
+            this.byCategory = new HashMap<>(base.byCategory);
+            this.byAuthor = new HashMap<>(base.byAuthor);
+        }
+
+        Patch addBook(int bookId, Integer authorId, int[] categoryIds) {
+            allBooks = allBooks.with(bookId);
+            if (authorId != null) {
+                byAuthor.merge(authorId, RoaringBitmap.of(bookId),
+                        (books, added) -> books.with(bookId));
+            }
+            for (int categoryId : categoryIds) {
+                byCategory.merge(categoryId, RoaringBitmap.of(bookId),
+                        (books, added) -> books.with(bookId));
+            }
+            return this;
+        }
+
+        Patch removeBook(int bookId, Integer authorId, int[] categoryIds) {
+            allBooks = allBooks.without(bookId);
+            if (authorId != null) {
+                byAuthor.computeIfPresent(authorId,
+                        (id, books) -> emptyToNull(books.without(bookId)));
+            }
+            for (int categoryId : categoryIds) {
+                byCategory.computeIfPresent(categoryId,
+                        (id, books) -> emptyToNull(books.without(bookId)));
+            }
+            return this;
+        }
+
+        BookBitmapIndex build() {
+            return new BookBitmapIndex(allBooks, Map.copyOf(byCategory), Map.copyOf(byAuthor));
+        }
+
+        private static RoaringBitmap emptyToNull(RoaringBitmap books) {
+            return books.isEmpty() ? null : books;
+        }
+    }
+}
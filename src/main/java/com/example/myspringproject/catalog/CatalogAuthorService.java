@@ -0,0 +1,130 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.dto.create.AuthorCreateDto;
+import com.example.myspringproject.dto.update.AuthorUpdateDto;
+import com.example.myspringproject.model.Author;
+import com.example.myspringproject.service.AuthorService;
+import com.example.myspringproject.service.impl.AuthorServiceImpl;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+// Чтение из снимка каталога, запись и чтение без актуального снимка — через AuthorServiceImpl
+// withBooks нужен только делегату: из снимка книги ничего не стоят
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogAuthorService implements AuthorService {
+
+    private static final String BY_CATEGORY_NOT_FOUND_MESSAGE =
+            "Авторы не найдены по категории книги: ";
+
+    private final AuthorServiceImpl delegate;
+    private final CatalogEngine engine;
+
+    public CatalogAuthorService(AuthorServiceImpl delegate, CatalogEngine engine) {
+        this.delegate = delegate;
+        this.engine = engine;
+    }
+
+    @Override
+    public List<Author> findAllAuthors(boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAllAuthors(withBooks);
+        }
+        return CatalogEntities.authors(snapshot, snapshot.allAuthors());
+    }
+
+    @Override
+    public Author findAuthorById(int id, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAuthorById(id, withBooks);
+        }
+        int author = snapshot.authorIndex(id);
+        if (author < 0) {
+            throw new EntityNotFoundException("Автор не найден с id: " + id);
+        }
+        return CatalogEntities.author(snapshot, author);
+    }
+
+    @Override
+    public List<Author> findAuthorsByIds(Collection<Integer> ids, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAuthorsByIds(ids, withBooks);
+        }
+        int[] indices = ids.stream().distinct()
+                .mapToInt(snapshot::authorIndex)
+                .filter(index -> index >= 0)
+                .toArray();
+        return CatalogEntities.authors(snapshot, indices);
+    }
+
+    @Override
+    public List<Author> findAuthorsByName(String name, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAuthorsByName(name, withBooks);
+        }
+        int[] authors = snapshot.authorsByName(name);
+        if (authors.length == 0) {
+            throw new EntityNotFoundException("Авторы не найдены по имени: " + name);
+        }
+        return CatalogEntities.authors(snapshot, authors);
+    }
+
+    @Override
+    public List<Author> findAuthorsByBookCategory(String category, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAuthorsByBookCategory(category, withBooks);
+        }
+        int[] authors = snapshot.authorsByCategoryName(category);
+        if (authors.length == 0) {
+            throw new EntityNotFoundException(BY_CATEGORY_NOT_FOUND_MESSAGE + category);
+        }
+        return CatalogEntities.authors(snapshot, authors);
+    }
+
+    @Override
+    public List<Author> findAuthorsByBookCategoryNative(String category) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAuthorsByBookCategoryNative(category);
+        }
+        return CatalogEntities.authors(snapshot, snapshot.authorsByCategoryName(category));
+    }
+
+    @Override
+    public List<Author> findAuthorsByBookCategoryPrefix(String prefix, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAuthorsByBookCategoryPrefix(prefix, withBooks);
+        }
+        int[] authors = snapshot.authorsByCategoryPrefix(prefix);
+        if (authors.length == 0) {
+            throw new EntityNotFoundException(BY_CATEGORY_NOT_FOUND_MESSAGE + prefix);
+        }
+        return CatalogEntities.authors(snapshot, authors);
+    }
+
+    @Override
+    public Author createAuthor(AuthorCreateDto dto) {
+        return delegate.createAuthor(dto);
+    }
+
+    @Override
+    public Author updateAuthor(int id, AuthorUpdateDto dto) {
+        return delegate.updateAuthor(id, dto);
+    }
+
+    @Override
+    public void deleteAuthor(int id) {
+        delegate.deleteAuthor(id);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.dto.get.BookFacetsGetDto;
+import com.example.myspringproject.dto.get.BookFilterDto;
+import com.example.myspringproject.service.BookFacetService;
+import com.example.myspringproject.service.BookFilter;
+import com.example.myspringproject.service.impl.BookFacetServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+// Фасеты /search/facets и /filter/facets по снимку; без актуального снимка — SQL
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogBookFacetService implements BookFacetService {
+
+    private final BookFacetServiceImpl delegate;
+    private final CatalogEngine engine;
+    private final int topN;
+
+    public CatalogBookFacetService(BookFacetServiceImpl delegate, CatalogEngine engine,
+                                   @Value("${library.facets.top-n:10}") int topN) {
+        this.delegate = delegate;
+        this.engine = engine;
+        this.topN = topN;
+    }
+
+    @Override
+    public BookFacetsGetDto searchFacets(String authorName, String title) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.searchFacets(authorName, title);
+        }
+        return CatalogFacets.of(snapshot, snapshot.searchBooks(authorName, title), topN);
+    }
+
+    @Override
+    public BookFacetsGetDto filterFacets(BookFilterDto filter) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.filterFacets(filter);
+        }
+        BookFilter.Resolved resolved =
+                CatalogBookFilterExecutor.resolve(snapshot, BookFilter.of(filter));
+        if (resolved.matchesNothing()) {
+            return BookFacetsGetDto.empty();
+        }
+        return CatalogFacets.of(snapshot,
+                CatalogBookFilterExecutor.matching(snapshot, resolved), topN);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.service.BookFilter;
+import com.example.myspringproject.service.BookFilterExecutor;
+import com.example.myspringproject.service.impl.BookFilterSqlExecutor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+// Фильтр по битовым картам снимка; без актуального снимка — SQL. Названия
+// сравниваются через String.compareTo и могут упорядочиться иначе, чем по
+// правилам сортировки базы
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogBookFilterExecutor implements BookFilterExecutor {
+
+    private final BookFilterSqlExecutor delegate;
+    private final CatalogEngine engine;
+
+    public CatalogBookFilterExecutor(BookFilterSqlExecutor delegate, CatalogEngine engine) {
+        this.delegate = delegate;
+        this.engine = engine;
+    }
+
+    @Override
+    public List<BookView> execute(BookFilter filter) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.execute(filter);
+        }
+        BookFilter.Resolved resolved = resolve(snapshot, filter);
+        if (resolved.matchesNothing()) {
+            return List.of();
+        }
+        return CatalogEntities.bookViews(snapshot, sortAndLimit(snapshot,
+                snapshot.booksOf(matching(snapshot, resolved)), resolved.sort(), resolved.limit()));
+    }
+
+    static BookFilter.Resolved resolve(CatalogSnapshot snapshot, BookFilter filter) {
+        return filter.resolve(snapshot.categoryIdsByLowerName(filter.categoryNames()));
+    }
+
+    static RoaringBitmap matching(CatalogSnapshot snapshot, BookFilter.Resolved resolved) {
+        return snapshot.bitmaps().booksMatching(resolved.categoryGroups(),
+                resolved.authorIds(), resolved.excludedCategoryIds(), resolved.excludedAuthorIds());
+    }
+
+    // Индексы снимка идут по возрастанию id, поэтому сортировка по id — это срез
+    static int[] sortAndLimit(CatalogSnapshot snapshot, int[] books,
+                              BookFilter.Sort sort, int limit) {
+        int size = Math.min(limit, books.length);
+        return switch (sort) {
+            case ID -> Arrays.copyOf(books, size);
+            case ID_DESC -> IntStream.range(0, size)
+                    .map(i -> books[books.length - 1 - i])
+                    .toArray();
+            case NAME, NAME_DESC -> {
+                Comparator<Integer> byName = Comparator.comparing(snapshot::bookName,
+                                Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                        .thenComparingInt(snapshot::bookId);
+                yield Arrays.stream(books).boxed()
+                        .sorted(sort == BookFilter.Sort.NAME ? byName : byName.reversed())
+                        .limit(limit)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+        };
+    }
+}
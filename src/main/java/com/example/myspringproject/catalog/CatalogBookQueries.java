@@ -0,0 +1,59 @@
+package com.example.myspringproject.catalog;
+
+import jakarta.persistence.EntityNotFoundException;
+
+// Поиск книг по снимку с теми же исключениями и сообщениями, что у
+// BookServiceImpl и BookViewServiceImpl; общий для CatalogBookService и
+// CatalogBookViewService.
+final class CatalogBookQueries {
+
+    private CatalogBookQueries() {
+    }
+
+    static int findById(CatalogSnapshot snapshot, int id) {
+        int book = snapshot.bookIndex(id);
+        if (book < 0) {
+            throw new EntityNotFoundException("Книга не найдена по id:" + id);
+        }
+        return book;
+    }
+
+    static int[] search(CatalogSnapshot snapshot, String author, String title) {
+        int[] books = snapshot.searchBooks(author, title);
+        if (books.length == 0) {
+            throw new EntityNotFoundException("Книги не найдена по автору: "
+                    + author + " или названию: " + title);
+        }
+        return books;
+    }
+
+    static int[] byCategory(CatalogSnapshot snapshot, String categoryName) {
+        int[] books = snapshot.booksByCategoryName(categoryName);
+        if (books.length == 0) {
+            throw new EntityNotFoundException("Книги не найдены по категории: " + categoryName);
+        }
+        return books;
+    }
+
+    static int[] byCategoryId(CatalogSnapshot snapshot, int categoryId) {
+        if (snapshot.categoryIndex(categoryId) < 0) {
+            throw new EntityNotFoundException("Категория не найдена с id: " + categoryId);
+        }
+        return snapshot.booksOf(snapshot.bitmaps().booksOfCategory(categoryId));
+    }
+
+    static int[] byAuthor(CatalogSnapshot snapshot, String authorName) {
+        int[] books = snapshot.booksByAuthorName(authorName);
+        if (books.length == 0) {
+            throw new EntityNotFoundException("Книги не найдены по автору: " + authorName);
+        }
+        return books;
+    }
+
+    static int[] byAuthorId(CatalogSnapshot snapshot, int authorId) {
+        if (snapshot.authorIndex(authorId) < 0) {
+            throw new EntityNotFoundException("Автор не найден с id: " + authorId);
+        }
+        return snapshot.booksOf(snapshot.bitmaps().booksOfAuthor(authorId));
+    }
+}
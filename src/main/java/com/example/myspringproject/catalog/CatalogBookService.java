@@ -0,0 +1,114 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.dto.create.BookCreateDto;
+import com.example.myspringproject.dto.update.BookUpdateDto;
+import com.example.myspringproject.model.Book;
+import com.example.myspringproject.service.BookService;
+import com.example.myspringproject.service.impl.BookServiceImpl;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+// Чтение из снимка каталога, запись и чтение без актуального снимка — через BookServiceImpl
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogBookService implements BookService {
+
+    private final BookServiceImpl delegate;
+    private final CatalogEngine engine;
+
+    public CatalogBookService(BookServiceImpl delegate, CatalogEngine engine) {
+        this.delegate = delegate;
+        this.engine = engine;
+    }
+
+    @Override
+    public List<Book> findAllBooks() {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAllBooks();
+        }
+        return CatalogEntities.books(snapshot, snapshot.allBooks());
+    }
+
+    @Override
+    public Book findBookById(int id) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBookById(id);
+        }
+        return CatalogEntities.book(snapshot, CatalogBookQueries.findById(snapshot, id));
+    }
+
+    @Override
+    public List<Book> searchBooks(String author, String title) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.searchBooks(author, title);
+        }
+        return CatalogEntities.books(snapshot,
+                CatalogBookQueries.search(snapshot, author, title));
+    }
+
+    @Override
+    public List<Book> findBooksByCategory(String categoryName) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByCategory(categoryName);
+        }
+        return CatalogEntities.books(snapshot,
+                CatalogBookQueries.byCategory(snapshot, categoryName));
+    }
+
+    @Override
+    public List<Book> findBooksByCategoryId(int categoryId) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByCategoryId(categoryId);
+        }
+        return CatalogEntities.books(snapshot,
+                CatalogBookQueries.byCategoryId(snapshot, categoryId));
+    }
+
+    @Override
+    public List<Book> findBooksByAuthor(String authorName) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByAuthor(authorName);
+        }
+        return CatalogEntities.books(snapshot,
+                CatalogBookQueries.byAuthor(snapshot, authorName));
+    }
+
+    @Override
+    public List<Book> findBooksByAuthorId(int authorId) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByAuthorId(authorId);
+        }
+        return CatalogEntities.books(snapshot,
+                CatalogBookQueries.byAuthorId(snapshot, authorId));
+    }
+
+    @Override
+    public Book createBook(BookCreateDto dto) {
+        return delegate.createBook(dto);
+    }
+
+    @Override
+    public Book updateBook(int id, BookUpdateDto dto) {
+        return delegate.updateBook(id, dto);
+    }
+
+    @Override
+    public void deleteBookById(int id) {
+        delegate.deleteBookById(id);
+    }
+
+    @Override
+    public List<Book> createBooks(List<BookCreateDto> dtos) {
+        return delegate.createBooks(dtos);
+    }
+}
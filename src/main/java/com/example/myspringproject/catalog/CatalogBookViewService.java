@@ -0,0 +1,106 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.service.BookViewService;
+import com.example.myspringproject.service.impl.BookViewServiceImpl;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+// GET /api/v2/books читает BookViewService; строки book_view собираются из снимка
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogBookViewService implements BookViewService {
+
+    private final BookViewServiceImpl delegate;
+    private final CatalogEngine engine;
+
+    public CatalogBookViewService(BookViewServiceImpl delegate, CatalogEngine engine) {
+        this.delegate = delegate;
+        this.engine = engine;
+    }
+
+    @Override
+    public List<BookView> findAllBooks() {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findAllBooks();
+        }
+        return CatalogEntities.bookViews(snapshot, snapshot.allBooks());
+    }
+
+    @Override
+    public BookView findBookById(int id) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBookById(id);
+        }
+        return CatalogEntities.bookView(snapshot, CatalogBookQueries.findById(snapshot, id));
+    }
+
+    @Override
+    public List<BookView> findBooksByIds(Collection<Integer> ids) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByIds(ids);
+        }
+        int[] indices = ids.stream().distinct()
+                .mapToInt(snapshot::bookIndex)
+                .filter(index -> index >= 0)
+                .toArray();
+        return CatalogEntities.bookViews(snapshot, indices);
+    }
+
+    @Override
+    public List<BookView> searchBooks(String author, String title) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.searchBooks(author, title);
+        }
+        return CatalogEntities.bookViews(snapshot,
+                CatalogBookQueries.search(snapshot, author, title));
+    }
+
+    @Override
+    public List<BookView> findBooksByCategory(String categoryName) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByCategory(categoryName);
+        }
+        return CatalogEntities.bookViews(snapshot,
+                CatalogBookQueries.byCategory(snapshot, categoryName));
+    }
+
+    @Override
+    public List<BookView> findBooksByCategoryId(int categoryId) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByCategoryId(categoryId);
+        }
+        return CatalogEntities.bookViews(snapshot,
+                CatalogBookQueries.byCategoryId(snapshot, categoryId));
+    }
+
+    @Override
+    public List<BookView> findBooksByAuthor(String authorName) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByAuthor(authorName);
+        }
+        return CatalogEntities.bookViews(snapshot,
+                CatalogBookQueries.byAuthor(snapshot, authorName));
+    }
+
+    @Override
+    public List<BookView> findBooksByAuthorId(int authorId) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findBooksByAuthorId(authorId);
+        }
+        return CatalogEntities.bookViews(snapshot,
+                CatalogBookQueries.byAuthorId(snapshot, authorId));
+    }
+}
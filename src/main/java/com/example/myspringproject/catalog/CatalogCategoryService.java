@@ -0,0 +1,118 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.dto.create.CategoryCreateDto;
+import com.example.myspringproject.dto.update.CategoryUpdateDto;
+import com.example.myspringproject.model.Category;
+import com.example.myspringproject.service.CategoryService;
+import com.example.myspringproject.service.impl.CategoryServiceImpl;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+// Чтение из снимка каталога, запись и чтение без актуального снимка — через CategoryServiceImpl
+// withBooks нужен только делегату: из снимка книги ничего не стоят
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogCategoryService implements CategoryService {
+
+    private final CategoryServiceImpl delegate;
+    private final CatalogEngine engine;
+
+    public CatalogCategoryService(CategoryServiceImpl delegate, CatalogEngine engine) {
+        this.delegate = delegate;
+        this.engine = engine;
+    }
+
+    @Override
+    public List<Category> getAllCategories(boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.getAllCategories(withBooks);
+        }
+        return CatalogEntities.categories(snapshot, snapshot.allCategories());
+    }
+
+    @Override
+    public Category getCategoryById(int id, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.getCategoryById(id, withBooks);
+        }
+        int category = snapshot.categoryIndex(id);
+        if (category < 0) {
+            throw new EntityNotFoundException("Категория не найдена по id:" + id);
+        }
+        return CatalogEntities.category(snapshot, category);
+    }
+
+    @Override
+    public List<Category> getCategoriesByIds(Collection<Integer> ids, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.getCategoriesByIds(ids, withBooks);
+        }
+        int[] indices = ids.stream().distinct()
+                .mapToInt(snapshot::categoryIndex)
+                .filter(index -> index >= 0)
+                .toArray();
+        return CatalogEntities.categories(snapshot, indices);
+    }
+
+    @Override
+    public List<Category> findCategoriesByName(String name, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findCategoriesByName(name, withBooks);
+        }
+        int[] categories = snapshot.categoriesByName(name);
+        if (categories.length == 0) {
+            throw new EntityNotFoundException("Категории не найдены по имени: " + name);
+        }
+        return CatalogEntities.categories(snapshot, categories);
+    }
+
+    @Override
+    public List<Category> findCategoriesByBook(String bookName, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findCategoriesByBook(bookName, withBooks);
+        }
+        int[] categories = snapshot.categoriesByBookName(bookName);
+        if (categories.length == 0) {
+            throw new EntityNotFoundException("Категории не найдены по книге: " + bookName);
+        }
+        return CatalogEntities.categories(snapshot, categories);
+    }
+
+    @Override
+    public List<Category> findCategoriesByBookId(int bookId, boolean withBooks) {
+        CatalogSnapshot snapshot = engine.current();
+        if (snapshot == null) {
+            return delegate.findCategoriesByBookId(bookId, withBooks);
+        }
+        int book = snapshot.bookIndex(bookId);
+        if (book < 0) {
+            throw new EntityNotFoundException("Книга не найдена с id: " + bookId);
+        }
+        return CatalogEntities.categories(snapshot, snapshot.categoriesOfBook(book));
+    }
+
+    @Override
+    public Category createCategory(CategoryCreateDto dto) {
+        return delegate.createCategory(dto);
+    }
+
+    @Override
+    public Category updateCategory(int id, CategoryUpdateDto dto) {
+        return delegate.updateCategory(id, dto);
+    }
+
+    @Override
+    public void deleteCategory(int id) {
+        delegate.deleteCategory(id);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.myspringproject.catalog;
+
+import java.util.Collection;
+import java.util.List;
+
+// Публикуется сервисами при каждой записи в книги, авторов или категории.
+// Движок каталога получает его после коммита транзакции. bookIds — книги,
+// которые создали, изменили или удалили; null, если изменение шире отдельных
+// книг и снимок нужно загрузить заново. entityIds — изменённые записи самого
+// entityType (для книг совпадают с bookIds); null, если их не перечислить.
+public record CatalogChangedEvent(Class<?> entityType, Collection<Integer> bookIds,
+                                  Collection<Integer> entityIds) {
+
+    public CatalogChangedEvent(Class<?> entityType) {
+        this(entityType, null, null);
+    }
+
+    public static CatalogChangedEvent books(Class<?> entityType, Collection<Integer> bookIds) {
+        List<Integer> ids = List.copyOf(bookIds);
+        return new CatalogChangedEvent(entityType, ids, ids);
+    }
+
+    // Автор или категория: затронутые книги не перечисляются, снимок
+    // загружается заново
+    public static CatalogChangedEvent of(Class<?> entityType, int id) {
+        return new CatalogChangedEvent(entityType, null, List.of(id));
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.myspringproject.catalog;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Держит текущий снимок каталога и пересобирает его после коммитов записи.
+// Пересборки выполняются в одном фоновом потоке и схлопываются: пока пересборка
+// стоит в очереди, новые изменения её не дублируют. Снимок заменяется целиком
+// одной записью volatile-поля, читатели блокировок не берут. Если с прошлой
+// сборки менялись только отдельные книги, из базы читаются лишь они, а снимок
+// достраивается из предыдущего.
+//
+// Изменения этого экземпляра приходят событиями CatalogChangedEvent и сразу
+// делают снимок устаревшим. Изменения других экземпляров и прямого SQL видны
+// только по журналу catalog_changes: его версия опрашивается раз в
+// library.catalog-engine.poll-interval, и до опроса снимок может их не знать.
+//
+// При старте снимок берётся из файла (CatalogSnapshotStore), если он свежий и
+// его удалось доиграть по журналу catalog_changes, и отдаётся читателям, пока
+// идёт полная загрузка из базы.
+@Component
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogEngine implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogEngine.class);
+
+    // Больше изменённых книг дешевле прочитать полной загрузкой
+    static final int MAX_INCREMENTAL_BOOKS = 1000;
+
+    private final CatalogLoader loader;
+    private final CatalogSnapshotStore snapshotStore;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final AtomicLong changeVersion = new AtomicLong();
+    // Версия журнала catalog_changes, до которой изменения уже учтены;
+    // -1 до первой полной загрузки
+    private final AtomicLong polledVersion = new AtomicLong(-1);
+    private final AtomicBoolean fullReloadPending = new AtomicBoolean(true);
+    private final Set<Integer> pendingBooks = ConcurrentHashMap.newKeySet();
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogEngine(CatalogLoader loader, CatalogSnapshotStore snapshotStore) {
+        this.loader = loader;
+        this.snapshotStore = snapshotStore;
+    }
+
+    // Снимок, если в нём учтены изменения этого экземпляра и журнала на момент
+    // последнего опроса, иначе null: тогда сервисы читают из базы, и клиент
+    // сразу видит свою запись
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        return current != null && current.getVersion() == changeVersion.get() ? current : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Версия файлового снимка — текущая: изменение, закоммиченное во время
+        // чтения файла, сразу сделает его устаревшим
+        CatalogSnapshot fromFile = snapshotStore.readIfFresh(changeVersion.get());
+        if (fromFile != null) {
+            snapshot = fromFile;
+        }
+        requestRebuild();
+    }
+
+    // fallbackExecution: массовые операции публикуют событие уже вне транзакции
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Изменение регистрируется до увеличения версии: сборка, увидевшая
+        // новую версию, увидит и его
+        if (event.bookIds() == null) {
+            fullReloadPending.set(true);
+        } else {
+            pendingBooks.addAll(event.bookIds());
+        }
+        changeVersion.incrementAndGet();
+        requestRebuild();
+    }
+
+    // Изменения журнала после учтённой версии ставятся в очередь так же, как
+    // события. Свои изменения экземпляр увидит здесь ещё раз; их повторная
+    // сборка по отдельным книгам дешёвая
+    @Scheduled(fixedDelayString = "${library.catalog-engine.poll-interval:1s}",
+            initialDelayString = "${library.catalog-engine.poll-interval:1s}")
+    public void pollChangeLog() {
+        long seen = polledVersion.get();
+        if (seen < 0) {
+            return;
+        }
+        try {
+            long latest = loader.loadChangeVersion();
+            if (latest <= seen) {
+                return;
+            }
+            CatalogLoader.Changes changes = loader.loadChangesSince(seen, MAX_INCREMENTAL_BOOKS);
+            CatalogSnapshot current = snapshot;
+            if (changes == null || current == null
+                    || !CatalogSnapshotStore.onlyBooksChanged(current, changes)) {
+                fullReloadPending.set(true);
+            } else {
+                pendingBooks.addAll(changes.bookIds());
+            }
+            polledVersion.accumulateAndGet(latest, Math::max);
+            changeVersion.incrementAndGet();
+            requestRebuild();
+        } catch (DataAccessException e) {
+            logger.warn("Catalog change log poll failed, will retry", e);
+        }
+    }
+
+    void requestRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    void rebuild() {
+        rebuildQueued.set(false);
+        // Версия берётся до чтения: изменение, закоммиченное во время загрузки,
+        // сделает снимок устаревшим и поставит в очередь ещё одну пересборку
+        long version = changeVersion.get();
+        boolean fullReload = fullReloadPending.getAndSet(false);
+        Set<Integer> changedBooks = drainPendingBooks();
+        long started = System.nanoTime();
+        try {
+            CatalogSnapshot previous = snapshot;
+            CatalogSnapshot loaded = null;
+            if (!fullReload && previous != null && changedBooks.size() <= MAX_INCREMENTAL_BOOKS) {
+                loaded = previous.withBooks(version, changedBooks, changedBooks.isEmpty()
+                        ? List.of() : loader.loadBooks(changedBooks));
+            }
+            boolean incremental = loaded != null;
+            long loadedChangeVersion = -1;
+            if (!incremental) {
+                // Полная загрузка видит всё, что журнал учёл к этому моменту
+                loadedChangeVersion = loader.loadChangeVersion();
+                loaded = loader.load(version);
+            }
+            snapshot = loaded;
+            polledVersion.accumulateAndGet(loadedChangeVersion, Math::max);
+            logger.info("Catalog snapshot {} built {} in {} ms: "
+                            + "{} books, {} authors, {} categories",
+                    version, incremental ? "incrementally" : "from scratch",
+                    (System.nanoTime() - started) / 1_000_000,
+                    loaded.bookCount(), loaded.authorCount(), loaded.categoryCount());
+        } catch (RuntimeException e) {
+            // Изменённые книги уже забраны из очереди, поэтому следующая сборка полная
+            fullReloadPending.set(true);
+            logger.error("Catalog snapshot {} rebuild failed, reads stay on the database",
+                    version, e);
+        }
+    }
+
+    private Set<Integer> drainPendingBooks() {
+        Set<Integer> drained = new HashSet<>();
+        for (Integer bookId : pendingBooks) {
+            if (pendingBooks.remove(bookId)) {
+                drained.add(bookId);
+            }
+        }
+        return drained;
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.model.Author;
+import com.example.myspringproject.model.Book;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.model.Category;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+// Собирает из снимка отсоединённые сущности ровно той глубины, которую читают
+// DTO: книга с автором и категориями, автор и категория со списком книг.
+// Вложенные объекты ссылок назад не содержат.
+final class CatalogEntities {
+
+    private CatalogEntities() {
+    }
+
+    static List<Book> books(CatalogSnapshot snapshot, int[] indices) {
+        return map(indices, book -> book(snapshot, book));
+    }
+
+    static Book book(CatalogSnapshot snapshot, int index) {
+        Book book = bookRef(snapshot, index);
+        int author = snapshot.bookAuthor(index);
+        if (author != CatalogSnapshot.NO_AUTHOR) {
+            book.setAuthor(authorRef(snapshot, author));
+        }
+        book.setCategories(map(snapshot.categoriesOfBook(index),
+                category -> categoryRef(snapshot, category)));
+        return book;
+    }
+
+    static List<BookView> bookViews(CatalogSnapshot snapshot, int[] indices) {
+        return map(indices, book -> bookView(snapshot, book));
+    }
+
+    static BookView bookView(CatalogSnapshot snapshot, int index) {
+        BookView view = new BookView();
+        view.setBookId(snapshot.bookId(index));
+        view.setBookName(snapshot.bookName(index));
+        int author = snapshot.bookAuthor(index);
+        if (author != CatalogSnapshot.NO_AUTHOR) {
+            view.setAuthorId(snapshot.authorId(author));
+            view.setAuthorName(snapshot.authorName(author));
+        }
+        int[] categories = snapshot.categoriesOfBook(index);
+        view.setCategoryIds(map(categories, snapshot::categoryId));
+        view.setCategoryNames(map(categories, snapshot::categoryName));
+        return view;
+    }
+
+    static List<Author> authors(CatalogSnapshot snapshot, int[] indices) {
+        return map(indices, author -> author(snapshot, author));
+    }
+
+    static Author author(CatalogSnapshot snapshot, int index) {
+        Author author = authorRef(snapshot, index);
+        author.setBooks(map(snapshot.booksOfAuthor(index), book -> bookRef(snapshot, book)));
+        return author;
+    }
+
+    static List<Category> categories(CatalogSnapshot snapshot, int[] indices) {
+        return map(indices, category -> category(snapshot, category));
+    }
+
+    static Category category(CatalogSnapshot snapshot, int index) {
+        Category category = categoryRef(snapshot, index);
+        category.setBooks(map(snapshot.booksOfCategory(index), book -> bookRef(snapshot, book)));
+        return category;
+    }
+
+    private static Book bookRef(CatalogSnapshot snapshot, int index) {
+        Book book = new Book();
+        book.setBookId(snapshot.bookId(index));
+        book.setBookName(snapshot.bookName(index));
+        return book;
+    }
+
+    private static Author authorRef(CatalogSnapshot snapshot, int index) {
+        Author author = new Author();
+        author.setAuthorId(snapshot.authorId(index));
+        author.setAuthorName(snapshot.authorName(index));
+        return author;
+    }
+
+    private static Category categoryRef(CatalogSnapshot snapshot, int index) {
+        Category category = new Category();
+        category.setCategoryId(snapshot.categoryId(index));
+        category.setCategoryName(snapshot.categoryName(index));
+        return category;
+    }
+
+    private static <T> List<T> map(int[] indices, IntFunction<T> mapper) {
+        List<T> result = new ArrayList<>(indices.length);
+        Arrays.stream(indices).forEach(index -> result.add(mapper.apply(index)));
+        return result;
+    }
+}
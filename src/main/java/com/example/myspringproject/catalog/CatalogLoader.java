@@ -0,0 +1,149 @@
+package com.example.myspringproject.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Читает каталог целиком четырьмя запросами в одной транзакции REPEATABLE READ,
+// чтобы книги, авторы и связи были согласованы между собой. Запросы идут прямо
+// в primary мимо Hibernate и маршрутизации: снимок собирается сразу после
+// коммита, а реплика может ещё не догнать его. Строки читаются курсором по
+// FETCH_SIZE: драйвер PostgreSQL иначе держит в памяти весь результат запроса.
+@Component
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogLoader {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+
+    public CatalogLoader(@Qualifier("primaryDataSource") DataSource primaryDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.snapshotTransaction = new TransactionTemplate(
+                new DataSourceTransactionManager(primaryDataSource));
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    public CatalogSnapshot load(long version) {
+        return snapshotTransaction.execute(status -> {
+            CatalogSnapshot.Builder builder = CatalogSnapshot.builder(version);
+            jdbcTemplate.query("SELECT author_id, name FROM authors ORDER BY author_id",
+                    (RowCallbackHandler) rs ->
+                            builder.addAuthor(rs.getInt(1), rs.getString(2)));
+            jdbcTemplate.query("SELECT category_id, name FROM categories ORDER BY category_id",
+                    (RowCallbackHandler) rs ->
+                            builder.addCategory(rs.getInt(1), rs.getString(2)));
+            jdbcTemplate.query("SELECT book_id, name, author_id FROM books ORDER BY book_id",
+                    (RowCallbackHandler) rs -> builder.addBook(rs.getInt(1),
+                            rs.getString(2), rs.getObject(3, Integer.class)));
+            jdbcTemplate.query("SELECT book_id, category_id FROM books_categories "
+                            + "ORDER BY book_id, category_id",
+                    (RowCallbackHandler) rs ->
+                            builder.addLink(rs.getInt(1), rs.getInt(2)));
+            return builder.build();
+        });
+    }
+
+    // Последняя закоммиченная версия журнала catalog_changes. Читается до
+    // загрузки снимка: всё, что она учитывает, загрузка уже увидит
+    public long loadChangeVersion() {
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT value FROM catalog_change_counters WHERE name = 'last_version'", Long.class);
+        return version == null ? 0 : version;
+    }
+
+    // Изменения журнала после version и текущее состояние изменённых записей,
+    // в одной транзакции. null, если записи об удалении после version уже
+    // сжаты или книг изменилось больше maxBooks: доиграть их нельзя или дорого
+    public Changes loadChangesSince(long version, int maxBooks) {
+        return snapshotTransaction.execute(status -> {
+            Long purgedThrough = jdbcTemplate.queryForObject("SELECT value FROM "
+                    + "catalog_change_counters WHERE name = 'purged_through'", Long.class);
+            if (purgedThrough != null && version < purgedThrough) {
+                return null;
+            }
+            Set<Integer> bookIds = new HashSet<>();
+            Set<Integer> authorIds = new HashSet<>();
+            Set<Integer> categoryIds = new HashSet<>();
+            jdbcTemplate.query("SELECT entity_type, entity_id FROM catalog_changes "
+                            + "WHERE version > ?",
+                    (RowCallbackHandler) rs -> {
+                        switch (rs.getString(1)) {
+                            case "books" -> bookIds.add(rs.getInt(2));
+                            case "authors" -> authorIds.add(rs.getInt(2));
+                            case "categories" -> categoryIds.add(rs.getInt(2));
+                            default -> {
+                            }
+                        }
+                    }, version);
+            if (bookIds.size() > maxBooks) {
+                return null;
+            }
+            return new Changes(bookIds, bookIds.isEmpty() ? List.of() : loadBooks(bookIds),
+                    authorIds, loadNames("authors", "author_id", authorIds),
+                    categoryIds, loadNames("categories", "category_id", categoryIds));
+        });
+    }
+
+    private Map<Integer, String> loadNames(String table, String idColumn, Set<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        if (!ids.isEmpty()) {
+            namedJdbcTemplate.query("SELECT " + idColumn + ", name FROM " + table
+                            + " WHERE " + idColumn + " IN (:ids)", Map.of("ids", ids),
+                    (RowCallbackHandler) rs -> names.put(rs.getInt(1), rs.getString(2)));
+        }
+        return names;
+    }
+
+    // Текущее состояние перечисленных книг; удалённых книг в результате нет
+    public List<CatalogSnapshot.BookRow> loadBooks(Collection<Integer> bookIds) {
+        record BookColumns(String name, Integer authorId) {
+        }
+        Map<String, Object> params = Map.of("ids", bookIds);
+        return snapshotTransaction.execute(status -> {
+            Map<Integer, BookColumns> books = new LinkedHashMap<>();
+            Map<Integer, List<Integer>> links = new HashMap<>();
+            namedJdbcTemplate.query("SELECT book_id, name, author_id FROM books "
+                            + "WHERE book_id IN (:ids)", params,
+                    (RowCallbackHandler) rs -> books.put(rs.getInt(1),
+                            new BookColumns(rs.getString(2), rs.getObject(3, Integer.class))));
+            namedJdbcTemplate.query("SELECT book_id, category_id FROM books_categories "
+                            + "WHERE book_id IN (:ids) ORDER BY book_id, category_id", params,
+                    (RowCallbackHandler) rs -> links.computeIfAbsent(rs.getInt(1),
+                            id -> new ArrayList<>()).add(rs.getInt(2)));
+            List<CatalogSnapshot.BookRow> rows = new ArrayList<>(books.size());
+            books.forEach((id, book) -> rows.add(new CatalogSnapshot.BookRow(id, book.name(),
+                    book.authorId(), links.getOrDefault(id, List.of()).stream()
+                            .mapToInt(Integer::intValue)
+                            .toArray())));
+            return rows;
+        });
+    }
+
+    // *Ids — изменённые записи; books, authorNames и categoryNames — текущее
+    // состояние тех из них, что не удалены
+    public record Changes(Set<Integer> bookIds, List<CatalogSnapshot.BookRow> books,
+                          Set<Integer> authorIds, Map<Integer, String> authorNames,
+                          Set<Integer> categoryIds, Map<Integer, String> categoryNames) {
+    }
+}
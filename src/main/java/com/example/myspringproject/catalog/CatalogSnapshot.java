@@ -0,0 +1,593 @@
+package com.example.myspringproject.catalog;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+// Неизменяемый снимок каталога в колоночном виде. Книги, авторы и категории
+// адресуются индексами в отсортированных массивах id; названия хранятся кодами
+// общего словаря, связи — в формате CSR (offsets + values), членство книг в
+// категориях и у авторов — дополнительно битовыми картами id. После сборки
+// снимок не меняется, поэтому читается из любых потоков без блокировок.
+public final class CatalogSnapshot {
+
+    static final int NO_AUTHOR = -1;
+    private static final byte MATCHED = 1;
+    private static final byte NOT_MATCHED = 2;
+
+    private final long version;
+    private final String[] names;
+    private final String[] lowerNames;
+
+    private final int[] bookIds;
+    private final int[] bookIndexById;
+    private final int[] bookNames;
+    private final int[] bookAuthors;
+    private final int[] bookCategoryOffsets;
+    private final int[] bookCategories;
+
+    private final int[] authorIds;
+    private final int[] authorNames;
+    private final int[] authorBookOffsets;
+    private final int[] authorBooks;
+
+    private final int[] categoryIds;
+    private final int[] categoryNames;
+    private final int[] categoryBookOffsets;
+    private final int[] categoryBooks;
+
+    private final BookBitmapIndex bitmaps;
+
+    private CatalogSnapshot(Builder builder) {
+        this.version = builder.version;
+        this.names = new String[builder.dictionary.size()];
+        builder.dictionary.forEach((name, code) -> names[code] = name);
+        this.lowerNames = Arrays.stream(names)
+                .map(name -> name == null ? null : name.toLowerCase(Locale.ROOT))
+                .toArray(String[]::new);
+
+        this.authorIds = builder.authorIds.toArray();
+        this.authorNames = builder.authorNames.toArray();
+        this.categoryIds = builder.categoryIds.toArray();
+        this.categoryNames = builder.categoryNames.toArray();
+        this.bookIds = builder.bookIds.toArray();
+        this.bookIndexById = denseIndex(bookIds);
+        this.bookNames = builder.bookNames.toArray();
+
+        int[] bookAuthorIds = builder.bookAuthorIds.toArray();
+        this.bookAuthors = new int[bookIds.length];
+        for (int b = 0; b < bookIds.length; b++) {
+            bookAuthors[b] = bookAuthorIds[b] == NO_AUTHOR
+                    ? NO_AUTHOR : indexOf(authorIds, bookAuthorIds[b]);
+        }
+
+        int[] linkBookIds = builder.linkBookIds.toArray();
+        int[] linkCategoryIds = builder.linkCategoryIds.toArray();
+        int[] linkBooks = new int[linkBookIds.length];
+        int[] linkCategories = new int[linkBookIds.length];
+        for (int l = 0; l < linkBookIds.length; l++) {
+            linkBooks[l] = bookIndex(linkBookIds[l]);
+            linkCategories[l] = indexOf(categoryIds, linkCategoryIds[l]);
+            if (linkBooks[l] < 0 || linkCategories[l] < 0) {
+                linkBooks[l] = -1;
+            }
+        }
+        this.bookCategoryOffsets = offsets(bookIds.length, linkBooks);
+        this.bookCategories = group(bookCategoryOffsets, linkBooks, linkCategories);
+
+        int[] allBooks = IntStream.range(0, bookIds.length).toArray();
+        this.authorBookOffsets = offsets(authorIds.length, bookAuthors);
+        this.authorBooks = group(authorBookOffsets, bookAuthors, allBooks);
+
+        // Книги внутри категории идут по возрастанию индекса, как и в остальных списках
+        int[] categoryOfLink = new int[bookCategories.length];
+        int[] bookOfLink = new int[bookCategories.length];
+        for (int b = 0; b < bookIds.length; b++) {
+            for (int l = bookCategoryOffsets[b]; l < bookCategoryOffsets[b + 1]; l++) {
+                categoryOfLink[l] = bookCategories[l];
+                bookOfLink[l] = b;
+            }
+        }
+        this.categoryBookOffsets = offsets(categoryIds.length, categoryOfLink);
+        this.categoryBooks = group(categoryBookOffsets, categoryOfLink, bookOfLink);
+        this.bitmaps = builder.bitmaps != null ? builder.bitmaps : buildBitmaps();
+    }
+
+    // Снимок из готовых колонок (файл снимка): пересчитываются только индекс по
+    // id и битовые карты
+    private CatalogSnapshot(long version, Columns columns) {
+        this.version = version;
+        this.names = columns.names();
+        this.lowerNames = columns.lowerNames();
+        this.bookIds = columns.bookIds();
+        this.bookIndexById = denseIndex(bookIds);
+        this.bookNames = columns.bookNames();
+        this.bookAuthors = columns.bookAuthors();
+        this.bookCategoryOffsets = columns.bookCategoryOffsets();
+        this.bookCategories = columns.bookCategories();
+        this.authorIds = columns.authorIds();
+        this.authorNames = columns.authorNames();
+        this.authorBookOffsets = columns.authorBookOffsets();
+        this.authorBooks = columns.authorBooks();
+        this.categoryIds = columns.categoryIds();
+        this.categoryNames = columns.categoryNames();
+        this.categoryBookOffsets = columns.categoryBookOffsets();
+        this.categoryBooks = columns.categoryBooks();
+        this.bitmaps = buildBitmaps();
+    }
+
+    private BookBitmapIndex buildBitmaps() {
+        Map<Integer, RoaringBitmap> byCategory = new HashMap<>();
+        for (int c = 0; c < categoryIds.length; c++) {
+            if (categoryBookOffsets[c] < categoryBookOffsets[c + 1]) {
+                byCategory.put(categoryIds[c],
+                        RoaringBitmap.of(bookIdsOf(categoryBookOffsets, categoryBooks, c)));
+            }
+        }
+        Map<Integer, RoaringBitmap> byAuthor = new HashMap<>();
+        for (int a = 0; a < authorIds.length; a++) {
+            if (authorBookOffsets[a] < authorBookOffsets[a + 1]) {
+                byAuthor.put(authorIds[a],
+                        RoaringBitmap.of(bookIdsOf(authorBookOffsets, authorBooks, a)));
+            }
+        }
+        return BookBitmapIndex.of(RoaringBitmap.of(bookIds), byCategory, byAuthor);
+    }
+
+    private int[] bookIdsOf(int[] offsets, int[] books, int group) {
+        return IntStream.range(offsets[group], offsets[group + 1])
+                .map(l -> bookIds[books[l]])
+                .toArray();
+    }
+
+    public static Builder builder(long version) {
+        return new Builder(version);
+    }
+
+    // Колонки не копируются: снимок и записанный из них файл их не меняют
+    Columns columns() {
+        return new Columns(names, lowerNames, bookIds, bookNames, bookAuthors,
+                bookCategoryOffsets, bookCategories,
+                authorIds, authorNames, authorBookOffsets, authorBooks,
+                categoryIds, categoryNames, categoryBookOffsets, categoryBooks);
+    }
+
+    static CatalogSnapshot fromColumns(long version, Columns columns) {
+        return new CatalogSnapshot(version, columns);
+    }
+
+    // Номер изменения каталога, после которого снимок собран
+    public long getVersion() {
+        return version;
+    }
+
+    public int bookCount() {
+        return bookIds.length;
+    }
+
+    public int authorCount() {
+        return authorIds.length;
+    }
+
+    public int categoryCount() {
+        return categoryIds.length;
+    }
+
+    public BookBitmapIndex bitmaps() {
+        return bitmaps;
+    }
+
+    // id категорий по названию в нижнем регистре, для перечисленных названий
+    public Map<String, Set<Integer>> categoryIdsByLowerName(Set<String> lowerNamesToFind) {
+        Map<String, Set<Integer>> ids = new HashMap<>();
+        if (!lowerNamesToFind.isEmpty()) {
+            for (int c = 0; c < categoryIds.length; c++) {
+                String name = lowerNames[categoryNames[c]];
+                if (name != null && lowerNamesToFind.contains(name)) {
+                    ids.computeIfAbsent(name, key -> new HashSet<>()).add(categoryIds[c]);
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Индексы книг из битовой карты id, по возрастанию
+    public int[] booksOf(RoaringBitmap books) {
+        int[] ids = books.toArray();
+        int size = 0;
+        for (int id : ids) {
+            int book = bookIndex(id);
+            if (book >= 0) {
+                ids[size++] = book;
+            }
+        }
+        return size == ids.length ? ids : Arrays.copyOf(ids, size);
+    }
+
+    // Новый снимок с изменёнными книгами: rows — текущее состояние книг из
+    // changedIds, которых нет среди rows, удалены. Колонки собираются заново в
+    // памяти, битовые карты правятся точечно. Возвращает null, если книга
+    // ссылается на автора или категорию, которых в снимке нет: тогда нужна
+    // полная загрузка.
+    public CatalogSnapshot withBooks(long newVersion, Collection<Integer> changedIds,
+                                     List<BookRow> rows) {
+        for (BookRow row : rows) {
+            if ((row.authorId() != null && authorIndex(row.authorId()) < 0)
+                    || Arrays.stream(row.categoryIds()).anyMatch(id -> categoryIndex(id) < 0)) {
+                return null;
+            }
+        }
+        List<BookRow> sortedRows = rows.stream()
+                .sorted(Comparator.comparingInt(BookRow::id))
+                .toList();
+
+        BookBitmapIndex.Patch patch = bitmaps.patch();
+        for (int bookId : changedIds) {
+            int book = bookIndex(bookId);
+            if (book >= 0) {
+                patch.removeBook(bookId, bookAuthorId(book), categoryIdsOf(book));
+            }
+        }
+        sortedRows.forEach(row -> patch.addBook(row.id(), row.authorId(), row.categoryIds()));
+
+        Builder builder = builder(newVersion);
+        for (int a = 0; a < authorIds.length; a++) {
+            builder.addAuthor(authorIds[a], authorName(a));
+        }
+        for (int c = 0; c < categoryIds.length; c++) {
+            builder.addCategory(categoryIds[c], categoryName(c));
+        }
+        int next = 0;
+        for (int b = 0; b < bookIds.length; b++) {
+            while (next < sortedRows.size() && sortedRows.get(next).id() < bookIds[b]) {
+                builder.addBook(sortedRows.get(next++));
+            }
+            if (next < sortedRows.size() && sortedRows.get(next).id() == bookIds[b]) {
+                builder.addBook(sortedRows.get(next++));
+            } else if (!changedIds.contains(bookIds[b])) {
+                builder.addBook(new BookRow(bookIds[b], bookName(b),
+                        bookAuthorId(b), categoryIdsOf(b)));
+            }
+        }
+        while (next < sortedRows.size()) {
+            builder.addBook(sortedRows.get(next++));
+        }
+        builder.bitmaps = patch.build();
+        return builder.build();
+    }
+
+    private Integer bookAuthorId(int book) {
+        return bookAuthors[book] == NO_AUTHOR ? null : authorIds[bookAuthors[book]];
+    }
+
+    private int[] categoryIdsOf(int book) {
+        return IntStream.range(bookCategoryOffsets[book], bookCategoryOffsets[book + 1])
+                .map(l -> categoryIds[bookCategories[l]])
+                .toArray();
+    }
+
+    // --- Поиск по id: индекс в снимке или -1 ---
+
+    public int bookIndex(int id) {
+        if (bookIndexById != null) {
+            return id >= 0 && id < bookIndexById.length ? bookIndexById[id] : -1;
+        }
+        return indexOf(bookIds, id);
+    }
+
+    public int authorIndex(int id) {
+        return indexOf(authorIds, id);
+    }
+
+    public int categoryIndex(int id) {
+        return indexOf(categoryIds, id);
+    }
+
+    // --- Колонки ---
+
+    public int bookId(int book) {
+        return bookIds[book];
+    }
+
+    public String bookName(int book) {
+        return names[bookNames[book]];
+    }
+
+    // Индекс автора книги или NO_AUTHOR
+    public int bookAuthor(int book) {
+        return bookAuthors[book];
+    }
+
+    public int authorId(int author) {
+        return authorIds[author];
+    }
+
+    public String authorName(int author) {
+        return names[authorNames[author]];
+    }
+
+    public int categoryId(int category) {
+        return categoryIds[category];
+    }
+
+    public String categoryName(int category) {
+        return names[categoryNames[category]];
+    }
+
+    // --- Связи ---
+
+    public int[] categoriesOfBook(int book) {
+        return Arrays.copyOfRange(bookCategories,
+                bookCategoryOffsets[book], bookCategoryOffsets[book + 1]);
+    }
+
+    public int[] booksOfAuthor(int author) {
+        return Arrays.copyOfRange(authorBooks,
+                authorBookOffsets[author], authorBookOffsets[author + 1]);
+    }
+
+    public int[] booksOfCategory(int category) {
+        return Arrays.copyOfRange(categoryBooks,
+                categoryBookOffsets[category], categoryBookOffsets[category + 1]);
+    }
+
+    // --- Запросы. Подстроки сравниваются без учёта регистра, как LOWER(..) LIKE
+    // в репозиториях; null-подстрока, как и в SQL, ничему не соответствует ---
+
+    public int[] allBooks() {
+        return IntStream.range(0, bookIds.length).toArray();
+    }
+
+    public int[] allAuthors() {
+        return IntStream.range(0, authorIds.length).toArray();
+    }
+
+    public int[] allCategories() {
+        return IntStream.range(0, categoryIds.length).toArray();
+    }
+
+    public int[] searchBooks(String authorName, String title) {
+        boolean[] authorMatches = match(authorNames, contains(authorName));
+        IntPredicate titleMatches = contains(title);
+        return IntStream.range(0, bookIds.length)
+                .filter(b -> (bookAuthors[b] != NO_AUTHOR && authorMatches[bookAuthors[b]])
+                        || titleMatches.test(bookNames[b]))
+                .toArray();
+    }
+
+    public int[] booksByCategoryName(String categoryName) {
+        boolean[] categoryMatches = match(categoryNames, contains(categoryName));
+        return IntStream.range(0, bookIds.length)
+                .filter(b -> anyLinked(bookCategoryOffsets, bookCategories, b, categoryMatches))
+                .toArray();
+    }
+
+    public int[] booksByAuthorName(String authorName) {
+        boolean[] authorMatches = match(authorNames, contains(authorName));
+        return IntStream.range(0, bookIds.length)
+                .filter(b -> bookAuthors[b] != NO_AUTHOR && authorMatches[bookAuthors[b]])
+                .toArray();
+    }
+
+    public int[] authorsByName(String name) {
+        return indices(match(authorNames, contains(name)));
+    }
+
+    public int[] authorsByCategoryName(String categoryName) {
+        return authorsByCategory(match(categoryNames, contains(categoryName)));
+    }
+
+    public int[] authorsByCategoryPrefix(String prefix) {
+        return authorsByCategory(match(categoryNames, startsWith(prefix)));
+    }
+
+    public int[] categoriesByName(String name) {
+        return indices(match(categoryNames, contains(name)));
+    }
+
+    public int[] categoriesByBookName(String bookName) {
+        IntPredicate bookMatches = contains(bookName);
+        return IntStream.range(0, categoryIds.length)
+                .filter(c -> IntStream.range(categoryBookOffsets[c], categoryBookOffsets[c + 1])
+                        .anyMatch(l -> bookMatches.test(bookNames[categoryBooks[l]])))
+                .toArray();
+    }
+
+    private int[] authorsByCategory(boolean[] categoryMatches) {
+        boolean[] authors = new boolean[authorIds.length];
+        for (int b = 0; b < bookIds.length; b++) {
+            if (bookAuthors[b] != NO_AUTHOR && !authors[bookAuthors[b]]
+                    && anyLinked(bookCategoryOffsets, bookCategories, b, categoryMatches)) {
+                authors[bookAuthors[b]] = true;
+            }
+        }
+        return indices(authors);
+    }
+
+    private IntPredicate contains(String needle) {
+        if (needle == null) {
+            return code -> false;
+        }
+        String lower = needle.toLowerCase(Locale.ROOT);
+        return code -> lowerNames[code] != null && lowerNames[code].contains(lower);
+    }
+
+    private IntPredicate startsWith(String prefix) {
+        if (prefix == null) {
+            return code -> false;
+        }
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        return code -> lowerNames[code] != null && lowerNames[code].startsWith(lower);
+    }
+
+    // Сравнение идёт по словарю: каждое различное название проверяется один раз
+    private boolean[] match(int[] nameColumn, IntPredicate predicate) {
+        byte[] byCode = new byte[names.length];
+        boolean[] result = new boolean[nameColumn.length];
+        for (int i = 0; i < nameColumn.length; i++) {
+            int code = nameColumn[i];
+            if (byCode[code] == 0) {
+                byCode[code] = predicate.test(code) ? MATCHED : NOT_MATCHED;
+            }
+            result[i] = byCode[code] == MATCHED;
+        }
+        return result;
+    }
+
+    private static boolean anyLinked(int[] offsets, int[] values, int row, boolean[] matches) {
+        for (int l = offsets[row]; l < offsets[row + 1]; l++) {
+            if (matches[values[l]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] indices(boolean[] flags) {
+        return IntStream.range(0, flags.length).filter(i -> flags[i]).toArray();
+    }
+
+    // id книг идут из последовательности и почти сплошные: если заняты хотя бы
+    // четверть значений до максимального, индекс по id читается из массива
+    private static int[] denseIndex(int[] sortedIds) {
+        if (sortedIds.length == 0 || sortedIds[0] < 0
+                || sortedIds[sortedIds.length - 1] / 4 >= sortedIds.length) {
+            return null;
+        }
+        int[] index = new int[sortedIds[sortedIds.length - 1] + 1];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < sortedIds.length; i++) {
+            index[sortedIds[i]] = i;
+        }
+        return index;
+    }
+
+    private static int indexOf(int[] sortedIds, int id) {
+        int index = Arrays.binarySearch(sortedIds, id);
+        return index < 0 ? -1 : index;
+    }
+
+    // CSR: offsets[g]..offsets[g + 1] — позиции значений группы g; отрицательные
+    // группы пропускаются
+    private static int[] offsets(int groups, int[] groupOf) {
+        int[] offsets = new int[groups + 1];
+        for (int group : groupOf) {
+            if (group >= 0) {
+                offsets[group + 1]++;
+            }
+        }
+        for (int g = 0; g < groups; g++) {
+            offsets[g + 1] += offsets[g];
+        }
+        return offsets;
+    }
+
+    private static int[] group(int[] offsets, int[] groupOf, int[] values) {
+        int[] grouped = new int[offsets[offsets.length - 1]];
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int i = 0; i < groupOf.length; i++) {
+            if (groupOf[i] >= 0) {
+                grouped[next[groupOf[i]]++] = values[i];
+            }
+        }
+        return grouped;
+    }
+
+    // Колонки снимка в том виде, в каком он их хранит: названия — коды в names,
+    // авторы книг и значения списков смежности — индексы, а не id
+    record Columns(String[] names, String[] lowerNames,
+                   int[] bookIds, int[] bookNames, int[] bookAuthors,
+                   int[] bookCategoryOffsets, int[] bookCategories,
+                   int[] authorIds, int[] authorNames, int[] authorBookOffsets, int[] authorBooks,
+                   int[] categoryIds, int[] categoryNames,
+                   int[] categoryBookOffsets, int[] categoryBooks) {
+    }
+
+    // Книга со связями, как её читает CatalogLoader; categoryIds по возрастанию
+    public record BookRow(int id, String name, Integer authorId, int[] categoryIds) {
+    }
+
+    // Строки добавляются в порядке возрастания id (как их отдаёт CatalogLoader)
+    public static final class Builder {
+        private final long version;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final IntColumn authorIds = new IntColumn();
+        private final IntColumn authorNames = new IntColumn();
+        private final IntColumn categoryIds = new IntColumn();
+        private final IntColumn categoryNames = new IntColumn();
+        private final IntColumn bookIds = new IntColumn();
+        private final IntColumn bookNames = new IntColumn();
+        private final IntColumn bookAuthorIds = new IntColumn();
+        private final IntColumn linkBookIds = new IntColumn();
+        private final IntColumn linkCategoryIds = new IntColumn();
+        private BookBitmapIndex bitmaps;
+
+        private Builder(long version) {
+            this.version = version;
+        }
+
+        public Builder addAuthor(int id, String name) {
+            authorIds.add(id);
+            authorNames.add(encode(name));
+            return this;
+        }
+
+        public Builder addCategory(int id, String name) {
+            categoryIds.add(id);
+            categoryNames.add(encode(name));
+            return this;
+        }
+
+        public Builder addBook(int id, String name, Integer authorId) {
+            bookIds.add(id);
+            bookNames.add(encode(name));
+            bookAuthorIds.add(authorId == null ? NO_AUTHOR : authorId);
+            return this;
+        }
+
+        private void addBook(BookRow row) {
+            addBook(row.id(), row.name(), row.authorId());
+            for (int categoryId : row.categoryIds()) {
+                addLink(row.id(), categoryId);
+            }
+        }
+
+        public Builder addLink(int bookId, int categoryId) {
+            linkBookIds.add(bookId);
+            linkCategoryIds.add(categoryId);
+            return this;
+        }
+
+        public CatalogSnapshot build() {
+            return new CatalogSnapshot(this);
+        }
+
+        private int encode(String name) {
+            return dictionary.computeIfAbsent(name, key -> dictionary.size());
+        }
+    }
+
+    private static final class IntColumn {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
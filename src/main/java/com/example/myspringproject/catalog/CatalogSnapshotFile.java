@@ -0,0 +1,332 @@
+package com.example.myspringproject.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Двоичный снимок каталога: колонки CatalogSnapshot как есть, чтобы при
+// чтении не собирать словарь и списки смежности заново. Все числа big-endian.
+//
+//   Заголовок (HEADER_SIZE байт):
+//     int magic "LCAT", int версия формата, long время записи (epoch ms),
+//     long версия журнала catalog_changes, которую учитывает снимок,
+//     int число секций, затем для каждой секции:
+//       int тег, long смещение, long длина, int число значений, int CRC32 секции;
+//     int CRC32 всех предыдущих байт заголовка.
+//   STRINGS, LOWER_STRINGS — словарь названий и он же в нижнем регистре:
+//     (int длина в байтах UTF-8 или -1 для null, байты).
+//   Остальные секции — массивы int из CatalogSnapshot.Columns: id, коды
+//   названий и списки смежности в формате CSR (offsets + values).
+//
+// Файл читается одним отображением FileChannel.map, поэтому он не больше 2 ГБ.
+// При изменении раскладки растёт FORMAT_VERSION: файл другой версии не
+// читается, и каталог загружается из базы.
+public final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x4C434154;
+    static final int FORMAT_VERSION = 2;
+
+    private static final int STRINGS = 1;
+    private static final int LOWER_STRINGS = 2;
+    private static final int BOOK_IDS = 3;
+    private static final int BOOK_NAMES = 4;
+    private static final int BOOK_AUTHORS = 5;
+    private static final int BOOK_CATEGORY_OFFSETS = 6;
+    private static final int BOOK_CATEGORIES = 7;
+    private static final int AUTHOR_IDS = 8;
+    private static final int AUTHOR_NAMES = 9;
+    private static final int AUTHOR_BOOK_OFFSETS = 10;
+    private static final int AUTHOR_BOOKS = 11;
+    private static final int CATEGORY_IDS = 12;
+    private static final int CATEGORY_NAMES = 13;
+    private static final int CATEGORY_BOOK_OFFSETS = 14;
+    private static final int CATEGORY_BOOKS = 15;
+    private static final int SECTIONS = 15;
+
+    private static final int SECTION_ENTRY_SIZE = 4 + 8 + 8 + 4 + 4;
+    static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + SECTIONS * SECTION_ENTRY_SIZE + 4;
+
+    private CatalogSnapshotFile() {
+    }
+
+    // Файл пишется во временный рядом и подменяет path атомарным
+    // переименованием: читатель видит либо прежний снимок, либо новый целиком
+    public static long write(Path path, CatalogSnapshot snapshot, long changeVersion)
+            throws IOException {
+        CatalogSnapshot.Columns columns = snapshot.columns();
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            SectionWriter writer = new SectionWriter(temporary);
+            try (writer) {
+                writer.strings(STRINGS, columns.names());
+                writer.strings(LOWER_STRINGS, columns.lowerNames());
+                writer.ints(BOOK_IDS, columns.bookIds());
+                writer.ints(BOOK_NAMES, columns.bookNames());
+                writer.ints(BOOK_AUTHORS, columns.bookAuthors());
+                writer.ints(BOOK_CATEGORY_OFFSETS, columns.bookCategoryOffsets());
+                writer.ints(BOOK_CATEGORIES, columns.bookCategories());
+                writer.ints(AUTHOR_IDS, columns.authorIds());
+                writer.ints(AUTHOR_NAMES, columns.authorNames());
+                writer.ints(AUTHOR_BOOK_OFFSETS, columns.authorBookOffsets());
+                writer.ints(AUTHOR_BOOKS, columns.authorBooks());
+                writer.ints(CATEGORY_IDS, columns.categoryIds());
+                writer.ints(CATEGORY_NAMES, columns.categoryNames());
+                writer.ints(CATEGORY_BOOK_OFFSETS, columns.categoryBookOffsets());
+                writer.ints(CATEGORY_BOOKS, columns.categoryBooks());
+            }
+            writer.writeHeader(temporary, changeVersion);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(path);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public static Contents read(Path path, long version) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Файл снимка больше 2 ГБ: " + path);
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Section[] sections = readHeader(file, path);
+            CatalogSnapshot.Columns columns = new CatalogSnapshot.Columns(
+                    readStrings(sections[STRINGS]),
+                    readStrings(sections[LOWER_STRINGS]),
+                    readInts(sections[BOOK_IDS]),
+                    readInts(sections[BOOK_NAMES]),
+                    readInts(sections[BOOK_AUTHORS]),
+                    readInts(sections[BOOK_CATEGORY_OFFSETS]),
+                    readInts(sections[BOOK_CATEGORIES]),
+                    readInts(sections[AUTHOR_IDS]),
+                    readInts(sections[AUTHOR_NAMES]),
+                    readInts(sections[AUTHOR_BOOK_OFFSETS]),
+                    readInts(sections[AUTHOR_BOOKS]),
+                    readInts(sections[CATEGORY_IDS]),
+                    readInts(sections[CATEGORY_NAMES]),
+                    readInts(sections[CATEGORY_BOOK_OFFSETS]),
+                    readInts(sections[CATEGORY_BOOKS]));
+            checkColumns(columns);
+            return new Contents(CatalogSnapshot.fromColumns(version, columns), file.getLong(16));
+        } catch (RuntimeException e) {
+            // CRC сошёлся, но содержимое не согласовано: файл записан с ошибкой
+            throw new IOException("Файл снимка повреждён: " + path, e);
+        }
+    }
+
+    // changeVersion — версия журнала catalog_changes из заголовка: изменения
+    // после неё нужно доиграть, прежде чем отдавать снимок
+    public record Contents(CatalogSnapshot snapshot, long changeVersion) {
+    }
+
+    private record Section(ByteBuffer data, int count) {
+    }
+
+    // Проверяет заголовок и CRC секций; секция с тегом t лежит в элементе t
+    private static Section[] readHeader(ByteBuffer file, Path path) throws IOException {
+        if (file.limit() < HEADER_SIZE || file.getInt(0) != MAGIC) {
+            throw new IOException("Не файл снимка каталога: " + path);
+        }
+        if (file.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Неподдерживаемая версия формата снимка "
+                    + file.getInt(4) + ": " + path);
+        }
+        if (crc(file.slice(0, HEADER_SIZE - 4)) != file.getInt(HEADER_SIZE - 4)
+                || file.getInt(24) != SECTIONS) {
+            throw new IOException("Повреждён заголовок снимка: " + path);
+        }
+        Section[] sections = new Section[SECTIONS + 1];
+        int entry = 28;
+        for (int i = 0; i < SECTIONS; i++, entry += SECTION_ENTRY_SIZE) {
+            int tag = file.getInt(entry);
+            long offset = file.getLong(entry + 4);
+            long length = file.getLong(entry + 12);
+            if (tag < 1 || tag > SECTIONS || sections[tag] != null || offset < HEADER_SIZE
+                    || length < 0 || offset + length > file.limit()) {
+                throw new IOException("Неверная запись о секции " + tag + ": " + path);
+            }
+            ByteBuffer data = file.slice((int) offset, (int) length);
+            if (crc(data) != file.getInt(entry + 24)) {
+                throw new IOException("Неверная контрольная сумма секции " + tag + ": " + path);
+            }
+            sections[tag] = new Section(data, file.getInt(entry + 20));
+        }
+        return sections;
+    }
+
+    private static String[] readStrings(Section section) {
+        ByteBuffer data = section.data();
+        String[] strings = new String[section.count()];
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = data.getInt();
+            if (length >= 0) {
+                if (bytes.length < length) {
+                    bytes = new byte[Math.max(length, bytes.length * 2)];
+                }
+                data.get(bytes, 0, length);
+                strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+        }
+        check(!data.hasRemaining(), "лишние байты в таблице строк");
+        return strings;
+    }
+
+    private static int[] readInts(Section section) {
+        check(section.data().remaining() == section.count() * 4L, "длина секции");
+        int[] values = new int[section.count()];
+        section.data().asIntBuffer().get(values);
+        return values;
+    }
+
+    // Проверки, без которых снимок упал бы уже на запросах: длины колонок,
+    // CSR-смещения, диапазоны индексов и возрастание id
+    private static void checkColumns(CatalogSnapshot.Columns c) {
+        int books = c.bookIds().length;
+        int authors = c.authorIds().length;
+        int categories = c.categoryIds().length;
+        int names = c.names().length;
+        check(c.lowerNames().length == names, "словарь в нижнем регистре");
+        check(c.bookNames().length == books && c.bookAuthors().length == books,
+                "колонки книг");
+        check(c.authorNames().length == authors, "колонки авторов");
+        check(c.categoryNames().length == categories, "колонки категорий");
+        checkAscending(c.bookIds());
+        checkAscending(c.authorIds());
+        checkAscending(c.categoryIds());
+        checkRange(c.bookNames(), 0, names);
+        checkRange(c.authorNames(), 0, names);
+        checkRange(c.categoryNames(), 0, names);
+        checkRange(c.bookAuthors(), CatalogSnapshot.NO_AUTHOR, authors);
+        checkCsr(c.bookCategoryOffsets(), books, c.bookCategories(), categories);
+        checkCsr(c.authorBookOffsets(), authors, c.authorBooks(), books);
+        checkCsr(c.categoryBookOffsets(), categories, c.categoryBooks(), books);
+    }
+
+    private static void checkAscending(int[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            check(ids[i - 1] < ids[i], "id не по возрастанию");
+        }
+    }
+
+    private static void checkRange(int[] values, int from, int to) {
+        for (int value : values) {
+            check(value >= from && value < to, "индекс вне диапазона");
+        }
+    }
+
+    private static void checkCsr(int[] offsets, int groups, int[] values, int valueRange) {
+        check(offsets.length == groups + 1 && offsets[0] == 0
+                && offsets[groups] == values.length, "смещения списков смежности");
+        for (int g = 0; g < groups; g++) {
+            check(offsets[g] <= offsets[g + 1], "смещения списков смежности");
+        }
+        checkRange(values, 0, valueRange);
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            throw new IllegalStateException("Несогласованный снимок: " + what);
+        }
+    }
+
+    private static int crc(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes.duplicate());
+        return (int) crc.getValue();
+    }
+
+    // Пишет секции подряд после места под заголовок, запоминая их смещения и CRC
+    private static final class SectionWriter implements AutoCloseable {
+        private static final int CHUNK = 1 << 14;
+
+        private final CheckedOutputStream checked;
+        private final DataOutputStream out;
+        private final List<long[]> directory = new ArrayList<>();
+
+        SectionWriter(Path path) throws IOException {
+            this.checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(path), 1 << 16), new CRC32());
+            this.out = new DataOutputStream(checked);
+            out.write(new byte[HEADER_SIZE]);
+        }
+
+        void strings(int tag, String[] values) throws IOException {
+            long start = begin();
+            for (String value : values) {
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            end(tag, start, values.length);
+        }
+
+        void ints(int tag, int[] values) throws IOException {
+            long start = begin();
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK * 4);
+            for (int from = 0; from < values.length; from += CHUNK) {
+                int length = Math.min(CHUNK, values.length - from);
+                chunk.clear();
+                chunk.asIntBuffer().put(values, from, length);
+                out.write(chunk.array(), 0, length * 4);
+            }
+            end(tag, start, values.length);
+        }
+
+        private long begin() {
+            checked.getChecksum().reset();
+            return out.size();
+        }
+
+        private void end(int tag, long start, int count) {
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Снимок каталога больше 2 ГБ");
+            }
+            directory.add(new long[] {tag, start, out.size() - start, count,
+                    checked.getChecksum().getValue()});
+        }
+
+        // Вызывается после close(): дописывает заголовок в начало файла и
+        // сбрасывает файл на диск до переименования
+        void writeHeader(Path path, long changeVersion) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(System.currentTimeMillis())
+                    .putLong(changeVersion).putInt(directory.size());
+            for (long[] section : directory) {
+                header.putInt((int) section[0]).putLong(section[1]).putLong(section[2])
+                        .putInt((int) section[3]).putInt((int) section[4]);
+            }
+            header.putInt(crc(header.slice(0, HEADER_SIZE - 4)));
+            header.flip();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.dto.get.CatalogSnapshotFileGetDto;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+// Файл снимка каталога (CatalogSnapshotFile): пишется по запросу администратора
+// и читается при старте вместо полной загрузки из базы. В заголовке файла
+// хранится версия журнала catalog_changes; изменения после неё доигрываются
+// до того, как снимок отдаётся читателям
+@Component
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private final CatalogLoader loader;
+    private final Path path;
+    private final Duration maxAge;
+
+    public CatalogSnapshotStore(
+            CatalogLoader loader,
+            @Value("${library.catalog-engine.snapshot.path:catalog.snapshot}") String path,
+            @Value("${library.catalog-engine.snapshot.max-age:1h}") Duration maxAge) {
+        this.loader = loader;
+        this.path = Path.of(path);
+        this.maxAge = maxAge;
+    }
+
+    // Каталог читается из primary курсором (CatalogLoader) и записывается
+    // колонками собранного снимка. Версия журнала берётся до загрузки: изменение,
+    // закоммиченное во время неё, при старте просто доиграется ещё раз
+    public synchronized CatalogSnapshotFileGetDto write() throws IOException {
+        long started = System.nanoTime();
+        long changeVersion = loader.loadChangeVersion();
+        CatalogSnapshot snapshot = loader.load(0);
+        long bytes = CatalogSnapshotFile.write(path, snapshot, changeVersion);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Catalog snapshot file {} written in {} ms: {} bytes", path, millis, bytes);
+        return new CatalogSnapshotFileGetDto(path.toAbsolutePath().toString(), bytes,
+                snapshot.authorCount(), snapshot.categoryCount(), snapshot.bookCount(),
+                snapshot.columns().bookCategories().length, millis);
+    }
+
+    // Снимок из файла, если он есть, не старше max-age и его можно довести до
+    // текущего состояния по журналу; иначе null, и каталог загружается из базы.
+    // Ошибка чтения не мешает старту
+    public CatalogSnapshot readIfFresh(long version) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            Instant written = Files.getLastModifiedTime(path).toInstant();
+            if (written.isBefore(Instant.now().minus(maxAge))) {
+                logger.info("Catalog snapshot file {} is older than {}, ignored", path, maxAge);
+                return null;
+            }
+            long started = System.nanoTime();
+            CatalogSnapshotFile.Contents file = CatalogSnapshotFile.read(path, version);
+            CatalogLoader.Changes changes = loader.loadChangesSince(file.changeVersion(),
+                    CatalogEngine.MAX_INCREMENTAL_BOOKS);
+            CatalogSnapshot snapshot = changes == null ? null
+                    : replay(file.snapshot(), changes, version);
+            if (snapshot == null) {
+                logger.info("Catalog snapshot file {} at change version {} cannot be replayed "
+                        + "from the change log, ignored", path, file.changeVersion());
+                return null;
+            }
+            logger.info("Catalog snapshot read from {} in {} ms, {} books replayed: "
+                            + "{} books, {} authors, {} categories",
+                    path, (System.nanoTime() - started) / 1_000_000, changes.bookIds().size(),
+                    snapshot.bookCount(), snapshot.authorCount(), snapshot.categoryCount());
+            return snapshot;
+        } catch (IOException | DataAccessException e) {
+            logger.warn("Catalog snapshot file {} could not be read", path, e);
+            return null;
+        }
+    }
+
+    // Доигрывает изменённые книги. Авторы и категории хранятся в снимке
+    // с названиями, поэтому если они сами появились, пропали или переименованы,
+    // возвращается null: проще загрузить каталог заново
+    static CatalogSnapshot replay(CatalogSnapshot snapshot, CatalogLoader.Changes changes,
+                                  long version) {
+        if (!onlyBooksChanged(snapshot, changes)) {
+            return null;
+        }
+        return changes.bookIds().isEmpty() ? snapshot
+                : snapshot.withBooks(version, changes.bookIds(), changes.books());
+    }
+
+    // Авторы и категории из changes в снимке есть с теми же названиями
+    // (или отсутствуют и там, и в базе)
+    static boolean onlyBooksChanged(CatalogSnapshot snapshot, CatalogLoader.Changes changes) {
+        return unchanged(changes.authorIds(), changes.authorNames(),
+                snapshot::authorIndex, snapshot::authorName)
+                && unchanged(changes.categoryIds(), changes.categoryNames(),
+                snapshot::categoryIndex, snapshot::categoryName);
+    }
+
+    private static boolean unchanged(Set<Integer> ids, Map<Integer, String> current,
+                                     IntUnaryOperator index, IntFunction<String> name) {
+        for (int id : ids) {
+            int position = index.applyAsInt(id);
+            boolean exists = current.containsKey(id);
+            if (position < 0 ? exists
+                    : !exists || !Objects.equals(current.get(id), name.apply(position))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
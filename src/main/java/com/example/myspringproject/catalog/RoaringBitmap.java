@@ -0,0 +1,545 @@
+package com.example.myspringproject.catalog;
+
+import java.util.Arrays;
+
+// Сжатое множество неотрицательных int в духе Roaring: значения делятся на
+// блоки по старшим 16 битам, блок хранит младшие 16 бит отсортированным
+// массивом (до 4096 значений) или битовой картой на 65536 бит — что меньше.
+// Экземпляры неизменяемы: with/without копируют только затронутый блок,
+// остальные блоки разделяются с исходной картой.
+public final class RoaringBitmap {
+
+    public static final RoaringBitmap EMPTY = new RoaringBitmap(new char[0], new Container[0]);
+
+    // Больше 4096 значений битовая карта (8 КБ) компактнее массива char
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1 << 10;
+
+    private final char[] keys;
+    private final Container[] containers;
+
+    private RoaringBitmap(char[] keys, Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    public static RoaringBitmap of(int... values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        char[] keys = new char[sorted.length];
+        Container[] containers = new Container[sorted.length];
+        int count = 0;
+        int from = 0;
+        while (from < sorted.length) {
+            checkValue(sorted[from]);
+            char key = high(sorted[from]);
+            int to = from;
+            while (to < sorted.length && high(sorted[to]) == key) {
+                to++;
+            }
+            keys[count] = key;
+            containers[count++] = Container.of(sorted, from, to);
+            from = to;
+        }
+        return new RoaringBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count));
+    }
+
+    public boolean contains(int value) {
+        int i = Arrays.binarySearch(keys, high(value));
+        return value >= 0 && i >= 0 && containers[i].contains(low(value));
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (Container container : containers) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    // Значения по возрастанию
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int position = 0;
+        for (int i = 0; i < keys.length; i++) {
+            position = containers[i].fill(keys[i] << 16, values, position);
+        }
+        return values;
+    }
+
+    public RoaringBitmap with(int value) {
+        checkValue(value);
+        int i = Arrays.binarySearch(keys, high(value));
+        if (i < 0) {
+            int at = -i - 1;
+            return new RoaringBitmap(insert(keys, at, high(value)),
+                    insert(containers, at, new ArrayContainer(new char[] {low(value)})));
+        }
+        Container updated = containers[i].add(low(value));
+        return updated == containers[i] ? this : replace(i, updated);
+    }
+
+    public RoaringBitmap without(int value) {
+        int i = Arrays.binarySearch(keys, high(value));
+        if (value < 0 || i < 0) {
+            return this;
+        }
+        Container updated = containers[i].remove(low(value));
+        return updated == containers[i] ? this : replace(i, updated);
+    }
+
+    public RoaringBitmap and(RoaringBitmap other) {
+        Merge merge = new Merge(Math.min(keys.length, other.keys.length));
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                merge.add(keys[i], containers[i++].and(other.containers[j++]));
+            }
+        }
+        return merge.result();
+    }
+
+    // Мощность пересечения без сборки карты результата
+    public int andCardinality(RoaringBitmap other) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += containers[i++].andCardinality(other.containers[j++]);
+            }
+        }
+        return cardinality;
+    }
+
+    public RoaringBitmap or(RoaringBitmap other) {
+        Merge merge = new Merge(keys.length + other.keys.length);
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                merge.add(keys[i], containers[i++]);
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                merge.add(other.keys[j], other.containers[j++]);
+            } else {
+                merge.add(keys[i], containers[i++].or(other.containers[j++]));
+            }
+        }
+        return merge.result();
+    }
+
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        Merge merge = new Merge(keys.length);
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            merge.add(keys[i], j < other.keys.length && other.keys[j] == keys[i]
+                    ? containers[i].andNot(other.containers[j]) : containers[i]);
+        }
+        return merge.result();
+    }
+
+    private RoaringBitmap replace(int i, Container updated) {
+        if (updated == null) {
+            return new RoaringBitmap(remove(keys, i), remove(containers, i));
+        }
+        Container[] copy = containers.clone();
+        copy[i] = updated;
+        return new RoaringBitmap(keys, copy);
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Отрицательное значение в битовой карте: " + value);
+        }
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private static char[] insert(char[] array, int at, char value) {
+        char[] copy = new char[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(array, at, copy, at + 1, array.length - at);
+        return copy;
+    }
+
+    private static Container[] insert(Container[] array, int at, Container value) {
+        Container[] copy = new Container[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(array, at, copy, at + 1, array.length - at);
+        return copy;
+    }
+
+    private static char[] remove(char[] array, int at) {
+        char[] copy = new char[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        System.arraycopy(array, at + 1, copy, at, copy.length - at);
+        return copy;
+    }
+
+    private static Container[] remove(Container[] array, int at) {
+        Container[] copy = new Container[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, at);
+        System.arraycopy(array, at + 1, copy, at, copy.length - at);
+        return copy;
+    }
+
+    // Собирает результат операции, пропуская опустевшие блоки
+    private static final class Merge {
+        private final char[] keys;
+        private final Container[] containers;
+        private int size;
+
+        Merge(int capacity) {
+            keys = new char[capacity];
+            containers = new Container[capacity];
+        }
+
+        void add(char key, Container container) {
+            if (container != null) {
+                keys[size] = key;
+                containers[size++] = container;
+            }
+        }
+
+        RoaringBitmap result() {
+            return size == 0 ? EMPTY
+                    : new RoaringBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size));
+        }
+    }
+
+    // Блок из младших 16 бит. Операции возвращают новый блок, null вместо
+    // пустого и тот же экземпляр, если ничего не изменилось
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        static Container of(int[] sorted, int from, int to) {
+            char[] values = new char[to - from];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                if (size == 0 || values[size - 1] != low(sorted[i])) {
+                    values[size++] = low(sorted[i]);
+                }
+            }
+            if (size <= ARRAY_MAX) {
+                return new ArrayContainer(Arrays.copyOf(values, size));
+            }
+            long[] words = new long[WORDS];
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, size);
+        }
+
+        // Битовая карта превращается в массив, как только помещается в него
+        static Container of(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new BitmapContainer(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int w = 0; w < words.length; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[size++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract long[] toWords();
+
+        abstract int fill(int base, int[] target, int position);
+    }
+
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int i = Arrays.binarySearch(values, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (values.length == ARRAY_MAX) {
+                long[] words = toWords();
+                words[value >>> 6] |= 1L << value;
+                return new BitmapContainer(words, ARRAY_MAX + 1);
+            }
+            return new ArrayContainer(insert(values, -i - 1, value));
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, value);
+            if (i < 0) {
+                return this;
+            }
+            return values.length == 1 ? null : new ArrayContainer(RoaringBitmap.remove(values, i));
+        }
+
+        @Override
+        Container and(Container other) {
+            return filter(other, true);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof BitmapContainer) {
+                int cardinality = 0;
+                for (char value : values) {
+                    if (other.contains(value)) {
+                        cardinality++;
+                    }
+                }
+                return cardinality;
+            }
+            char[] others = ((ArrayContainer) other).values;
+            int cardinality = 0;
+            int i = 0;
+            int j = 0;
+            while (i < values.length && j < others.length) {
+                if (values[i] < others[j]) {
+                    i++;
+                } else if (values[i] > others[j]) {
+                    j++;
+                } else {
+                    cardinality++;
+                    i++;
+                    j++;
+                }
+            }
+            return cardinality;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            char[] others = ((ArrayContainer) other).values;
+            char[] union = new char[values.length + others.length];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < values.length || j < others.length) {
+                if (j == others.length || (i < values.length && values[i] < others[j])) {
+                    union[size++] = values[i++];
+                } else if (i == values.length || values[i] > others[j]) {
+                    union[size++] = others[j++];
+                } else {
+                    union[size++] = values[i++];
+                    j++;
+                }
+            }
+            return size <= ARRAY_MAX
+                    ? new ArrayContainer(Arrays.copyOf(union, size))
+                    : Container.of(toWords(union, size));
+        }
+
+        @Override
+        Container andNot(Container other) {
+            return filter(other, false);
+        }
+
+        @Override
+        long[] toWords() {
+            return toWords(values, values.length);
+        }
+
+        @Override
+        int fill(int base, int[] target, int position) {
+            for (char value : values) {
+                target[position++] = base | value;
+            }
+            return position;
+        }
+
+        private Container filter(Container other, boolean keepContained) {
+            char[] kept = new char[values.length];
+            int size = 0;
+            for (char value : values) {
+                if (other.contains(value) == keepContained) {
+                    kept[size++] = value;
+                }
+            }
+            if (size == values.length) {
+                return this;
+            }
+            return size == 0 ? null : new ArrayContainer(Arrays.copyOf(kept, size));
+        }
+
+        private static long[] toWords(char[] values, int size) {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            if (contains(value)) {
+                return this;
+            }
+            long[] copy = words.clone();
+            copy[value >>> 6] |= 1L << value;
+            return new BitmapContainer(copy, cardinality + 1);
+        }
+
+        @Override
+        Container remove(char value) {
+            if (!contains(value)) {
+                return this;
+            }
+            long[] copy = words.clone();
+            copy[value >>> 6] &= ~(1L << value);
+            return cardinality - 1 > ARRAY_MAX ? new BitmapContainer(copy, cardinality - 1)
+                    : Container.of(copy);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] others = wordsOf(other);
+            long[] result = new long[WORDS];
+            for (int w = 0; w < WORDS; w++) {
+                result[w] = words[w] & others[w];
+            }
+            return Container.of(result);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] others = wordsOf(other);
+            int cardinality = 0;
+            for (int w = 0; w < WORDS; w++) {
+                cardinality += Long.bitCount(words[w] & others[w]);
+            }
+            return cardinality;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] others = wordsOf(other);
+            long[] result = new long[WORDS];
+            for (int w = 0; w < WORDS; w++) {
+                result[w] = words[w] | others[w];
+            }
+            return Container.of(result);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] others = wordsOf(other);
+            long[] result = new long[WORDS];
+            for (int w = 0; w < WORDS; w++) {
+                result[w] = words[w] & ~others[w];
+            }
+            return Container.of(result);
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        // Только для чтения: слова битовой карты без копирования
+        private static long[] wordsOf(Container container) {
+            return container instanceof BitmapContainer bitmap ? bitmap.words : container.toWords();
+        }
+
+        @Override
+        int fill(int base, int[] target, int position) {
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    target[position++] = base | (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+            }
+            return position;
+        }
+    }
+}
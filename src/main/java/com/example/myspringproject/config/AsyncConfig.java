@@ -1,16 +1,24 @@
 package com.example.myspringproject.config;
 
 import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+// spring.threads.virtual.enabled (Java 21+) переводит на виртуальные потоки и
+// Tomcat, и @Async: задача получает свой виртуальный поток, а число
+// одновременных задач ограничивает library.async.max-concurrency
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
@@ -20,4 +28,16 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    // Сверх лимита вызывающий поток ждёт свободного места; для запроса на
+    // виртуальном потоке это дешёвое ожидание вместо очереди пула
+    @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualTaskExecutor(
+            @Value("${library.async.max-concurrency:5}") int maxConcurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("LogGen-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrency);
+        return executor;
+    }
+}
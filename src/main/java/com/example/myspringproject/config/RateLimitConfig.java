@@ -0,0 +1,17 @@
+package com.example.myspringproject.config;
+
+import com.example.myspringproject.limit.RateLimitProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    // Список правил не читается через @Value, поэтому привязывается целиком
+    @Bean
+    @ConfigurationProperties("library.rate-limit")
+    public RateLimitProperties rateLimitProperties() {
+        return new RateLimitProperties();
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.myspringproject.config;
 
+import com.example.myspringproject.controller.FieldSet;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import org.springdoc.core.customizers.OperationCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.GetMapping;
 
 @Configuration
 public class SwaggerConfig {
@@ -16,4 +22,26 @@ public class SwaggerConfig {
                         .version("1.0")
                         .description("API для управления книгами, авторами, категориями и логами"));
     }
-}
\ No newline at end of file
+
+    // fields= понимает любой GET (FieldSetResponseAdvice), но в сигнатуре
+    // метода параметр есть не везде, поэтому он добавляется в описание здесь
+    @Bean
+    public OperationCustomizer fieldsParameter() {
+        return (operation, handlerMethod) -> {
+            boolean get = AnnotatedElementUtils.hasAnnotation(
+                    handlerMethod.getMethod(), GetMapping.class);
+            boolean declared = operation.getParameters() != null
+                    && operation.getParameters().stream()
+                            .anyMatch(parameter -> FieldSet.PARAM.equals(parameter.getName()));
+            if (get && !declared) {
+                operation.addParametersItem(new Parameter()
+                        .in("query")
+                        .name(FieldSet.PARAM)
+                        .required(false)
+                        .description("Top-level properties to return, e.g. id,authorName")
+                        .schema(new StringSchema()));
+            }
+            return operation;
+        };
+    }
+}
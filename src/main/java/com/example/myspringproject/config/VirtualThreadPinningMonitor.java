@@ -0,0 +1,65 @@
+package com.example.myspringproject.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+// Виртуальный поток, заблокировавшийся внутри synchronized или нативного
+// вызова, держит поток-носитель (pinning), и остальные виртуальные потоки
+// делят меньше носителей. JFR-события jdk.VirtualThreadPinned длиннее порога
+// попадают в таймер jvm.threads.virtual.pinned, а их стек — в debug-лог.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${library.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time a virtual thread kept its carrier thread blocked")
+                .register(meterRegistry);
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            pinned.record(event.getDuration());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Virtual thread pinned for {} ms:\n{}",
+                        event.getDuration().toMillis(), frames(event));
+            }
+        });
+        stream.startAsync();
+    }
+
+    private static String frames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "."
+                        + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Override
+    public void destroy() {
+        stream.close();
+    }
+}
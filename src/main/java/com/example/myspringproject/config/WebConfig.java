@@ -12,8 +12,10 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addMapping("/api/v2/**")
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT",
-                        "DELETE", "OPTIONS")
+                        "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("RateLimit-Limit", "RateLimit-Remaining",
+                        "RateLimit-Reset", "RateLimit-Policy", "Retry-After")
                 .allowCredentials(false);
     }
 }
\ No newline at end of file
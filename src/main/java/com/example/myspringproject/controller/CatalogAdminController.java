@@ -0,0 +1,39 @@
+package com.example.myspringproject.controller;
+
+import com.example.myspringproject.catalog.CatalogSnapshotStore;
+import com.example.myspringproject.dto.get.CatalogSnapshotFileGetDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v2/admin/catalog")
+@Tag(name = "Catalog admin", description = "API for managing the in-memory catalog engine")
+@ConditionalOnProperty(prefix = "library.catalog-engine", name = "enabled", havingValue = "true")
+public class CatalogAdminController {
+
+    private final CatalogSnapshotStore snapshotStore;
+
+    public CatalogAdminController(CatalogSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    @Operation(summary = "Write a catalog snapshot file",
+            description = "Streams the catalog from the database into a binary snapshot file "
+                    + "that the catalog engine reads at startup instead of a full load")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshot file written"),
+        @ApiResponse(responseCode = "500", description = "Snapshot file could not be written")
+    })
+    @PostMapping("/snapshot")
+    public ResponseEntity<CatalogSnapshotFileGetDto> writeSnapshot() throws IOException {
+        return ResponseEntity.ok(snapshotStore.write());
+    }
+}
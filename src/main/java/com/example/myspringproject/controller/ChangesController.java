@@ -0,0 +1,75 @@
+package com.example.myspringproject.controller;
+
+import com.example.myspringproject.dto.get.CatalogChangesGetDto;
+import com.example.myspringproject.service.CatalogChangeService;
+import com.example.myspringproject.service.CatalogChangeStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v2/changes")
+@Tag(name = "Changes", description = "API for following catalog changes")
+public class ChangesController {
+
+    private final CatalogChangeService changeService;
+    private final CatalogChangeStreamService changeStreamService;
+
+    public ChangesController(CatalogChangeService changeService,
+                             CatalogChangeStreamService changeStreamService) {
+        this.changeService = changeService;
+        this.changeStreamService = changeStreamService;
+    }
+
+    @Operation(summary = "Get catalog changes since a version",
+            description = "Returns upserts (with the current record) and tombstones committed "
+                    + "after the given version, oldest first. Pass the returned version as "
+                    + "'since' in the next call; repeat at once while hasMore is true")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Invalid since or limit"),
+        @ApiResponse(responseCode = "410",
+                description = "Changes after this version were compacted; resync from scratch")
+    })
+    @GetMapping
+    public ResponseEntity<CatalogChangesGetDto> getChanges(
+            @Parameter(description = "Version returned by the previous call or by /version")
+            @RequestParam long since,
+            @Parameter(description = "Maximum number of changes in the response")
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(changeService.findChanges(since, limit));
+    }
+
+    @Operation(summary = "Get the current change version",
+            description = "Version to start syncing from after a full download of the catalog")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation")
+    })
+    @GetMapping("/version")
+    public ResponseEntity<Long> getCurrentVersion() {
+        return ResponseEntity.ok(changeService.getCurrentVersion());
+    }
+
+    @Operation(summary = "Stream catalog changes",
+            description = "Server-Sent Events stream of committed changes. Each 'change' event "
+                    + "carries the type (books, authors, categories) and the changed ids; "
+                    + "ids is null when every record of the type should be reloaded. The event "
+                    + "id is a change log version that already includes the change: read "
+                    + "/changes?since=... until its version reaches it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        return changeStreamService.subscribe();
+    }
+}
@@ -11,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -30,6 +31,9 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Authors", description = "API for managing authors")
 public class ControllerAuthor {
 
+    // Без этого поля в fields= авторы читаются без книг
+    private static final String BOOKS = "books";
+
     private final AuthorService authorService;
 
     @GetMapping
@@ -38,10 +42,28 @@ public class ControllerAuthor {
         @ApiResponse(responseCode = "200", description = "Successful operation"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<AuthorGetDto>> findAllAuthors() {
-        List<Author> authors = authorService.findAllAuthors();
-        List<AuthorGetDto> dtos = authors.stream().map(AuthorGetDto::new).toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<AuthorGetDto>> findAllAuthors(
+            @Parameter(description = "Properties to return, e.g. id,authorName")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields) {
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(toDtos(authorService.findAllAuthors(withBooks), withBooks));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get authors by IDs",
+            description = "Retrieve several authors in one request; unknown IDs are skipped")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    public ResponseEntity<List<AuthorGetDto>> findAuthorsByIds(
+            @Parameter(description = "Comma-separated author IDs, e.g. 1,2,3")
+            @RequestParam("ids") @Size(max = 500, message = "Не больше 500 id за запрос")
+            List<Integer> ids,
+            @Parameter(description = "Properties to return, e.g. id,authorName")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields) {
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(toDtos(authorService.findAuthorsByIds(ids, withBooks), withBooks));
     }
 
     @GetMapping("/{id}")
@@ -50,9 +72,12 @@ public class ControllerAuthor {
         @ApiResponse(responseCode = "200", description = "Author found"),
         @ApiResponse(responseCode = "404", description = "Author not found")
     })
-    public ResponseEntity<AuthorGetDto> findAuthorById(@PathVariable int id) {
-        Author author = authorService.findAuthorById(id);
-        return ResponseEntity.ok(new AuthorGetDto(author));
+    public ResponseEntity<AuthorGetDto> findAuthorById(
+            @PathVariable int id,
+            @Parameter(description = "Properties to return, e.g. id,authorName")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields) {
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(toDto(authorService.findAuthorById(id, withBooks), withBooks));
     }
 
     @PostMapping
@@ -103,11 +128,13 @@ public class ControllerAuthor {
     @Parameter(description = "Name or part of the name to search for", name = "name")
     @GetMapping("/search")
     public ResponseEntity<List<AuthorGetDto>> searchAuthors(
-        @RequestParam("name") String name
+        @RequestParam("name") String name,
+            @Parameter(description = "Properties to return, e.g. id,authorName")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields
     ) {
-        List<Author> authors = authorService.findAuthorsByName(name);
-        List<AuthorGetDto> dtos = authors.stream().map(AuthorGetDto::new).toList();
-        return ResponseEntity.ok(dtos);
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(
+                toDtos(authorService.findAuthorsByName(name, withBooks), withBooks));
     }
 
     @Operation(summary = "Get authors by book category",
@@ -117,12 +144,32 @@ public class ControllerAuthor {
         @ApiResponse(responseCode = "404", description = "Authors not found")
     })
     @Parameter(description = "Category name to filter authors by", name = "category")
+    @Parameter(description = "Match category names starting with the value "
+            + "instead of containing it", name = "prefix", required = false)
     @GetMapping("/by-category")
     public ResponseEntity<List<AuthorGetDto>> getAuthorsByBookCategory(
-            @RequestParam("category") String category) {
+            @RequestParam("category") String category,
+            @RequestParam(value = "prefix", defaultValue = "false") boolean prefix,
+            @Parameter(description = "Properties to return, e.g. id,authorName")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields) {
+        boolean withBooks = withBooks(fields);
+        List<Author> authors = prefix
+                ? authorService.findAuthorsByBookCategoryPrefix(category, withBooks)
+                : authorService.findAuthorsByBookCategory(category, withBooks);
+        return ResponseEntity.ok(toDtos(authors, withBooks));
+    }
+
+    private static boolean withBooks(String fields) {
+        return FieldSet.parse(fields).includes(BOOKS);
+    }
+
+    private static AuthorGetDto toDto(Author author, boolean withBooks) {
+        return withBooks
+                ? new AuthorGetDto(author)
+                : new AuthorGetDto(author.getAuthorId(), author.getAuthorName(), null);
+    }
 
-        List<Author> authors = authorService.findAuthorsByBookCategory(category);
-        List<AuthorGetDto> dtos = authors.stream().map(AuthorGetDto::new).toList();
-        return ResponseEntity.ok(dtos);
+    private static List<AuthorGetDto> toDtos(List<Author> authors, boolean withBooks) {
+        return authors.stream().map(author -> toDto(author, withBooks)).toList();
     }
 }
@@ -2,10 +2,20 @@ package com.example.myspringproject.controller;
 
 import com.example.myspringproject.dto.create.BookCreateDto;
 import com.example.myspringproject.dto.create.BulkCreateDto;
+import com.example.myspringproject.dto.get.BookFacetsGetDto;
+import com.example.myspringproject.dto.get.BookFilterDto;
 import com.example.myspringproject.dto.get.BookGetDto;
+import com.example.myspringproject.dto.get.BulkOperationResultDto;
+import com.example.myspringproject.dto.update.BookBulkPatchDto;
+import com.example.myspringproject.dto.update.BookBulkSelectionDto;
 import com.example.myspringproject.dto.update.BookUpdateDto;
 import com.example.myspringproject.model.Book;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.service.BookBulkService;
+import com.example.myspringproject.service.BookFacetService;
+import com.example.myspringproject.service.BookFilterService;
 import com.example.myspringproject.service.BookService;
+import com.example.myspringproject.service.BookViewService;
 import com.example.myspringproject.service.VisitTrackingService; // Добавляем импорт
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,11 +24,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest; // Добавляем импорт
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -26,6 +42,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v2/books")
@@ -34,10 +51,21 @@ import org.springframework.web.bind.annotation.RestController;
 public class ControllerBook {
 
     private final BookService bookService;
+    private final BookViewService bookViewService;
+    private final BookBulkService bookBulkService;
+    private final BookFilterService bookFilterService;
+    private final BookFacetService bookFacetService;
     private final VisitTrackingService visitTrackingService;
 
-    public ControllerBook(BookService bookService, VisitTrackingService visitTrackingService) {
+    public ControllerBook(BookService bookService, BookViewService bookViewService,
+                          BookBulkService bookBulkService, BookFilterService bookFilterService,
+                          BookFacetService bookFacetService,
+                          VisitTrackingService visitTrackingService) {
         this.bookService = bookService;
+        this.bookViewService = bookViewService;
+        this.bookBulkService = bookBulkService;
+        this.bookFilterService = bookFilterService;
+        this.bookFacetService = bookFacetService;
         this.visitTrackingService = visitTrackingService;
     }
 
@@ -63,6 +91,55 @@ public class ControllerBook {
         return ResponseEntity.status(HttpStatus.CREATED).body(dtos);
     }
 
+    @Operation(summary = "Create many books from a stream",
+            description = "Parses the books array incrementally and commits it in chunks, "
+                    + "returning one NDJSON result line per chunk")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Chunk results are streamed back")
+    })
+    @PostMapping(value = "/bulk/stream",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createBooksStream(
+            HttpServletRequest request) throws IOException {
+        track(request);
+        InputStream body = request.getInputStream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bookBulkService.importBooks(body, out));
+    }
+
+    @Operation(summary = "Delete many books",
+            description = "Deletes books selected by an id list or a filter in chunks "
+                    + "and returns outcome counts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Books deleted"),
+        @ApiResponse(responseCode = "400", description = "Incorrect entered data")
+    })
+    @DeleteMapping("/bulk")
+    public ResponseEntity<BulkOperationResultDto> deleteBooks(
+            @Parameter(description = "Books to delete: ids or filter")
+            @Valid @RequestBody BookBulkSelectionDto selection, HttpServletRequest request) {
+        track(request);
+        return ResponseEntity.ok(bookBulkService.deleteBooks(selection));
+    }
+
+    @Operation(summary = "Update many books",
+            description = "Reassigns the author and adds or removes categories for books "
+                    + "selected by an id list or a filter, in chunks")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Books updated"),
+        @ApiResponse(responseCode = "400", description = "Incorrect entered data"),
+        @ApiResponse(responseCode = "404", description = "Author or category not found")
+    })
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkOperationResultDto> patchBooks(
+            @Parameter(description = "Books to update and the changes to apply")
+            @Valid @RequestBody BookBulkPatchDto patch, HttpServletRequest request) {
+        track(request);
+        return ResponseEntity.ok(bookBulkService.patchBooks(patch));
+    }
+
 
     @GetMapping
     @Operation(summary = "Get all books", description = "Retrieve a list of all books")
@@ -72,13 +149,32 @@ public class ControllerBook {
     })
     public ResponseEntity<List<BookGetDto>> findAllBooks(HttpServletRequest request) {
         track(request);
-        List<Book> books = bookService.findAllBooks();
+        List<BookView> books = bookViewService.findAllBooks();
         List<BookGetDto> dtos = books.stream()
                 .map(BookGetDto::new)
                 .toList();
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get books by IDs",
+            description = "Retrieve several books in one request; unknown IDs are skipped")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    public ResponseEntity<List<BookGetDto>> findBooksByIds(
+            @Parameter(description = "Comma-separated book IDs, e.g. 1,2,3")
+            @RequestParam("ids") @Size(max = 500, message = "Не больше 500 id за запрос")
+            List<Integer> ids,
+            HttpServletRequest request) {
+        track(request);
+        List<BookGetDto> dtos = bookViewService.findBooksByIds(ids).stream()
+                .map(BookGetDto::new)
+                .toList();
+        return ResponseEntity.ok(dtos);
+    }
+
     @Operation(summary = "Create a new book",
             description = "Create a new book with the provided details")
     @ApiResponses(value = {
@@ -104,7 +200,7 @@ public class ControllerBook {
     public ResponseEntity<BookGetDto> findBookById(
             @PathVariable int id, HttpServletRequest request) {
         track(request);
-        Book book = bookService.findBookById(id);
+        BookView book = bookViewService.findBookById(id);
         return ResponseEntity.ok(new BookGetDto(book));
     }
 
@@ -137,6 +233,37 @@ public class ControllerBook {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Filter books",
+            description = "Filters books by sets of categories (all/any/none, by id or name) "
+                    + "and authors (any/none), sorted and limited")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter, sort or limit")
+    })
+    @GetMapping("/filter")
+    public ResponseEntity<List<BookGetDto>> filterBooks(
+            @ParameterObject @Valid BookFilterDto filter, HttpServletRequest request) {
+        track(request);
+        List<BookGetDto> dtos = bookFilterService.filterBooks(filter).stream()
+                .map(BookGetDto::new)
+                .toList();
+        return ResponseEntity.ok(dtos);
+    }
+
+    @Operation(summary = "Facets of a filter",
+            description = "Counts books matching the filter in total and per category and "
+                    + "author, returning the most frequent ones; sort and limit are ignored")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter")
+    })
+    @GetMapping("/filter/facets")
+    public ResponseEntity<BookFacetsGetDto> filterFacets(
+            @ParameterObject @Valid BookFilterDto filter, HttpServletRequest request) {
+        track(request);
+        return ResponseEntity.ok(bookFacetService.filterFacets(filter));
+    }
+
     @Operation(summary = "Search books", description = "Search for books by author name or title")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successful operation"),
@@ -152,11 +279,30 @@ public class ControllerBook {
         @RequestParam(value = "title", required = false) String title, HttpServletRequest request
     ) {
         track(request);
-        List<Book> result = bookService.searchBooks(authorName, title);
+        List<BookView> result = bookViewService.searchBooks(authorName, title);
         List<BookGetDto> dtos = result.stream().map(BookGetDto::new).toList();
         return ResponseEntity.ok(dtos);
     }
 
+    @Operation(summary = "Facets of a search",
+            description = "Counts books found by author name or title in total and per "
+                    + "category and author, returning the most frequent ones")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation")
+    })
+    @Parameter(description = "Author name to search for (optional)",
+            name = "authorName", required = false)
+    @Parameter(description = "Book title to search for (optional)",
+            name = "title", required = false)
+    @GetMapping("/search/facets")
+    public ResponseEntity<BookFacetsGetDto> searchFacets(
+        @RequestParam(value = "authorName", required = false) String authorName,
+        @RequestParam(value = "title", required = false) String title, HttpServletRequest request
+    ) {
+        track(request);
+        return ResponseEntity.ok(bookFacetService.searchFacets(authorName, title));
+    }
+
     @Operation(summary = "Get books by category name",
             description = "Retrieve books belonging to a specific category by name")
     @ApiResponses(value = {
@@ -169,7 +315,7 @@ public class ControllerBook {
             @RequestParam("category") String categoryName, HttpServletRequest request
     ) {
         track(request);
-        List<Book> books = bookService.findBooksByCategory(categoryName);
+        List<BookView> books = bookViewService.findBooksByCategory(categoryName);
         List<BookGetDto> dtos = books.stream()
                 .map(BookGetDto::new)
                 .toList();
@@ -187,7 +333,7 @@ public class ControllerBook {
             @PathVariable int categoryId, HttpServletRequest request
     ) {
         track(request);
-        List<Book> books = bookService.findBooksByCategoryId(categoryId);
+        List<BookView> books = bookViewService.findBooksByCategoryId(categoryId);
         List<BookGetDto> dtos = books.stream()
                 .map(BookGetDto::new)
                 .toList();
@@ -205,7 +351,7 @@ public class ControllerBook {
             @RequestParam("author") String authorName, HttpServletRequest request
     ) {
         track(request);
-        List<Book> books = bookService.findBooksByAuthor(authorName);
+        List<BookView> books = bookViewService.findBooksByAuthor(authorName);
         List<BookGetDto> dtos = books.stream()
                 .map(BookGetDto::new)
                 .toList();
@@ -223,7 +369,7 @@ public class ControllerBook {
             @PathVariable int authorId, HttpServletRequest request
     ) {
         track(request);
-        List<Book> books = bookService.findBooksByAuthorId(authorId);
+        List<BookView> books = bookViewService.findBooksByAuthorId(authorId);
         List<BookGetDto> dtos = books.stream()
                 .map(BookGetDto::new)
                 .toList();
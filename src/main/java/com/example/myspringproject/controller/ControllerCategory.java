@@ -11,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +30,9 @@ import org.springframework.web.bind.annotation.RestController;
 @AllArgsConstructor
 @Tag(name = "Categories", description = "API for managing categories")
 public class ControllerCategory {
+    // Без этого поля в fields= категории читаются без книг
+    private static final String BOOKS = "books";
+
     private final CategoryService categoryService;
 
     // Получение списка всех категорий
@@ -38,12 +42,30 @@ public class ControllerCategory {
         @ApiResponse(responseCode = "200", description = "Successful operation"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<CategoryGetDto>> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
-        List<CategoryGetDto> dtos = categories.stream()
-                .map(CategoryGetDto::new)
-                .toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<CategoryGetDto>> getAllCategories(
+            @Parameter(description = "Properties to return, e.g. id,name")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields) {
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(toDtos(categoryService.getAllCategories(withBooks), withBooks));
+    }
+
+    // Получение нескольких категорий по идентификаторам
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get categories by IDs",
+            description = "Retrieve several categories in one request; unknown IDs are skipped")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    public ResponseEntity<List<CategoryGetDto>> getCategoriesByIds(
+            @Parameter(description = "Comma-separated category IDs, e.g. 1,2,3")
+            @RequestParam("ids") @Size(max = 500, message = "Не больше 500 id за запрос")
+            List<Integer> ids,
+            @Parameter(description = "Properties to return, e.g. id,name")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields) {
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(
+                toDtos(categoryService.getCategoriesByIds(ids, withBooks), withBooks));
     }
 
     // Получение категории по идентификатору
@@ -54,9 +76,12 @@ public class ControllerCategory {
         @ApiResponse(responseCode = "404", description = "Category not found")
     })
     @Parameter(description = "ID of the category to retrieve", name = "id")
-    public ResponseEntity<CategoryGetDto> getCategoryById(@PathVariable int id) {
-        Category category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(new CategoryGetDto(category));
+    public ResponseEntity<CategoryGetDto> getCategoryById(
+            @PathVariable int id,
+            @Parameter(description = "Properties to return, e.g. id,name")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields) {
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(toDto(categoryService.getCategoryById(id, withBooks), withBooks));
     }
 
     // Создание новой категории
@@ -112,12 +137,12 @@ public class ControllerCategory {
     @Parameter(description = "Name or part of the name to search for", name = "name")
     @GetMapping("/search")
     public ResponseEntity<List<CategoryGetDto>> searchCategories(
-        @RequestParam("name") String name) {
-        List<Category> categories = categoryService.findCategoriesByName(name);
-        List<CategoryGetDto> dtos = categories.stream()
-                .map(CategoryGetDto::new)
-                .toList();
-        return ResponseEntity.ok(dtos);
+        @RequestParam("name") String name,
+            @Parameter(description = "Properties to return, e.g. id,name")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields) {
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(
+                toDtos(categoryService.findCategoriesByName(name, withBooks), withBooks));
     }
 
     @Operation(summary = "Get categories by book name",
@@ -128,13 +153,13 @@ public class ControllerCategory {
     @Parameter(description = "Book name to filter categories by", name = "book")
     @GetMapping("/by-book")
     public ResponseEntity<List<CategoryGetDto>> getCategoriesByBook(
-        @RequestParam("book") String bookName
+        @RequestParam("book") String bookName,
+            @Parameter(description = "Properties to return, e.g. id,name")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields
     ) {
-        List<Category> categories = categoryService.findCategoriesByBook(bookName);
-        List<CategoryGetDto> dtos = categories.stream()
-                .map(CategoryGetDto::new)
-                .toList();
-        return ResponseEntity.ok(dtos);
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(
+                toDtos(categoryService.findCategoriesByBook(bookName, withBooks), withBooks));
     }
 
     @Operation(summary = "Get categories by book ID",
@@ -145,12 +170,26 @@ public class ControllerCategory {
     @Parameter(description = "ID of the book to filter categories by", name = "bookId")
     @GetMapping("/by-book/{bookId}")
     public ResponseEntity<List<CategoryGetDto>> getCategoriesByBookId(
-        @PathVariable int bookId
+        @PathVariable int bookId,
+            @Parameter(description = "Properties to return, e.g. id,name")
+            @RequestParam(name = FieldSet.PARAM, required = false) String fields
     ) {
-        List<Category> categories = categoryService.findCategoriesByBookId(bookId);
-        List<CategoryGetDto> dtos = categories.stream()
-                .map(CategoryGetDto::new)
-                .toList();
-        return ResponseEntity.ok(dtos);
+        boolean withBooks = withBooks(fields);
+        return ResponseEntity.ok(
+                toDtos(categoryService.findCategoriesByBookId(bookId, withBooks), withBooks));
+    }
+
+    private static boolean withBooks(String fields) {
+        return FieldSet.parse(fields).includes(BOOKS);
+    }
+
+    private static CategoryGetDto toDto(Category category, boolean withBooks) {
+        return withBooks
+                ? new CategoryGetDto(category)
+                : new CategoryGetDto(category.getCategoryId(), category.getCategoryName(), null);
+    }
+
+    private static List<CategoryGetDto> toDtos(List<Category> categories, boolean withBooks) {
+        return categories.stream().map(category -> toDto(category, withBooks)).toList();
     }
 }
@@ -0,0 +1,36 @@
+package com.example.myspringproject.controller;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Параметр fields= у GET-запросов: свойства ответа через запятую, например
+// fields=id,authorName. id возвращается всегда, чтобы клиент мог сопоставить записи.
+public record FieldSet(Set<String> names) {
+
+    public static final String PARAM = "fields";
+    public static final FieldSet ALL = new FieldSet(null);
+
+    static final String ID = "id";
+
+    public static FieldSet parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(HashSet::new));
+        names.add(ID);
+        return new FieldSet(Set.copyOf(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String field) {
+        return names == null || names.contains(field);
+    }
+}
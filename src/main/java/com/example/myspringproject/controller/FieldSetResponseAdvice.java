@@ -0,0 +1,90 @@
+package com.example.myspringproject.controller;
+
+import com.example.myspringproject.exception.ValidationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Оставляет в JSON-ответе GET-запроса с fields= только перечисленные свойства
+// объекта или каждого элемента списка. Ответ без fields= не трогается. Сами
+// выборки облегчают контроллеры: там, где от полей зависит загрузка связей
+// (книги автора и категории), они читают сущности без них.
+// Обрезаются только свойства верхнего уровня. У ответов-обёрток
+// (BookFacetsGetDto, CatalogChangesGetDto) это поля самой обёртки, а имена
+// вложенных свойств отклоняются как неизвестные.
+@ControllerAdvice
+public class FieldSetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public FieldSetResponseAdvice(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || request.getMethod() != HttpMethod.GET
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        FieldSet fields = FieldSet.parse(
+                servletRequest.getServletRequest().getParameter(FieldSet.PARAM));
+        if (fields.isAll()) {
+            return body;
+        }
+        return retain(objectMapper.valueToTree(body), fields);
+    }
+
+    // Неизвестное свойство — ошибка запроса, а не пустой ответ; по пустому
+    // списку проверить нечего
+    static JsonNode retain(JsonNode tree, FieldSet fields) {
+        List<ObjectNode> objects = new ArrayList<>();
+        if (tree.isObject()) {
+            objects.add((ObjectNode) tree);
+        } else if (tree.isArray()) {
+            tree.forEach(element -> {
+                if (element.isObject()) {
+                    objects.add((ObjectNode) element);
+                }
+            });
+        }
+        if (objects.isEmpty()) {
+            return tree;
+        }
+        Set<String> known = new HashSet<>();
+        objects.forEach(object -> object.fieldNames().forEachRemaining(known::add));
+        List<String> unknown = fields.names().stream()
+                .filter(name -> !name.equals(FieldSet.ID) && !known.contains(name))
+                .sorted()
+                .map(name -> "Неизвестное поле в fields: " + name)
+                .toList();
+        if (!unknown.isEmpty()) {
+            throw new ValidationException(unknown);
+        }
+        objects.forEach(object -> object.retain(fields.names()));
+        return tree;
+    }
+}
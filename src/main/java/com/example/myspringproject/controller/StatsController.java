@@ -0,0 +1,73 @@
+package com.example.myspringproject.controller;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import com.example.myspringproject.service.StatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v2/stats")
+@Tag(name = "Statistics", description = "API for catalog aggregate statistics")
+public class StatsController {
+
+    private final StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @Operation(summary = "Get books per category",
+            description = "Retrieves the number of books in every category")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation")
+    })
+    @GetMapping("/books-per-category")
+    public ResponseEntity<List<BookCountGetDto>> getBooksPerCategory() {
+        return ResponseEntity.ok(statsService.getBooksPerCategory());
+    }
+
+    @Operation(summary = "Get books per author",
+            description = "Retrieves the number of books of every author")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation")
+    })
+    @GetMapping("/books-per-author")
+    public ResponseEntity<List<BookCountGetDto>> getBooksPerAuthor() {
+        return ResponseEntity.ok(statsService.getBooksPerAuthor());
+    }
+
+    @Operation(summary = "Get top categories",
+            description = "Retrieves categories with the most books")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Limit is out of range")
+    })
+    @Parameter(description = "Number of categories to return", name = "limit")
+    @GetMapping("/top-categories")
+    public ResponseEntity<List<BookCountGetDto>> getTopCategories(
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(statsService.getTopCategories(limit));
+    }
+
+    @Operation(summary = "Get top authors",
+            description = "Retrieves authors with the most books")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful operation"),
+        @ApiResponse(responseCode = "400", description = "Limit is out of range")
+    })
+    @Parameter(description = "Number of authors to return", name = "limit")
+    @GetMapping("/top-authors")
+    public ResponseEntity<List<BookCountGetDto>> getTopAuthors(
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(statsService.getTopAuthors(limit));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.myspringproject.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// На виртуальных потоках Tomcat не ограничивает число запросов пулом, и
+// тысячи запросов встали бы в очередь Hikari, держа на себе его блокировки.
+// Фильтр пропускает к API не больше запросов, чем соединений в пулах primary
+// и replica, остальные ждут на семафоре (виртуальный поток при этом не
+// занимает поток-носитель) и после library.concurrency.max-wait получают 503.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConnectionLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    public ConnectionLimitFilter(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+            @Value("${library.concurrency.max-requests:0}") int maxRequests,
+            @Value("${library.concurrency.max-wait:5s}") Duration maxWait) {
+        // 0 — по размеру пулов: запрос держит не больше одного соединения за раз
+        int limit = maxRequests > 0 ? maxRequests
+                : primaryDataSource.getMaximumPoolSize() + replicaDataSource.getMaximumPoolSize();
+        this.permits = new Semaphore(limit, true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "Слишком много одновременных запросов");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.myspringproject.datasource;
+
+public enum DataSourceType {
+    PRIMARY,
+    REPLICA
+}
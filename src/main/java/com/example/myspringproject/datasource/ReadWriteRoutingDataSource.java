@@ -0,0 +1,60 @@
+package com.example.myspringproject.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+// Ключ выбирается в момент получения физического соединения, поэтому
+// источник оборачивается в LazyConnectionDataSourceProxy (см. DataSourceConfig):
+// к этому моменту флаг readOnly текущей транзакции уже известен.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PINNED_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".PINNED_TO_PRIMARY";
+
+    // Привязка вне HTTP-запроса (@Scheduled, @Async, потоки стриминга и батч-загрузчика):
+    // живёт до завершения транзакции, в которой была запись
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isPinnedToPrimary()) {
+            return DataSourceType.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // После записи все последующие чтения этого запроса идут в primary,
+            // чтобы не прочитать с реплики данные до репликации (read-your-writes)
+            pinToPrimary();
+        }
+        return DataSourceType.PRIMARY;
+    }
+
+    public static boolean isPinnedToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+
+    // В запросе флаг хранится в его атрибутах и пропадает вместе с ним, даже если
+    // запрос обслуживал поток из пула. Вне запроса флаг снимается по завершении
+    // транзакции, поэтому пуловые потоки не остаются привязанными к primary навсегда.
+    private static void pinToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            return;
+        }
+        if (PINNED_TO_PRIMARY.get() == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    PINNED_TO_PRIMARY.remove();
+                }
+            });
+        }
+    }
+}
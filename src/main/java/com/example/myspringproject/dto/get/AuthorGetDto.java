@@ -3,12 +3,14 @@ package com.example.myspringproject.dto.get;
 import com.example.myspringproject.model.Author;
 import com.example.myspringproject.model.Book;
 import java.util.List;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
 
 @Getter
 @Setter
+@AllArgsConstructor
 public class AuthorGetDto {
     private int id;
     private String authorName;
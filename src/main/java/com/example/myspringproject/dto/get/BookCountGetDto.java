@@ -0,0 +1,14 @@
+package com.example.myspringproject.dto.get;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BookCountGetDto {
+    private int id;
+    private String name;
+    private int bookCount;
+}
@@ -0,0 +1,21 @@
+package com.example.myspringproject.dto.get;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BookFacetsGetDto {
+    // Все книги, подходящие под запрос, без учёта limit
+    private int total;
+    // Самые частые категории и авторы среди них, не больше library.facets.top-n
+    private List<BookCountGetDto> categories;
+    private List<BookCountGetDto> authors;
+
+    public static BookFacetsGetDto empty() {
+        return new BookFacetsGetDto(0, List.of(), List.of());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.myspringproject.dto.get;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+// Параметры GET /api/v2/books/filter. Условия объединяются через AND:
+// all* — книга есть во всех перечисленных категориях, any* — хотя бы в одной,
+// no* — ни в одной; authorIds — автор один из перечисленных, noAuthorIds — ни один.
+@Getter
+@Setter
+public class BookFilterDto {
+    private List<@Positive(message = "ID категории должен быть положительным") Integer>
+            allCategoryIds;
+
+    private List<@NotBlank(message = "Название категории не может быть пустым") String>
+            allCategoryNames;
+
+    private List<@Positive(message = "ID категории должен быть положительным") Integer>
+            anyCategoryIds;
+
+    private List<@NotBlank(message = "Название категории не может быть пустым") String>
+            anyCategoryNames;
+
+    private List<@Positive(message = "ID категории должен быть положительным") Integer>
+            noCategoryIds;
+
+    private List<@NotBlank(message = "Название категории не может быть пустым") String>
+            noCategoryNames;
+
+    private List<@Positive(message = "ID автора должен быть положительным") Integer> authorIds;
+
+    private List<@Positive(message = "ID автора должен быть положительным") Integer> noAuthorIds;
+
+    @Pattern(regexp = "-?(id|name)", message = "sort должен быть одним из: id, -id, name, -name")
+    private String sort = "name";
+
+    private int limit = 50;
+}
@@ -1,13 +1,16 @@
 package com.example.myspringproject.dto.get;
 
 import com.example.myspringproject.model.Book;
+import com.example.myspringproject.model.BookView;
 import com.example.myspringproject.model.Category;
 import java.util.List;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
+@AllArgsConstructor
 public class BookGetDto {
     private int id;
     private String bookName;
@@ -26,4 +29,11 @@ public class BookGetDto {
                     .toList();
         }
     }
+
+    public BookGetDto(BookView book) {
+        this.id = book.getBookId();
+        this.bookName = book.getBookName();
+        this.authorName = book.getAuthorName();
+        this.categories = book.getCategoryNames();
+    }
 }
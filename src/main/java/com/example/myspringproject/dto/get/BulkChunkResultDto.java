@@ -0,0 +1,18 @@
+package com.example.myspringproject.dto.get;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BulkChunkResultDto {
+    private int chunk;
+    private int offset;
+    private int received;
+    private int created;
+    private boolean committed;
+    private List<String> errors;
+}
@@ -0,0 +1,23 @@
+package com.example.myspringproject.dto.get;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BulkOperationResultDto {
+    // Книги, найденные по ids или фильтру
+    private int matched;
+    // Удалённые или изменённые книги
+    private int affected;
+    // Переданные ids, которых нет в базе
+    private int notFound;
+    // Книги из частей, транзакция которых откатилась
+    private int failed;
+    private int chunks;
+    private List<Integer> notFoundIds;
+    private List<String> errors;
+}
@@ -0,0 +1,19 @@
+package com.example.myspringproject.dto.get;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CatalogChangeEntryGetDto {
+    private long version;
+    // books, authors или categories — как в путях /api/v2
+    private String type;
+    private int id;
+    private boolean deleted;
+    // Текущее состояние записи (BookGetDto, AuthorGetDto или CategoryGetDto);
+    // null для удалённой
+    private Object data;
+}
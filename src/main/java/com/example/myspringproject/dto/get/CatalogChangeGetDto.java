@@ -0,0 +1,16 @@
+package com.example.myspringproject.dto.get;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CatalogChangeGetDto {
+    // books, authors или categories — как в путях /api/v2
+    private String type;
+    // Записи, которые создали, изменили или удалили; null — перечитать все
+    private List<Integer> ids;
+}
@@ -0,0 +1,17 @@
+package com.example.myspringproject.dto.get;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CatalogChangesGetDto {
+    // Передаётся как since в следующий запрос
+    private long version;
+    // Изменений больше, чем вошло в ответ; следующую страницу нужно запросить сразу
+    private boolean hasMore;
+    private List<CatalogChangeEntryGetDto> changes;
+}
@@ -0,0 +1,19 @@
+package com.example.myspringproject.dto.get;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CatalogSnapshotFileGetDto {
+    private String path;
+    private long bytes;
+    private int authors;
+    private int categories;
+    private int books;
+    private int links;
+    // Время выгрузки из базы вместе с записью файла
+    private long millis;
+}
@@ -3,11 +3,13 @@ package com.example.myspringproject.dto.get;
 import com.example.myspringproject.model.Book;
 import com.example.myspringproject.model.Category;
 import java.util.List;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
+@AllArgsConstructor
 public class CategoryGetDto {
     private int id;
     private String name;
@@ -0,0 +1,19 @@
+package com.example.myspringproject.dto.update;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BookBulkFilterDto {
+    @Positive(message = "ID автора должен быть положительным")
+    private Integer authorId;
+
+    @Positive(message = "ID категории должен быть положительным")
+    private Integer categoryId;
+
+    @Size(min = 1, max = 40, message = "Часть названия книги должна быть длиной от 1 до 40 символов")
+    private String nameContains;
+}
@@ -0,0 +1,19 @@
+package com.example.myspringproject.dto.update;
+
+import jakarta.validation.constraints.Positive;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BookBulkPatchDto extends BookBulkSelectionDto {
+    @Positive(message = "ID автора должен быть положительным")
+    private Integer authorId;
+
+    private List<@Positive(message = "ID категории должен быть положительным") Integer>
+            addCategoryIds;
+
+    private List<@Positive(message = "ID категории должен быть положительным") Integer>
+            removeCategoryIds;
+}
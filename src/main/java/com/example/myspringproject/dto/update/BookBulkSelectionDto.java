@@ -0,0 +1,17 @@
+package com.example.myspringproject.dto.update;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+// Книги для массовой операции задаются либо списком ids, либо фильтром
+@Getter
+@Setter
+public class BookBulkSelectionDto {
+    private List<@Positive(message = "ID книги должно быть положительным") Integer> ids;
+
+    @Valid
+    private BookBulkFilterDto filter;
+}
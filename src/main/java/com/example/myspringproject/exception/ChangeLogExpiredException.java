@@ -0,0 +1,7 @@
+package com.example.myspringproject.exception;
+
+public class ChangeLogExpiredException extends RuntimeException {
+    public ChangeLogExpiredException(String message) {
+        super(message);
+    }
+}
@@ -6,12 +6,15 @@ import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -37,6 +40,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getErrors(), HttpStatus.BAD_REQUEST);
     }
 
+    // Ограничения на параметрах запроса, например @Size у ?ids=
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<List<String>> handleMethodValidation(
+            HandlerMethodValidationException ex) {
+        List<String> errors = ex.getAllErrors().stream()
+                .map(MessageSourceResolvable::getDefaultMessage)
+                .toList();
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<String> handleEntityNotFoundException(EntityNotFoundException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
@@ -47,4 +60,17 @@ public class GlobalExceptionHandler {
             UniqueConstraintViolationException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler(ChangeLogExpiredException.class)
+    public ResponseEntity<String> handleChangeLogExpired(ChangeLogExpiredException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex) {
+        logger.error("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
+        return new ResponseEntity<>("Запись нарушает ограничение уникальности или связи",
+                HttpStatus.CONFLICT);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.example.myspringproject.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Когда Postgres замедляется, запросы копятся в очереди Tomcat и задержка
+// растёт у всех. Фильтр держит для каждой группы эндпоинтов свой адаптивный
+// лимит одновременных запросов (AdaptiveConcurrencyLimit) и сразу отвечает
+// 503 с Retry-After на всё, что сверх него. Стоит после фильтра метрик
+// http.server.requests, чтобы отказы в них попадали.
+// Метрики: http.server.concurrency.limit, .in-flight и .rejected с тегом group.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "library.concurrency.adaptive", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimit> limits =
+            new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejected = new EnumMap<>(EndpointGroup.class);
+    private final String retryAfterSeconds;
+
+    public AdaptiveConcurrencyFilter(
+            MeterRegistry meterRegistry,
+            @Value("${library.concurrency.adaptive.initial-limit:20}") int initialLimit,
+            @Value("${library.concurrency.adaptive.min-limit:2}") int minLimit,
+            @Value("${library.concurrency.adaptive.max-limit.reads:200}") int maxReads,
+            @Value("${library.concurrency.adaptive.max-limit.writes:100}") int maxWrites,
+            @Value("${library.concurrency.adaptive.max-limit.bulk:4}") int maxBulk,
+            @Value("${library.concurrency.adaptive.max-limit.logs:4}") int maxLogs,
+            @Value("${library.concurrency.adaptive.window:500ms}") Duration window,
+            @Value("${library.concurrency.adaptive.min-window-samples:10}") int minWindowSamples,
+            @Value("${library.concurrency.adaptive.retry-after:1s}") Duration retryAfter) {
+        Map<EndpointGroup, Integer> maxLimits = Map.of(EndpointGroup.READS, maxReads,
+                EndpointGroup.WRITES, maxWrites, EndpointGroup.BULK, maxBulk,
+                EndpointGroup.LOGS, maxLogs);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit,
+                    maxLimits.get(group), window.toNanos(), minWindowSamples, System::nanoTime);
+            limits.put(group, limit);
+            Gauge.builder("http.server.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("group", group.key())
+                    .register(meterRegistry);
+            Gauge.builder("http.server.concurrency.in-flight", limit,
+                            AdaptiveConcurrencyLimit::inFlight)
+                    .description("Requests currently admitted by the concurrency limit")
+                    .tag("group", group.key())
+                    .register(meterRegistry);
+            rejected.put(group, Counter.builder("http.server.concurrency.rejected")
+                    .description("Requests rejected by the concurrency limit")
+                    .tag("group", group.key())
+                    .register(meterRegistry));
+        }
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") && !EndpointGroup.isLogs(uri);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.of(request);
+        AdaptiveConcurrencyLimit limit = limits.get(group);
+        if (!limit.tryAcquire()) {
+            rejected.get(group).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "Сервис перегружен, повторите запрос позже");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            int status = response.getStatus();
+            dropped = status == HttpServletResponse.SC_SERVICE_UNAVAILABLE
+                    || status == HttpServletResponse.SC_GATEWAY_TIMEOUT;
+        } finally {
+            if (!request.isAsyncStarted()) {
+                limit.release(System.nanoTime() - start, dropped);
+            } else if (isEventStream(response)) {
+                // SSE-поток открыт, пока клиент подписан: место он держит только
+                // на время первой обработки, его длительность в задержку не входит
+                limit.releaseWithoutSample();
+            } else {
+                // Потоковая выгрузка и другие асинхронные ответы работают с базой
+                // до конца, поэтому место освобождается по завершении
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limit, response, start));
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    // onComplete приходит и после onTimeout/onError, место освобождается один раз
+    private static final class ReleaseOnCompletion implements AsyncListener {
+        private final AdaptiveConcurrencyLimit limit;
+        private final HttpServletResponse response;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(AdaptiveConcurrencyLimit limit, HttpServletResponse response,
+                            long start) {
+            this.limit = limit;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = response.getStatus();
+            release(status == HttpServletResponse.SC_SERVICE_UNAVAILABLE
+                    || status == HttpServletResponse.SC_GATEWAY_TIMEOUT);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Повторный startAsync снимает слушатели, регистрируемся снова
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release(boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+}
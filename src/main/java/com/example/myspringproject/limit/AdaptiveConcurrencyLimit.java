@@ -0,0 +1,132 @@
+package com.example.myspringproject.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Лимит одновременных запросов, подстраиваемый по задержке (градиентный
+// алгоритм). Долгая средняя задержка служит базой, короткая — средняя за окно;
+// пока короткая не выше базы с допуском, лимит растёт на sqrt(limit) за окно,
+// а когда база растёт, лимит умножается на их отношение (не меньше чем на 0.5).
+// Ошибки перегрузки (исключение, 503, 504) дают мультипликативное снижение.
+// Лимит меняется не чаще раза за окно и только при заполненности больше
+// половины: простаивающий лимит не должен расти от одних быстрых ответов.
+class AdaptiveConcurrencyLimit {
+
+    // Короткая задержка может превышать базу в полтора раза без снижения
+    private static final double TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+    private static final double SMOOTHING = 0.2;
+    // База — экспоненциальное среднее примерно по 600 окнам
+    private static final double LONG_RTT_WEIGHT = 2.0 / (600 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Поля ниже меняются только под this
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                             long windowNanos, int minWindowSamples, LongSupplier nanoClock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.estimatedLimit = limit;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    // Не ждёт: запрос сверх лимита должен быстро получить отказ, а не встать в очередь
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Запрос завершён за rttNanos; dropped — ответ, говорящий о перегрузке
+    void release(long rttNanos, boolean dropped) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+            if (dropped) {
+                windowDropped = true;
+            } else {
+                windowRttSum += rttNanos;
+                windowSamples++;
+            }
+            long now = nanoClock.getAsLong();
+            if (now - windowStart >= windowNanos
+                    && (windowDropped || windowSamples >= minWindowSamples)) {
+                updateLimit();
+                windowStart = now;
+                windowRttSum = 0;
+                windowSamples = 0;
+                windowMaxInFlight = 0;
+                windowDropped = false;
+            }
+        }
+    }
+
+    // Запрос не дошёл до обработки или ушёл в асинхронный режим: его время
+    // ничего не говорит о нагрузке на базу
+    void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private void updateLimit() {
+        double next;
+        if (windowDropped) {
+            next = estimatedLimit * DROP_BACKOFF;
+        } else {
+            double shortRtt = (double) windowRttSum / windowSamples;
+            if (longRttNanos == 0) {
+                longRttNanos = shortRtt;
+            } else {
+                longRttNanos += (shortRtt - longRttNanos) * LONG_RTT_WEIGHT;
+            }
+            // После перегрузки база остаётся завышенной долго; если задержка
+            // уже вдвое ниже, база догоняет её быстрее
+            if (longRttNanos / shortRtt > 2) {
+                longRttNanos *= 0.95;
+            }
+            if (windowMaxInFlight < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT,
+                    Math.min(1.0, TOLERANCE * longRttNanos / shortRtt));
+            double queueSize = Math.sqrt(estimatedLimit);
+            next = estimatedLimit * (1 - SMOOTHING)
+                    + (estimatedLimit * gradient + queueSize) * SMOOTHING;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.myspringproject.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Группы эндпоинтов с раздельными лимитами: медленная массовая операция или
+// выгрузка логов не должны занимать места, нужные чтению каталога
+public enum EndpointGroup {
+    READS("reads"),
+    WRITES("writes"),
+    BULK("bulk"),
+    LOGS("logs");
+
+    private final String key;
+
+    EndpointGroup(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static EndpointGroup of(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (isLogs(uri)) {
+            return LOGS;
+        }
+        // Сегмент /bulk где угодно в пути: /books/bulk, /books/bulk/stream
+        if (uri.endsWith("/bulk") || uri.contains("/bulk/")) {
+            return BULK;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? READS : WRITES;
+    }
+
+    // Сам /logs — выгрузка файла за дату (GET /logs?date=), под ним — остальные
+    static boolean isLogs(String uri) {
+        return uri.equals("/logs") || uri.startsWith("/logs/");
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.myspringproject.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Ограничение частоты запросов каждого клиента (API-ключ или адрес) по правилам
+// library.rate-limit.rules. Стоит перед AdaptiveConcurrencyFilter: запросы
+// сверх квоты одного клиента не должны занимать общие места. Ответ несёт
+// заголовки RateLimit-*, отказ — 429 с Retry-After.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(prefix = "library.rate-limit", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    // Готовые строки для значений заголовков, чтобы не создавать их на каждый запрос
+    private static final String[] NUMBERS = new String[1024];
+
+    static {
+        for (int i = 0; i < NUMBERS.length; i++) {
+            NUMBERS[i] = Integer.toString(i);
+        }
+    }
+
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final RuleLimiter[] rules;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.apiKeyHeader = properties.getApiKeyHeader();
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+        List<RateLimitProperties.Rule> configured = properties.getRules();
+        this.rules = new RuleLimiter[configured.size()];
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = new RuleLimiter(configured.get(i), meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        RuleLimiter rule = match(request.getRequestURI(), request.getMethod());
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // Неизвестный ключ не заводит своей корзины: иначе клиент получал бы
+        // новую квоту с каждым случайным ключом, а карта росла без предела
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && !apiKeys.contains(apiKey)) {
+            apiKey = null;
+        }
+        TokenBucketRateLimiter limiter = apiKey != null ? rule.byApiKey : rule.byAddress;
+        long result = limiter.tryAcquire(apiKey != null ? apiKey : request.getRemoteAddr());
+
+        response.setHeader("RateLimit-Policy", rule.policy);
+        response.setHeader("RateLimit-Limit", rule.limit);
+        if (result < 0) {
+            rule.rejected.increment();
+            response.setHeader("RateLimit-Remaining", NUMBERS[0]);
+            response.setHeader("RateLimit-Reset", seconds(-result));
+            response.setHeader(HttpHeaders.RETRY_AFTER, seconds(-result));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+                    "Превышен лимит запросов, повторите позже");
+            return;
+        }
+        response.setHeader("RateLimit-Remaining", number(limiter.remaining(result)));
+        response.setHeader("RateLimit-Reset", seconds(result));
+        filterChain.doFilter(request, response);
+    }
+
+    // Клиенты без активности дольше, чем нужно на заполнение корзины
+    @Scheduled(fixedDelayString = "${library.rate-limit.eviction-interval:1m}",
+            initialDelayString = "${library.rate-limit.eviction-interval:1m}")
+    public void evictIdle() {
+        int evicted = 0;
+        for (RuleLimiter rule : rules) {
+            evicted += rule.byApiKey.evictIdle() + rule.byAddress.evictIdle();
+        }
+        logger.debug("Rate limiter evicted {} idle clients", evicted);
+    }
+
+    private RuleLimiter match(String uri, String method) {
+        for (RuleLimiter rule : rules) {
+            if (uri.startsWith(rule.path)
+                    && (rule.methods.isEmpty() || rule.methods.contains(method))) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    // Округление вверх: клиент, повторивший запрос через столько секунд, получит токен
+    private static String seconds(long nanos) {
+        return number(TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static String number(long value) {
+        return value < NUMBERS.length ? NUMBERS[(int) value] : Long.toString(value);
+    }
+
+    private static final class RuleLimiter {
+        private final String path;
+        private final Set<String> methods;
+        private final String limit;
+        private final String policy;
+        // Ключи и адреса в разных картах: ключ, совпадающий с чужим адресом,
+        // не расходует его квоту
+        private final TokenBucketRateLimiter byApiKey;
+        private final TokenBucketRateLimiter byAddress;
+        private final Counter rejected;
+
+        private RuleLimiter(RateLimitProperties.Rule rule, MeterRegistry meterRegistry) {
+            if (rule.getPath() == null || rule.getLimit() <= 0 || rule.getPeriod().isZero()
+                    || rule.getPeriod().isNegative() || rule.getBurst() < 0) {
+                throw new IllegalStateException("Некорректное правило library.rate-limit: "
+                        + rule.getName());
+            }
+            int burst = rule.getBurst() > 0 ? rule.getBurst() : rule.getLimit();
+            long periodNanos = rule.getPeriod().toNanos();
+            this.path = rule.getPath();
+            this.methods = Set.copyOf(rule.getMethods());
+            this.limit = number(burst);
+            // Окно, за которое полностью расходуется и восстанавливается burst
+            long window = Math.max(1, rule.getPeriod().toMillis() * burst / rule.getLimit() / 1000);
+            this.policy = burst + ";w=" + window;
+            this.byApiKey = new TokenBucketRateLimiter(rule.getLimit(), periodNanos, burst,
+                    System::nanoTime);
+            this.byAddress = new TokenBucketRateLimiter(rule.getLimit(), periodNanos, burst,
+                    System::nanoTime);
+            this.rejected = Counter.builder("http.server.rate-limit.rejected")
+                    .description("Requests rejected by the per-client rate limit")
+                    .tag("rule", rule.getName())
+                    .register(meterRegistry);
+            Gauge.builder("http.server.rate-limit.clients", this,
+                            limiter -> limiter.byApiKey.size() + limiter.byAddress.size())
+                    .description("Clients with a partially used rate limit bucket")
+                    .tag("rule", rule.getName())
+                    .register(meterRegistry);
+        }
+    }
+}
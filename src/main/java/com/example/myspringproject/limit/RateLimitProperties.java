@@ -0,0 +1,34 @@
+package com.example.myspringproject.limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Data;
+
+// library.rate-limit: правила проверяются по порядку, запрос расходует токен
+// только первого подходящего правила
+@Data
+public class RateLimitProperties {
+
+    // Клиент определяется по этому заголовку, если ключ есть в apiKeys;
+    // иначе — по адресу, чтобы сменой ключа нельзя было обнулить квоту
+    private String apiKeyHeader = "X-API-Key";
+    private Set<String> apiKeys = new HashSet<>();
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String name;
+        // Префикс пути запроса
+        private String path;
+        // Пустой список — любые методы
+        private List<String> methods = new ArrayList<>();
+        // limit запросов за period в среднем
+        private int limit;
+        private Duration period = Duration.ofSeconds(1);
+        // Сколько запросов подряд допускается после простоя; 0 — равно limit
+        private int burst;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.myspringproject.limit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Корзины токенов клиентов одного правила. Корзина хранится одним числом —
+// моментом, когда она снова станет полной (GCRA): запрос сдвигает его на
+// interval = period / limit, и запрос отклоняется, если корзина опустела бы
+// дальше, чем на burst запросов. Обновление — CAS этого числа, без блокировок.
+// ConcurrentHashMap читает без блокировок и разбит на независимые корзины, а
+// существующий клиент находится без создания объектов.
+// Полные корзины ничем не отличаются от отсутствующих, и evictIdle их удаляет.
+class TokenBucketRateLimiter {
+
+    // Метка удалённой корзины: опоздавший запрос не спишет токен в корзину,
+    // которой уже нет в карте, а заведёт новую
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    TokenBucketRateLimiter(int limit, long periodNanos, int burst, LongSupplier nanoClock) {
+        this.intervalNanos = periodNanos / limit;
+        this.burstNanos = intervalNanos * burst;
+        this.nanoClock = nanoClock;
+        // Время отсчитывается от создания, чтобы 0 в новой корзине значил «полная»
+        this.origin = nanoClock.getAsLong();
+    }
+
+    // Неотрицательный результат — запрос пропущен, это время до заполнения
+    // корзины; отрицательный — отказ, по модулю время до появления токена
+    long tryAcquire(String client) {
+        long now = nanoClock.getAsLong() - origin;
+        while (true) {
+            AtomicLong bucket = buckets.get(client);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(client, key -> new AtomicLong());
+            }
+            long current = bucket.get();
+            if (current == EVICTED) {
+                buckets.remove(client, bucket);
+                continue;
+            }
+            long full = Math.max(current, now) + intervalNanos;
+            long untilFull = full - now;
+            if (untilFull > burstNanos) {
+                return -(untilFull - burstNanos);
+            }
+            if (bucket.compareAndSet(current, full)) {
+                return untilFull;
+            }
+        }
+    }
+
+    // Сколько ещё запросов подряд пройдёт при данном времени до заполнения
+    int remaining(long untilFullNanos) {
+        return (int) ((burstNanos - untilFullNanos) / intervalNanos);
+    }
+
+    int evictIdle() {
+        long now = nanoClock.getAsLong() - origin;
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            long current = bucket.get();
+            if (current != EVICTED && current <= now && bucket.compareAndSet(current, EVICTED)) {
+                buckets.remove(entry.getKey(), bucket);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
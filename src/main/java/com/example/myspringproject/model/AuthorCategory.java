@@ -0,0 +1,39 @@
+package com.example.myspringproject.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+// Строка таблицы author_category: сколько книг автора в категории.
+// Таблицу ведут триггеры базы (V3__author_category.sql), приложение её только читает.
+@Data
+@Entity
+@Immutable
+@IdClass(AuthorCategory.Key.class)
+@Table(name = "author_category")
+public class AuthorCategory {
+    @Id
+    @Column(name = "author_id")
+    private int authorId;
+
+    @Id
+    @Column(name = "category_id")
+    private int categoryId;
+
+    @Column(name = "category_name")
+    private String categoryName;
+
+    @Column(name = "book_count")
+    private int bookCount;
+
+    @Data
+    public static class Key implements Serializable {
+        private int authorId;
+        private int categoryId;
+    }
+}
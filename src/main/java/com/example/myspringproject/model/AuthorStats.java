@@ -0,0 +1,23 @@
+package com.example.myspringproject.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+// Число книг автора. Таблицу ведут триггеры базы
+// (V5__catalog_stats.sql), приложение её только читает.
+@Data
+@Entity
+@Immutable
+@Table(name = "author_stats")
+public class AuthorStats {
+    @Id
+    @Column(name = "author_id")
+    private int authorId;
+
+    @Column(name = "book_count")
+    private int bookCount;
+}
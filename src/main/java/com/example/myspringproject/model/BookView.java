@@ -0,0 +1,43 @@
+package com.example.myspringproject.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.List;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+// Строка read-модели book_view: книга с именем автора и названиями категорий.
+// Таблицу ведут триггеры базы (V4__book_view.sql), приложение её только читает.
+@Data
+@Entity
+@Immutable
+@Table(name = "book_view")
+public class BookView {
+    @Id
+    @Column(name = "book_id")
+    private int bookId;
+
+    @Column(name = "name")
+    private String bookName;
+
+    @Column(name = "author_id")
+    private Integer authorId;
+
+    @Column(name = "author_name")
+    private String authorName;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "category_ids")
+    private List<Integer> categoryIds;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "category_names")
+    private List<String> categoryNames;
+
+    @Column(name = "category_search")
+    private String categorySearch;
+}
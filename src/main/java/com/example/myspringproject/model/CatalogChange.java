@@ -0,0 +1,32 @@
+package com.example.myspringproject.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+// Запись журнала изменений каталога. Таблицу ведут триггеры базы
+// (V6__catalog_changes.sql), приложение её читает и сжимает.
+@Data
+@Entity
+@Immutable
+@Table(name = "catalog_changes")
+public class CatalogChange {
+    @Id
+    @Column(name = "change_id")
+    private long changeId;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "entity_type")
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private int entityId;
+
+    @Column(name = "deleted")
+    private boolean deleted;
+}
@@ -0,0 +1,23 @@
+package com.example.myspringproject.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+// Число книг в категории. Таблицу ведут триггеры базы
+// (V5__catalog_stats.sql), приложение её только читает.
+@Data
+@Entity
+@Immutable
+@Table(name = "category_stats")
+public class CategoryStats {
+    @Id
+    @Column(name = "category_id")
+    private int categoryId;
+
+    @Column(name = "book_count")
+    private int bookCount;
+}
@@ -0,0 +1,65 @@
+package com.example.myspringproject.reactive;
+
+import com.example.myspringproject.dto.get.AuthorGetDto;
+import com.example.myspringproject.dto.get.BookGetDto;
+import com.example.myspringproject.dto.get.CategoryGetDto;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+// Только чтение, ответы в формате /api/v2. С Accept: application/x-ndjson
+// каждая запись уходит отдельной строкой сразу после чтения из базы; с
+// application/json WebFlux пишет тот же поток как JSON-массив. Пустой
+// результат — пустой список, а не 404: статус уходит до первой строки.
+@RestController
+@RequestMapping(value = "/api/v3",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+@Profile(ReactiveReadApplication.PROFILE)
+public class ReactiveCatalogController {
+
+    private final ReactiveCatalogRepository catalogRepository;
+
+    public ReactiveCatalogController(ReactiveCatalogRepository catalogRepository) {
+        this.catalogRepository = catalogRepository;
+    }
+
+    @GetMapping("/books")
+    public Flux<BookGetDto> findAllBooks() {
+        return catalogRepository.findAllBooks();
+    }
+
+    @GetMapping("/books/by-category")
+    public Flux<BookGetDto> getBooksByCategory(@RequestParam("category") String categoryName) {
+        return catalogRepository.findBooksByCategoryName(categoryName);
+    }
+
+    @GetMapping("/books/by-category/{categoryId}")
+    public Flux<BookGetDto> getBooksByCategoryId(@PathVariable int categoryId) {
+        return catalogRepository.findBooksByCategoryId(categoryId);
+    }
+
+    @GetMapping("/books/by-author")
+    public Flux<BookGetDto> getBooksByAuthor(@RequestParam("author") String authorName) {
+        return catalogRepository.findBooksByAuthorName(authorName);
+    }
+
+    @GetMapping("/books/by-author/{authorId}")
+    public Flux<BookGetDto> getBooksByAuthorId(@PathVariable int authorId) {
+        return catalogRepository.findBooksByAuthorId(authorId);
+    }
+
+    @GetMapping("/authors")
+    public Flux<AuthorGetDto> findAllAuthors() {
+        return catalogRepository.findAllAuthors();
+    }
+
+    @GetMapping("/categories")
+    public Flux<CategoryGetDto> findAllCategories() {
+        return catalogRepository.findAllCategories();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.myspringproject.reactive;
+
+import com.example.myspringproject.dto.get.AuthorGetDto;
+import com.example.myspringproject.dto.get.BookGetDto;
+import com.example.myspringproject.dto.get.CategoryGetDto;
+import io.r2dbc.spi.Readable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Те же выборки, что у /api/v2, но строки читаются курсором порциями по
+// library.reactive.fetch-size: следующая порция запрашивается у базы, только
+// когда клиент забрал предыдущую, поэтому медленный клиент держит в памяти не
+// больше одной порции. Авторы и категории собирают названия книг подзапросом
+// на строку, а не GROUP BY по всей таблице, чтобы первая строка уходила сразу.
+@Repository
+@Profile(ReactiveReadApplication.PROFILE)
+public class ReactiveCatalogRepository {
+
+    private static final String BOOK_COLUMNS = "SELECT book_id, name, author_name, category_names "
+            + "FROM book_view ";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactiveCatalogRepository(DatabaseClient databaseClient,
+                                     @Value("${library.reactive.fetch-size:256}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<BookGetDto> findAllBooks() {
+        return books(databaseClient.sql(BOOK_COLUMNS + "ORDER BY book_id"));
+    }
+
+    // Использует GIN-индекс ix_book_view_category_ids
+    public Flux<BookGetDto> findBooksByCategoryId(int categoryId) {
+        return books(databaseClient.sql(BOOK_COLUMNS
+                        + "WHERE category_ids @> ARRAY[CAST(:categoryId AS integer)] ORDER BY book_id")
+                .bind("categoryId", categoryId));
+    }
+
+    // category_search хранится уже в нижнем регистре
+    public Flux<BookGetDto> findBooksByCategoryName(String categoryName) {
+        return books(databaseClient.sql(BOOK_COLUMNS
+                        + "WHERE category_search LIKE LOWER('%' || :categoryName || '%') ORDER BY book_id")
+                .bind("categoryName", categoryName));
+    }
+
+    public Flux<BookGetDto> findBooksByAuthorId(int authorId) {
+        return books(databaseClient.sql(BOOK_COLUMNS + "WHERE author_id = :authorId ORDER BY book_id")
+                .bind("authorId", authorId));
+    }
+
+    public Flux<BookGetDto> findBooksByAuthorName(String authorName) {
+        return books(databaseClient.sql(BOOK_COLUMNS
+                        + "WHERE LOWER(author_name) LIKE LOWER('%' || :authorName || '%') "
+                        + "ORDER BY book_id")
+                .bind("authorName", authorName));
+    }
+
+    public Flux<AuthorGetDto> findAllAuthors() {
+        return stream(databaseClient.sql("SELECT a.author_id, a.name, "
+                        + "ARRAY(SELECT b.name FROM books b WHERE b.author_id = a.author_id "
+                        + "ORDER BY b.book_id) AS books "
+                        + "FROM authors a ORDER BY a.author_id"),
+                row -> new AuthorGetDto(row.get("author_id", Integer.class),
+                        row.get("name", String.class), strings(row, "books")));
+    }
+
+    public Flux<CategoryGetDto> findAllCategories() {
+        return stream(databaseClient.sql("SELECT c.category_id, c.name, "
+                        + "ARRAY(SELECT b.name FROM books_categories bc "
+                        + "JOIN books b ON b.book_id = bc.book_id "
+                        + "WHERE bc.category_id = c.category_id ORDER BY b.book_id) AS books "
+                        + "FROM categories c ORDER BY c.category_id"),
+                row -> new CategoryGetDto(row.get("category_id", Integer.class),
+                        row.get("name", String.class), strings(row, "books")));
+    }
+
+    private Flux<BookGetDto> books(DatabaseClient.GenericExecuteSpec spec) {
+        return stream(spec, row -> new BookGetDto(row.get("book_id", Integer.class),
+                row.get("name", String.class), row.get("author_name", String.class),
+                strings(row, "category_names")));
+    }
+
+    private <T> Flux<T> stream(DatabaseClient.GenericExecuteSpec spec,
+                               Function<Readable, T> mapper) {
+        return spec.filter(statement -> statement.fetchSize(fetchSize))
+                .map(mapper)
+                .all();
+    }
+
+    private static List<String> strings(Readable row, String column) {
+        String[] values = row.get(column, String[].class);
+        return values == null ? List.of() : Arrays.asList(values);
+    }
+}
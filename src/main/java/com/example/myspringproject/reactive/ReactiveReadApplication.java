@@ -0,0 +1,42 @@
+package com.example.myspringproject.reactive;
+
+import java.util.Arrays;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+// Отдельный контекст только для чтения: WebFlux на Netty и R2DBC к той же
+// схеме, без JDBC, Hibernate и Flyway (миграции накатывает основное
+// приложение). Запускается из того же jar профилем reactive:
+// java -jar app.jar --spring.profiles.active=reactive
+// Сканирует только этот пакет; @Profile не даёт основному приложению,
+// которое сканирует пакеты ниже com.example.myspringproject, подхватить его.
+@Profile(ReactiveReadApplication.PROFILE)
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        FlywayAutoConfiguration.class
+})
+public class ReactiveReadApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static boolean isActive(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        return Arrays.asList(environment.getActiveProfiles()).contains(PROFILE);
+    }
+
+    public static void run(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
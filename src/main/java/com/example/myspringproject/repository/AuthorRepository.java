@@ -1,38 +1,102 @@
 package com.example.myspringproject.repository;
 
 import com.example.myspringproject.model.Author;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Set;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 
 public interface AuthorRepository extends JpaRepository<Author, Integer> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Author> findAllById(Iterable<Integer> ids);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(Integer id);
+
     @Query("SELECT DISTINCT a FROM Author a LEFT JOIN FETCH a.books")
     List<Author> findAllWithBooks();
 
     // Загрузка авторов по имени с книгами
     @EntityGraph(attributePaths = {"books"})
-    List<Author> findByAuthorNameContainingIgnoreCase(String authorName);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT a FROM Author a WHERE LOWER(a.authorName) "
+            + "LIKE LOWER(CONCAT('%', :authorName, '%'))")
+    List<Author> findByAuthorNameContainingIgnoreCase(@Param("authorName") String authorName);
 
-    @Query("SELECT DISTINCT a FROM Author a JOIN a.books b JOIN b.categories c WHERE "
-            + "LOWER(c.categoryName) LIKE LOWER(CONCAT('%', :category, '%'))")
+    // То же без книг: для ответов, где их не просили (fields= без books)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT a FROM Author a WHERE LOWER(a.authorName) "
+            + "LIKE LOWER(CONCAT('%', :authorName, '%'))")
+    List<Author> findByAuthorNameContainingIgnoreCaseWithoutBooks(
+            @Param("authorName") String authorName);
+
+    // Поиск по категории идёт по таблице author_category (V3__author_category.sql),
+    // без соединения книг и связей и без DISTINCT
+    @EntityGraph(attributePaths = {"books"})
+    @Query("SELECT a FROM Author a WHERE a.authorId IN (SELECT ac.authorId FROM AuthorCategory ac "
+            + "WHERE LOWER(ac.categoryName) LIKE LOWER(CONCAT('%', :category, '%')))")
     List<Author> findAuthorsByBookCategory(@Param("category") String category);
 
+    @Query("SELECT a FROM Author a WHERE a.authorId IN (SELECT ac.authorId FROM AuthorCategory ac "
+            + "WHERE LOWER(ac.categoryName) LIKE LOWER(CONCAT('%', :category, '%')))")
+    List<Author> findAuthorsByBookCategoryWithoutBooks(@Param("category") String category);
+
+    // pattern уже приведён к нижнему регистру и экранирован: при готовом шаблоне
+    // планировщик может использовать ix_author_category_name_prefix
+    @EntityGraph(attributePaths = {"books"})
+    @Query("SELECT a FROM Author a WHERE a.authorId IN (SELECT ac.authorId FROM AuthorCategory ac "
+            + "WHERE LOWER(ac.categoryName) LIKE :pattern ESCAPE '\\')")
+    List<Author> findAuthorsByBookCategoryNameLike(@Param("pattern") String pattern);
+
+    @Query("SELECT a FROM Author a WHERE a.authorId IN (SELECT ac.authorId FROM AuthorCategory ac "
+            + "WHERE LOWER(ac.categoryName) LIKE :pattern ESCAPE '\\')")
+    List<Author> findAuthorsByBookCategoryNameLikeWithoutBooks(@Param("pattern") String pattern);
+
     @Query(value = """
-         SELECT DISTINCT a.*
+         SELECT a.*
          FROM authors a
-         JOIN books b ON a.author_id = b.author_id
-         JOIN books_categories bc ON b.book_id = bc.book_id
-         JOIN categories c ON bc.category_id = c.category_id
-         WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :category, '%'))
+         WHERE a.author_id IN (
+             SELECT ac.author_id
+             FROM author_category ac
+             WHERE LOWER(ac.category_name) LIKE LOWER(CONCAT('%', :category, '%')))
          """,
             nativeQuery = true)
     List<Author> findAuthorsByBookCategoryNative(@Param("category") String category);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByAuthorName(String name);
 
     List<Author> findByAuthorNameIn(@Param("names") Set<String> names);
+
+    // Вставляет недостающих авторов одним запросом; параллельные импорты
+    // не создают дублей благодаря ux_authors_name. Возвращает число новых строк.
+    // Выполняется как update, чтобы Hibernate сбросил кэш запросов по таблице authors.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "authors"))
+    @Query(value = """
+         INSERT INTO authors (name)
+         SELECT DISTINCT unnest(CAST(:names AS varchar[]))
+         ON CONFLICT (name) DO NOTHING
+         """,
+            nativeQuery = true)
+    int insertMissingByAuthorName(@Param("names") String[] names);
+
+    // Книги удаляемого автора остаются без автора: одним UPDATE вместо
+    // загрузки и изменения каждой книги
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.author = NULL WHERE b.author.authorId = :authorId")
+    int detachBooks(@Param("authorId") int authorId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Author a WHERE a.authorId = :authorId")
+    int deleteAuthorById(@Param("authorId") int authorId);
 }
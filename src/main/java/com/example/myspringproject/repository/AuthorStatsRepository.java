@@ -0,0 +1,24 @@
+package com.example.myspringproject.repository;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import com.example.myspringproject.model.AuthorStats;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface AuthorStatsRepository extends JpaRepository<AuthorStats, Integer> {
+
+    // Авторы без книг не имеют строки в author_stats
+    @Query("SELECT new com.example.myspringproject.dto.get.BookCountGetDto("
+            + "a.authorId, a.authorName, COALESCE(s.bookCount, 0)) "
+            + "FROM Author a LEFT JOIN AuthorStats s ON s.authorId = a.authorId "
+            + "ORDER BY a.authorName")
+    List<BookCountGetDto> findBookCounts();
+
+    @Query("SELECT new com.example.myspringproject.dto.get.BookCountGetDto("
+            + "a.authorId, a.authorName, s.bookCount) "
+            + "FROM AuthorStats s JOIN Author a ON a.authorId = s.authorId "
+            + "WHERE s.bookCount > 0 ORDER BY s.bookCount DESC, s.authorId")
+    List<BookCountGetDto> findTop(Limit limit);
+}
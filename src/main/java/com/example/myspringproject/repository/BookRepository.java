@@ -1,31 +1,113 @@
 package com.example.myspringproject.repository;
 
+import com.example.myspringproject.model.Author;
 import com.example.myspringproject.model.Book;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface BookRepository extends JpaRepository<Book, Integer> {
 
+    // Планы выборки покрывают всё, что читает BookGetDto: после закрытия
+    // транзакции ленивых загрузок нет (open-in-view выключен)
+    @Override
+    @EntityGraph(attributePaths = {"author", "categories"})
+    Optional<Book> findById(Integer id);
+
     @Query("SELECT b FROM Book b LEFT JOIN FETCH b.categories LEFT JOIN FETCH b.author")
     List<Book> findAllWithCategoriesAndAuthor();
 
+    @EntityGraph(attributePaths = {"author", "categories"})
+    @Query("SELECT b FROM Book b LEFT JOIN b.author a "
+            + "WHERE LOWER(a.authorName) LIKE LOWER(CONCAT('%', :authorName, '%')) "
+            + "OR LOWER(b.bookName) LIKE LOWER(CONCAT('%', :title, '%'))")
     List<Book> findByAuthorAuthorNameContainingIgnoreCaseOrBookNameContainingIgnoreCase(
-            String authorName, String title
+            @Param("authorName") String authorName, @Param("title") String title
     );
 
+    @EntityGraph(attributePaths = {"author", "categories"})
     @Query("SELECT b FROM Book b JOIN b.categories c WHERE LOWER(c.categoryName) "
             + "LIKE LOWER(CONCAT('%', :categoryName, '%'))")
     List<Book> findByCategoryName(@Param("categoryName") String categoryName);
 
+    @EntityGraph(attributePaths = {"author", "categories"})
     @Query("SELECT b FROM Book b JOIN b.categories c WHERE c.categoryId = :categoryId")
     List<Book> findByCategoryId(@Param("categoryId") int categoryId);
 
+    @EntityGraph(attributePaths = {"author", "categories"})
     @Query("SELECT b FROM Book b JOIN b.author c WHERE LOWER(c.authorName) "
             + "LIKE LOWER(CONCAT('%', :authorName, '%'))")
     List<Book> findByAuthorName(@Param("authorName") String authorName);
 
+    @EntityGraph(attributePaths = {"author", "categories"})
     @Query("SELECT b FROM Book b WHERE b.author.authorId = :authorId")
     List<Book> findByAuthorId(@Param("authorId") int authorId);
-}
\ No newline at end of file
+
+    // Использует уникальный индекс ux_books_author_lower_name (author_id, lower(name))
+    @Query("SELECT COUNT(b) > 0 FROM Book b WHERE b.author.authorId = :authorId "
+            + "AND LOWER(b.bookName) = LOWER(:name)")
+    boolean existsByAuthorIdAndNameIgnoreCase(@Param("authorId") Integer authorId,
+                                              @Param("name") String name);
+
+    // Массовые операции: выборка ids частями и set-based изменения по ним
+
+    @Query("SELECT b.bookId FROM Book b WHERE b.bookId IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    // Keyset-пагинация по book_id: следующая часть начинается после afterId
+    @Query("SELECT b.bookId FROM Book b WHERE b.bookId > :afterId "
+            + "AND (:authorId IS NULL OR b.author.authorId = :authorId) "
+            + "AND (:categoryId IS NULL OR EXISTS (SELECT 1 FROM Book b2 JOIN b2.categories c "
+            + "WHERE b2.bookId = b.bookId AND c.categoryId = :categoryId)) "
+            + "AND (:pattern IS NULL OR LOWER(b.bookName) LIKE :pattern ESCAPE '\\') "
+            + "ORDER BY b.bookId")
+    List<Integer> findIdsByFilter(@Param("afterId") int afterId,
+                                  @Param("authorId") Integer authorId,
+                                  @Param("categoryId") Integer categoryId,
+                                  @Param("pattern") String pattern,
+                                  Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books_categories"))
+    @Query(value = "DELETE FROM books_categories "
+            + "WHERE book_id = ANY (CAST(:bookIds AS integer[]))", nativeQuery = true)
+    int deleteCategoryLinks(@Param("bookIds") Integer[] bookIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books_categories"))
+    @Query(value = "DELETE FROM books_categories "
+            + "WHERE book_id = ANY (CAST(:bookIds AS integer[])) "
+            + "AND category_id = ANY (CAST(:categoryIds AS integer[]))", nativeQuery = true)
+    int deleteCategoryLinks(@Param("bookIds") Integer[] bookIds,
+                            @Param("categoryIds") Integer[] categoryIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books_categories"))
+    @Query(value = "INSERT INTO books_categories (book_id, category_id) "
+            + "SELECT b.book_id, c.category_id "
+            + "FROM unnest(CAST(:bookIds AS integer[])) AS b(book_id) "
+            + "CROSS JOIN unnest(CAST(:categoryIds AS integer[])) AS c(category_id) "
+            + "ORDER BY b.book_id, c.category_id "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertCategoryLinks(@Param("bookIds") Integer[] bookIds,
+                            @Param("categoryIds") Integer[] categoryIds);
+
+    // Книги, у которых автор уже нужный, не трогаем, чтобы не будить триггеры
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.author = :author WHERE b.bookId IN :ids "
+            + "AND (b.author IS NULL OR b.author <> :author)")
+    int reassignAuthor(@Param("ids") Collection<Integer> ids, @Param("author") Author author);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Book b WHERE b.bookId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,18 @@
+package com.example.myspringproject.repository;
+
+import com.example.myspringproject.dto.get.BookFacetsGetDto;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.service.BookFilter;
+import java.util.List;
+
+// Запросы с переменным набором условий собираются в BookViewFilterRepositoryImpl
+public interface BookViewFilterRepository {
+
+    List<BookView> filter(BookFilter.Resolved filter);
+
+    BookFacetsGetDto filterFacets(BookFilter.Resolved filter, int topN);
+
+    // Условие то же, что у BookViewRepository.search; null-подстрока ничему не
+    // соответствует
+    BookFacetsGetDto searchFacets(String authorName, String title, int topN);
+}
@@ -0,0 +1,140 @@
+package com.example.myspringproject.repository;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import com.example.myspringproject.dto.get.BookFacetsGetDto;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.service.BookFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Каждая группа категорий — отдельный EXISTS-полусоединение с books_categories
+// по pk_books_categories (book_id, category_id), исключения — NOT EXISTS.
+// Строки читаются из book_view, поэтому автор и категории приходят без соединений.
+class BookViewFilterRepositoryImpl implements BookViewFilterRepository {
+
+    // Подходящие книги выбираются один раз (MATERIALIZED), затем по ним
+    // считаются категории, авторы и общее число. Топ-N режется до соединения
+    // с названиями, так что categories и authors читаются по первичному ключу
+    private static final String FACETS_SQL = """
+            WITH matched AS MATERIALIZED (
+                SELECT v.author_id, v.category_ids FROM book_view v WHERE %s),
+            category_counts AS (
+                SELECT c.category_id AS id, count(*) AS book_count
+                FROM matched m CROSS JOIN unnest(m.category_ids) AS c(category_id)
+                GROUP BY c.category_id
+                ORDER BY book_count DESC, id LIMIT :topN),
+            author_counts AS (
+                SELECT m.author_id AS id, count(*) AS book_count
+                FROM matched m WHERE m.author_id IS NOT NULL
+                GROUP BY m.author_id
+                ORDER BY book_count DESC, id LIMIT :topN)
+            SELECT 'T' AS facet, 0 AS id, NULL AS name, count(*) AS book_count FROM matched
+            UNION ALL
+            SELECT 'C', cc.id, c.name, cc.book_count
+            FROM category_counts cc JOIN categories c ON c.category_id = cc.id
+            UNION ALL
+            SELECT 'A', ac.id, a.name, ac.book_count
+            FROM author_counts ac JOIN authors a ON a.author_id = ac.id
+            ORDER BY facet, book_count DESC, id""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<BookView> filter(BookFilter.Resolved filter) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = "SELECT v.* FROM book_view v WHERE " + conditions(filter, params)
+                + " ORDER BY " + orderBy(filter.sort());
+
+        Query query = entityManager.createNativeQuery(sql, BookView.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(filter.limit());
+        return query.getResultList();
+    }
+
+    @Override
+    public BookFacetsGetDto filterFacets(BookFilter.Resolved filter, int topN) {
+        Map<String, Object> params = new HashMap<>();
+        return facets(conditions(filter, params), params, topN);
+    }
+
+    @Override
+    public BookFacetsGetDto searchFacets(String authorName, String title, int topN) {
+        List<String> matches = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        if (authorName != null) {
+            matches.add("LOWER(v.author_name) LIKE LOWER(CONCAT('%', :authorName, '%'))");
+            params.put("authorName", authorName);
+        }
+        if (title != null) {
+            matches.add("LOWER(v.name) LIKE LOWER(CONCAT('%', :title, '%'))");
+            params.put("title", title);
+        }
+        if (matches.isEmpty()) {
+            return BookFacetsGetDto.empty();
+        }
+        return facets("(" + String.join(" OR ", matches) + ")", params, topN);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BookFacetsGetDto facets(String conditions, Map<String, Object> params, int topN) {
+        Query query = entityManager.createNativeQuery(FACETS_SQL.formatted(conditions));
+        params.forEach(query::setParameter);
+        query.setParameter("topN", topN);
+
+        int total = 0;
+        List<BookCountGetDto> categories = new ArrayList<>();
+        List<BookCountGetDto> authors = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            int count = ((Number) row[3]).intValue();
+            switch (row[0].toString()) {
+                case "T" -> total = count;
+                case "C" -> categories.add(new BookCountGetDto(
+                        ((Number) row[1]).intValue(), (String) row[2], count));
+                default -> authors.add(new BookCountGetDto(
+                        ((Number) row[1]).intValue(), (String) row[2], count));
+            }
+        }
+        return new BookFacetsGetDto(total, categories, authors);
+    }
+
+    private static String conditions(BookFilter.Resolved filter, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder("TRUE");
+        List<Set<Integer>> groups = filter.categoryGroups();
+        for (int i = 0; i < groups.size(); i++) {
+            sql.append(" AND EXISTS (SELECT 1 FROM books_categories bc WHERE bc.book_id = v.book_id"
+                    + " AND bc.category_id IN (:group").append(i).append("))");
+            params.put("group" + i, groups.get(i));
+        }
+        if (!filter.excludedCategoryIds().isEmpty()) {
+            sql.append(" AND NOT EXISTS (SELECT 1 FROM books_categories bc"
+                    + " WHERE bc.book_id = v.book_id AND bc.category_id IN (:excludedCategories))");
+            params.put("excludedCategories", filter.excludedCategoryIds());
+        }
+        if (!filter.authorIds().isEmpty()) {
+            sql.append(" AND v.author_id IN (:authors)");
+            params.put("authors", filter.authorIds());
+        }
+        if (!filter.excludedAuthorIds().isEmpty()) {
+            sql.append(" AND (v.author_id IS NULL OR v.author_id NOT IN (:excludedAuthors))");
+            params.put("excludedAuthors", filter.excludedAuthorIds());
+        }
+        return sql.toString();
+    }
+
+    private static String orderBy(BookFilter.Sort sort) {
+        return switch (sort) {
+            case ID -> "v.book_id";
+            case ID_DESC -> "v.book_id DESC";
+            case NAME -> "v.name NULLS LAST, v.book_id";
+            case NAME_DESC -> "v.name DESC NULLS FIRST, v.book_id DESC";
+        };
+    }
+}
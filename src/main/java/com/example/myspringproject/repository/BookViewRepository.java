@@ -0,0 +1,34 @@
+package com.example.myspringproject.repository;
+
+import com.example.myspringproject.model.BookView;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+// Все запросы читают одну таблицу book_view по её индексам (V4__book_view.sql)
+public interface BookViewRepository extends JpaRepository<BookView, Integer>,
+        BookViewFilterRepository {
+
+    @Query("SELECT v FROM BookView v "
+            + "WHERE LOWER(v.authorName) LIKE LOWER(CONCAT('%', :authorName, '%')) "
+            + "OR LOWER(v.bookName) LIKE LOWER(CONCAT('%', :title, '%'))")
+    List<BookView> search(@Param("authorName") String authorName, @Param("title") String title);
+
+    // category_search хранится уже в нижнем регистре
+    @Query("SELECT v FROM BookView v "
+            + "WHERE v.categorySearch LIKE LOWER(CONCAT('%', :categoryName, '%'))")
+    List<BookView> findByCategoryName(@Param("categoryName") String categoryName);
+
+    // Использует GIN-индекс ix_book_view_category_ids
+    @Query(value = "SELECT * FROM book_view "
+            + "WHERE category_ids @> ARRAY[CAST(:categoryId AS integer)]",
+            nativeQuery = true)
+    List<BookView> findByCategoryId(@Param("categoryId") int categoryId);
+
+    @Query("SELECT v FROM BookView v "
+            + "WHERE LOWER(v.authorName) LIKE LOWER(CONCAT('%', :authorName, '%'))")
+    List<BookView> findByAuthorName(@Param("authorName") String authorName);
+
+    List<BookView> findByAuthorId(Integer authorId);
+}
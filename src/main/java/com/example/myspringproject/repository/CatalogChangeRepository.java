@@ -0,0 +1,47 @@
+package com.example.myspringproject.repository;
+
+import com.example.myspringproject.model.CatalogChange;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    // Незакоммиченные записи (version IS NULL) чужим транзакциям не видны
+    List<CatalogChange> findByVersionGreaterThanOrderByVersion(long version, Limit limit);
+
+    @Query(value = "SELECT value FROM catalog_change_counters WHERE name = 'last_version'",
+            nativeQuery = true)
+    long findLastVersion();
+
+    @Query(value = "SELECT value FROM catalog_change_counters WHERE name = 'purged_through'",
+            nativeQuery = true)
+    long findPurgedThrough();
+
+    // Запись, у которой есть более позднее изменение той же сущности, никому
+    // не нужна: любой курсор до неё увидит и более позднее
+    @Modifying
+    @Query(value = "DELETE FROM catalog_changes c WHERE c.version IS NOT NULL AND EXISTS ("
+            + "SELECT 1 FROM catalog_changes later WHERE later.entity_type = c.entity_type "
+            + "AND later.entity_id = c.entity_id AND later.version > c.version)",
+            nativeQuery = true)
+    int deleteSuperseded();
+
+    @Query(value = "SELECT max(version) FROM catalog_changes "
+            + "WHERE deleted AND version IS NOT NULL AND changed_at < :cutoff", nativeQuery = true)
+    Long findLastTombstoneBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query(value = "UPDATE catalog_change_counters SET value = GREATEST(value, :version) "
+            + "WHERE name = 'purged_through'", nativeQuery = true)
+    int raisePurgedThrough(@Param("version") long version);
+
+    @Modifying
+    @Query(value = "DELETE FROM catalog_changes WHERE deleted AND version <= :version",
+            nativeQuery = true)
+    int deleteTombstonesThrough(@Param("version") long version);
+}
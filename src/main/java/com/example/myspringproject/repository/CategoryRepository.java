@@ -1,24 +1,121 @@
 package com.example.myspringproject.repository;
 
 import com.example.myspringproject.model.Category;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
-    List<Category> findByCategoryNameContainingIgnoreCase(String categoryName);
+    @Override
+    @EntityGraph(attributePaths = {"books"})
+    List<Category> findAll();
 
+    // findAll всегда подгружает книги, а спискам из одних названий они не нужны
+    @Query("SELECT c FROM Category c")
+    List<Category> findAllWithoutBooks();
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAllById(Iterable<Integer> ids);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(Integer id);
+
+    @EntityGraph(attributePaths = {"books"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c FROM Category c WHERE LOWER(c.categoryName) "
+            + "LIKE LOWER(CONCAT('%', :categoryName, '%'))")
+    List<Category> findByCategoryNameContainingIgnoreCase(
+            @Param("categoryName") String categoryName);
+
+    // Те же выборки без книг: для ответов, где их не просили (fields= без books)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c FROM Category c WHERE LOWER(c.categoryName) "
+            + "LIKE LOWER(CONCAT('%', :categoryName, '%'))")
+    List<Category> findByCategoryNameContainingIgnoreCaseWithoutBooks(
+            @Param("categoryName") String categoryName);
+
+    @EntityGraph(attributePaths = {"books"})
     @Query("SELECT c FROM Category c JOIN c.books b WHERE LOWER(b.bookName) "
             + "LIKE LOWER(CONCAT('%', :bookName, '%'))")
     List<Category> findCategoriesByBook(@Param("bookName") String bookName);
 
+    // Без выборки книг повторы категории по нескольким подходящим книгам
+    // убирает DISTINCT
+    @Query("SELECT DISTINCT c FROM Category c JOIN c.books b WHERE LOWER(b.bookName) "
+            + "LIKE LOWER(CONCAT('%', :bookName, '%'))")
+    List<Category> findCategoriesByBookWithoutBooks(@Param("bookName") String bookName);
+
+    @EntityGraph(attributePaths = {"books"})
     @Query("SELECT c FROM Category c JOIN c.books b WHERE b.bookId = :bookId")
     List<Category> findCategoriesByBookId(@Param("bookId") int bookId);
 
+    @Query("SELECT c FROM Category c JOIN c.books b WHERE b.bookId = :bookId")
+    List<Category> findCategoriesByBookIdWithoutBooks(@Param("bookId") int bookId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCategoryName(String name);
 
     List<Category> findByCategoryNameIn(@Param("names") Set<String> names);
 
+    @Query("SELECT c FROM Category c WHERE LOWER(c.categoryName) IN :names")
+    List<Category> findByLowerCategoryNameIn(@Param("names") Collection<String> names);
+
+    // Вставляет недостающие категории одним запросом; параллельные импорты
+    // не создают дублей благодаря ux_categories_name. Возвращает число новых строк.
+    // Выполняется как update, чтобы Hibernate сбросил кэш запросов по таблице categories.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "categories"))
+    @Query(value = """
+         INSERT INTO categories (name)
+         SELECT DISTINCT unnest(CAST(:names AS varchar[]))
+         ON CONFLICT (name) DO NOTHING
+         """,
+            nativeQuery = true)
+    int insertMissingByCategoryName(@Param("names") String[] names);
+
+    // Set-based изменения связей категории. Пространство books_categories
+    // сбрасывает кэш коллекции Category.books и кэш запросов по связям.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books_categories"))
+    @Query(value = "DELETE FROM books_categories WHERE category_id = :categoryId",
+            nativeQuery = true)
+    int deleteBookLinks(@Param("categoryId") int categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books_categories"))
+    @Query(value = """
+         DELETE FROM books_categories
+         WHERE category_id = :categoryId
+           AND book_id <> ALL (CAST(:bookIds AS integer[]))
+         """,
+            nativeQuery = true)
+    int deleteBookLinksExcept(@Param("categoryId") int categoryId,
+                              @Param("bookIds") Integer[] bookIds);
+
+    // Несуществующие id книг пропускаются, как раньше при findAllById
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books_categories"))
+    @Query(value = """
+         INSERT INTO books_categories (book_id, category_id)
+         SELECT b.book_id, :categoryId
+         FROM books b
+         WHERE b.book_id = ANY (CAST(:bookIds AS integer[]))
+         ON CONFLICT DO NOTHING
+         """,
+            nativeQuery = true)
+    int insertBookLinks(@Param("categoryId") int categoryId, @Param("bookIds") Integer[] bookIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Category c WHERE c.categoryId = :categoryId")
+    int deleteCategoryById(@Param("categoryId") int categoryId);
 }
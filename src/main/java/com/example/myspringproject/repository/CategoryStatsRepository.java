@@ -0,0 +1,24 @@
+package com.example.myspringproject.repository;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import com.example.myspringproject.model.CategoryStats;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface CategoryStatsRepository extends JpaRepository<CategoryStats, Integer> {
+
+    // Категории без книг не имеют строки в category_stats
+    @Query("SELECT new com.example.myspringproject.dto.get.BookCountGetDto("
+            + "c.categoryId, c.categoryName, COALESCE(s.bookCount, 0)) "
+            + "FROM Category c LEFT JOIN CategoryStats s ON s.categoryId = c.categoryId "
+            + "ORDER BY c.categoryName")
+    List<BookCountGetDto> findBookCounts();
+
+    @Query("SELECT new com.example.myspringproject.dto.get.BookCountGetDto("
+            + "c.categoryId, c.categoryName, s.bookCount) "
+            + "FROM CategoryStats s JOIN Category c ON c.categoryId = s.categoryId "
+            + "WHERE s.bookCount > 0 ORDER BY s.bookCount DESC, s.categoryId")
+    List<BookCountGetDto> findTop(Limit limit);
+}
@@ -0,0 +1,25 @@
+package com.example.myspringproject.repository;
+
+import java.util.Locale;
+
+// Шаблоны для запросов вида LOWER(столбец) LIKE :pattern ESCAPE '\':
+// пользовательский ввод приводится к нижнему регистру без учёта локали
+// и экранируется, чтобы % и _ в нём не работали как подстановочные символы
+public final class LikePattern {
+
+    private LikePattern() {
+    }
+
+    public static String startsWith(String value) {
+        return escape(value) + "%";
+    }
+
+    public static String contains(String value) {
+        return "%" + escape(value) + "%";
+    }
+
+    static String escape(String value) {
+        return value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -3,12 +3,15 @@ package com.example.myspringproject.service;
 import com.example.myspringproject.dto.create.AuthorCreateDto;
 import com.example.myspringproject.dto.update.AuthorUpdateDto;
 import com.example.myspringproject.model.Author;
+import java.util.Collection;
 import java.util.List;
 
 public interface AuthorService {
-    List<Author> findAllAuthors();
+    List<Author> findAllAuthors(boolean withBooks);
 
-    Author findAuthorById(int id);
+    Author findAuthorById(int id, boolean withBooks);
+
+    List<Author> findAuthorsByIds(Collection<Integer> ids, boolean withBooks);
 
     Author createAuthor(AuthorCreateDto dto);
 
@@ -16,9 +19,11 @@ public interface AuthorService {
 
     void deleteAuthor(int id);
 
-    List<Author> findAuthorsByName(String name);
+    List<Author> findAuthorsByName(String name, boolean withBooks);
 
-    List<Author> findAuthorsByBookCategory(String category);
+    List<Author> findAuthorsByBookCategory(String category, boolean withBooks);
 
     List<Author> findAuthorsByBookCategoryNative(String category);
+
+    List<Author> findAuthorsByBookCategoryPrefix(String prefix, boolean withBooks);
 }
@@ -0,0 +1,16 @@
+package com.example.myspringproject.service;
+
+import com.example.myspringproject.dto.get.BulkOperationResultDto;
+import com.example.myspringproject.dto.update.BookBulkPatchDto;
+import com.example.myspringproject.dto.update.BookBulkSelectionDto;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BookBulkService {
+    void importBooks(InputStream json, OutputStream results) throws IOException;
+
+    BulkOperationResultDto deleteBooks(BookBulkSelectionDto selection);
+
+    BulkOperationResultDto patchBooks(BookBulkPatchDto patch);
+}
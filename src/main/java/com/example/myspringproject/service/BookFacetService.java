@@ -0,0 +1,11 @@
+package com.example.myspringproject.service;
+
+import com.example.myspringproject.dto.get.BookFacetsGetDto;
+import com.example.myspringproject.dto.get.BookFilterDto;
+
+public interface BookFacetService {
+
+    BookFacetsGetDto searchFacets(String authorName, String title);
+
+    BookFacetsGetDto filterFacets(BookFilterDto filter);
+}
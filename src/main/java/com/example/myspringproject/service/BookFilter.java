@@ -0,0 +1,110 @@
+package com.example.myspringproject.service;
+
+import com.example.myspringproject.dto.get.BookFilterDto;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+// Нормализованный предикат фильтра книг: множества отсортированы и без
+// повторов, названия категорий обрезаны и в нижнем регистре. Запросы с
+// одинаковым смыслом дают равные BookFilter и один ключ кэша.
+public record BookFilter(
+        SortedSet<Integer> allCategoryIds, SortedSet<String> allCategoryNames,
+        SortedSet<Integer> anyCategoryIds, SortedSet<String> anyCategoryNames,
+        SortedSet<Integer> noCategoryIds, SortedSet<String> noCategoryNames,
+        SortedSet<Integer> authorIds, SortedSet<Integer> noAuthorIds,
+        Sort sort, int limit) {
+
+    public enum Sort {
+        ID, ID_DESC, NAME, NAME_DESC;
+
+        static Sort parse(String value) {
+            return switch (value) {
+                case "id" -> ID;
+                case "-id" -> ID_DESC;
+                case "-name" -> NAME_DESC;
+                default -> NAME;
+            };
+        }
+    }
+
+    public static BookFilter of(BookFilterDto dto) {
+        return new BookFilter(
+                sorted(dto.getAllCategoryIds(), Function.identity()),
+                sorted(dto.getAllCategoryNames(), BookFilter::normalizeName),
+                sorted(dto.getAnyCategoryIds(), Function.identity()),
+                sorted(dto.getAnyCategoryNames(), BookFilter::normalizeName),
+                sorted(dto.getNoCategoryIds(), Function.identity()),
+                sorted(dto.getNoCategoryNames(), BookFilter::normalizeName),
+                sorted(dto.getAuthorIds(), Function.identity()),
+                sorted(dto.getNoAuthorIds(), Function.identity()),
+                Sort.parse(dto.getSort()),
+                dto.getLimit());
+    }
+
+    public static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public String cacheKey() {
+        return toString();
+    }
+
+    // Все названия категорий из условий, для одного запроса их id
+    public Set<String> categoryNames() {
+        Set<String> names = new HashSet<>(allCategoryNames);
+        names.addAll(anyCategoryNames);
+        names.addAll(noCategoryNames);
+        return names;
+    }
+
+    // Подставляет id вместо названий. Название без категории ничему не
+    // соответствует: в all* и any* оно даёт пустую группу, в no* пропускается
+    public Resolved resolve(Map<String, Set<Integer>> categoryIdsByName) {
+        List<Set<Integer>> groups = new ArrayList<>();
+        allCategoryIds.forEach(id -> groups.add(Set.of(id)));
+        allCategoryNames.forEach(name ->
+                groups.add(categoryIdsByName.getOrDefault(name, Set.of())));
+        if (!anyCategoryIds.isEmpty() || !anyCategoryNames.isEmpty()) {
+            groups.add(union(anyCategoryIds, anyCategoryNames, categoryIdsByName));
+        }
+        return new Resolved(groups, union(noCategoryIds, noCategoryNames, categoryIdsByName),
+                authorIds, noAuthorIds, sort, limit);
+    }
+
+    // Книга подходит, если у неё есть категория из каждой группы, нет ни одной
+    // из excludedCategoryIds, а автор входит в authorIds (если они заданы) и не
+    // входит в excludedAuthorIds
+    public record Resolved(List<Set<Integer>> categoryGroups, Set<Integer> excludedCategoryIds,
+                           Set<Integer> authorIds, Set<Integer> excludedAuthorIds,
+                           Sort sort, int limit) {
+
+        public boolean matchesNothing() {
+            return categoryGroups.stream().anyMatch(Set::isEmpty);
+        }
+    }
+
+    private static Set<Integer> union(Set<Integer> ids, Set<String> names,
+                                      Map<String, Set<Integer>> categoryIdsByName) {
+        Set<Integer> union = new TreeSet<>(ids);
+        names.forEach(name -> union.addAll(categoryIdsByName.getOrDefault(name, Set.of())));
+        return union;
+    }
+
+    private static <T extends Comparable<T>> SortedSet<T> sorted(
+            Collection<T> values, Function<T, T> normalizer) {
+        SortedSet<T> sorted = new TreeSet<>();
+        if (values != null) {
+            values.forEach(value -> sorted.add(normalizer.apply(value)));
+        }
+        return Collections.unmodifiableSortedSet(sorted);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.myspringproject.service;
+
+import com.example.myspringproject.model.BookView;
+import java.util.List;
+
+// Выполняет нормализованный фильтр: SQL-реализация по умолчанию и пересечение
+// битовых карт, когда включён снимок каталога
+public interface BookFilterExecutor {
+
+    List<BookView> execute(BookFilter filter);
+}
@@ -0,0 +1,10 @@
+package com.example.myspringproject.service;
+
+import com.example.myspringproject.dto.get.BookFilterDto;
+import com.example.myspringproject.model.BookView;
+import java.util.List;
+
+public interface BookFilterService {
+
+    List<BookView> filterBooks(BookFilterDto filter);
+}
@@ -0,0 +1,24 @@
+package com.example.myspringproject.service;
+
+import com.example.myspringproject.model.BookView;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookViewService {
+
+    List<BookView> findAllBooks();
+
+    BookView findBookById(int id);
+
+    List<BookView> findBooksByIds(Collection<Integer> ids);
+
+    List<BookView> searchBooks(String author, String title);
+
+    List<BookView> findBooksByCategory(String categoryName);
+
+    List<BookView> findBooksByCategoryId(int categoryId);
+
+    List<BookView> findBooksByAuthor(String authorName);
+
+    List<BookView> findBooksByAuthorId(int authorId);
+}
@@ -0,0 +1,12 @@
+package com.example.myspringproject.service;
+
+import com.example.myspringproject.dto.get.CatalogChangesGetDto;
+
+public interface CatalogChangeService {
+
+    CatalogChangesGetDto findChanges(long since, int limit);
+
+    long getCurrentVersion();
+
+    void compact();
+}
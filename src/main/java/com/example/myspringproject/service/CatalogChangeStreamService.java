@@ -0,0 +1,8 @@
+package com.example.myspringproject.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface CatalogChangeStreamService {
+
+    SseEmitter subscribe();
+}
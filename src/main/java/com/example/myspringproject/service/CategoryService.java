@@ -3,13 +3,16 @@ package com.example.myspringproject.service;
 import com.example.myspringproject.dto.create.CategoryCreateDto;
 import com.example.myspringproject.dto.update.CategoryUpdateDto;
 import com.example.myspringproject.model.Category;
+import java.util.Collection;
 import java.util.List;
 
 public interface CategoryService {
 
-    List<Category> getAllCategories();
+    List<Category> getAllCategories(boolean withBooks);
 
-    Category getCategoryById(int id);
+    Category getCategoryById(int id, boolean withBooks);
+
+    List<Category> getCategoriesByIds(Collection<Integer> ids, boolean withBooks);
 
     Category createCategory(CategoryCreateDto dto);
 
@@ -17,11 +20,10 @@ public interface CategoryService {
 
     void deleteCategory(int id);
 
-    List<Category> findCategoriesByName(String name);
+    List<Category> findCategoriesByName(String name, boolean withBooks);
 
-    List<Category> findCategoriesByBook(String bookName);
+    List<Category> findCategoriesByBook(String bookName, boolean withBooks);
 
-    List<Category> findCategoriesByBookId(int bookId);
+    List<Category> findCategoriesByBookId(int bookId, boolean withBooks);
 
 }
-
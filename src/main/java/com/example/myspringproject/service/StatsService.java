@@ -0,0 +1,15 @@
+package com.example.myspringproject.service;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import java.util.List;
+
+public interface StatsService {
+
+    List<BookCountGetDto> getBooksPerCategory();
+
+    List<BookCountGetDto> getBooksPerAuthor();
+
+    List<BookCountGetDto> getTopCategories(int limit);
+
+    List<BookCountGetDto> getTopAuthors(int limit);
+}
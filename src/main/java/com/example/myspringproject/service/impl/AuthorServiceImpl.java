@@ -1,35 +1,55 @@
 package com.example.myspringproject.service.impl;
 
 import com.example.myspringproject.cache.AuthorCache;
+import com.example.myspringproject.cache.BookCache;
+import com.example.myspringproject.catalog.CatalogChangedEvent;
 import com.example.myspringproject.dto.create.AuthorCreateDto;
 import com.example.myspringproject.dto.update.AuthorUpdateDto;
 import com.example.myspringproject.exception.UniqueConstraintViolationException;
 import com.example.myspringproject.model.Author;
-import com.example.myspringproject.model.Book;
 import com.example.myspringproject.repository.AuthorRepository;
+import com.example.myspringproject.repository.LikePattern;
 import com.example.myspringproject.service.AuthorService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @AllArgsConstructor
 public class AuthorServiceImpl implements AuthorService {
 
     private static final String AUTHOR_NOT_FOUND_MESSAGE = "Автор не найден с id: ";
+    private static final String BY_NAME_NOT_FOUND_MESSAGE = "Авторы не найдены по имени: ";
+    private static final String BY_CATEGORY_NOT_FOUND_MESSAGE =
+            "Авторы не найдены по категории книги: ";
     private final AuthorRepository authorRepository;
     private final AuthorCache authorCache;
+    private final BookCache bookCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
+    // withBooks = false — для ответов без книг (fields= без books): авторы
+    // читаются одной таблицей, без соединения и без загрузки коллекций
     @Override
-    public List<Author> findAllAuthors() {
-        return authorRepository.findAllWithBooks();
+    @Transactional(readOnly = true)
+    public List<Author> findAllAuthors(boolean withBooks) {
+        return withBooks ? authorRepository.findAllWithBooks() : authorRepository.findAll();
     }
 
     @Override
-    public Author findAuthorById(int id) {
-        String cacheKey = "author_id_" + id;
+    @Transactional(readOnly = true)
+    public Author findAuthorById(int id, boolean withBooks) {
+        String cacheKey = cacheKey("author_id_" + id, withBooks);
         if (authorCache.containsKey(cacheKey)) {
             return authorCache.get(cacheKey).stream()
                     .filter(author -> author.getAuthorId() == id)
@@ -38,58 +58,103 @@ public class AuthorServiceImpl implements AuthorService {
         }
         Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(AUTHOR_NOT_FOUND_MESSAGE + id));
+        if (withBooks) {
+            // Книги берутся из кэша коллекций второго уровня, поэтому не fetch join
+            Hibernate.initialize(author.getBooks());
+        }
         authorCache.put(cacheKey, List.of(author));
         return author;
     }
 
+    // Найденные в кэше второго уровня не читаются, остальные — одним IN-запросом;
+    // книги так же: из кэша коллекций, промахи — пачками default_batch_fetch_size.
+    // Ненайденные id пропускаются, порядок — как в запросе
     @Override
-    public List<Author> findAuthorsByBookCategory(String category) {
-        String cacheKey = "authorsByCategory_" + category;
-        if (authorCache.containsKey(cacheKey)) {
-            List<Author> cachedAuthors = authorCache.get(cacheKey);
-            if (cachedAuthors.isEmpty()) {
-                throw new EntityNotFoundException("Авторы не найдены по категории книги: "
-                        + category);
-            }
-            return cachedAuthors;
-        }
-        List<Author> authors = authorRepository.findAuthorsByBookCategory(category);
-        if (authors.isEmpty()) {
-            throw new EntityNotFoundException("Авторы не найдены по категории книги: " + category);
+    @Transactional(readOnly = true)
+    public List<Author> findAuthorsByIds(Collection<Integer> ids, boolean withBooks) {
+        List<Author> authors = entityManager.unwrap(Session.class)
+                .byMultipleIds(Author.class)
+                // Без явного CacheMode multiLoad не заглядывает в кэш второго уровня
+                .with(CacheMode.NORMAL)
+                .multiLoad(ids.stream().distinct().toList())
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (withBooks) {
+            authors.forEach(author -> Hibernate.initialize(author.getBooks()));
         }
-        authorCache.put(cacheKey, authors);
         return authors;
     }
 
     @Override
-    public List<Author> findAuthorsByName(String name) {
-        String cacheKey = "authorsByName_" + name;
-        if (authorCache.containsKey(cacheKey)) {
-            List<Author> cachedAuthors = authorCache.get(cacheKey);
-            if (cachedAuthors.isEmpty()) {
-                throw new EntityNotFoundException("Авторы не найдены по имени: " + name);
-            }
-            return cachedAuthors;
-        }
-        List<Author> authors = authorRepository.findByAuthorNameContainingIgnoreCase(name);
-        if (authors.isEmpty()) {
-            throw new EntityNotFoundException("Авторы не найдены по имени: " + name);
-        }
-        authorCache.put(cacheKey, authors);
-        return authors;
+    @Transactional(readOnly = true)
+    public List<Author> findAuthorsByBookCategory(String category, boolean withBooks) {
+        return findNonEmpty(cacheKey("authorsByCategory_" + category, withBooks),
+                BY_CATEGORY_NOT_FOUND_MESSAGE + category,
+                () -> withBooks
+                        ? authorRepository.findAuthorsByBookCategory(category)
+                        : authorRepository.findAuthorsByBookCategoryWithoutBooks(category));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Author> findAuthorsByName(String name, boolean withBooks) {
+        return findNonEmpty(cacheKey("authorsByName_" + name, withBooks),
+                BY_NAME_NOT_FOUND_MESSAGE + name,
+                () -> withBooks
+                        ? authorRepository.findByAuthorNameContainingIgnoreCase(name)
+                        : authorRepository.findByAuthorNameContainingIgnoreCaseWithoutBooks(name));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Author> findAuthorsByBookCategoryNative(String category) {
         String cacheKey = "authorsByCategoryNative_" + category;
         if (authorCache.containsKey(cacheKey)) {
             return authorCache.get(cacheKey);
         }
         List<Author> authors = authorRepository.findAuthorsByBookCategoryNative(category);
+        // Нативный запрос не принимает план выборки; книги догружаются пачками
+        // (hibernate.default_batch_fetch_size) внутри транзакции
+        authors.forEach(author -> Hibernate.initialize(author.getBooks()));
         authorCache.put(cacheKey, authors);
         return authors;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Author> findAuthorsByBookCategoryPrefix(String prefix, boolean withBooks) {
+        String pattern = LikePattern.startsWith(prefix);
+        return findNonEmpty(cacheKey("authorsByCategoryPrefix_" + prefix, withBooks),
+                BY_CATEGORY_NOT_FOUND_MESSAGE + prefix,
+                () -> withBooks
+                        ? authorRepository.findAuthorsByBookCategoryNameLike(pattern)
+                        : authorRepository.findAuthorsByBookCategoryNameLikeWithoutBooks(pattern));
+    }
+
+    // Авторы без книг кэшируются под своими ключами: их коллекции не загружены
+    private static String cacheKey(String key, boolean withBooks) {
+        return withBooks ? key : "withoutBooks_" + key;
+    }
+
+    // Поиск из кэша или запросом; пустой результат — 404
+    private List<Author> findNonEmpty(String cacheKey, String notFoundMessage,
+                                      Supplier<List<Author>> query) {
+        List<Author> authors;
+        if (authorCache.containsKey(cacheKey)) {
+            authors = authorCache.get(cacheKey);
+        } else {
+            authors = query.get();
+            if (!authors.isEmpty()) {
+                authorCache.put(cacheKey, authors);
+            }
+        }
+        if (authors.isEmpty()) {
+            throw new EntityNotFoundException(notFoundMessage);
+        }
+        return authors;
+    }
+
     @Override
     public Author createAuthor(AuthorCreateDto dto) {
         if (authorRepository.existsByAuthorName(dto.getName())) {
@@ -98,7 +163,9 @@ public class AuthorServiceImpl implements AuthorService {
         Author author = new Author();
         author.setAuthorName(dto.getName());
         authorCache.clear();
-        return authorRepository.save(author);
+        Author savedAuthor = authorRepository.save(author);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(Author.class, savedAuthor.getAuthorId()));
+        return savedAuthor;
     }
 
     @Override
@@ -110,21 +177,21 @@ public class AuthorServiceImpl implements AuthorService {
         if (dto.getAuthorName() != null && !dto.getAuthorName().isBlank()) {
             author.setAuthorName(dto.getAuthorName());
         }
+        Hibernate.initialize(author.getBooks());
         authorCache.clear();
+        eventPublisher.publishEvent(CatalogChangedEvent.of(Author.class, id));
         return authorRepository.save(author);
     }
 
     @Override
     @Transactional
     public void deleteAuthor(int id) {
-        Author author = authorRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(AUTHOR_NOT_FOUND_MESSAGE + id));
-
-        List<Book> books = author.getBooks();
-        if (books != null) {
-            books.forEach(book -> book.setAuthor(null));
+        authorRepository.detachBooks(id);
+        if (authorRepository.deleteAuthorById(id) == 0) {
+            throw new EntityNotFoundException(AUTHOR_NOT_FOUND_MESSAGE + id);
         }
-        authorRepository.delete(author);
         authorCache.clear();
+        bookCache.clear();
+        eventPublisher.publishEvent(CatalogChangedEvent.of(Author.class, id));
     }
 }
@@ -0,0 +1,91 @@
+package com.example.myspringproject.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+// Одиночные загрузки по ключу, пришедшие в пределах окна, собираются в один
+// вызов batchFunction (как DataLoader). Первый ключ новой пачки запускает
+// таймер; пачка уходит по таймеру или сразу, набрав maxBatchSize ключей.
+// Одинаковые ключи в пачке загружаются один раз.
+class BatchLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService executor;
+
+    // Собираемая пачка; null, пока ни одного ключа не пришло
+    private Map<K, CompletableFuture<V>> pending;
+
+    BatchLoader(Function<Set<K>, Map<K, V>> batchFunction, long windowNanos, int maxBatchSize,
+                ScheduledExecutorService executor) {
+        this.batchFunction = batchFunction;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+    }
+
+    // Ждёт загрузки пачки не дольше timeoutNanos; null — ключ не найден
+    V load(K key, long timeoutNanos) throws TimeoutException {
+        try {
+            return loadAsync(key).get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    CompletableFuture<V> loadAsync(K key) {
+        Map<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+        synchronized (this) {
+            if (pending == null) {
+                Map<K, CompletableFuture<V>> batch = new LinkedHashMap<>();
+                pending = batch;
+                executor.schedule(() -> flush(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = null;
+            }
+        }
+        if (full != null) {
+            Map<K, CompletableFuture<V>> batch = full;
+            executor.execute(() -> dispatch(batch));
+        }
+        return future;
+    }
+
+    // Таймер пачки, уже ушедшей по размеру, ничего не делает
+    private void flush(Map<K, CompletableFuture<V>> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> loaded = batchFunction.apply(batch.keySet());
+            batch.forEach((key, future) -> future.complete(loaded.get(key)));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+}
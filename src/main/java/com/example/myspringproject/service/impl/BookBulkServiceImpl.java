@@ -0,0 +1,332 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.cache.AuthorCache;
+import com.example.myspringproject.cache.BookCache;
+import com.example.myspringproject.cache.CategoryCache;
+import com.example.myspringproject.catalog.CatalogChangedEvent;
+import com.example.myspringproject.dto.create.BookCreateDto;
+import com.example.myspringproject.dto.get.BulkChunkResultDto;
+import com.example.myspringproject.dto.get.BulkOperationResultDto;
+import com.example.myspringproject.dto.update.BookBulkFilterDto;
+import com.example.myspringproject.dto.update.BookBulkPatchDto;
+import com.example.myspringproject.dto.update.BookBulkSelectionDto;
+import com.example.myspringproject.exception.ValidationException;
+import com.example.myspringproject.model.Author;
+import com.example.myspringproject.model.Book;
+import com.example.myspringproject.repository.AuthorRepository;
+import com.example.myspringproject.repository.BookRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import com.example.myspringproject.repository.LikePattern;
+import com.example.myspringproject.service.BookBulkService;
+import com.example.myspringproject.service.BookService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class BookBulkServiceImpl implements BookBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookBulkServiceImpl.class);
+    private static final String DTOS_FIELD = "dtos";
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate chunkTransaction;
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final CategoryRepository categoryRepository;
+    private final BookCache bookCache;
+    private final AuthorCache authorCache;
+    private final CategoryCache categoryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public BookBulkServiceImpl(BookService bookService, ObjectMapper objectMapper,
+                               Validator validator, EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               BookRepository bookRepository, AuthorRepository authorRepository,
+                               CategoryRepository categoryRepository, BookCache bookCache,
+                               AuthorCache authorCache, CategoryCache categoryCache,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${library.bulk.chunk-size:500}") int chunkSize) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.categoryRepository = categoryRepository;
+        this.bookCache = bookCache;
+        this.authorCache = authorCache;
+        this.categoryCache = categoryCache;
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    // Принимает как голый массив, так и объект {"dtos": [...]}, как у /bulk.
+    // В памяти одновременно находится не больше одной части (chunk).
+    @Override
+    public void importBooks(InputStream json, OutputStream results) throws IOException {
+        List<BookCreateDto> chunk = new ArrayList<>(chunkSize);
+        int chunkIndex = 0;
+        int offset = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            moveToArray(parser);
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new ValidationException(List.of(
+                            "Ожидался объект книги на позиции " + (offset + chunk.size())));
+                }
+                chunk.add(objectMapper.readValue(parser, BookCreateDto.class));
+                if (chunk.size() == chunkSize) {
+                    writeResult(results, processChunk(chunkIndex++, offset, chunk));
+                    offset += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeResult(results, processChunk(chunkIndex, offset, chunk));
+            }
+        } catch (JsonProcessingException e) {
+            abort(results, chunkIndex, offset, chunk.size(),
+                    List.of("Некорректный JSON: " + e.getOriginalMessage()));
+        } catch (ValidationException e) {
+            abort(results, chunkIndex, offset, chunk.size(), e.getErrors());
+        }
+    }
+
+    private void abort(OutputStream results, int chunkIndex, int offset, int received,
+                       List<String> errors) throws IOException {
+        logger.warn("Bulk import aborted at chunk {}: {}", chunkIndex, errors);
+        writeResult(results,
+                new BulkChunkResultDto(chunkIndex, offset, received, 0, false, errors));
+    }
+
+    private void moveToArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (DTOS_FIELD.equals(parser.currentName())) {
+                    token = parser.nextToken();
+                    break;
+                }
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new ValidationException(List.of("Вы должны предоставить массив книг"));
+        }
+    }
+
+    private BulkChunkResultDto processChunk(int chunkIndex, int offset,
+                                            List<BookCreateDto> chunk) {
+        List<String> errors = validateChunk(offset, chunk);
+        if (!errors.isEmpty()) {
+            return new BulkChunkResultDto(chunkIndex, offset, chunk.size(), 0, false, errors);
+        }
+        try {
+            Integer created = chunkTransaction.execute(
+                    status -> bookService.createBooks(chunk).size());
+            return new BulkChunkResultDto(chunkIndex, offset, chunk.size(),
+                    created == null ? 0 : created, true, List.of());
+        } catch (ValidationException e) {
+            return new BulkChunkResultDto(
+                    chunkIndex, offset, chunk.size(), 0, false, e.getErrors());
+        } catch (RuntimeException e) {
+            logger.warn("Bulk import chunk {} rolled back: {}", chunkIndex, e.getMessage());
+            return new BulkChunkResultDto(
+                    chunkIndex, offset, chunk.size(), 0, false, List.of(e.getMessage()));
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private List<String> validateChunk(int offset, List<BookCreateDto> chunk) {
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            for (ConstraintViolation<BookCreateDto> violation : validator.validate(chunk.get(i))) {
+                errors.add("[" + (offset + i) + "] " + violation.getPropertyPath()
+                        + ": " + violation.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private void writeResult(OutputStream results, BulkChunkResultDto result) throws IOException {
+        results.write(objectMapper.writeValueAsBytes(result));
+        results.write('\n');
+        results.flush();
+    }
+
+    @Override
+    public BulkOperationResultDto deleteBooks(BookBulkSelectionDto selection) {
+        return runInChunks(selection, ids -> {
+            // Связи удаляем отдельным запросом до книг: триггеры author_category
+            // ещё видят автора удаляемой книги
+            bookRepository.deleteCategoryLinks(ids.toArray(Integer[]::new));
+            return bookRepository.deleteByIds(ids);
+        });
+    }
+
+    @Override
+    public BulkOperationResultDto patchBooks(BookBulkPatchDto patch) {
+        Integer[] addCategoryIds = distinctIds(patch.getAddCategoryIds());
+        Integer[] removeCategoryIds = distinctIds(patch.getRemoveCategoryIds());
+        if (patch.getAuthorId() == null
+                && addCategoryIds.length == 0 && removeCategoryIds.length == 0) {
+            throw new ValidationException(List.of(
+                    "Укажите authorId, addCategoryIds или removeCategoryIds"));
+        }
+        if (patch.getAuthorId() != null && !authorRepository.existsById(patch.getAuthorId())) {
+            throw new EntityNotFoundException("Author not found");
+        }
+        Set<Integer> categoryIds = new HashSet<>(List.of(addCategoryIds));
+        categoryIds.addAll(List.of(removeCategoryIds));
+        if (categoryRepository.findAllById(categoryIds).size() != categoryIds.size()) {
+            throw new EntityNotFoundException("Category not found");
+        }
+
+        return runInChunks(patch, ids -> {
+            Integer[] bookIds = ids.toArray(Integer[]::new);
+            if (patch.getAuthorId() != null) {
+                Author author = authorRepository.getReferenceById(patch.getAuthorId());
+                bookRepository.reassignAuthor(ids, author);
+            }
+            if (removeCategoryIds.length > 0) {
+                bookRepository.deleteCategoryLinks(bookIds, removeCategoryIds);
+            }
+            if (addCategoryIds.length > 0) {
+                bookRepository.insertCategoryLinks(bookIds, addCategoryIds);
+            }
+            return ids.size();
+        });
+    }
+
+    private static Integer[] distinctIds(List<Integer> ids) {
+        return ids == null ? new Integer[0] : ids.stream().distinct().toArray(Integer[]::new);
+    }
+
+    // Каждая часть (до chunkSize книг) выполняется в своей транзакции; кэши
+    // сбрасываются один раз после всех частей
+    private BulkOperationResultDto runInChunks(BookBulkSelectionDto selection,
+                                               ToIntFunction<List<Integer>> operation) {
+        BulkOutcome outcome = new BulkOutcome();
+        if (selection.getIds() != null && selection.getFilter() == null) {
+            List<Integer> ids = selection.getIds().stream().distinct().toList();
+            if (ids.isEmpty()) {
+                throw new ValidationException(List.of("Список ids не может быть пустым"));
+            }
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                ChunkRun run = runChunk(outcome,
+                        () -> bookRepository.findExistingIds(chunk), operation);
+                if (run.selected()) {
+                    Set<Integer> existing = new HashSet<>(run.ids());
+                    chunk.stream().filter(id -> !existing.contains(id))
+                            .forEach(outcome.notFoundIds::add);
+                }
+            }
+        } else if (selection.getIds() == null && selection.getFilter() != null) {
+            BookBulkFilterDto filter = selection.getFilter();
+            if (filter.getAuthorId() == null && filter.getCategoryId() == null
+                    && filter.getNameContains() == null) {
+                throw new ValidationException(List.of(
+                        "Фильтр должен содержать хотя бы одно условие"));
+            }
+            String pattern = filter.getNameContains() == null ? null
+                    : LikePattern.contains(filter.getNameContains());
+            int afterId = 0;
+            ChunkRun run;
+            do {
+                int from = afterId;
+                run = runChunk(outcome, () -> bookRepository.findIdsByFilter(from,
+                        filter.getAuthorId(), filter.getCategoryId(), pattern,
+                        Limit.of(chunkSize)), operation);
+                if (!run.ids().isEmpty()) {
+                    afterId = run.ids().get(run.ids().size() - 1);
+                }
+            } while (run.ids().size() == chunkSize);
+        } else {
+            throw new ValidationException(List.of("Укажите либо ids, либо filter"));
+        }
+
+        if (outcome.affected > 0) {
+            bookCache.clear();
+            authorCache.clear();
+            categoryCache.clear();
+            eventPublisher.publishEvent(new CatalogChangedEvent(Book.class));
+        }
+        return outcome.toDto();
+    }
+
+    private ChunkRun runChunk(BulkOutcome outcome, Supplier<List<Integer>> select,
+                              ToIntFunction<List<Integer>> operation) {
+        List<Integer> ids = new ArrayList<>();
+        AtomicBoolean selected = new AtomicBoolean();
+        int chunkIndex = outcome.chunks++;
+        try {
+            Integer affected = chunkTransaction.execute(status -> {
+                ids.addAll(select.get());
+                selected.set(true);
+                return ids.isEmpty() ? 0 : operation.applyAsInt(ids);
+            });
+            outcome.affected += affected == null ? 0 : affected;
+        } catch (RuntimeException e) {
+            logger.warn("Bulk operation chunk {} rolled back: {}", chunkIndex, e.getMessage());
+            outcome.failed += ids.size();
+            outcome.errors.add("[" + chunkIndex + "] " + e.getMessage());
+        } finally {
+            entityManager.clear();
+        }
+        outcome.matched += ids.size();
+        return new ChunkRun(ids, selected.get());
+    }
+
+    private record ChunkRun(List<Integer> ids, boolean selected) {
+    }
+
+    private static final class BulkOutcome {
+        private int matched;
+        private int affected;
+        private int failed;
+        private int chunks;
+        private final List<Integer> notFoundIds = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        private BulkOperationResultDto toDto() {
+            return new BulkOperationResultDto(matched, affected, notFoundIds.size(), failed,
+                    chunks, notFoundIds, errors);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.BookFacetsGetDto;
+import com.example.myspringproject.dto.get.BookFilterDto;
+import com.example.myspringproject.repository.BookViewRepository;
+import com.example.myspringproject.service.BookFacetService;
+import com.example.myspringproject.service.BookFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Фасеты одним запросом к book_view: подходящие книги выбираются один раз и
+// группируются по категориям и авторам
+@Service
+public class BookFacetServiceImpl implements BookFacetService {
+
+    private final BookViewRepository bookViewRepository;
+    private final BookFilterSqlExecutor filterExecutor;
+    private final int topN;
+
+    public BookFacetServiceImpl(BookViewRepository bookViewRepository,
+                                BookFilterSqlExecutor filterExecutor,
+                                @Value("${library.facets.top-n:10}") int topN) {
+        this.bookViewRepository = bookViewRepository;
+        this.filterExecutor = filterExecutor;
+        this.topN = topN;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookFacetsGetDto searchFacets(String authorName, String title) {
+        return bookViewRepository.searchFacets(authorName, title, topN);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookFacetsGetDto filterFacets(BookFilterDto dto) {
+        BookFilter.Resolved resolved = filterExecutor.resolve(BookFilter.of(dto));
+        if (resolved.matchesNothing()) {
+            return BookFacetsGetDto.empty();
+        }
+        return bookViewRepository.filterFacets(resolved, topN);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.cache.BookFilterCache;
+import com.example.myspringproject.dto.get.BookFilterDto;
+import com.example.myspringproject.exception.ValidationException;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.service.BookFilter;
+import com.example.myspringproject.service.BookFilterExecutor;
+import com.example.myspringproject.service.BookFilterService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Нормализует фильтр, отдаёт результат из кэша или выполняет его через
+// BookFilterExecutor: SQL или снимок каталога, если он включён
+@Service
+public class BookFilterServiceImpl implements BookFilterService {
+
+    private final BookFilterExecutor executor;
+    private final BookFilterCache filterCache;
+    private final int maxLimit;
+
+    public BookFilterServiceImpl(BookFilterExecutor executor, BookFilterCache filterCache,
+                                 @Value("${library.filter.max-limit:500}") int maxLimit) {
+        this.executor = executor;
+        this.filterCache = filterCache;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public List<BookView> filterBooks(BookFilterDto dto) {
+        if (dto.getLimit() < 1 || dto.getLimit() > maxLimit) {
+            throw new ValidationException(List.of("limit должен быть от 1 до " + maxLimit));
+        }
+        BookFilter filter = BookFilter.of(dto);
+        String key = filter.cacheKey();
+        List<BookView> cached = filterCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        BookFilterCache.Stamp stamp = filterCache.stamp();
+        List<BookView> books = executor.execute(filter);
+        filterCache.put(key, books, stamp);
+        return books;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.model.Category;
+import com.example.myspringproject.repository.BookViewRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import com.example.myspringproject.service.BookFilter;
+import com.example.myspringproject.service.BookFilterExecutor;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@AllArgsConstructor
+public class BookFilterSqlExecutor implements BookFilterExecutor {
+
+    private final BookViewRepository bookViewRepository;
+    private final CategoryRepository categoryRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookView> execute(BookFilter filter) {
+        BookFilter.Resolved resolved = resolve(filter);
+        if (resolved.matchesNothing()) {
+            return List.of();
+        }
+        return bookViewRepository.filter(resolved);
+    }
+
+    // Названия категорий из фильтра заменяются на id одним запросом
+    public BookFilter.Resolved resolve(BookFilter filter) {
+        return filter.resolve(categoryIdsByName(filter.categoryNames()));
+    }
+
+    private Map<String, Set<Integer>> categoryIdsByName(Set<String> names) {
+        Map<String, Set<Integer>> ids = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Category category : categoryRepository.findByLowerCategoryNameIn(names)) {
+                ids.computeIfAbsent(BookFilter.normalizeName(category.getCategoryName()),
+                        name -> new HashSet<>()).add(category.getCategoryId());
+            }
+        }
+        return ids;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.myspringproject.service.impl;
 
 import com.example.myspringproject.cache.BookCache;
 import com.example.myspringproject.cache.CategoryCache;
+import com.example.myspringproject.catalog.CatalogChangedEvent;
 import com.example.myspringproject.dto.create.BookCreateDto;
 import com.example.myspringproject.dto.update.BookUpdateDto;
 import com.example.myspringproject.exception.ValidationException;
@@ -14,32 +15,44 @@ import com.example.myspringproject.repository.CategoryRepository;
 import com.example.myspringproject.service.BookService;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
-import org.springframework.context.annotation.Primary;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @AllArgsConstructor
-@Primary
 public class BookServiceImpl implements BookService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookServiceImpl.class);
+    private static final String DUPLICATE_BOOK_MESSAGE =
+            "У автора уже есть книга с таким названием";
+    private static final String BOOK_NAME_CONSTRAINT = "ux_books_author_lower_name";
     private final BookRepository bookRepository;
     private final CategoryRepository categoryRepository;
     private final AuthorRepository authorRepository;
     private final BookCache bookCache;
     private final CategoryCache categoryCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> findAllBooks() {
         return bookRepository.findAllWithCategoriesAndAuthor();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Book findBookById(int id) {
         String cacheKey = "book_id_" + id;
         if (bookCache.containsKey(cacheKey)) {
@@ -57,6 +70,7 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> searchBooks(String author, String title) {
         String cacheKey = "searchBooks_" + author + "_" + title;
         if (bookCache.containsKey(cacheKey)) {
@@ -79,6 +93,7 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> findBooksByCategory(String categoryName) {
         String cacheKey = "booksByCategory_" + categoryName;
         if (bookCache.containsKey(cacheKey)) {
@@ -97,6 +112,7 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> findBooksByCategoryId(int categoryId) {
         if (!categoryRepository.existsById(categoryId)) {
             throw new EntityNotFoundException("Категория не найдена с id: " + categoryId);
@@ -111,6 +127,7 @@ public class BookServiceImpl implements BookService {
         return books;
     }
 
+    @Transactional(readOnly = true)
     public List<Book> findBooksByAuthor(String authorName)  {
         String cacheKey = "booksByAuthor_" + authorName;
         if (bookCache.containsKey(cacheKey)) {
@@ -130,6 +147,7 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> findBooksByAuthorId(int authorId) {
         if (!authorRepository.existsById(authorId)) {
             throw new EntityNotFoundException("Автор не найден с id: " + authorId);
@@ -145,13 +163,10 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional
     public Book createBook(BookCreateDto dto) {
-        List<Book> existingBooks = bookRepository.findByAuthorId(dto.getAuthorId());
-        boolean isDuplicate = existingBooks.stream()
-                .anyMatch(book -> book.getBookName().equalsIgnoreCase(dto.getName()));
-
-        if (isDuplicate) {
-            throw new ValidationException(List.of("У автора уже есть книга с таким названием"));
+        if (bookRepository.existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName())) {
+            throw new ValidationException(List.of(DUPLICATE_BOOK_MESSAGE));
         }
 
         Book book = new Book();
@@ -161,28 +176,40 @@ public class BookServiceImpl implements BookService {
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Author not found with ID: " + dto.getAuthorId()));
         book.setAuthor(author);
-        author.getBooks().add(book);
 
         if (dto.getCategoryIds() != null && !dto.getCategoryIds().isEmpty()) {
             List<Category> categories = categoryRepository.findAllById(dto.getCategoryIds());
             if (categories.size() != dto.getCategoryIds().size()) {
                 throw new IllegalArgumentException("Some categories not found");
             }
-
-            categories.forEach(cat -> {
-                if (cat.getBooks() == null) {
-                    cat.setBooks(new ArrayList<>());
-                }
-                cat.getBooks().add(book);
-            });
             book.setCategories(categories);
         }
+
+        Book savedBook;
+        try {
+            savedBook = bookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            // Параллельная вставка той же книги проходит проверку выше,
+            // но упирается в уникальный индекс ux_books_author_lower_name
+            if (isDuplicateBookName(e)) {
+                throw new ValidationException(List.of(DUPLICATE_BOOK_MESSAGE));
+            }
+            throw e;
+        }
         bookCache.clear();
         categoryCache.clear();
-        return bookRepository.save(book);
+        eventPublisher.publishEvent(
+                CatalogChangedEvent.books(Book.class, List.of(savedBook.getBookId())));
+        return savedBook;
+    }
+
+    private boolean isDuplicateBookName(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && BOOK_NAME_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
     }
 
     @Override
+    @Transactional
     public Book updateBook(int id, BookUpdateDto dto) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Book not found"));
@@ -201,11 +228,13 @@ public class BookServiceImpl implements BookService {
         }
         bookCache.clear();
         categoryCache.clear();
+        eventPublisher.publishEvent(CatalogChangedEvent.books(Book.class, List.of(id)));
 
         return bookRepository.save(book);
     }
 
     @Override
+    @Transactional
     public void deleteBookById(int id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Book not found"));
@@ -215,9 +244,11 @@ public class BookServiceImpl implements BookService {
         bookRepository.deleteById(id);
         bookCache.clear();
         categoryCache.clear();
+        eventPublisher.publishEvent(CatalogChangedEvent.books(Book.class, List.of(id)));
     }
 
     @Override
+    @Transactional
     public List<Book> createBooks(List<BookCreateDto> dtos) {
         validateDtos(dtos);
 
@@ -234,6 +265,8 @@ public class BookServiceImpl implements BookService {
         bookRepository.saveAll(books);
         bookCache.clear();
         categoryCache.clear();
+        eventPublisher.publishEvent(CatalogChangedEvent.books(Book.class,
+                books.stream().map(Book::getBookId).toList()));
         return books;
     }
 
@@ -242,23 +275,14 @@ public class BookServiceImpl implements BookService {
                 .filter(dto -> dto.getAuthorName() != null)
                 .map(BookCreateDto::getAuthorName)
                 .collect(Collectors.toSet());
-        List<Author> existingAuthorsByName = authorRepository.findByAuthorNameIn(authorNames);
-        Map<String, Author> authorsByName = existingAuthorsByName.stream()
-                .collect(Collectors.toMap(Author::getAuthorName, a -> a));
-
-        List<Author> newAuthors = authorNames.stream()
-                .filter(name -> !authorsByName.containsKey(name))
-                .map(name -> {
-                    Author author = new Author();
-                    author.setAuthorName(name);
-                    return author;
-                })
-                .toList();
-        if (!newAuthors.isEmpty()) {
-            authorRepository.saveAll(newAuthors);
-            newAuthors.forEach(author -> authorsByName.put(author.getAuthorName(), author));
+        if (authorNames.isEmpty()) {
+            return new HashMap<>();
         }
-        return authorsByName;
+        int created = authorRepository
+                .insertMissingByAuthorName(authorNames.toArray(String[]::new));
+        log.debug("Created {} new authors during bulk import", created);
+        return authorRepository.findByAuthorNameIn(authorNames).stream()
+                .collect(Collectors.toMap(Author::getAuthorName, a -> a));
     }
 
     private Map<String, Category> getCategoriesByName(List<BookCreateDto> dtos) {
@@ -266,25 +290,14 @@ public class BookServiceImpl implements BookService {
                 .flatMap(dto -> dto.getCategoryNames() != null ? dto.getCategoryNames().stream()
                         : Stream.empty())
                 .collect(Collectors.toSet());
-        List<Category> existingCategoriesByName =
-                categoryRepository.findByCategoryNameIn(categoryNames);
-        Map<String, Category> categoriesByName = existingCategoriesByName.stream()
-                .collect(Collectors.toMap(Category::getCategoryName, c -> c));
-
-        List<Category> newCategories = categoryNames.stream()
-                .filter(name -> !categoriesByName.containsKey(name))
-                .map(name -> {
-                    Category category = new Category();
-                    category.setCategoryName(name);
-                    return category;
-                })
-                .toList();
-        if (!newCategories.isEmpty()) {
-            categoryRepository.saveAll(newCategories);
-            newCategories.forEach(
-                    category -> categoriesByName.put(category.getCategoryName(), category));
+        if (categoryNames.isEmpty()) {
+            return new HashMap<>();
         }
-        return categoriesByName;
+        int created = categoryRepository
+                .insertMissingByCategoryName(categoryNames.toArray(String[]::new));
+        log.debug("Created {} new categories during bulk import", created);
+        return categoryRepository.findByCategoryNameIn(categoryNames).stream()
+                .collect(Collectors.toMap(Category::getCategoryName, c -> c));
     }
 
     private void validateDtos(List<BookCreateDto> dtos) {
@@ -328,20 +341,8 @@ public class BookServiceImpl implements BookService {
                     Book book = new Book();
                     book.setBookName(dto.getName());
 
-                    Author author = getAuthor(dto, authorsById, authorsByName);
-                    book.setAuthor(author);
-                    author.getBooks().add(book);
-
-                    List<Category> categories = getCategories(
-                            dto, categoriesById, categoriesByName);
-                    book.setCategories(categories);
-                    categories.forEach(cat -> {
-                        if (cat.getBooks() == null) {
-                            cat.setBooks(new ArrayList<>());
-                        }
-                        cat.getBooks().add(book);
-                    });
-
+                    book.setAuthor(getAuthor(dto, authorsById, authorsByName));
+                    book.setCategories(getCategories(dto, categoriesById, categoriesByName));
                     return book;
                 })
                 .toList();
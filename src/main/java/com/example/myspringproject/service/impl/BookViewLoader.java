@@ -0,0 +1,100 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.datasource.ReadWriteRoutingDataSource;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.repository.BookViewRepository;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Загрузка строк book_view по id для GET /api/v2/books/{id}: одновременные
+// запросы за library.batch-loader.window читаются одним WHERE book_id IN (...)
+// в отдельной read-only транзакции на реплике. Пачки включаются ненулевым
+// окном. Запрос, уже писавший в primary (read-your-writes) или идущий внутри
+// пишущей транзакции, читает сам, иначе он мог бы не увидеть свою запись.
+// Сам читает и запрос, рядом с которым других загрузок нет: ждать окно ему
+// не с кем. Пачка, не загруженная за library.batch-loader.timeout, тоже не
+// держит запрос — он читает сам.
+@Component
+class BookViewLoader implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookViewLoader.class);
+
+    private final BookViewRepository bookViewRepository;
+    private final long timeoutNanos;
+    private final AtomicInteger loading = new AtomicInteger();
+    private final ScheduledExecutorService executor;
+    private final BatchLoader<Integer, BookView> loader;
+
+    BookViewLoader(BookViewRepository bookViewRepository,
+                   PlatformTransactionManager transactionManager,
+                   @Value("${library.batch-loader.window:0ms}") Duration window,
+                   @Value("${library.batch-loader.max-batch-size:100}") int maxBatchSize,
+                   @Value("${library.batch-loader.threads:2}") int threads,
+                   @Value("${library.batch-loader.timeout:1s}") Duration timeout) {
+        this.bookViewRepository = bookViewRepository;
+        this.timeoutNanos = timeout.toNanos();
+        if (window.isZero()) {
+            this.executor = null;
+            this.loader = null;
+            return;
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "book-view-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loader = new BatchLoader<>(
+                ids -> readOnly.execute(status -> findAllById(ids)),
+                window.toNanos(), maxBatchSize, executor);
+    }
+
+    Optional<BookView> load(int id) {
+        if (loader == null || ReadWriteRoutingDataSource.isPinnedToPrimary()
+                || (TransactionSynchronizationManager.isActualTransactionActive()
+                        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return bookViewRepository.findById(id);
+        }
+        try {
+            if (loading.incrementAndGet() == 1) {
+                return bookViewRepository.findById(id);
+            }
+            return Optional.ofNullable(loader.load(id, timeoutNanos));
+        } catch (TimeoutException e) {
+            logger.warn("Book view batch did not load within {} ms, reading book {} directly",
+                    timeoutNanos / 1_000_000, id);
+            return bookViewRepository.findById(id);
+        } finally {
+            loading.decrementAndGet();
+        }
+    }
+
+    private Map<Integer, BookView> findAllById(Set<Integer> ids) {
+        return bookViewRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(BookView::getBookId, Function.identity()));
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.repository.AuthorRepository;
+import com.example.myspringproject.repository.BookViewRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import com.example.myspringproject.service.BookViewService;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Чтение списков книг из book_view. Таблица обновляется триггерами в той же
+// транзакции, что и запись, поэтому отдельного кэша здесь нет: переименование
+// автора или категории сразу видно во всех списках.
+@Service
+@AllArgsConstructor
+public class BookViewServiceImpl implements BookViewService {
+
+    private final BookViewRepository bookViewRepository;
+    private final CategoryRepository categoryRepository;
+    private final AuthorRepository authorRepository;
+    private final BookViewLoader bookViewLoader;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookView> findAllBooks() {
+        return bookViewRepository.findAll();
+    }
+
+    // Без своей транзакции: одновременные запросы по id читаются одной пачкой
+    // в транзакции BookViewLoader
+    @Override
+    public BookView findBookById(int id) {
+        return bookViewLoader.load(id)
+                .orElseThrow(() -> new EntityNotFoundException("Книга не найдена по id:" + id));
+    }
+
+    // Одним запросом WHERE book_id IN (...); ненайденные id пропускаются,
+    // порядок — как в запросе
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookView> findBooksByIds(Collection<Integer> ids) {
+        Map<Integer, BookView> books = bookViewRepository.findAllById(Set.copyOf(ids)).stream()
+                .collect(Collectors.toMap(BookView::getBookId, Function.identity()));
+        return ids.stream().distinct().map(books::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookView> searchBooks(String author, String title) {
+        List<BookView> books = bookViewRepository.search(author, title);
+        if (books.isEmpty()) {
+            throw new EntityNotFoundException("Книги не найдена по автору: "
+                    + author + " или названию: " + title);
+        }
+        return books;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookView> findBooksByCategory(String categoryName) {
+        List<BookView> books = bookViewRepository.findByCategoryName(categoryName);
+        if (books.isEmpty()) {
+            throw new EntityNotFoundException("Книги не найдены по категории: " + categoryName);
+        }
+        return books;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookView> findBooksByCategoryId(int categoryId) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new EntityNotFoundException("Категория не найдена с id: " + categoryId);
+        }
+        return bookViewRepository.findByCategoryId(categoryId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookView> findBooksByAuthor(String authorName) {
+        List<BookView> books = bookViewRepository.findByAuthorName(authorName);
+        if (books.isEmpty()) {
+            throw new EntityNotFoundException("Книги не найдены по автору: " + authorName);
+        }
+        return books;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookView> findBooksByAuthorId(int authorId) {
+        if (!authorRepository.existsById(authorId)) {
+            throw new EntityNotFoundException("Автор не найден с id: " + authorId);
+        }
+        return bookViewRepository.findByAuthorId(authorId);
+    }
+}
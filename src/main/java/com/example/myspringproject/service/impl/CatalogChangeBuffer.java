@@ -0,0 +1,69 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.CatalogChangeGetDto;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Изменения, ещё не отправленные одному подписчику. Повторные изменения
+// одного типа сливаются в одно событие, а если id набралось больше capacity,
+// тип схлопывается в «перечитать все»: медленный клиент получает меньше
+// событий, но память на него ограничена.
+final class CatalogChangeBuffer {
+
+    private final int capacity;
+    // null в значении — изменились все записи типа
+    private final Map<String, Set<Integer>> pending = new LinkedHashMap<>();
+    private int size;
+    private boolean scheduled;
+
+    CatalogChangeBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // true, если отправка ещё не запланирована и её нужно запустить
+    synchronized boolean offer(String type, Collection<Integer> ids) {
+        if (ids == null) {
+            Set<Integer> previous = pending.put(type, null);
+            if (previous != null) {
+                size -= previous.size();
+            }
+        } else if (!pending.containsKey(type) || pending.get(type) != null) {
+            Set<Integer> typeIds = pending.computeIfAbsent(type, key -> new TreeSet<>());
+            for (Integer id : ids) {
+                if (typeIds.add(id)) {
+                    size++;
+                }
+            }
+            if (size > capacity) {
+                size -= typeIds.size();
+                pending.put(type, null);
+            }
+        }
+        if (scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+
+    // Забирает накопленные изменения. Пустой результат снимает отметку об
+    // отправке: пока она стоит, новые изменения копятся здесь, а не
+    // запускают вторую отправку тому же клиенту
+    synchronized List<CatalogChangeGetDto> drain() {
+        if (pending.isEmpty()) {
+            scheduled = false;
+            return List.of();
+        }
+        List<CatalogChangeGetDto> changes = new ArrayList<>(pending.size());
+        pending.forEach((type, ids) -> changes.add(
+                new CatalogChangeGetDto(type, ids == null ? null : List.copyOf(ids))));
+        pending.clear();
+        size = 0;
+        return changes;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.AuthorGetDto;
+import com.example.myspringproject.dto.get.BookGetDto;
+import com.example.myspringproject.dto.get.CatalogChangeEntryGetDto;
+import com.example.myspringproject.dto.get.CatalogChangesGetDto;
+import com.example.myspringproject.dto.get.CategoryGetDto;
+import com.example.myspringproject.exception.ChangeLogExpiredException;
+import com.example.myspringproject.exception.ValidationException;
+import com.example.myspringproject.model.Author;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.model.CatalogChange;
+import com.example.myspringproject.model.Category;
+import com.example.myspringproject.repository.AuthorRepository;
+import com.example.myspringproject.repository.BookViewRepository;
+import com.example.myspringproject.repository.CatalogChangeRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import com.example.myspringproject.service.CatalogChangeService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Журнал изменений catalog_changes ведут триггеры базы; здесь он читается
+// страницами по версии и периодически сжимается. Записи журнала несут только
+// id, текущее состояние записей дочитывается пачкой на страницу.
+@Service
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogChangeServiceImpl.class);
+
+    private final CatalogChangeRepository changeRepository;
+    private final BookViewRepository bookViewRepository;
+    private final AuthorRepository authorRepository;
+    private final CategoryRepository categoryRepository;
+    private final int maxLimit;
+    private final Duration tombstoneRetention;
+
+    public CatalogChangeServiceImpl(
+            CatalogChangeRepository changeRepository,
+            BookViewRepository bookViewRepository,
+            AuthorRepository authorRepository,
+            CategoryRepository categoryRepository,
+            @Value("${library.changes.max-limit:1000}") int maxLimit,
+            @Value("${library.changes.tombstone-retention:7d}") Duration tombstoneRetention) {
+        this.changeRepository = changeRepository;
+        this.bookViewRepository = bookViewRepository;
+        this.authorRepository = authorRepository;
+        this.categoryRepository = categoryRepository;
+        this.maxLimit = maxLimit;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogChangesGetDto findChanges(long since, int limit) {
+        if (since < 0 || limit < 1 || limit > maxLimit) {
+            throw new ValidationException(List.of(
+                    "since должен быть не меньше 0, limit — от 1 до " + maxLimit));
+        }
+        List<CatalogChange> entries = changeRepository.findByVersionGreaterThanOrderByVersion(
+                since, Limit.of(limit + 1));
+        // Граница читается после записей: сжатие, закоммиченное между двумя
+        // запросами, поднимет её, и ответ будет 410 вместо потерянного удаления
+        if (since < changeRepository.findPurgedThrough()) {
+            throw new ChangeLogExpiredException("Изменения после версии " + since
+                    + " уже сжаты; загрузите каталог заново и продолжите с /changes/version");
+        }
+
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        long version = entries.isEmpty() ? since : entries.get(entries.size() - 1).getVersion();
+        return new CatalogChangesGetDto(version, hasMore, toDtos(entries));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getCurrentVersion() {
+        return changeRepository.findLastVersion();
+    }
+
+    // Сначала удаляются записи, перекрытые более поздними изменениями тех же
+    // сущностей: это не влияет ни на один курсор. Затем — старые записи об
+    // удалении; граница purged_through поднимается в той же транзакции, и
+    // курсоры до неё получают 410
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${library.changes.compaction-interval:1h}",
+            initialDelayString = "${library.changes.compaction-interval:1h}")
+    public void compact() {
+        int superseded = changeRepository.deleteSuperseded();
+        int tombstones = 0;
+        Long lastTombstone = changeRepository.findLastTombstoneBefore(
+                Instant.now().minus(tombstoneRetention));
+        if (lastTombstone != null) {
+            changeRepository.raisePurgedThrough(lastTombstone);
+            tombstones = changeRepository.deleteTombstonesThrough(lastTombstone);
+        }
+        logger.info("Change log compacted: {} superseded, {} expired tombstones removed",
+                superseded, tombstones);
+    }
+
+    private List<CatalogChangeEntryGetDto> toDtos(List<CatalogChange> entries) {
+        // Из нескольких изменений одной записи на странице нужно только последнее
+        Map<String, CatalogChange> latest = new LinkedHashMap<>();
+        entries.forEach(entry -> latest.put(entry.getEntityType() + ":" + entry.getEntityId(),
+                entry));
+
+        Map<String, Map<Integer, Object>> current = Map.of(
+                "books", load(latest.values(), "books", ids -> bookViewRepository
+                        .findAllById(ids).stream()
+                        .collect(Collectors.toMap(BookView::getBookId, BookGetDto::new))),
+                "authors", load(latest.values(), "authors", ids -> authorRepository
+                        .findAllById(ids).stream()
+                        .collect(Collectors.toMap(Author::getAuthorId, AuthorGetDto::new))),
+                "categories", load(latest.values(), "categories", ids -> categoryRepository
+                        .findAllById(ids).stream()
+                        .collect(Collectors.toMap(Category::getCategoryId, CategoryGetDto::new))));
+
+        List<CatalogChangeEntryGetDto> dtos = new ArrayList<>(latest.size());
+        for (CatalogChange entry : entries) {
+            if (latest.get(entry.getEntityType() + ":" + entry.getEntityId()) != entry) {
+                continue;
+            }
+            Object data = entry.isDeleted() ? null
+                    : current.getOrDefault(entry.getEntityType(), Map.of()).get(entry.getEntityId());
+            // Запись удалена позже, чем попала в журнал: отдаётся как удаление,
+            // сама запись об удалении придёт на одной из следующих страниц
+            dtos.add(new CatalogChangeEntryGetDto(entry.getVersion(), entry.getEntityType(),
+                    entry.getEntityId(), data == null, data));
+        }
+        return dtos;
+    }
+
+    private static Map<Integer, Object> load(Iterable<CatalogChange> entries, String type,
+                                             Function<Set<Integer>, Map<Integer, ?>> loader) {
+        Set<Integer> ids = new HashSet<>();
+        for (CatalogChange entry : entries) {
+            if (!entry.isDeleted() && type.equals(entry.getEntityType())) {
+                ids.add(entry.getEntityId());
+            }
+        }
+        return ids.isEmpty() ? Map.of() : new HashMap<>(loader.apply(ids));
+    }
+}
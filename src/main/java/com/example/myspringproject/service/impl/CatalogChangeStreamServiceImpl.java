@@ -0,0 +1,143 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.catalog.CatalogChangedEvent;
+import com.example.myspringproject.dto.get.CatalogChangeGetDto;
+import com.example.myspringproject.model.Author;
+import com.example.myspringproject.model.Book;
+import com.example.myspringproject.model.Category;
+import com.example.myspringproject.service.CatalogChangeStreamService;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Рассылает изменения каталога открытым SSE-подключениям. Слушатель после
+// коммита только кладёт изменение в буфер каждого подписчика, а пишут в сокеты
+// потоки отправки, поэтому медленный клиент не задерживает ни запрос, который
+// сделал запись, ни других подписчиков.
+//
+// id события — версия журнала catalog_changes, в которую уже вошли отправленные
+// изменения. Клиент дочитывает их через /changes?since=..., пока не догонит её:
+// реплика, с которой читает /changes, может отставать от коммита.
+@Service
+public class CatalogChangeStreamServiceImpl implements CatalogChangeStreamService, DisposableBean {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(CatalogChangeStreamServiceImpl.class);
+
+    static final String EVENT_NAME = "change";
+
+    private static final Map<Class<?>, String> TYPES = Map.of(
+            Book.class, "books",
+            Author.class, "authors",
+            Category.class, "categories");
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final long timeoutMillis;
+    private final int bufferCapacity;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sendExecutor;
+
+    public CatalogChangeStreamServiceImpl(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Value("${library.changes.stream-timeout:30m}") Duration timeout,
+            @Value("${library.changes.buffer-capacity:256}") int bufferCapacity,
+            @Value("${library.changes.sender-threads:2}") int senderThreads) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferCapacity = bufferCapacity;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sendExecutor = Executors.newFixedThreadPool(senderThreads, task -> {
+            Thread thread = new Thread(task, "change-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        // По таймауту клиент (EventSource) переподключается сам
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(emitter, new CatalogChangeBuffer(bufferCapacity));
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    // fallbackExecution: массовые операции публикуют событие уже вне транзакции
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        String type = TYPES.get(event.entityType());
+        if (type == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.buffer().offer(type, event.entityIds())) {
+                sendExecutor.execute(() -> send(subscription));
+            }
+        }
+    }
+
+    private void send(Subscription subscription) {
+        List<CatalogChangeGetDto> changes;
+        while (!(changes = subscription.buffer().drain()).isEmpty()) {
+            String version = currentVersion();
+            try {
+                for (CatalogChangeGetDto change : changes) {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event()
+                            .name(EVENT_NAME)
+                            .data(change, MediaType.APPLICATION_JSON);
+                    subscription.emitter().send(version == null ? event : event.id(version));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Клиент отключился или подключение уже закрыто
+                logger.debug("Change stream subscriber dropped: {}", e.getMessage());
+                subscriptions.remove(subscription);
+                subscription.emitter().completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    // Читается после того, как изменения забраны из буфера, а значит после их
+    // коммита. Запрос идёт прямо в primary: реплика может ещё не знать этой версии
+    private String currentVersion() {
+        try {
+            return String.valueOf(primaryJdbcTemplate.queryForObject(
+                    "SELECT value FROM catalog_change_counters WHERE name = 'last_version'",
+                    Long.class));
+        } catch (DataAccessException e) {
+            logger.warn("Change log version unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sendExecutor.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter().complete());
+    }
+
+    private record Subscription(SseEmitter emitter, CatalogChangeBuffer buffer) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.myspringproject.service.impl;
 
+import com.example.myspringproject.cache.AuthorCache;
+import com.example.myspringproject.cache.BookCache;
 import com.example.myspringproject.cache.CategoryCache;
+import com.example.myspringproject.catalog.CatalogChangedEvent;
 import com.example.myspringproject.dto.create.CategoryCreateDto;
 import com.example.myspringproject.dto.update.CategoryUpdateDto;
 import com.example.myspringproject.exception.UniqueConstraintViolationException;
@@ -9,28 +12,49 @@ import com.example.myspringproject.model.Category;
 import com.example.myspringproject.repository.BookRepository;
 import com.example.myspringproject.repository.CategoryRepository;
 import com.example.myspringproject.service.CategoryService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @AllArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
 
+    private static final String CATEGORY_NOT_FOUND_MESSAGE = "Категория не найдена по id:";
+    private static final String BOOK_NOT_FOUND_MESSAGE = "Книга не найдена с id: ";
+    private static final String BY_NAME_NOT_FOUND_MESSAGE = "Категории не найдены по имени: ";
+    private static final String BY_BOOK_NOT_FOUND_MESSAGE = "Категории не найдены по книге: ";
+
     private final CategoryRepository categoryRepository;
     private final BookRepository bookRepository;
     private final CategoryCache categoryCache;
+    private final BookCache bookCache;
+    private final AuthorCache authorCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
+    // withBooks = false — для ответов без книг (fields= без books): категории
+    // читаются без соединения с книгами и без загрузки коллекций
     @Override
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Category> getAllCategories(boolean withBooks) {
+        return withBooks ? categoryRepository.findAll() : categoryRepository.findAllWithoutBooks();
     }
 
     @Override
-    public Category getCategoryById(int id) {
-        String cacheKey = "category_id_" + id;
+    @Transactional(readOnly = true)
+    public Category getCategoryById(int id, boolean withBooks) {
+        String cacheKey = cacheKey("category_id_" + id, withBooks);
         if (categoryCache.containsKey(cacheKey)) {
             return categoryCache.get(cacheKey).stream()
                     .filter(category -> category.getCategoryId() == id)
@@ -38,65 +62,76 @@ public class CategoryServiceImpl implements CategoryService {
                     .orElse(null);
         }
         Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Категория не найдена по id:" + id));
-        if (category != null) {
-            categoryCache.put(cacheKey, List.of(category));
+                .orElseThrow(() -> new EntityNotFoundException(CATEGORY_NOT_FOUND_MESSAGE + id));
+        if (withBooks) {
+            // Книги берутся из кэша коллекций второго уровня, поэтому не fetch join
+            Hibernate.initialize(category.getBooks());
         }
+        categoryCache.put(cacheKey, List.of(category));
         return category;
     }
 
+    // Найденные в кэше второго уровня не читаются, остальные — одним IN-запросом;
+    // книги так же: из кэша коллекций, промахи — пачками default_batch_fetch_size.
+    // Ненайденные id пропускаются, порядок — как в запросе
     @Override
-    public List<Category> findCategoriesByName(String name) {
-        String cacheKey = "categoriesByName_" + name;
-        if (categoryCache.containsKey(cacheKey)) {
-            List<Category> cachedCategories = categoryCache.get(cacheKey);
-            if (cachedCategories.isEmpty()) {
-                throw new EntityNotFoundException("Категории не найдены по имени: " + name);
-            }
-            return cachedCategories;
-        }
-        List<Category> categories = categoryRepository.findByCategoryNameContainingIgnoreCase(name);
-        if (categories.isEmpty()) {
-            throw new EntityNotFoundException("Категории не найдены по имени: " + name);
+    @Transactional(readOnly = true)
+    public List<Category> getCategoriesByIds(Collection<Integer> ids, boolean withBooks) {
+        List<Category> categories = entityManager.unwrap(Session.class)
+                .byMultipleIds(Category.class)
+                // Без явного CacheMode multiLoad не заглядывает в кэш второго уровня
+                .with(CacheMode.NORMAL)
+                .multiLoad(ids.stream().distinct().toList())
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (withBooks) {
+            categories.forEach(category -> Hibernate.initialize(category.getBooks()));
         }
-        categoryCache.put(cacheKey, categories);
         return categories;
     }
 
     @Override
-    public List<Category> findCategoriesByBook(String bookName) {
-        String cacheKey = "categoriesByBook_" + bookName;
-        if (categoryCache.containsKey(cacheKey)) {
-            List<Category> cachedCategories = categoryCache.get(cacheKey);
-            if (cachedCategories.isEmpty()) {
-                throw new EntityNotFoundException("Категории не найдены по книге: " + bookName);
-            }
-            return cachedCategories;
-        }
-        List<Category> categories = categoryRepository.findCategoriesByBook(bookName);
-        if (categories.isEmpty()) {
-            throw new EntityNotFoundException("Категории не найдены по книге: " + bookName);
-        }
-        categoryCache.put(cacheKey, categories);
-        return categories;
+    @Transactional(readOnly = true)
+    public List<Category> findCategoriesByName(String name, boolean withBooks) {
+        return findNonEmpty(cacheKey("categoriesByName_" + name, withBooks),
+                BY_NAME_NOT_FOUND_MESSAGE + name,
+                () -> withBooks
+                        ? categoryRepository.findByCategoryNameContainingIgnoreCase(name)
+                        : categoryRepository
+                                .findByCategoryNameContainingIgnoreCaseWithoutBooks(name));
     }
 
     @Override
-    public List<Category> findCategoriesByBookId(int bookId) {
+    @Transactional(readOnly = true)
+    public List<Category> findCategoriesByBook(String bookName, boolean withBooks) {
+        return findNonEmpty(cacheKey("categoriesByBook_" + bookName, withBooks),
+                BY_BOOK_NOT_FOUND_MESSAGE + bookName,
+                () -> withBooks
+                        ? categoryRepository.findCategoriesByBook(bookName)
+                        : categoryRepository.findCategoriesByBookWithoutBooks(bookName));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Category> findCategoriesByBookId(int bookId, boolean withBooks) {
         if (!bookRepository.existsById(bookId)) {
-            throw new EntityNotFoundException("Книга не найдена с id: " + bookId);
+            throw new EntityNotFoundException(BOOK_NOT_FOUND_MESSAGE + bookId);
         }
 
-        String cacheKey = "categoriesByBookId_" + bookId;
+        String cacheKey = cacheKey("categoriesByBookId_" + bookId, withBooks);
         if (categoryCache.containsKey(cacheKey)) {
             return categoryCache.get(cacheKey);
         }
-        List<Category> categories = categoryRepository.findCategoriesByBookId(bookId);
+        List<Category> categories = withBooks
+                ? categoryRepository.findCategoriesByBookId(bookId)
+                : categoryRepository.findCategoriesByBookIdWithoutBooks(bookId);
         categoryCache.put(cacheKey, categories);
         return categories;
     }
 
     @Override
+    @Transactional
     public Category createCategory(CategoryCreateDto dto) {
         if (categoryRepository.existsByCategoryName(dto.getName())) {
             throw new UniqueConstraintViolationException("Категория с таким именем уже существует");
@@ -114,8 +149,10 @@ public class CategoryServiceImpl implements CategoryService {
             books.forEach(book -> book.getCategories().add(category));
         }
         categoryCache.clear();
+        Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(Category.class, savedCategory.getCategoryId()));
 
-        return categoryRepository.save(category);
+        return savedCategory;
     }
 
     @Override
@@ -127,31 +164,59 @@ public class CategoryServiceImpl implements CategoryService {
         category.setCategoryName(dto.getName());
 
         if (dto.getBookIds() != null) {
-            List<Book> books = bookRepository.findAllById(dto.getBookIds());
-            category.setBooks(books);
-            books.forEach(book -> {
-                if (!book.getCategories().contains(category)) {
-                    book.getCategories().add(category);
-                }
-            });
+            // Набор книг категории заменяется двумя запросами к books_categories.
+            // Новое имя сбрасывается в базу перед ними (flushAutomatically), а
+            // отсоединённую категорию с устаревшими книгами перечитываем.
+            Integer[] bookIds = dto.getBookIds().toArray(Integer[]::new);
+            categoryRepository.deleteBookLinksExcept(id, bookIds);
+            categoryRepository.insertBookLinks(id, bookIds);
+            category = categoryRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Category not found"));
         }
-        categoryCache.clear();
+        Hibernate.initialize(category.getBooks());
+        clearCaches(id);
 
-        return categoryRepository.save(category);
+        return category;
     }
 
     @Transactional
     @Override
     public void deleteCategory(int id) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+        categoryRepository.deleteBookLinks(id);
+        if (categoryRepository.deleteCategoryById(id) == 0) {
+            throw new EntityNotFoundException("Category not found");
+        }
+        clearCaches(id);
+    }
 
-        category.getBooks().forEach(book ->
-            book.getCategories().removeIf(c -> c.getCategoryId() == id)
-        );
+    // Категории без книг кэшируются под своими ключами: их коллекции не загружены
+    private static String cacheKey(String key, boolean withBooks) {
+        return withBooks ? key : "withoutBooks_" + key;
+    }
 
-        categoryRepository.delete(category);
-        categoryCache.clear();
+    // Поиск из кэша или запросом; пустой результат — 404
+    private List<Category> findNonEmpty(String cacheKey, String notFoundMessage,
+                                        Supplier<List<Category>> query) {
+        List<Category> categories;
+        if (categoryCache.containsKey(cacheKey)) {
+            categories = categoryCache.get(cacheKey);
+        } else {
+            categories = query.get();
+            if (!categories.isEmpty()) {
+                categoryCache.put(cacheKey, categories);
+            }
+        }
+        if (categories.isEmpty()) {
+            throw new EntityNotFoundException(notFoundMessage);
+        }
+        return categories;
+    }
 
+    // Связи категории видны и в списках книг, и в поиске авторов по категории
+    private void clearCaches(int id) {
+        categoryCache.clear();
+        bookCache.clear();
+        authorCache.clear();
+        eventPublisher.publishEvent(CatalogChangedEvent.of(Category.class, id));
     }
 }
@@ -0,0 +1,62 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import com.example.myspringproject.exception.ValidationException;
+import com.example.myspringproject.repository.AuthorStatsRepository;
+import com.example.myspringproject.repository.CategoryStatsRepository;
+import com.example.myspringproject.service.StatsService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Счётчики читаются из category_stats и author_stats. Их меняют триггеры мимо
+// Hibernate, поэтому результаты не кладутся ни в кэш запросов, ни в свои кэши.
+@Service
+public class StatsServiceImpl implements StatsService {
+
+    private final CategoryStatsRepository categoryStatsRepository;
+    private final AuthorStatsRepository authorStatsRepository;
+    private final int maxTopLimit;
+
+    public StatsServiceImpl(CategoryStatsRepository categoryStatsRepository,
+                            AuthorStatsRepository authorStatsRepository,
+                            @Value("${library.stats.max-top-limit:100}") int maxTopLimit) {
+        this.categoryStatsRepository = categoryStatsRepository;
+        this.authorStatsRepository = authorStatsRepository;
+        this.maxTopLimit = maxTopLimit;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookCountGetDto> getBooksPerCategory() {
+        return categoryStatsRepository.findBookCounts();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookCountGetDto> getBooksPerAuthor() {
+        return authorStatsRepository.findBookCounts();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookCountGetDto> getTopCategories(int limit) {
+        return categoryStatsRepository.findTop(topLimit(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookCountGetDto> getTopAuthors(int limit) {
+        return authorStatsRepository.findTop(topLimit(limit));
+    }
+
+    private Limit topLimit(int limit) {
+        if (limit < 1 || limit > maxTopLimit) {
+            throw new ValidationException(List.of(
+                    "limit должен быть от 1 до " + maxTopLimit));
+        }
+        return Limit.of(limit);
+    }
+}
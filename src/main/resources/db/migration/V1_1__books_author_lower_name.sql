@@ -0,0 +1,28 @@
+-- Проверка дубликатов книг у автора (BookRepository.existsByAuthorIdAndNameIgnoreCase);
+-- ведущий столбец author_id делает индекс заодно индексом внешнего ключа books.author_id.
+--
+-- Старый API дубликаты не запрещал. Данные миграция не меняет: если у автора
+-- есть книги с одинаковым без учёта регистра названием, она останавливается
+-- и перечисляет их id, чтобы дубликаты разобрали вручную.
+
+DO
+$$
+    DECLARE
+        duplicates TEXT;
+    BEGIN
+        SELECT string_agg(format('author_id=%s, book_id=%s', author_id, book_ids), '; ')
+        INTO duplicates
+        FROM (SELECT author_id, string_agg(book_id::text, ',' ORDER BY book_id) AS book_ids
+              FROM books
+              WHERE author_id IS NOT NULL
+                AND name IS NOT NULL
+              GROUP BY author_id, lower(name)
+              HAVING count(*) > 1) d;
+        IF duplicates IS NOT NULL THEN
+            RAISE EXCEPTION 'Книги одного автора с одинаковым названием: %', duplicates
+                USING HINT = 'Объедините или переименуйте эти книги и повторите миграцию';
+        END IF;
+    END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_books_author_lower_name ON books (author_id, lower(name));
@@ -0,0 +1,34 @@
+-- Исходная схема в том виде, в каком её создавал ddl-auto: update.
+-- Базы, созданные до появления миграций, помечаются этой версией
+-- (spring.flyway.baseline-on-migrate) и начинают сразу с V1_1.
+
+CREATE TABLE authors
+(
+    author_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name      VARCHAR(255),
+    CONSTRAINT ux_authors_name UNIQUE (name)
+);
+
+CREATE TABLE categories
+(
+    category_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    CONSTRAINT ux_categories_name UNIQUE (name)
+);
+
+CREATE TABLE books
+(
+    book_id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name      VARCHAR(255),
+    author_id INTEGER,
+    CONSTRAINT fk_books_author FOREIGN KEY (author_id) REFERENCES authors (author_id)
+);
+
+CREATE TABLE books_categories
+(
+    book_id     INTEGER NOT NULL,
+    category_id INTEGER NOT NULL,
+    CONSTRAINT fk_books_categories_book FOREIGN KEY (book_id) REFERENCES books (book_id),
+    CONSTRAINT fk_books_categories_category
+        FOREIGN KEY (category_id) REFERENCES categories (category_id)
+);
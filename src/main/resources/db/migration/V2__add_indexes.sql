@@ -0,0 +1,50 @@
+-- Индексы и ключи, которых не было у схемы ddl-auto: update.
+-- Написано так, чтобы одинаково проходить и на свежей базе после V1,
+-- и на базе, созданной Hibernate и помеченной baseline-версией 1.
+
+-- Поиск автора и категории по точному имени (existsBy...Name, findBy...NameIn).
+-- Уникальность имён добавляет V7 после проверки данных.
+CREATE INDEX IF NOT EXISTS ix_authors_name ON authors (name);
+CREATE INDEX IF NOT EXISTS ix_categories_name ON categories (name);
+
+-- Составной первичный ключ связующей таблицы; заодно служит индексом по book_id.
+-- Полностью совпадающие строки связей ничего не значат и убираются перед ним.
+DELETE
+FROM books_categories a
+    USING books_categories b
+WHERE a.ctid < b.ctid
+  AND a.book_id = b.book_id
+  AND a.category_id = b.category_id;
+
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM pg_constraint
+                       WHERE conrelid = 'books_categories'::regclass
+                         AND contype = 'p') THEN
+            ALTER TABLE books_categories
+                ADD CONSTRAINT pk_books_categories PRIMARY KEY (book_id, category_id);
+        END IF;
+    END
+$$;
+
+-- Индекс внешнего ключа books_categories.category_id (поиск книг по категории).
+CREATE INDEX IF NOT EXISTS ix_books_categories_category_id ON books_categories (category_id, book_id);
+
+-- Поиск по подстроке: все поисковые запросы сравнивают LOWER(name) LIKE '%...%'.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS ix_books_name_trgm ON books USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_authors_name_trgm ON authors USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_categories_name_trgm ON categories USING gin (lower(name) gin_trgm_ops);
+
+-- Распределение книг по авторам и категориям сильно неравномерное,
+-- поэтому по этим столбцам собираем более подробную статистику.
+ALTER TABLE books ALTER COLUMN author_id SET STATISTICS 1000;
+ALTER TABLE books_categories ALTER COLUMN category_id SET STATISTICS 1000;
+ALTER TABLE books_categories ALTER COLUMN book_id SET STATISTICS 1000;
+
+ANALYZE authors;
+ANALYZE categories;
+ANALYZE books;
+ANALYZE books_categories;
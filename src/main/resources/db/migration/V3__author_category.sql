@@ -0,0 +1,175 @@
+-- Денормализованная таблица "автор — категория" для поиска авторов по категории
+-- без соединения authors, books, books_categories и categories с DISTINCT.
+-- Поддерживается триггерами: book_count — число книг автора в категории,
+-- строка удаляется, когда счётчик доходит до нуля.
+
+CREATE TABLE author_category
+(
+    author_id     INTEGER      NOT NULL,
+    category_id   INTEGER      NOT NULL,
+    category_name VARCHAR(255),
+    book_count    INTEGER      NOT NULL,
+    CONSTRAINT pk_author_category PRIMARY KEY (category_id, author_id),
+    CONSTRAINT fk_author_category_author
+        FOREIGN KEY (author_id) REFERENCES authors (author_id) ON DELETE CASCADE,
+    CONSTRAINT fk_author_category_category
+        FOREIGN KEY (category_id) REFERENCES categories (category_id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_author_category_author_id ON author_category (author_id);
+-- LIKE 'префикс%' по названию категории
+CREATE INDEX ix_author_category_name_prefix
+    ON author_category (lower(category_name) text_pattern_ops);
+-- LIKE '%подстрока%' по названию категории
+CREATE INDEX ix_author_category_name_trgm
+    ON author_category USING gin (lower(category_name) gin_trgm_ops);
+
+INSERT INTO author_category (author_id, category_id, category_name, book_count)
+SELECT b.author_id, bc.category_id, c.name, count(*)
+FROM books_categories bc
+         JOIN books b ON b.book_id = bc.book_id
+         JOIN categories c ON c.category_id = bc.category_id
+WHERE b.author_id IS NOT NULL
+GROUP BY b.author_id, bc.category_id, c.name;
+
+-- Прибавляет deltas к счётчикам пар (author_ids[i], category_ids[i]);
+-- пары с нулевым счётчиком удаляются. Пары обрабатываются в порядке ключа,
+-- чтобы параллельные транзакции не блокировали друг друга крест-накрест.
+CREATE FUNCTION author_category_apply(author_ids INTEGER[], category_ids INTEGER[],
+                                      deltas INTEGER[]) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO author_category AS ac (author_id, category_id, category_name, book_count)
+    SELECT p.author_id, p.category_id, c.name, p.delta
+    FROM unnest(author_ids, category_ids, deltas) AS p(author_id, category_id, delta)
+             JOIN categories c ON c.category_id = p.category_id
+    WHERE p.delta <> 0
+    ORDER BY p.category_id, p.author_id
+    ON CONFLICT (category_id, author_id)
+        DO UPDATE SET book_count = ac.book_count + EXCLUDED.book_count;
+
+    DELETE
+    FROM author_category ac
+        USING unnest(author_ids, category_ids) AS p(author_id, category_id)
+    WHERE ac.author_id = p.author_id
+      AND ac.category_id = p.category_id
+      AND ac.book_count <= 0;
+END
+$$;
+
+-- Связь книги с категорией добавлена
+CREATE FUNCTION author_category_links_inserted() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    author_ids   INTEGER[];
+    category_ids INTEGER[];
+    deltas       INTEGER[];
+BEGIN
+    SELECT array_agg(d.author_id), array_agg(d.category_id), array_agg(d.delta)
+    INTO author_ids, category_ids, deltas
+    FROM (SELECT b.author_id, n.category_id, count(*)::INTEGER AS delta
+          FROM new_links n
+                   JOIN books b ON b.book_id = n.book_id
+          WHERE b.author_id IS NOT NULL
+          GROUP BY b.author_id, n.category_id) d;
+    PERFORM author_category_apply(author_ids, category_ids, deltas);
+    RETURN NULL;
+END
+$$;
+
+-- Связь книги с категорией удалена. Hibernate удаляет связи раньше самой книги,
+-- поэтому автор книги здесь ещё доступен.
+CREATE FUNCTION author_category_links_deleted() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    author_ids   INTEGER[];
+    category_ids INTEGER[];
+    deltas       INTEGER[];
+BEGIN
+    SELECT array_agg(d.author_id), array_agg(d.category_id), array_agg(-d.delta)
+    INTO author_ids, category_ids, deltas
+    FROM (SELECT b.author_id, o.category_id, count(*)::INTEGER AS delta
+          FROM old_links o
+                   JOIN books b ON b.book_id = o.book_id
+          WHERE b.author_id IS NOT NULL
+          GROUP BY b.author_id, o.category_id) d;
+    PERFORM author_category_apply(author_ids, category_ids, deltas);
+    RETURN NULL;
+END
+$$;
+
+-- У книги сменился автор: её категории переходят от старого автора к новому
+CREATE FUNCTION author_category_books_author_changed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    author_ids   INTEGER[];
+    category_ids INTEGER[];
+    deltas       INTEGER[];
+BEGIN
+    WITH moved AS (SELECT o.book_id, o.author_id AS old_author_id, n.author_id AS new_author_id
+                   FROM old_books o
+                            JOIN new_books n ON n.book_id = o.book_id
+                   WHERE o.author_id IS DISTINCT FROM n.author_id),
+         changes AS (SELECT m.old_author_id AS author_id, bc.category_id, -1 AS delta
+                     FROM moved m
+                              JOIN books_categories bc ON bc.book_id = m.book_id
+                     WHERE m.old_author_id IS NOT NULL
+                     UNION ALL
+                     SELECT m.new_author_id, bc.category_id, 1
+                     FROM moved m
+                              JOIN books_categories bc ON bc.book_id = m.book_id
+                     WHERE m.new_author_id IS NOT NULL)
+    SELECT array_agg(d.author_id), array_agg(d.category_id), array_agg(d.delta)
+    INTO author_ids, category_ids, deltas
+    FROM (SELECT author_id, category_id, sum(delta)::INTEGER AS delta
+          FROM changes
+          GROUP BY author_id, category_id) d;
+    PERFORM author_category_apply(author_ids, category_ids, deltas);
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION author_category_category_renamed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE author_category
+    SET category_name = NEW.name
+    WHERE category_id = NEW.category_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER tr_books_categories_author_category_ins
+    AFTER INSERT
+    ON books_categories
+    REFERENCING NEW TABLE AS new_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION author_category_links_inserted();
+
+CREATE TRIGGER tr_books_categories_author_category_del
+    AFTER DELETE
+    ON books_categories
+    REFERENCING OLD TABLE AS old_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION author_category_links_deleted();
+
+CREATE TRIGGER tr_books_author_category_upd
+    AFTER UPDATE
+    ON books
+    REFERENCING OLD TABLE AS old_books NEW TABLE AS new_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION author_category_books_author_changed();
+
+CREATE TRIGGER tr_categories_author_category_name
+    AFTER UPDATE OF name
+    ON categories
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION author_category_category_renamed();
+
+ANALYZE author_category;
@@ -0,0 +1,161 @@
+-- Read-модель списков книг: одна строка на книгу с именем автора и
+-- названиями категорий, чтобы GET-запросы читали одну таблицу без соединений.
+-- Поддерживается триггерами в той же транзакции, что и запись.
+
+CREATE TABLE book_view
+(
+    book_id         INTEGER        NOT NULL,
+    name            VARCHAR(255),
+    author_id       INTEGER,
+    author_name     VARCHAR(255),
+    category_ids    INTEGER[]      NOT NULL DEFAULT '{}',
+    category_names  VARCHAR(255)[] NOT NULL DEFAULT '{}',
+    -- Названия категорий через разделитель U+001F в нижнем регистре:
+    -- поиск по подстроке в любой категории одним LIKE по триграммному индексу
+    category_search TEXT           NOT NULL DEFAULT '',
+    CONSTRAINT pk_book_view PRIMARY KEY (book_id),
+    CONSTRAINT fk_book_view_book FOREIGN KEY (book_id) REFERENCES books (book_id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_book_view_author_id ON book_view (author_id);
+CREATE INDEX ix_book_view_category_ids ON book_view USING gin (category_ids);
+CREATE INDEX ix_book_view_name_trgm ON book_view USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX ix_book_view_author_name_trgm ON book_view USING gin (lower(author_name) gin_trgm_ops);
+CREATE INDEX ix_book_view_category_search_trgm ON book_view USING gin (category_search gin_trgm_ops);
+
+-- Пересобирает категории перечисленных книг
+CREATE FUNCTION book_view_refresh_categories(book_ids INTEGER[]) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE book_view v
+    SET category_ids    = x.category_ids,
+        category_names  = x.category_names,
+        category_search = lower(array_to_string(x.category_names, chr(31)))
+    FROM (SELECT ids.book_id,
+                 coalesce(array_agg(c.category_id ORDER BY c.category_id)
+                          FILTER (WHERE c.category_id IS NOT NULL), '{}') AS category_ids,
+                 coalesce(array_agg(c.name ORDER BY c.category_id)
+                          FILTER (WHERE c.category_id IS NOT NULL), '{}') AS category_names
+          FROM unnest(book_ids) AS ids(book_id)
+                   LEFT JOIN books_categories bc ON bc.book_id = ids.book_id
+                   LEFT JOIN categories c ON c.category_id = bc.category_id
+          GROUP BY ids.book_id) x
+    WHERE v.book_id = x.book_id;
+END
+$$;
+
+CREATE FUNCTION book_view_books_inserted() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO book_view (book_id, name, author_id, author_name)
+    SELECT n.book_id, n.name, n.author_id, a.name
+    FROM new_books n
+             LEFT JOIN authors a ON a.author_id = n.author_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION book_view_books_updated() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE book_view v
+    SET name        = n.name,
+        author_id   = n.author_id,
+        author_name = a.name
+    FROM new_books n
+             JOIN old_books o ON o.book_id = n.book_id
+             LEFT JOIN authors a ON a.author_id = n.author_id
+    WHERE v.book_id = n.book_id
+      AND (o.name IS DISTINCT FROM n.name OR o.author_id IS DISTINCT FROM n.author_id);
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION book_view_links_changed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM book_view_refresh_categories((SELECT array_agg(DISTINCT book_id) FROM new_links));
+    ELSE
+        PERFORM book_view_refresh_categories((SELECT array_agg(DISTINCT book_id) FROM old_links));
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION book_view_author_renamed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE book_view
+    SET author_name = NEW.name
+    WHERE author_id = NEW.author_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION book_view_category_renamed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM book_view_refresh_categories(
+            (SELECT array_agg(book_id) FROM book_view WHERE category_ids @> ARRAY [NEW.category_id]));
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER tr_books_book_view_ins
+    AFTER INSERT
+    ON books
+    REFERENCING NEW TABLE AS new_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION book_view_books_inserted();
+
+CREATE TRIGGER tr_books_book_view_upd
+    AFTER UPDATE
+    ON books
+    REFERENCING OLD TABLE AS old_books NEW TABLE AS new_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION book_view_books_updated();
+
+CREATE TRIGGER tr_books_categories_book_view_ins
+    AFTER INSERT
+    ON books_categories
+    REFERENCING NEW TABLE AS new_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION book_view_links_changed();
+
+CREATE TRIGGER tr_books_categories_book_view_del
+    AFTER DELETE
+    ON books_categories
+    REFERENCING OLD TABLE AS old_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION book_view_links_changed();
+
+CREATE TRIGGER tr_authors_book_view_name
+    AFTER UPDATE OF name
+    ON authors
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION book_view_author_renamed();
+
+CREATE TRIGGER tr_categories_book_view_name
+    AFTER UPDATE OF name
+    ON categories
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION book_view_category_renamed();
+
+INSERT INTO book_view (book_id, name, author_id, author_name)
+SELECT b.book_id, b.name, b.author_id, a.name
+FROM books b
+         LEFT JOIN authors a ON a.author_id = b.author_id;
+
+SELECT book_view_refresh_categories(array_agg(book_id))
+FROM books;
+
+ANALYZE book_view;
@@ -0,0 +1,173 @@
+-- Счётчики книг по категориям и авторам для /api/v2/stats: чтение за
+-- O(число категорий или авторов) вместо GROUP BY по всем книгам.
+-- Ведутся триггерами на уровне оператора, по одному upsert на оператор.
+
+CREATE TABLE category_stats
+(
+    category_id INTEGER NOT NULL,
+    book_count  INTEGER NOT NULL,
+    CONSTRAINT pk_category_stats PRIMARY KEY (category_id),
+    CONSTRAINT fk_category_stats_category
+        FOREIGN KEY (category_id) REFERENCES categories (category_id) ON DELETE CASCADE
+);
+
+CREATE TABLE author_stats
+(
+    author_id  INTEGER NOT NULL,
+    book_count INTEGER NOT NULL,
+    CONSTRAINT pk_author_stats PRIMARY KEY (author_id),
+    CONSTRAINT fk_author_stats_author
+        FOREIGN KEY (author_id) REFERENCES authors (author_id) ON DELETE CASCADE
+);
+
+-- Топ-N читает индекс без сортировки
+CREATE INDEX ix_category_stats_book_count ON category_stats (book_count DESC, category_id);
+CREATE INDEX ix_author_stats_book_count ON author_stats (book_count DESC, author_id);
+
+INSERT INTO category_stats (category_id, book_count)
+SELECT bc.category_id, count(*)
+FROM books_categories bc
+GROUP BY bc.category_id;
+
+INSERT INTO author_stats (author_id, book_count)
+SELECT b.author_id, count(*)
+FROM books b
+WHERE b.author_id IS NOT NULL
+GROUP BY b.author_id;
+
+-- Прибавляет deltas[i] к счётчику категории ids[i]. Ключи обрабатываются
+-- по возрастанию, чтобы параллельные транзакции не блокировали друг друга
+CREATE FUNCTION category_stats_apply(ids INTEGER[], deltas INTEGER[]) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO category_stats AS s (category_id, book_count)
+    SELECT p.id, p.delta
+    FROM unnest(ids, deltas) AS p(id, delta)
+    WHERE p.delta <> 0
+    ORDER BY p.id
+    ON CONFLICT (category_id)
+        DO UPDATE SET book_count = s.book_count + EXCLUDED.book_count;
+END
+$$;
+
+CREATE FUNCTION author_stats_apply(ids INTEGER[], deltas INTEGER[]) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO author_stats AS s (author_id, book_count)
+    SELECT p.id, p.delta
+    FROM unnest(ids, deltas) AS p(id, delta)
+    WHERE p.delta <> 0
+    ORDER BY p.id
+    ON CONFLICT (author_id)
+        DO UPDATE SET book_count = s.book_count + EXCLUDED.book_count;
+END
+$$;
+
+CREATE FUNCTION category_stats_links_changed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    ids    INTEGER[];
+    deltas INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(d.category_id), array_agg(d.delta)
+        INTO ids, deltas
+        FROM (SELECT category_id, count(*)::INTEGER AS delta
+              FROM new_links
+              GROUP BY category_id) d;
+    ELSE
+        SELECT array_agg(d.category_id), array_agg(-d.delta)
+        INTO ids, deltas
+        FROM (SELECT category_id, count(*)::INTEGER AS delta
+              FROM old_links
+              GROUP BY category_id) d;
+    END IF;
+    PERFORM category_stats_apply(ids, deltas);
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION author_stats_books_changed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    ids    INTEGER[];
+    deltas INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(d.author_id), array_agg(d.delta)
+        INTO ids, deltas
+        FROM (SELECT author_id, count(*)::INTEGER AS delta
+              FROM new_books
+              WHERE author_id IS NOT NULL
+              GROUP BY author_id) d;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(d.author_id), array_agg(-d.delta)
+        INTO ids, deltas
+        FROM (SELECT author_id, count(*)::INTEGER AS delta
+              FROM old_books
+              WHERE author_id IS NOT NULL
+              GROUP BY author_id) d;
+    ELSE
+        WITH changes AS (SELECT o.author_id, -1 AS delta
+                         FROM old_books o
+                                  JOIN new_books n ON n.book_id = o.book_id
+                         WHERE o.author_id IS DISTINCT FROM n.author_id
+                           AND o.author_id IS NOT NULL
+                         UNION ALL
+                         SELECT n.author_id, 1
+                         FROM old_books o
+                                  JOIN new_books n ON n.book_id = o.book_id
+                         WHERE o.author_id IS DISTINCT FROM n.author_id
+                           AND n.author_id IS NOT NULL)
+        SELECT array_agg(d.author_id), array_agg(d.delta)
+        INTO ids, deltas
+        FROM (SELECT author_id, sum(delta)::INTEGER AS delta
+              FROM changes
+              GROUP BY author_id) d;
+    END IF;
+    PERFORM author_stats_apply(ids, deltas);
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER tr_books_categories_category_stats_ins
+    AFTER INSERT
+    ON books_categories
+    REFERENCING NEW TABLE AS new_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION category_stats_links_changed();
+
+CREATE TRIGGER tr_books_categories_category_stats_del
+    AFTER DELETE
+    ON books_categories
+    REFERENCING OLD TABLE AS old_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION category_stats_links_changed();
+
+CREATE TRIGGER tr_books_author_stats_ins
+    AFTER INSERT
+    ON books
+    REFERENCING NEW TABLE AS new_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION author_stats_books_changed();
+
+CREATE TRIGGER tr_books_author_stats_upd
+    AFTER UPDATE
+    ON books
+    REFERENCING OLD TABLE AS old_books NEW TABLE AS new_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION author_stats_books_changed();
+
+CREATE TRIGGER tr_books_author_stats_del
+    AFTER DELETE
+    ON books
+    REFERENCING OLD TABLE AS old_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION author_stats_books_changed();
+
+ANALYZE category_stats;
+ANALYZE author_stats;
@@ -0,0 +1,292 @@
+-- Журнал изменений каталога для /api/v2/changes: зеркала забирают изменения
+-- после известной им версии вместо периодической выгрузки /api/v2/books.
+-- Строки пишут триггеры в той же транзакции, что и изменение. Версии
+-- раздаются при коммите отложенным триггером под блокировкой строки счётчика,
+-- поэтому их порядок совпадает с порядком коммитов: читатель, увидевший
+-- версию N, видит и все версии меньше N.
+
+CREATE TABLE catalog_changes
+(
+    change_id   BIGINT GENERATED ALWAYS AS IDENTITY,
+    -- NULL, пока записавшая транзакция не дошла до коммита
+    version     BIGINT,
+    -- books, authors или categories — как в путях /api/v2
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id   INTEGER     NOT NULL,
+    deleted     BOOLEAN     NOT NULL,
+    tx_id       XID8        NOT NULL DEFAULT pg_current_xact_id(),
+    changed_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT pk_catalog_changes PRIMARY KEY (change_id),
+    CONSTRAINT ux_catalog_changes_version UNIQUE (version)
+);
+
+CREATE INDEX ix_catalog_changes_pending ON catalog_changes (tx_id) WHERE version IS NULL;
+-- Поиск более поздних изменений той же записи при сжатии
+CREATE INDEX ix_catalog_changes_entity ON catalog_changes (entity_type, entity_id, version);
+
+-- last_version — последняя выданная версия; purged_through — до какой версии
+-- включительно удалены устаревшие записи об удалении
+CREATE TABLE catalog_change_counters
+(
+    name  VARCHAR(32) NOT NULL,
+    value BIGINT      NOT NULL,
+    CONSTRAINT pk_catalog_change_counters PRIMARY KEY (name)
+);
+
+INSERT INTO catalog_change_counters (name, value)
+VALUES ('last_version', 0),
+       ('purged_through', 0);
+
+-- Транзакции с изменениями без версий, одна строка на транзакцию: на неё
+-- навешен отложенный триггер, который срабатывает один раз при коммите
+CREATE TABLE catalog_change_transactions
+(
+    tx_id XID8 NOT NULL,
+    CONSTRAINT pk_catalog_change_transactions PRIMARY KEY (tx_id)
+);
+
+CREATE FUNCTION catalog_changes_add(p_type VARCHAR, p_ids INTEGER[], p_deleted BOOLEAN) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF p_ids IS NULL THEN
+        RETURN;
+    END IF;
+    INSERT INTO catalog_changes (entity_type, entity_id, deleted)
+    SELECT p_type, d.id, p_deleted
+    FROM (SELECT DISTINCT u.id FROM unnest(p_ids) AS u(id) WHERE u.id IS NOT NULL) d
+    ORDER BY d.id;
+    INSERT INTO catalog_change_transactions (tx_id)
+    VALUES (pg_current_xact_id())
+    ON CONFLICT DO NOTHING;
+END
+$$;
+
+CREATE FUNCTION catalog_changes_assign_versions() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    pending BIGINT;
+    base    BIGINT;
+BEGIN
+    -- От повторных изменений одной записи в транзакции остаётся последнее
+    DELETE
+    FROM catalog_changes c
+        USING catalog_changes later
+    WHERE c.tx_id = NEW.tx_id
+      AND c.version IS NULL
+      AND later.tx_id = NEW.tx_id
+      AND later.version IS NULL
+      AND later.entity_type = c.entity_type
+      AND later.entity_id = c.entity_id
+      AND later.change_id > c.change_id;
+
+    SELECT count(*)
+    INTO pending
+    FROM catalog_changes
+    WHERE tx_id = NEW.tx_id
+      AND version IS NULL;
+
+    -- Строка счётчика остаётся заблокированной до конца коммита, так что
+    -- следующая транзакция получит версии только после того, как эти станут видны
+    UPDATE catalog_change_counters
+    SET value = value + pending
+    WHERE name = 'last_version'
+    RETURNING value - pending INTO base;
+
+    UPDATE catalog_changes c
+    SET version = base + p.n
+    FROM (SELECT change_id, row_number() OVER (ORDER BY change_id) AS n
+          FROM catalog_changes
+          WHERE tx_id = NEW.tx_id
+            AND version IS NULL) p
+    WHERE c.change_id = p.change_id;
+
+    DELETE FROM catalog_change_transactions WHERE tx_id = NEW.tx_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE CONSTRAINT TRIGGER tr_catalog_change_transactions_commit
+    AFTER INSERT
+    ON catalog_change_transactions
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+EXECUTE FUNCTION catalog_changes_assign_versions();
+
+-- Книга видна и в строке своего автора, а её название — в строках категорий
+CREATE FUNCTION catalog_changes_books_changed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    book_ids    INTEGER[];
+    author_ids  INTEGER[];
+    renamed_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM catalog_changes_add('books', (SELECT array_agg(book_id) FROM new_books), FALSE);
+        PERFORM catalog_changes_add('authors', (SELECT array_agg(author_id) FROM new_books), FALSE);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM catalog_changes_add('books', (SELECT array_agg(book_id) FROM old_books), TRUE);
+        PERFORM catalog_changes_add('authors', (SELECT array_agg(author_id) FROM old_books), FALSE);
+    ELSE
+        SELECT array_agg(n.book_id),
+               array_agg(o.author_id) || array_agg(n.author_id),
+               array_agg(n.book_id) FILTER (WHERE o.name IS DISTINCT FROM n.name)
+        INTO book_ids, author_ids, renamed_ids
+        FROM new_books n
+                 JOIN old_books o ON o.book_id = n.book_id
+        WHERE o.name IS DISTINCT FROM n.name
+           OR o.author_id IS DISTINCT FROM n.author_id;
+        PERFORM catalog_changes_add('books', book_ids, FALSE);
+        PERFORM catalog_changes_add('authors', author_ids, FALSE);
+        PERFORM catalog_changes_add('categories',
+                (SELECT array_agg(category_id) FROM books_categories WHERE book_id = ANY (renamed_ids)),
+                FALSE);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION catalog_changes_links_changed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM catalog_changes_add('books', (SELECT array_agg(book_id) FROM new_links), FALSE);
+        PERFORM catalog_changes_add('categories', (SELECT array_agg(category_id) FROM new_links), FALSE);
+    ELSE
+        PERFORM catalog_changes_add('books', (SELECT array_agg(book_id) FROM old_links), FALSE);
+        PERFORM catalog_changes_add('categories', (SELECT array_agg(category_id) FROM old_links), FALSE);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- Имя автора видно в строках его книг
+CREATE FUNCTION catalog_changes_authors_changed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    renamed_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM catalog_changes_add('authors', (SELECT array_agg(author_id) FROM new_authors), FALSE);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM catalog_changes_add('authors', (SELECT array_agg(author_id) FROM old_authors), TRUE);
+    ELSE
+        SELECT array_agg(n.author_id)
+        INTO renamed_ids
+        FROM new_authors n
+                 JOIN old_authors o ON o.author_id = n.author_id
+        WHERE o.name IS DISTINCT FROM n.name;
+        PERFORM catalog_changes_add('authors', renamed_ids, FALSE);
+        PERFORM catalog_changes_add('books',
+                (SELECT array_agg(book_id) FROM books WHERE author_id = ANY (renamed_ids)), FALSE);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- Название категории видно в строках её книг
+CREATE FUNCTION catalog_changes_categories_changed() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    renamed_ids INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM catalog_changes_add('categories', (SELECT array_agg(category_id) FROM new_categories), FALSE);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM catalog_changes_add('categories', (SELECT array_agg(category_id) FROM old_categories), TRUE);
+    ELSE
+        SELECT array_agg(n.category_id)
+        INTO renamed_ids
+        FROM new_categories n
+                 JOIN old_categories o ON o.category_id = n.category_id
+        WHERE o.name IS DISTINCT FROM n.name;
+        PERFORM catalog_changes_add('categories', renamed_ids, FALSE);
+        PERFORM catalog_changes_add('books',
+                (SELECT array_agg(book_id) FROM books_categories WHERE category_id = ANY (renamed_ids)),
+                FALSE);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER tr_books_catalog_changes_ins
+    AFTER INSERT
+    ON books
+    REFERENCING NEW TABLE AS new_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_books_changed();
+
+CREATE TRIGGER tr_books_catalog_changes_upd
+    AFTER UPDATE
+    ON books
+    REFERENCING OLD TABLE AS old_books NEW TABLE AS new_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_books_changed();
+
+CREATE TRIGGER tr_books_catalog_changes_del
+    AFTER DELETE
+    ON books
+    REFERENCING OLD TABLE AS old_books
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_books_changed();
+
+CREATE TRIGGER tr_books_categories_catalog_changes_ins
+    AFTER INSERT
+    ON books_categories
+    REFERENCING NEW TABLE AS new_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_links_changed();
+
+CREATE TRIGGER tr_books_categories_catalog_changes_del
+    AFTER DELETE
+    ON books_categories
+    REFERENCING OLD TABLE AS old_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_links_changed();
+
+CREATE TRIGGER tr_authors_catalog_changes_ins
+    AFTER INSERT
+    ON authors
+    REFERENCING NEW TABLE AS new_authors
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_authors_changed();
+
+CREATE TRIGGER tr_authors_catalog_changes_upd
+    AFTER UPDATE
+    ON authors
+    REFERENCING OLD TABLE AS old_authors NEW TABLE AS new_authors
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_authors_changed();
+
+CREATE TRIGGER tr_authors_catalog_changes_del
+    AFTER DELETE
+    ON authors
+    REFERENCING OLD TABLE AS old_authors
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_authors_changed();
+
+CREATE TRIGGER tr_categories_catalog_changes_ins
+    AFTER INSERT
+    ON categories
+    REFERENCING NEW TABLE AS new_categories
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_categories_changed();
+
+CREATE TRIGGER tr_categories_catalog_changes_upd
+    AFTER UPDATE
+    ON categories
+    REFERENCING OLD TABLE AS old_categories NEW TABLE AS new_categories
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_categories_changed();
+
+CREATE TRIGGER tr_categories_catalog_changes_del
+    AFTER DELETE
+    ON categories
+    REFERENCING OLD TABLE AS old_categories
+    FOR EACH STATEMENT
+EXECUTE FUNCTION catalog_changes_categories_changed();
@@ -0,0 +1,46 @@
+-- Уникальные имена авторов и категорий: на них опираются массовые вставки
+-- INSERT ... ON CONFLICT (name). Свежая база получает ограничения в V1, базе
+-- со схемой ddl-auto: update они добавляются здесь.
+--
+-- Старый API проверял имена только в сервисах, поэтому одноимённые записи
+-- возможны. Данные миграция не меняет: при дубликатах она останавливается и
+-- перечисляет их id, чтобы записи разобрали вручную.
+
+DO
+$$
+    DECLARE
+        authors_duplicates    TEXT;
+        categories_duplicates TEXT;
+    BEGIN
+        SELECT string_agg(format('%L: author_id=%s', name, ids), '; ')
+        INTO authors_duplicates
+        FROM (SELECT name, string_agg(author_id::text, ',' ORDER BY author_id) AS ids
+              FROM authors
+              WHERE name IS NOT NULL
+              GROUP BY name
+              HAVING count(*) > 1) d;
+        SELECT string_agg(format('%L: category_id=%s', name, ids), '; ')
+        INTO categories_duplicates
+        FROM (SELECT name, string_agg(category_id::text, ',' ORDER BY category_id) AS ids
+              FROM categories
+              WHERE name IS NOT NULL
+              GROUP BY name
+              HAVING count(*) > 1) d;
+        IF authors_duplicates IS NOT NULL OR categories_duplicates IS NOT NULL THEN
+            RAISE EXCEPTION 'Одноимённые записи: авторы [%], категории [%]',
+                coalesce(authors_duplicates, ''), coalesce(categories_duplicates, '')
+                USING HINT = 'Объедините или переименуйте эти записи и повторите миграцию';
+        END IF;
+
+        IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relname = 'ux_authors_name') THEN
+            ALTER TABLE authors ADD CONSTRAINT ux_authors_name UNIQUE (name);
+        END IF;
+        IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relname = 'ux_categories_name') THEN
+            ALTER TABLE categories ADD CONSTRAINT ux_categories_name UNIQUE (name);
+        END IF;
+    END
+$$;
+
+-- С уникальными ограничениями отдельные индексы по имени из V2 не нужны
+DROP INDEX IF EXISTS ix_authors_name;
+DROP INDEX IF EXISTS ix_categories_name;
@@ -0,0 +1,106 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.dto.get.BookFilterDto;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.service.BookFilter;
+import com.example.myspringproject.service.impl.BookFilterSqlExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogBookFilterExecutorTest {
+
+    @Mock
+    private BookFilterSqlExecutor sqlExecutor;
+    @Mock
+    private CatalogEngine engine;
+
+    private CatalogBookFilterExecutor executor;
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        executor = new CatalogBookFilterExecutor(sqlExecutor, engine);
+        snapshot = CatalogSnapshot.builder(1)
+                .addAuthor(1, "Лев Толстой")
+                .addAuthor(2, "Fyodor Dostoevsky")
+                .addCategory(10, "Fiction")
+                .addCategory(20, "Classic")
+                .addCategory(30, "Poetry")
+                .addBook(100, "War and Peace", 1)
+                .addBook(101, "Crime and Punishment", 2)
+                .addBook(102, "Anonymous", null)
+                .addBook(103, "Poems", 1)
+                .addLink(100, 10)
+                .addLink(100, 20)
+                .addLink(101, 20)
+                .addLink(103, 10)
+                .addLink(103, 30)
+                .build();
+    }
+
+    @Test
+    void execute_shouldCombineAllAnyAndExclusions() {
+        // Arrange
+        when(engine.current()).thenReturn(snapshot);
+        BookFilterDto dto = new BookFilterDto();
+        dto.setAllCategoryNames(List.of("FICTION"));
+        dto.setAnyCategoryIds(List.of(20, 30));
+        dto.setNoAuthorIds(List.of(2));
+        dto.setSort("-id");
+
+        // Act
+        List<BookView> books = executor.execute(BookFilter.of(dto));
+
+        // Assert
+        assertEquals(List.of(103, 100), books.stream().map(BookView::getBookId).toList());
+        verifyNoInteractions(sqlExecutor);
+    }
+
+    @Test
+    void execute_whenNoCategoryExcluded_shouldKeepBooksWithoutAuthor() {
+        // Arrange
+        when(engine.current()).thenReturn(snapshot);
+        BookFilterDto dto = new BookFilterDto();
+        dto.setNoCategoryNames(List.of("poetry"));
+        dto.setNoAuthorIds(List.of(2));
+        dto.setLimit(2);
+
+        // Act
+        List<BookView> books = executor.execute(BookFilter.of(dto));
+
+        // Assert
+        assertEquals(List.of(102, 100), books.stream().map(BookView::getBookId).toList());
+    }
+
+    @Test
+    void execute_whenCategoryNameUnknown_shouldMatchNothing() {
+        // Arrange
+        when(engine.current()).thenReturn(snapshot);
+        BookFilterDto dto = new BookFilterDto();
+        dto.setAllCategoryNames(List.of("Unknown"));
+
+        // Act & Assert
+        assertTrue(executor.execute(BookFilter.of(dto)).isEmpty());
+    }
+
+    @Test
+    void execute_whenSnapshotStale_shouldDelegateToSql() {
+        // Arrange
+        BookFilter filter = BookFilter.of(new BookFilterDto());
+        List<BookView> fromSql = List.of(new BookView());
+        when(engine.current()).thenReturn(null);
+        when(sqlExecutor.execute(filter)).thenReturn(fromSql);
+
+        // Act & Assert
+        assertSame(fromSql, executor.execute(filter));
+    }
+}
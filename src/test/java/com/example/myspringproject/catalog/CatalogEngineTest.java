@@ -0,0 +1,215 @@
+package com.example.myspringproject.catalog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogEngineTest {
+
+    @Mock
+    private CatalogLoader loader;
+    @Mock
+    private CatalogSnapshotStore snapshotStore;
+
+    private CatalogEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new CatalogEngine(loader, snapshotStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.destroy();
+    }
+
+    @Test
+    void current_whenNothingLoaded_shouldReturnNull() {
+        assertNull(engine.current());
+    }
+
+    @Test
+    void rebuild_shouldPublishSnapshotForCurrentVersion() {
+        // Arrange
+        when(loader.load(anyLong())).thenAnswer(invocation ->
+                CatalogSnapshot.builder(invocation.getArgument(0)).build());
+
+        // Act
+        engine.rebuild();
+
+        // Assert
+        assertNotNull(engine.current());
+        assertEquals(0, engine.current().getVersion());
+    }
+
+    @Test
+    void onCatalogChanged_whenRebuildFails_shouldStopServingStaleSnapshot() {
+        // Arrange
+        when(loader.load(0L)).thenReturn(CatalogSnapshot.builder(0).build());
+        when(loader.load(1L)).thenThrow(new IllegalStateException("database is down"));
+        engine.rebuild();
+
+        // Act
+        engine.onCatalogChanged(new CatalogChangedEvent(Object.class));
+
+        // Assert: снимок версии 0 устарел, чтение уходит в базу
+        verify(loader, timeout(1000)).load(1L);
+        assertNull(engine.current());
+    }
+
+    @Test
+    void onCatalogChanged_shouldRebuildInBackground() {
+        // Arrange
+        when(loader.load(anyLong())).thenAnswer(invocation ->
+                CatalogSnapshot.builder(invocation.getArgument(0)).build());
+
+        // Act
+        engine.onCatalogChanged(new CatalogChangedEvent(Object.class));
+
+        // Assert
+        verify(loader, timeout(1000)).load(1L);
+        long deadline = System.currentTimeMillis() + 1000;
+        while (engine.current() == null && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, engine.current().getVersion());
+    }
+
+    @Test
+    void rebuild_whenOnlyBooksChanged_shouldLoadJustThoseBooks() {
+        // Arrange
+        when(loader.load(0L)).thenReturn(CatalogSnapshot.builder(0)
+                .addAuthor(1, "Author One")
+                .addCategory(10, "Fiction")
+                .build());
+        when(loader.loadBooks(Set.of(5))).thenReturn(List.of(
+                new CatalogSnapshot.BookRow(5, "Book Five", 1, new int[]{10})));
+        engine.rebuild();
+
+        // Act
+        engine.onCatalogChanged(CatalogChangedEvent.books(Object.class, List.of(5)));
+
+        // Assert
+        verify(loader, timeout(1000)).loadBooks(Set.of(5));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (engine.current() == null && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertArrayEquals(new int[]{5}, engine.current().bitmaps().booksOfCategory(10).toArray());
+        verify(loader, never()).load(1L);
+    }
+
+    @Test
+    void rebuild_whenIncrementalLoadFails_shouldFallBackToFullLoadNextTime() {
+        // Arrange
+        when(loader.load(anyLong())).thenAnswer(invocation ->
+                CatalogSnapshot.builder(invocation.getArgument(0)).build());
+        when(loader.loadBooks(anyCollection())).thenThrow(new IllegalStateException("timeout"));
+        engine.rebuild();
+        engine.onCatalogChanged(CatalogChangedEvent.books(Object.class, List.of(5)));
+        verify(loader, timeout(1000)).loadBooks(anyCollection());
+
+        // Act: пересборки идут в одном потоке, эта начнётся после неудачной
+        engine.onCatalogChanged(CatalogChangedEvent.books(Object.class, List.of(6)));
+
+        // Assert
+        verify(loader, timeout(1000)).load(2L);
+        verify(loader, times(1)).loadBooks(anyCollection());
+    }
+
+    @Test
+    void pollChangeLog_whenAnotherInstanceChangedBooks_shouldRebuildThoseBooks() {
+        // Arrange
+        when(loader.load(0L)).thenReturn(CatalogSnapshot.builder(0)
+                .addAuthor(1, "Author One")
+                .addCategory(10, "Fiction")
+                .build());
+        engine.rebuild();
+        when(loader.loadChangeVersion()).thenReturn(3L);
+        when(loader.loadChangesSince(0L, CatalogEngine.MAX_INCREMENTAL_BOOKS))
+                .thenReturn(new CatalogLoader.Changes(Set.of(5), List.of(),
+                        Set.of(1), Map.of(1, "Author One"), Set.of(), Map.of()));
+        when(loader.loadBooks(Set.of(5))).thenReturn(List.of(
+                new CatalogSnapshot.BookRow(5, "Book Five", 1, new int[]{10})));
+
+        // Act
+        engine.pollChangeLog();
+
+        // Assert: снимок устарел сразу, пересобираются только изменённые книги
+        verify(loader, timeout(1000)).loadBooks(Set.of(5));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (engine.current() == null && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertArrayEquals(new int[]{5}, engine.current().bitmaps().booksOfCategory(10).toArray());
+        verify(loader, never()).load(1L);
+    }
+
+    @Test
+    void pollChangeLog_whenCategoryRenamedElsewhere_shouldReloadFully() {
+        // Arrange
+        when(loader.load(anyLong())).thenAnswer(invocation -> CatalogSnapshot
+                .builder(invocation.getArgument(0)).addCategory(10, "Fiction").build());
+        engine.rebuild();
+        when(loader.loadChangeVersion()).thenReturn(1L);
+        when(loader.loadChangesSince(0L, CatalogEngine.MAX_INCREMENTAL_BOOKS))
+                .thenReturn(new CatalogLoader.Changes(Set.of(), List.of(),
+                        Set.of(), Map.of(), Set.of(10), Map.of(10, "Novels")));
+
+        // Act
+        engine.pollChangeLog();
+
+        // Assert
+        verify(loader, timeout(1000)).load(1L);
+        verify(loader, never()).loadBooks(anyCollection());
+    }
+
+    @Test
+    void pollChangeLog_whenChangeLogNotAdvanced_shouldKeepSnapshot() {
+        // Arrange
+        when(loader.load(0L)).thenReturn(CatalogSnapshot.builder(0).build());
+        engine.rebuild();
+
+        // Act
+        engine.pollChangeLog();
+
+        // Assert
+        assertNotNull(engine.current());
+        verify(loader, never()).loadChangesSince(anyLong(), anyInt());
+    }
+
+    @Test
+    void onApplicationReady_whenSnapshotFileFresh_shouldServeItUntilReloaded() {
+        // Arrange
+        CatalogSnapshot fromFile = CatalogSnapshot.builder(0).addBook(1, "From file", null).build();
+        when(snapshotStore.readIfFresh(0)).thenReturn(fromFile);
+        AtomicReference<CatalogSnapshot> servedDuringLoad = new AtomicReference<>();
+        CatalogSnapshot fromDatabase = CatalogSnapshot.builder(0).build();
+        when(loader.load(0L)).thenAnswer(invocation -> {
+            servedDuringLoad.set(engine.current());
+            return fromDatabase;
+        });
+
+        // Act
+        engine.onApplicationReady();
+
+        // Assert: пока база читается, отдаётся снимок из файла
+        verify(loader, timeout(1000)).load(0L);
+        assertSame(fromFile, servedDuringLoad.get());
+    }
+}
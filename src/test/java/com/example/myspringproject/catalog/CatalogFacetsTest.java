@@ -0,0 +1,64 @@
+package com.example.myspringproject.catalog;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import com.example.myspringproject.dto.get.BookFacetsGetDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogFacetsTest {
+
+    // Книга i принадлежит категориям 1..(i % 3 + 1), автор — i % 4 (0 — без автора)
+    private static CatalogSnapshot snapshot(int books) {
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder(1)
+                .addAuthor(1, "A1")
+                .addAuthor(2, "A2")
+                .addAuthor(3, "A3")
+                .addCategory(1, "C1")
+                .addCategory(2, "C2")
+                .addCategory(3, "C3");
+        for (int i = 1; i <= books; i++) {
+            builder.addBook(i, "Book " + i, i % 4 == 0 ? null : i % 4);
+            for (int c = 1; c <= i % 3 + 1; c++) {
+                builder.addLink(i, c);
+            }
+        }
+        return builder.build();
+    }
+
+    @Test
+    void of_whenManyBooks_shouldCountByBitmapsLikeScanning() {
+        CatalogSnapshot snapshot = snapshot(100);
+        RoaringBitmap books = RoaringBitmap.of(IntStream.rangeClosed(1, 60).toArray());
+
+        BookFacetsGetDto byBitmaps = CatalogFacets.of(snapshot, books, 10);
+        BookFacetsGetDto byScan = CatalogFacets.of(snapshot, snapshot.booksOf(books), 10);
+
+        assertEquals(60, byBitmaps.getTotal());
+        assertEquals(counts(byScan.getCategories()), counts(byBitmaps.getCategories()));
+        assertEquals(counts(byScan.getAuthors()), counts(byBitmaps.getAuthors()));
+        assertEquals(List.of("1=60", "2=40", "3=20"), counts(byBitmaps.getCategories()));
+        assertEquals(List.of("1=15", "2=15", "3=15"), counts(byBitmaps.getAuthors()));
+    }
+
+    @Test
+    void of_shouldKeepOnlyTopNWithNonZeroCounts() {
+        CatalogSnapshot snapshot = snapshot(10);
+        // Книги 3 и 6: обе только в категории 1, авторы 3 и 2 — при равенстве
+        // побеждает меньший id
+        BookFacetsGetDto facets = CatalogFacets.of(snapshot,
+                new int[]{snapshot.bookIndex(3), snapshot.bookIndex(6)}, 1);
+
+        assertEquals(2, facets.getTotal());
+        assertEquals(List.of("1=2"), counts(facets.getCategories()));
+        assertEquals("C1", facets.getCategories().get(0).getName());
+        assertEquals(List.of("2=1"), counts(facets.getAuthors()));
+    }
+
+    private static List<String> counts(List<BookCountGetDto> facets) {
+        return facets.stream().map(f -> f.getId() + "=" + f.getBookCount()).toList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.myspringproject.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path writeCatalog() throws IOException {
+        CatalogSnapshot snapshot = CatalogSnapshot.builder(3)
+                .addAuthor(1, "Лев Толстой")
+                .addAuthor(2, "Fyodor Dostoevsky")
+                .addCategory(10, "Classic")
+                .addCategory(20, "Novel")
+                .addBook(100, "War and Peace", 1)
+                .addBook(101, "Classic", 2)
+                .addBook(102, null, null)
+                .addLink(100, 10)
+                .addLink(100, 20)
+                .addLink(101, 20)
+                .build();
+        Path path = directory.resolve("catalog.snapshot");
+        long bytes = CatalogSnapshotFile.write(path, snapshot, 42);
+        assertEquals(Files.size(path), bytes);
+        // Временный файл переименован, рядом ничего не осталось
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        return path;
+    }
+
+    @Test
+    void read_shouldRestoreWrittenCatalog() throws IOException {
+        Path path = writeCatalog();
+
+        CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path, 5);
+        CatalogSnapshot snapshot = contents.snapshot();
+
+        assertEquals(42, contents.changeVersion());
+        assertEquals(5, snapshot.getVersion());
+        assertEquals(3, snapshot.bookCount());
+        assertEquals("Лев Толстой", snapshot.authorName(snapshot.authorIndex(1)));
+        int war = snapshot.bookIndex(100);
+        assertEquals("War and Peace", snapshot.bookName(war));
+        assertEquals(1, snapshot.authorId(snapshot.bookAuthor(war)));
+        assertArrayEquals(new int[]{snapshot.categoryIndex(10), snapshot.categoryIndex(20)},
+                snapshot.categoriesOfBook(war));
+        assertNull(snapshot.bookName(snapshot.bookIndex(102)));
+        assertEquals(CatalogSnapshot.NO_AUTHOR, snapshot.bookAuthor(snapshot.bookIndex(102)));
+        assertArrayEquals(new int[]{100, 101},
+                snapshot.bitmaps().booksMatching(null, List.of(20)).toArray());
+        assertArrayEquals(new int[]{snapshot.bookIndex(101)}, snapshot.searchBooks("dostoev", null));
+    }
+
+    @Test
+    void read_whenSectionCorrupted_shouldFailChecksum() throws IOException {
+        Path path = writeCatalog();
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[CatalogSnapshotFile.HEADER_SIZE + 5] ^= 1;
+        Files.write(path, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path, 0));
+        assertTrue(e.getMessage().contains("контрольная сумма"));
+    }
+
+    @Test
+    void read_whenFormatVersionDiffers_shouldFail() throws IOException {
+        Path path = writeCatalog();
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(4, CatalogSnapshotFile.FORMAT_VERSION + 1);
+        Files.write(path, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path, 0));
+        assertTrue(e.getMessage().contains("версия формата"));
+    }
+
+    @Test
+    void read_whenNotSnapshot_shouldFail() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        Files.writeString(path, "not a snapshot");
+
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path, 0));
+    }
+}
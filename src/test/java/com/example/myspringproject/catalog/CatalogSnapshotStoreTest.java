@@ -0,0 +1,92 @@
+package com.example.myspringproject.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private CatalogLoader loader;
+
+    private CatalogSnapshotStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new CatalogSnapshotStore(loader, directory.resolve("catalog.snapshot").toString(),
+                Duration.ofHours(1));
+        CatalogSnapshot written = CatalogSnapshot.builder(0)
+                .addAuthor(1, "Author")
+                .addCategory(10, "Novel")
+                .addBook(100, "Old title", 1)
+                .addLink(100, 10)
+                .build();
+        when(loader.loadChangeVersion()).thenReturn(7L);
+        when(loader.load(0)).thenReturn(written);
+        store.write();
+    }
+
+    @Test
+    void readIfFresh_whenBooksChangedAfterWrite_shouldReplayThem() {
+        // Arrange
+        when(loader.loadChangesSince(eq(7L), anyInt())).thenReturn(new CatalogLoader.Changes(
+                Set.of(100, 101),
+                List.of(new CatalogSnapshot.BookRow(100, "New title", 1, new int[]{10}),
+                        new CatalogSnapshot.BookRow(101, "Added", 1, new int[0])),
+                Set.of(1), Map.of(1, "Author"), Set.of(10), Map.of(10, "Novel")));
+
+        // Act
+        CatalogSnapshot snapshot = store.readIfFresh(3);
+
+        // Assert
+        assertNotNull(snapshot);
+        assertEquals(3, snapshot.getVersion());
+        assertEquals(2, snapshot.bookCount());
+        assertEquals("New title", snapshot.bookName(snapshot.bookIndex(100)));
+        assertEquals("Added", snapshot.bookName(snapshot.bookIndex(101)));
+    }
+
+    @Test
+    void readIfFresh_whenAuthorRenamedAfterWrite_shouldIgnoreFile() {
+        // Arrange
+        when(loader.loadChangesSince(eq(7L), anyInt())).thenReturn(new CatalogLoader.Changes(
+                Set.of(100), List.of(new CatalogSnapshot.BookRow(100, "Old title", 1, new int[]{10})),
+                Set.of(1), Map.of(1, "Renamed"), Set.of(), Map.of()));
+
+        // Act
+        CatalogSnapshot snapshot = store.readIfFresh(3);
+
+        // Assert
+        assertNull(snapshot);
+    }
+
+    @Test
+    void readIfFresh_whenChangeLogCompactedAfterWrite_shouldIgnoreFile() {
+        // Arrange
+        when(loader.loadChangesSince(eq(7L), anyInt())).thenReturn(null);
+
+        // Act
+        CatalogSnapshot snapshot = store.readIfFresh(3);
+
+        // Assert
+        assertNull(snapshot);
+    }
+}
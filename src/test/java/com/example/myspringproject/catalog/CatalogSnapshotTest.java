@@ -0,0 +1,124 @@
+package com.example.myspringproject.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        // Ссылки на несуществующие книгу и категорию (999) должны отбрасываться
+        snapshot = CatalogSnapshot.builder(7)
+                .addAuthor(1, "Лев Толстой")
+                .addAuthor(2, "Fyodor Dostoevsky")
+                .addAuthor(3, "No Books")
+                .addCategory(10, "Classic")
+                .addCategory(20, "Novel")
+                .addCategory(30, "Poetry")
+                .addBook(100, "War and Peace", 1)
+                .addBook(101, "Crime and Punishment", 2)
+                .addBook(102, "Anonymous", null)
+                .addLink(100, 10)
+                .addLink(100, 20)
+                .addLink(101, 20)
+                .addLink(102, 999)
+                .addLink(999, 10)
+                .build();
+    }
+
+    @Test
+    void build_shouldResolveIdsToIndicesAndGroupLinks() {
+        assertEquals(7, snapshot.getVersion());
+        assertEquals(3, snapshot.bookCount());
+
+        int war = snapshot.bookIndex(100);
+        assertEquals("War and Peace", snapshot.bookName(war));
+        assertEquals(1, snapshot.authorId(snapshot.bookAuthor(war)));
+        assertArrayEquals(new int[]{snapshot.categoryIndex(10), snapshot.categoryIndex(20)},
+                snapshot.categoriesOfBook(war));
+
+        int anonymous = snapshot.bookIndex(102);
+        assertEquals(CatalogSnapshot.NO_AUTHOR, snapshot.bookAuthor(anonymous));
+        assertEquals(0, snapshot.categoriesOfBook(anonymous).length);
+
+        assertArrayEquals(new int[]{war, snapshot.bookIndex(101)},
+                snapshot.booksOfCategory(snapshot.categoryIndex(20)));
+        assertEquals(0, snapshot.booksOfAuthor(snapshot.authorIndex(3)).length);
+        assertEquals(-1, snapshot.bookIndex(999));
+    }
+
+    @Test
+    void searchBooks_shouldMatchAuthorOrTitleIgnoringCase() {
+        assertArrayEquals(new int[]{snapshot.bookIndex(100), snapshot.bookIndex(101)},
+                snapshot.searchBooks("ТОЛСТ", "crime"));
+        // null-подстрока, как LIKE с NULL, ничему не соответствует
+        assertArrayEquals(new int[]{snapshot.bookIndex(102)},
+                snapshot.searchBooks(null, "anonym"));
+    }
+
+    @Test
+    void categoryQueries_shouldGoThroughLinks() {
+        assertArrayEquals(new int[]{snapshot.bookIndex(100), snapshot.bookIndex(101)},
+                snapshot.booksByCategoryName("nov"));
+        assertArrayEquals(new int[]{snapshot.authorIndex(1), snapshot.authorIndex(2)},
+                snapshot.authorsByCategoryName("NOVEL"));
+        assertArrayEquals(new int[]{snapshot.authorIndex(1)},
+                snapshot.authorsByCategoryPrefix("clas"));
+        assertEquals(0, snapshot.authorsByCategoryPrefix("lassic").length);
+        assertArrayEquals(new int[]{snapshot.categoryIndex(10), snapshot.categoryIndex(20)},
+                snapshot.categoriesByBookName("peace"));
+    }
+
+    @Test
+    void bitmaps_shouldAnswerMembershipAndCombinedFilters() {
+        BookBitmapIndex bitmaps = snapshot.bitmaps();
+
+        assertArrayEquals(new int[]{100, 101}, bitmaps.booksOfCategory(20).toArray());
+        assertArrayEquals(new int[]{101}, bitmaps.booksOfAuthor(2).toArray());
+        assertTrue(bitmaps.booksOfAuthor(3).isEmpty());
+        assertArrayEquals(new int[]{100}, bitmaps.booksMatching(null, List.of(10, 20)).toArray());
+        assertTrue(bitmaps.booksMatching(2, List.of(10)).isEmpty());
+        assertArrayEquals(new int[]{snapshot.bookIndex(100), snapshot.bookIndex(101)},
+                snapshot.booksOf(bitmaps.booksOfCategory(20)));
+    }
+
+    @Test
+    void withBooks_shouldApplyCreateUpdateAndDelete() {
+        // Arrange: 103 создана, 100 сменила автора и категории, 101 удалена
+        List<CatalogSnapshot.BookRow> rows = List.of(
+                new CatalogSnapshot.BookRow(103, "Poems", 3, new int[]{30}),
+                new CatalogSnapshot.BookRow(100, "War and Peace", 2, new int[]{10}));
+
+        // Act
+        CatalogSnapshot updated = snapshot.withBooks(8, Set.of(100, 101, 103), rows);
+
+        // Assert
+        assertEquals(8, updated.getVersion());
+        assertEquals(3, updated.bookCount());
+        assertEquals(-1, updated.bookIndex(101));
+        assertEquals("Poems", updated.bookName(updated.bookIndex(103)));
+        assertArrayEquals(new int[]{100}, updated.bitmaps().booksOfAuthor(2).toArray());
+        assertTrue(updated.bitmaps().booksOfAuthor(1).isEmpty());
+        assertTrue(updated.bitmaps().booksOfCategory(20).isEmpty());
+        assertArrayEquals(new int[]{100, 102, 103}, updated.bitmaps().allBooks().toArray());
+        assertArrayEquals(new int[]{updated.bookIndex(100)},
+                updated.booksOfAuthor(updated.authorIndex(2)));
+        // Исходный снимок не меняется
+        assertArrayEquals(new int[]{100, 101}, snapshot.bitmaps().booksOfCategory(20).toArray());
+    }
+
+    @Test
+    void withBooks_whenAuthorUnknown_shouldRequireFullLoad() {
+        List<CatalogSnapshot.BookRow> rows = List.of(
+                new CatalogSnapshot.BookRow(103, "New", 42, new int[0]));
+
+        assertNull(snapshot.withBooks(8, Set.of(103), rows));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.myspringproject.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoaringBitmapTest {
+
+    // 5000 значений в первом блоке — битовая карта, остальные блоки — массивы
+    private static final int[] DENSE = IntStream.range(0, 5000).map(i -> i * 2).toArray();
+
+    @Test
+    void of_shouldDeduplicateAndSortAcrossBlocks() {
+        RoaringBitmap bitmap = RoaringBitmap.of(70000, 3, 3, 1, 65536);
+
+        assertArrayEquals(new int[]{1, 3, 65536, 70000}, bitmap.toArray());
+        assertEquals(4, bitmap.cardinality());
+        assertTrue(bitmap.contains(65536));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(-1));
+    }
+
+    @Test
+    void withAndWithout_shouldLeaveOriginalUnchanged() {
+        RoaringBitmap original = RoaringBitmap.of(DENSE);
+
+        RoaringBitmap added = original.with(1).with(200000);
+        RoaringBitmap removed = original.without(0).without(7);
+
+        assertEquals(5000, original.cardinality());
+        assertTrue(added.contains(1) && added.contains(200000));
+        assertEquals(5002, added.cardinality());
+        assertFalse(removed.contains(0));
+        assertEquals(4999, removed.cardinality());
+        assertSame(original, original.with(2));
+        assertSame(original, original.without(1));
+    }
+
+    @Test
+    void setOperations_shouldMatchForArrayAndBitmapBlocks() {
+        RoaringBitmap dense = RoaringBitmap.of(DENSE);
+        RoaringBitmap multiplesOfThree = RoaringBitmap.of(
+                IntStream.range(0, 4000).map(i -> i * 3).toArray()).with(100001);
+
+        int[] expectedAnd = IntStream.range(0, 10000)
+                .filter(i -> i % 6 == 0).toArray();
+        int[] expectedAndNot = IntStream.range(0, 10000)
+                .filter(i -> i % 2 == 0 && i % 3 != 0).toArray();
+
+        assertArrayEquals(expectedAnd, dense.and(multiplesOfThree).toArray());
+        assertArrayEquals(expectedAnd, multiplesOfThree.and(dense).toArray());
+        assertArrayEquals(expectedAndNot, dense.andNot(multiplesOfThree).toArray());
+        assertEquals(5000 + 4000 - expectedAnd.length + 1,
+                dense.or(multiplesOfThree).cardinality());
+        assertTrue(dense.andNot(dense).isEmpty());
+        assertEquals(expectedAnd.length, dense.andCardinality(multiplesOfThree));
+        assertEquals(expectedAnd.length, multiplesOfThree.andCardinality(dense));
+        assertEquals(5000, dense.andCardinality(dense));
+        assertEquals(4001, multiplesOfThree.andCardinality(multiplesOfThree));
+    }
+
+    @Test
+    void without_whenBitmapBlockShrinks_shouldKeepContents() {
+        RoaringBitmap bitmap = RoaringBitmap.of(IntStream.range(0, 4097).toArray());
+
+        RoaringBitmap shrunk = bitmap.without(4096);
+
+        assertArrayEquals(IntStream.range(0, 4096).toArray(), shrunk.toArray());
+        assertTrue(RoaringBitmap.of(5).without(5).isEmpty());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.myspringproject.controller;
+
+import com.example.myspringproject.dto.get.AuthorGetDto;
+import com.example.myspringproject.exception.ValidationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSetResponseAdviceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void retain_whenListRequested_shouldKeepOnlyRequestedFieldsAndId() {
+        // Arrange
+        List<AuthorGetDto> authors = List.of(
+                new AuthorGetDto(1, "Author One", List.of("Book One")),
+                new AuthorGetDto(2, "Author Two", List.of()));
+
+        // Act
+        JsonNode result = FieldSetResponseAdvice.retain(
+                objectMapper.valueToTree(authors), FieldSet.parse("authorName"));
+
+        // Assert
+        assertEquals("[{\"id\":1,\"authorName\":\"Author One\"},"
+                + "{\"id\":2,\"authorName\":\"Author Two\"}]", result.toString());
+    }
+
+    @Test
+    void retain_whenFieldUnknown_shouldThrowValidationException() {
+        // Arrange
+        AuthorGetDto author = new AuthorGetDto(1, "Author One", null);
+
+        // Act & Assert
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> FieldSetResponseAdvice.retain(objectMapper.valueToTree(author),
+                        FieldSet.parse("authorName, title")));
+        assertEquals(List.of("Неизвестное поле в fields: title"), e.getErrors());
+    }
+
+    @Test
+    void parse_whenBlank_shouldSelectAllFields() {
+        // Act
+        FieldSet fields = FieldSet.parse(" ");
+
+        // Assert
+        assertTrue(fields.isAll());
+        assertTrue(fields.includes("books"));
+    }
+}
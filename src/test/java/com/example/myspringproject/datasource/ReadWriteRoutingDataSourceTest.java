@@ -0,0 +1,106 @@
+package com.example.myspringproject.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void determineCurrentLookupKey_whenReadAfterWriteInSameRequest_shouldUsePrimary() {
+        // Arrange
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        lookupInTransaction(false);
+
+        // Act
+        Object key = lookupInTransaction(true);
+
+        // Assert
+        assertEquals(DataSourceType.PRIMARY, key);
+    }
+
+    @Test
+    void determineCurrentLookupKey_whenPooledThreadReadsAfterRequestWrite_shouldUseReplica() throws Exception {
+        // Arrange
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        lookupInTransaction(false);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        Object key = executor.submit(() -> lookupInTransaction(true)).get();
+        executor.shutdown();
+
+        // Assert
+        assertEquals(DataSourceType.REPLICA, key);
+    }
+
+    @Test
+    void determineCurrentLookupKey_whenPooledThreadWroteInEarlierTask_shouldUseReplica() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> lookupInTransaction(false)).get();
+
+        // Act
+        Object key = executor.submit(() -> lookupInTransaction(true)).get();
+        boolean pinned = executor.submit(ReadWriteRoutingDataSource::isPinnedToPrimary).get();
+        executor.shutdown();
+
+        // Assert
+        assertEquals(DataSourceType.REPLICA, key);
+        assertFalse(pinned);
+    }
+
+    @Test
+    void determineCurrentLookupKey_whenNewReadOnlyTransactionInsideWrite_shouldUsePrimary() {
+        // Arrange
+        beginTransaction(false);
+        dataSource.determineCurrentLookupKey();
+
+        // Act
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object key = dataSource.determineCurrentLookupKey();
+        completeTransaction();
+
+        // Assert
+        assertEquals(DataSourceType.PRIMARY, key);
+        assertFalse(ReadWriteRoutingDataSource.isPinnedToPrimary());
+    }
+
+    private Object lookupInTransaction(boolean readOnly) {
+        beginTransaction(readOnly);
+        try {
+            return dataSource.determineCurrentLookupKey();
+        } finally {
+            completeTransaction();
+        }
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clear();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.myspringproject.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdaptiveConcurrencyFilter(meterRegistry, 20, 2, 200, 100, 4, 4,
+                Duration.ofMillis(500), 10, Duration.ofSeconds(1));
+    }
+
+    private double inFlight(EndpointGroup group) {
+        return meterRegistry.get("http.server.concurrency.in-flight")
+                .tag("group", group.key()).gauge().value();
+    }
+
+    @Test
+    void of_whenBulkSegmentInMiddleOfPath_shouldReturnBulk() {
+        // Arrange
+        MockHttpServletRequest stream = new MockHttpServletRequest("POST", "/api/v2/books/bulk/stream");
+        MockHttpServletRequest named = new MockHttpServletRequest("POST", "/api/v2/books/bulky");
+
+        // Act & Assert
+        assertEquals(EndpointGroup.BULK, EndpointGroup.of(stream));
+        assertEquals(EndpointGroup.WRITES, EndpointGroup.of(named));
+    }
+
+    @Test
+    void doFilter_whenLogDownload_shouldCountTowardLogsLimit() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/logs");
+        request.setParameter("date", "2026-10-19");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        double[] duringRequest = new double[1];
+        FilterChain chain = (req, res) -> duringRequest[0] = inFlight(EndpointGroup.LOGS);
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(EndpointGroup.LOGS, EndpointGroup.of(request));
+        assertEquals(1, duringRequest[0]);
+        assertEquals(0, inFlight(EndpointGroup.LOGS));
+    }
+
+    @Test
+    void doFilter_whenAsyncStreamingResponse_shouldHoldPermitUntilCompleted() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v2/books/bulk/stream");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> req.startAsync(req, res);
+
+        // Act
+        filter.doFilter(request, response, chain);
+        double duringStreaming = inFlight(EndpointGroup.BULK);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // Assert
+        assertEquals(1, duringStreaming);
+        assertEquals(0, inFlight(EndpointGroup.BULK));
+    }
+
+    @Test
+    void doFilter_whenEventStream_shouldReleasePermitImmediately() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/changes/stream");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            req.startAsync(req, res);
+        };
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(0, inFlight(EndpointGroup.READS));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.myspringproject.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long WINDOW = 100;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_whenLimitReached_shouldRejectUntilRelease() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, WINDOW, 1, clock::get);
+
+        // Act
+        boolean first = limit.tryAcquire();
+        boolean second = limit.tryAcquire();
+        boolean third = limit.tryAcquire();
+        limit.releaseWithoutSample();
+        boolean afterRelease = limit.tryAcquire();
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertTrue(afterRelease);
+        assertEquals(2, limit.inFlight());
+    }
+
+    @Test
+    void release_whenSaturatedWithStableLatency_shouldRaiseLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, WINDOW, 1, clock::get);
+
+        // Act
+        for (int i = 0; i < 30; i++) {
+            runWindow(limit, limit.limit(), 1_000);
+        }
+
+        // Assert
+        assertTrue(limit.limit() > 10);
+    }
+
+    @Test
+    void release_whenLatencyGrows_shouldLowerLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 100, WINDOW, 1, clock::get);
+        runWindow(limit, limit.limit(), 1_000);
+        int before = limit.limit();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            runWindow(limit, limit.limit(), 5_000);
+        }
+
+        // Assert
+        assertTrue(limit.limit() < before);
+    }
+
+    @Test
+    void release_whenOverloadResponses_shouldBackOffDownToMinimum() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 3, 100, WINDOW, 1, clock::get);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            clock.addAndGet(WINDOW);
+            limit.release(1_000, true);
+        }
+
+        // Assert
+        assertEquals(3, limit.limit());
+    }
+
+    @Test
+    void release_whenMostlyIdle_shouldKeepLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 100, WINDOW, 1, clock::get);
+
+        // Act
+        for (int i = 0; i < 30; i++) {
+            runWindow(limit, 2, 1_000);
+        }
+
+        // Assert
+        assertEquals(20, limit.limit());
+    }
+
+    // Занимает concurrent мест, сдвигает часы на окно и отпускает их с задержкой rtt
+    private void runWindow(AdaptiveConcurrencyLimit limit, int concurrent, long rtt) {
+        int acquired = 0;
+        while (acquired < concurrent && limit.tryAcquire()) {
+            acquired++;
+        }
+        clock.addAndGet(WINDOW);
+        for (int i = 0; i < acquired; i++) {
+            limit.release(rtt, false);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.myspringproject.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Rule logs = new RateLimitProperties.Rule();
+        logs.setName("logs");
+        logs.setPath("/logs");
+        logs.setLimit(1);
+        logs.setPeriod(Duration.ofMinutes(1));
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("api");
+        rule.setPath("/api/");
+        rule.setLimit(1);
+        rule.setPeriod(Duration.ofMinutes(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setApiKeys(Set.of("known-key"));
+        properties.setRules(List.of(logs, rule));
+        filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+    }
+
+    private int send(String apiKey) throws Exception {
+        return send("/api/v2/books", apiKey);
+    }
+
+    private int send(String uri, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr("10.0.0.1");
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    void doFilter_whenApiKeyRotated_shouldKeepQuotaOfAddress() throws Exception {
+        // Act
+        int first = send(UUID.randomUUID().toString());
+        int second = send(UUID.randomUUID().toString());
+        int withoutKey = send(null);
+
+        // Assert
+        assertEquals(200, first);
+        assertEquals(429, second);
+        assertEquals(429, withoutKey);
+    }
+
+    @Test
+    void doFilter_whenApiKeyConfigured_shouldUseSeparateQuota() throws Exception {
+        // Arrange
+        send(null);
+
+        // Act
+        int withKey = send("known-key");
+        int repeated = send("known-key");
+
+        // Assert
+        assertEquals(200, withKey);
+        assertEquals(429, repeated);
+    }
+
+    @Test
+    void doFilter_whenLogDownload_shouldApplyLogsRule() throws Exception {
+        // Act
+        int first = send("/logs", null);
+        int second = send("/logs", null);
+        int api = send(null);
+
+        // Assert
+        assertEquals(200, first);
+        assertEquals(429, second);
+        assertEquals(200, api);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.myspringproject.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    // 10 запросов в секунду: токен каждые 100 нс при секунде в 1000 нс
+    private static final long PERIOD = 1_000;
+
+    private final AtomicLong clock = new AtomicLong(5_000);
+
+    @Test
+    void tryAcquire_whenBurstUsed_shouldRejectWithTimeUntilNextToken() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, PERIOD, 3, clock::get);
+
+        // Act
+        long first = limiter.tryAcquire("client");
+        limiter.tryAcquire("client");
+        long third = limiter.tryAcquire("client");
+        long fourth = limiter.tryAcquire("client");
+
+        // Assert
+        assertEquals(2, limiter.remaining(first));
+        assertEquals(0, limiter.remaining(third));
+        assertEquals(-100, fourth);
+    }
+
+    @Test
+    void tryAcquire_whenTimePasses_shouldRefillAtConfiguredRate() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, PERIOD, 2, clock::get);
+        limiter.tryAcquire("client");
+        limiter.tryAcquire("client");
+
+        // Act
+        clock.addAndGet(150);
+        long refilled = limiter.tryAcquire("client");
+        long rejected = limiter.tryAcquire("client");
+
+        // Assert
+        assertTrue(refilled >= 0);
+        assertEquals(-50, rejected);
+    }
+
+    @Test
+    void tryAcquire_whenDifferentClients_shouldUseSeparateBuckets() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, PERIOD, 1, clock::get);
+        limiter.tryAcquire("first");
+
+        // Act
+        long first = limiter.tryAcquire("first");
+        long second = limiter.tryAcquire("second");
+
+        // Assert
+        assertTrue(first < 0);
+        assertTrue(second >= 0);
+    }
+
+    @Test
+    void evictIdle_shouldRemoveOnlyRefilledBuckets() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, PERIOD, 5, clock::get);
+        limiter.tryAcquire("idle");
+        clock.addAndGet(100);
+        limiter.tryAcquire("active");
+        limiter.tryAcquire("active");
+
+        // Act
+        clock.addAndGet(100);
+        int evicted = limiter.evictIdle();
+
+        // Assert
+        assertEquals(1, evicted);
+        assertEquals(1, limiter.size());
+        assertEquals(3, limiter.remaining(limiter.tryAcquire("active")));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.myspringproject.reactive;
+
+import com.example.myspringproject.dto.get.BookGetDto;
+import com.example.myspringproject.dto.get.CategoryGetDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCatalogControllerTest {
+
+    @Mock
+    private ReactiveCatalogRepository catalogRepository;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToController(new ReactiveCatalogController(catalogRepository)).build();
+    }
+
+    @Test
+    void findAllBooks_whenNdjsonAccepted_shouldWriteOneRecordPerLine() {
+        // Arrange
+        when(catalogRepository.findAllBooks()).thenReturn(Flux.just(
+                new BookGetDto(1, "War and Peace", "Tolstoy", List.of("Novel")),
+                new BookGetDto(2, "Poems", null, List.of())));
+
+        // Act
+        String body = client.get().uri("/api/v3/books")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        // Assert
+        assertNotNull(body);
+        String[] lines = body.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"bookName\":\"War and Peace\""));
+        assertTrue(lines[1].contains("\"id\":2"));
+    }
+
+    @Test
+    void getBooksByCategory_whenJsonAccepted_shouldReturnArray() {
+        // Arrange
+        when(catalogRepository.findBooksByCategoryName("novel")).thenReturn(Flux.just(
+                new BookGetDto(1, "War and Peace", "Tolstoy", List.of("Novel"))));
+
+        // Act & Assert
+        client.get().uri("/api/v3/books/by-category?category=novel")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].categories[0]").isEqualTo("Novel");
+    }
+
+    @Test
+    void findAllCategories_whenEmpty_shouldReturnEmptyArray() {
+        // Arrange
+        when(catalogRepository.findAllCategories()).thenReturn(Flux.<CategoryGetDto>empty());
+
+        // Act & Assert
+        client.get().uri("/api/v3/categories")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+    }
+
+    @Test
+    void getBooksByAuthorId_shouldPassPathVariable() {
+        // Arrange
+        when(catalogRepository.findBooksByAuthorId(7)).thenReturn(Flux.empty());
+
+        // Act
+        client.get().uri("/api/v3/books/by-author/7")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        // Assert
+        verify(catalogRepository).findBooksByAuthorId(7);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.myspringproject.reactive;
+
+import com.example.myspringproject.dto.get.AuthorGetDto;
+import com.example.myspringproject.dto.get.BookGetDto;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.binding.BindMarkersFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReactiveCatalogRepositoryTest {
+
+    private static final int FETCH_SIZE = 64;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Result result;
+
+    private Statement statement;
+    private ReactiveCatalogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        statement = mock(Statement.class, RETURNS_SELF);
+        doReturn(Mono.just(connection)).when(connectionFactory).create();
+        when(connection.createStatement(anyString())).thenReturn(statement);
+        doReturn(Mono.empty()).when(connection).close();
+        doReturn(Flux.just(result)).when(statement).execute();
+        DatabaseClient databaseClient = DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .bindMarkers(BindMarkersFactory.indexed("$", 1))
+                .build();
+        repository = new ReactiveCatalogRepository(databaseClient, FETCH_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnRows(Row... rows) {
+        when(result.map(any(Function.class))).thenAnswer(invocation -> {
+            Function<Readable, ?> mapper = invocation.getArgument(0);
+            return Flux.just(rows).map(mapper);
+        });
+        when(result.map(any(BiFunction.class))).thenAnswer(invocation -> {
+            BiFunction<Row, RowMetadata, ?> mapper = invocation.getArgument(0);
+            return Flux.just(rows).map(row -> mapper.apply(row, mock(RowMetadata.class)));
+        });
+    }
+
+    private static Row row(Map<String, Object> columns) {
+        Row row = mock(Row.class);
+        when(row.get(anyString(), any(Class.class))).thenAnswer(invocation ->
+                columns.get(invocation.<String>getArgument(0)));
+        return row;
+    }
+
+    @Test
+    void findBooksByAuthorId_shouldBindIdAndMapRows() {
+        // Arrange
+        returnRows(row(Map.of("book_id", 1, "name", "War and Peace", "author_name", "Tolstoy",
+                "category_names", new String[]{"Classic", "Novel"})));
+
+        // Act
+        List<BookGetDto> books = repository.findBooksByAuthorId(7).collectList().block();
+
+        // Assert
+        assertNotNull(books);
+        assertEquals(1, books.size());
+        assertEquals(1, books.get(0).getId());
+        assertEquals("War and Peace", books.get(0).getBookName());
+        assertEquals("Tolstoy", books.get(0).getAuthorName());
+        assertEquals(List.of("Classic", "Novel"), books.get(0).getCategories());
+        verify(statement).bind(eq(0), argThat((Object value) -> value instanceof Parameter parameter
+                && Integer.valueOf(7).equals(parameter.getValue())));
+    }
+
+    @Test
+    void findAllAuthors_whenAuthorHasNoBooks_shouldMapEmptyList() {
+        // Arrange
+        returnRows(row(Map.of("author_id", 3, "name", "Anonymous")));
+
+        // Act
+        List<AuthorGetDto> authors = repository.findAllAuthors().collectList().block();
+
+        // Assert
+        assertNotNull(authors);
+        assertEquals(3, authors.get(0).getId());
+        assertEquals("Anonymous", authors.get(0).getAuthorName());
+        assertEquals(List.of(), authors.get(0).getBooks());
+    }
+
+    @Test
+    void findAllCategories_shouldReadWithConfiguredFetchSize() {
+        // Arrange
+        returnRows();
+
+        // Act
+        repository.findAllCategories().collectList().block();
+
+        // Assert: курсор читает порциями, а не весь результат сразу
+        verify(statement).fetchSize(FETCH_SIZE);
+    }
+}
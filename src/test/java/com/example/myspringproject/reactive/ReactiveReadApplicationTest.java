@@ -0,0 +1,30 @@
+package com.example.myspringproject.reactive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveReadApplicationTest {
+
+    @Test
+    void isActive_whenReactiveProfileAmongActive_shouldReturnTrue() {
+        // Act
+        boolean active = ReactiveReadApplication.isActive(
+                new String[]{"--spring.profiles.active=dev,reactive"});
+
+        // Assert
+        assertTrue(active);
+    }
+
+    @Test
+    void isActive_whenReactiveProfileNotActive_shouldReturnFalse() {
+        // Act
+        boolean withOtherProfile = ReactiveReadApplication.isActive(
+                new String[]{"--spring.profiles.active=dev"});
+        boolean withoutArguments = ReactiveReadApplication.isActive(new String[0]);
+
+        // Assert
+        assertFalse(withOtherProfile);
+        assertFalse(withoutArguments);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.myspringproject.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LikePatternTest {
+
+    @Test
+    void contains_whenValueHasWildcards_shouldEscapeThem() {
+        // Act
+        String pattern = LikePattern.contains("50%_Off\\");
+
+        // Assert
+        assertEquals("%50\\%\\_off\\\\%", pattern);
+    }
+
+    @Test
+    void startsWith_whenDefaultLocaleIsTurkish_shouldLowerCaseWithoutLocale() {
+        // Arrange
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+
+        // Act
+        String pattern;
+        try {
+            pattern = LikePattern.startsWith("TITLE");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        // Assert
+        assertEquals("title%", pattern);
+    }
+}
@@ -2,6 +2,7 @@
 package com.example.myspringproject.service.impl;
 
 import com.example.myspringproject.cache.AuthorCache;
+import com.example.myspringproject.cache.BookCache;
 import com.example.myspringproject.dto.create.AuthorCreateDto;
 import com.example.myspringproject.dto.update.AuthorUpdateDto;
 import com.example.myspringproject.exception.UniqueConstraintViolationException;
@@ -19,6 +20,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -39,6 +41,12 @@ class AuthorServiceImplTest {
     @Mock
     private AuthorCache authorCache;
 
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AuthorServiceImpl authorServiceImpl;
 
@@ -73,7 +81,7 @@ class AuthorServiceImplTest {
         when(authorRepository.findAllWithBooks()).thenReturn(List.of(author1, author2));
 
         // Act
-        List<Author> result = authorServiceImpl.findAllAuthors();
+        List<Author> result = authorServiceImpl.findAllAuthors(true);
 
         // Assert
         assertNotNull(result);
@@ -82,6 +90,51 @@ class AuthorServiceImplTest {
         verifyNoInteractions(authorCache); // This method doesn't use cache
     }
 
+    @Test
+    void findAllAuthors_whenWithoutBooks_shouldSkipBooksJoin() {
+        // Arrange
+        when(authorRepository.findAll()).thenReturn(List.of(author1, author2));
+
+        // Act
+        List<Author> result = authorServiceImpl.findAllAuthors(false);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(authorRepository, never()).findAllWithBooks();
+    }
+
+    @Test
+    void findAuthorsByName_whenWithoutBooks_shouldUseLightQueryAndOwnCacheKey() {
+        // Arrange
+        String name = "One";
+        String cacheKey = "withoutBooks_authorsByName_" + name;
+        when(authorCache.containsKey(cacheKey)).thenReturn(false);
+        when(authorRepository.findByAuthorNameContainingIgnoreCaseWithoutBooks(name))
+                .thenReturn(List.of(author1));
+
+        // Act
+        List<Author> result = authorServiceImpl.findAuthorsByName(name, false);
+
+        // Assert
+        assertEquals(List.of(author1), result);
+        verify(authorCache).put(cacheKey, List.of(author1));
+        verify(authorRepository, never()).findByAuthorNameContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    void findAuthorsByBookCategoryPrefix_whenWithoutBooksAndNotFound_shouldThrowException() {
+        // Arrange
+        when(authorCache.containsKey("withoutBooks_authorsByCategoryPrefix_Fic")).thenReturn(false);
+        when(authorRepository.findAuthorsByBookCategoryNameLikeWithoutBooks("fic%"))
+                .thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> authorServiceImpl.findAuthorsByBookCategoryPrefix("Fic", false));
+        assertEquals("Авторы не найдены по категории книги: Fic", exception.getMessage());
+        verify(authorCache, never()).put(anyString(), anyList());
+    }
+
     // --- findAuthorById ---
     @Test
     void findAuthorById_whenCacheHit_shouldReturnAuthorFromCache() {
@@ -92,7 +145,7 @@ class AuthorServiceImplTest {
         when(authorCache.get(cacheKey)).thenReturn(List.of(author1));
 
         // Act
-        Author result = authorServiceImpl.findAuthorById(authorId);
+        Author result = authorServiceImpl.findAuthorById(authorId, true);
 
         // Assert
         assertNotNull(result);
@@ -111,7 +164,7 @@ class AuthorServiceImplTest {
         when(authorRepository.findById(authorId)).thenReturn(Optional.of(author1));
 
         // Act
-        Author result = authorServiceImpl.findAuthorById(authorId);
+        Author result = authorServiceImpl.findAuthorById(authorId, true);
 
         // Assert
         assertNotNull(result);
@@ -122,6 +175,21 @@ class AuthorServiceImplTest {
         verify(authorCache, times(1)).put(cacheKey, List.of(author1));
     }
 
+    @Test
+    void findAuthorById_whenWithoutBooks_shouldNotShareCacheKeyWithBooks() {
+        // Arrange
+        when(authorCache.containsKey("withoutBooks_author_id_1")).thenReturn(false);
+        when(authorRepository.findById(1)).thenReturn(Optional.of(author1));
+
+        // Act
+        Author result = authorServiceImpl.findAuthorById(1, false);
+
+        // Assert
+        assertEquals(author1, result);
+        verify(authorCache).put("withoutBooks_author_id_1", List.of(author1));
+        verify(authorCache, never()).put(eq("author_id_1"), anyList());
+    }
+
     @Test
     void findAuthorById_whenCacheMissAndNotFound_shouldThrowException() {
         // Arrange
@@ -132,7 +200,7 @@ class AuthorServiceImplTest {
 
         // Act & Assert
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> authorServiceImpl.findAuthorById(authorId)
+                () -> authorServiceImpl.findAuthorById(authorId, true)
         );
         assertEquals("Автор не найден с id: " + authorId, exception.getMessage());
         verify(authorCache, times(1)).containsKey(cacheKey);
@@ -152,7 +220,7 @@ class AuthorServiceImplTest {
         when(authorCache.get(cacheKey)).thenReturn(expectedAuthors);
 
         // Act
-        List<Author> result = authorServiceImpl.findAuthorsByBookCategory(category);
+        List<Author> result = authorServiceImpl.findAuthorsByBookCategory(category, true);
 
         // Assert
         assertNotNull(result);
@@ -173,7 +241,7 @@ class AuthorServiceImplTest {
 
         // Act & Assert
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> authorServiceImpl.findAuthorsByBookCategory(category)
+                () -> authorServiceImpl.findAuthorsByBookCategory(category, true)
         );
         assertEquals("Авторы не найдены по категории книги: " + category, exception.getMessage());
         verify(authorCache, times(1)).containsKey(cacheKey);
@@ -191,7 +259,7 @@ class AuthorServiceImplTest {
         when(authorRepository.findAuthorsByBookCategory(category)).thenReturn(expectedAuthors);
 
         // Act
-        List<Author> result = authorServiceImpl.findAuthorsByBookCategory(category);
+        List<Author> result = authorServiceImpl.findAuthorsByBookCategory(category, true);
 
         // Assert
         assertNotNull(result);
@@ -213,7 +281,7 @@ class AuthorServiceImplTest {
 
         // Act & Assert
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> authorServiceImpl.findAuthorsByBookCategory(category)
+                () -> authorServiceImpl.findAuthorsByBookCategory(category, true)
         );
         assertEquals("Авторы не найдены по категории книги: " + category, exception.getMessage());
         verify(authorCache, times(1)).containsKey(cacheKey);
@@ -222,6 +290,51 @@ class AuthorServiceImplTest {
         verify(authorCache, never()).put(anyString(), anyList());
     }
 
+    // --- findAuthorsByBookCategoryPrefix ---
+    @Test
+    void findAuthorsByBookCategoryPrefix_whenCacheMissAndFound_shouldQueryLowercasePrefixPattern() {
+        // Arrange
+        String prefix = "Fic";
+        String cacheKey = "authorsByCategoryPrefix_" + prefix;
+        List<Author> expectedAuthors = List.of(author1);
+        when(authorCache.containsKey(cacheKey)).thenReturn(false);
+        when(authorRepository.findAuthorsByBookCategoryNameLike("fic%")).thenReturn(expectedAuthors);
+
+        // Act
+        List<Author> result = authorServiceImpl.findAuthorsByBookCategoryPrefix(prefix, true);
+
+        // Assert
+        assertEquals(expectedAuthors, result);
+        verify(authorCache, times(1)).put(cacheKey, expectedAuthors);
+    }
+
+    @Test
+    void findAuthorsByBookCategoryPrefix_whenPrefixHasWildcards_shouldEscapeThem() {
+        // Arrange
+        when(authorCache.containsKey(anyString())).thenReturn(false);
+        when(authorRepository.findAuthorsByBookCategoryNameLike("100\\%\\_%"))
+                .thenReturn(List.of(author1));
+
+        // Act
+        List<Author> result = authorServiceImpl.findAuthorsByBookCategoryPrefix("100%_", true);
+
+        // Assert
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void findAuthorsByBookCategoryPrefix_whenCacheMissAndNotFound_shouldThrowException() {
+        // Arrange
+        when(authorCache.containsKey(anyString())).thenReturn(false);
+        when(authorRepository.findAuthorsByBookCategoryNameLike(anyString()))
+                .thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class,
+                () -> authorServiceImpl.findAuthorsByBookCategoryPrefix("Nothing", true));
+        verify(authorCache, never()).put(anyString(), anyList());
+    }
+
     // --- findAuthorsByName ---
     @Test
     void findAuthorsByName_whenCacheHitAndNotEmpty_shouldReturnAuthorsFromCache() {
@@ -233,7 +346,7 @@ class AuthorServiceImplTest {
         when(authorCache.get(cacheKey)).thenReturn(expectedAuthors);
 
         // Act
-        List<Author> result = authorServiceImpl.findAuthorsByName(name);
+        List<Author> result = authorServiceImpl.findAuthorsByName(name, true);
 
         // Assert
         assertNotNull(result);
@@ -254,7 +367,7 @@ class AuthorServiceImplTest {
 
         // Act & Assert
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> authorServiceImpl.findAuthorsByName(name)
+                () -> authorServiceImpl.findAuthorsByName(name, true)
         );
         assertEquals("Авторы не найдены по имени: " + name, exception.getMessage());
         verify(authorCache, times(1)).containsKey(cacheKey);
@@ -272,7 +385,7 @@ class AuthorServiceImplTest {
         when(authorRepository.findByAuthorNameContainingIgnoreCase(name)).thenReturn(expectedAuthors);
 
         // Act
-        List<Author> result = authorServiceImpl.findAuthorsByName(name);
+        List<Author> result = authorServiceImpl.findAuthorsByName(name, true);
 
         // Assert
         assertNotNull(result);
@@ -294,7 +407,7 @@ class AuthorServiceImplTest {
 
         // Act & Assert
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> authorServiceImpl.findAuthorsByName(name)
+                () -> authorServiceImpl.findAuthorsByName(name, true)
         );
         assertEquals("Авторы не найдены по имени: " + name, exception.getMessage());
         verify(authorCache, times(1)).containsKey(cacheKey);
@@ -488,65 +601,39 @@ class AuthorServiceImplTest {
 
     // --- deleteAuthor (Parameterized) ---
 
-    // Provider method for delete scenarios
+    // Provider method for delete scenarios: author id and number of books unlinked
     private static Stream<Arguments> deleteAuthorScenarios() {
-        // Scenario 1: Author with books
-        Author authorWithBooks = new Author();
-        authorWithBooks.setAuthorId(10); // Use distinct IDs for clarity
-        authorWithBooks.setAuthorName("Author With Books");
-        Book bookForThisAuthor = new Book();
-        bookForThisAuthor.setBookId(101);
-        bookForThisAuthor.setBookName("Book For Deletion Test");
-        authorWithBooks.setBooks(new ArrayList<>(List.of(bookForThisAuthor)));
-        bookForThisAuthor.setAuthor(authorWithBooks); // Set bidirectional link
-
-        // Scenario 2: Author with null books list
-        Author authorWithNullList = new Author();
-        authorWithNullList.setAuthorId(11);
-        authorWithNullList.setAuthorName("Author NullBooks");
-        authorWithNullList.setBooks(null); // Explicitly null
-
-        // Scenario 3: Author with empty books list
-        Author authorWithEmptyList = new Author();
-        authorWithEmptyList.setAuthorId(12);
-        authorWithEmptyList.setAuthorName("Author EmptyBooks");
-        authorWithEmptyList.setBooks(new ArrayList<>()); // Explicitly empty
-
         return Stream.of(
-                Arguments.of("With Books", authorWithBooks, bookForThisAuthor),
-                Arguments.of("Null List", authorWithNullList, null),
-                Arguments.of("Empty List", authorWithEmptyList, null)
+                Arguments.of("With Books", 10, 2),
+                Arguments.of("Without Books", 11, 0)
         );
     }
 
     @ParameterizedTest(name = "[{index}] {0}")
     @MethodSource("deleteAuthorScenarios")
-    void deleteAuthor_handlesDifferentBookListStates(String ignoredDescription, Author authorToDelete, Book bookToCheck) {
+    void deleteAuthor_unlinksBooksAndDeletesAuthorWithoutLoadingIt(String ignoredDescription, int authorId, int detachedBooks) {
         // Arrange
-        int authorId = authorToDelete.getAuthorId();
-        when(authorRepository.findById(authorId)).thenReturn(Optional.of(authorToDelete));
-        doNothing().when(authorRepository).delete(authorToDelete);
+        when(authorRepository.detachBooks(authorId)).thenReturn(detachedBooks);
+        when(authorRepository.deleteAuthorById(authorId)).thenReturn(1);
 
         // Act
         authorServiceImpl.deleteAuthor(authorId);
 
-        // Assert
-        verify(authorRepository, times(1)).findById(authorId);
-        verify(authorRepository, times(1)).delete(authorToDelete);
+        // Assert: books are unlinked before the author row is removed
+        var inOrder = inOrder(authorRepository);
+        inOrder.verify(authorRepository).detachBooks(authorId);
+        inOrder.verify(authorRepository).deleteAuthorById(authorId);
+        verify(authorRepository, never()).findById(anyInt());
+        verify(authorRepository, never()).delete(any(Author.class));
         verify(authorCache, times(1)).clear();
-
-        // Verify book nullification only if a book was provided for checking
-        if (bookToCheck != null) {
-            assertNull(bookToCheck.getAuthor(), "Book's author reference should be null after deleting author");
-        }
-        // The main assertion is that no NullPointerException occurred during the service call for null/empty lists.
+        verify(bookCache, times(1)).clear();
     }
 
     @Test
     void deleteAuthor_whenAuthorNotFound_shouldThrowEntityNotFoundException() {
         // Arrange
         int authorId = 99;
-        when(authorRepository.findById(authorId)).thenReturn(Optional.empty());
+        when(authorRepository.deleteAuthorById(authorId)).thenReturn(0);
 
         // Act & Assert
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
@@ -554,8 +641,7 @@ class AuthorServiceImplTest {
         );
         assertEquals("Автор не найден с id: " + authorId, exception.getMessage());
 
-        verify(authorRepository, times(1)).findById(authorId);
-        verify(authorRepository, never()).delete(any(Author.class));
+        verify(authorRepository, times(1)).detachBooks(authorId);
         verify(authorCache, never()).clear();
     }
 }
\ No newline at end of file
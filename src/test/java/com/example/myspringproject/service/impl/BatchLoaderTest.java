@@ -0,0 +1,105 @@
+package com.example.myspringproject.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderTest {
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+    private final List<Set<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void loadAsync_whenKeysArriveWithinWindow_shouldLoadThemInOneBatch() {
+        // Arrange
+        BatchLoader<Integer, String> loader = new BatchLoader<>(this::names,
+                TimeUnit.MILLISECONDS.toNanos(100), 10, executor);
+
+        // Act
+        CompletableFuture<String> first = loader.loadAsync(1);
+        CompletableFuture<String> second = loader.loadAsync(2);
+        CompletableFuture<String> repeated = loader.loadAsync(1);
+        CompletableFuture<String> missing = loader.loadAsync(404);
+
+        // Assert
+        assertEquals("book-1", first.join());
+        assertEquals("book-2", second.join());
+        assertEquals("book-1", repeated.join());
+        assertNull(missing.join());
+        assertEquals(List.of(Set.of(1, 2, 404)), batches);
+    }
+
+    @Test
+    void loadAsync_whenBatchIsFull_shouldDispatchWithoutWaitingForWindow() {
+        // Arrange
+        BatchLoader<Integer, String> loader = new BatchLoader<>(this::names,
+                TimeUnit.HOURS.toNanos(1), 2, executor);
+
+        // Act
+        CompletableFuture<String> first = loader.loadAsync(1);
+        CompletableFuture<String> second = loader.loadAsync(2);
+
+        // Assert
+        assertEquals("book-1", first.orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals("book-2", second.join());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void load_whenBatchFails_shouldRethrowToEveryCaller() {
+        // Arrange
+        BatchLoader<Integer, String> loader = new BatchLoader<>(ids -> {
+            throw new IllegalStateException("db down");
+        }, TimeUnit.MILLISECONDS.toNanos(10), 10, executor);
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> loader.load(1, TimeUnit.SECONDS.toNanos(5)));
+        assertEquals("db down", e.getMessage());
+    }
+
+    @Test
+    void load_whenBatchIsNotLoadedInTime_shouldThrowTimeout() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoader<Integer, String> loader = new BatchLoader<>(ids -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return names(ids);
+        }, 0, 10, executor);
+
+        // Act & Assert
+        try {
+            assertThrows(TimeoutException.class, () -> loader.load(1, TimeUnit.MILLISECONDS.toNanos(50)));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private Map<Integer, String> names(Set<Integer> ids) {
+        batches.add(Set.copyOf(ids));
+        Map<Integer, String> names = new HashMap<>();
+        ids.stream().filter(id -> id < 100).forEach(id -> names.put(id, "book-" + id));
+        return names;
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.cache.AuthorCache;
+import com.example.myspringproject.cache.BookCache;
+import com.example.myspringproject.cache.CategoryCache;
+import com.example.myspringproject.dto.create.BookCreateDto;
+import com.example.myspringproject.dto.get.BulkOperationResultDto;
+import com.example.myspringproject.dto.update.BookBulkFilterDto;
+import com.example.myspringproject.dto.update.BookBulkPatchDto;
+import com.example.myspringproject.dto.update.BookBulkSelectionDto;
+import com.example.myspringproject.exception.ValidationException;
+import com.example.myspringproject.model.Author;
+import com.example.myspringproject.model.Book;
+import com.example.myspringproject.model.Category;
+import com.example.myspringproject.repository.AuthorRepository;
+import com.example.myspringproject.repository.BookRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import com.example.myspringproject.service.BookService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookBulkServiceImplTest {
+
+    private static final Validator VALIDATOR =
+            Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private BookService bookService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private AuthorRepository authorRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private BookCache bookCache;
+    @Mock
+    private AuthorCache authorCache;
+    @Mock
+    private CategoryCache categoryCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BookBulkServiceImpl bookBulkService;
+
+    @BeforeEach
+    void setUp() {
+        bookBulkService = new BookBulkServiceImpl(bookService, objectMapper, VALIDATOR,
+                entityManager, transactionManager, bookRepository, authorRepository,
+                categoryRepository, bookCache, authorCache, categoryCache, eventPublisher, 2);
+    }
+
+    private List<JsonNode> importBooks(String json) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookBulkService.importBooks(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static String book(String name) {
+        return "{\"name\":\"" + name + "\",\"authorId\":1}";
+    }
+
+    @Test
+    void importBooks_whenArrayIsLargerThanChunk_shouldCommitEachChunkSeparately() throws Exception {
+        // Arrange
+        when(bookService.createBooks(anyList()))
+                .thenAnswer(invocation -> {
+                    List<BookCreateDto> chunk = invocation.getArgument(0);
+                    return chunk.stream().map(dto -> new Book()).toList();
+                });
+
+        // Act
+        List<JsonNode> results = importBooks(
+                "[" + book("A") + "," + book("B") + "," + book("C") + "]");
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals(0, results.get(0).get("offset").asInt());
+        assertEquals(2, results.get(0).get("created").asInt());
+        assertTrue(results.get(0).get("committed").asBoolean());
+        assertEquals(2, results.get(1).get("offset").asInt());
+        assertEquals(1, results.get(1).get("created").asInt());
+        verify(bookService, times(2)).createBooks(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importBooks_whenWrappedInDtosObject_shouldReadArray() throws Exception {
+        // Arrange
+        when(bookService.createBooks(anyList())).thenReturn(List.of(new Book()));
+
+        // Act
+        List<JsonNode> results = importBooks("{\"other\":{\"x\":1},\"dtos\":[" + book("A") + "]}");
+
+        // Assert
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).get("committed").asBoolean());
+        assertEquals(1, results.get(0).get("created").asInt());
+    }
+
+    @Test
+    void importBooks_whenChunkIsInvalid_shouldSkipOnlyThatChunk() throws Exception {
+        // Arrange
+        when(bookService.createBooks(anyList())).thenReturn(List.of(new Book(), new Book()));
+
+        // Act
+        List<JsonNode> results = importBooks(
+                "[" + book("A") + "," + book("") + "," + book("C") + "," + book("D") + "]");
+
+        // Assert
+        assertEquals(2, results.size());
+        assertFalse(results.get(0).get("committed").asBoolean());
+        assertTrue(results.get(0).get("errors").get(0).asText().startsWith("[1] name"));
+        assertTrue(results.get(1).get("committed").asBoolean());
+        verify(bookService, times(1)).createBooks(anyList());
+    }
+
+    @Test
+    void importBooks_whenServiceRejectsChunk_shouldRollBackAndContinue() throws Exception {
+        // Arrange
+        when(bookService.createBooks(anyList()))
+                .thenThrow(new ValidationException(List.of("duplicate")))
+                .thenReturn(List.of(new Book()));
+
+        // Act
+        List<JsonNode> results = importBooks(
+                "[" + book("A") + "," + book("B") + "," + book("C") + "]");
+
+        // Assert
+        assertFalse(results.get(0).get("committed").asBoolean());
+        assertEquals("duplicate", results.get(0).get("errors").get(0).asText());
+        assertTrue(results.get(1).get("committed").asBoolean());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void importBooks_whenBodyIsNotArray_shouldReportError() throws Exception {
+        // Act
+        List<JsonNode> results = importBooks("{\"name\":\"A\"}");
+
+        // Assert
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).get("committed").asBoolean());
+        verifyNoInteractions(bookService);
+    }
+
+    private static BookBulkSelectionDto byIds(Integer... ids) {
+        BookBulkSelectionDto selection = new BookBulkSelectionDto();
+        selection.setIds(List.of(ids));
+        return selection;
+    }
+
+    @Test
+    void deleteBooks_whenIdsSpanChunks_shouldDeleteEachChunkAndReportMissingIds() {
+        // Arrange
+        when(bookRepository.findExistingIds(List.of(1, 2))).thenReturn(List.of(1, 2));
+        when(bookRepository.findExistingIds(List.of(3))).thenReturn(List.of());
+        when(bookRepository.deleteByIds(List.of(1, 2))).thenReturn(2);
+
+        // Act
+        BulkOperationResultDto result = bookBulkService.deleteBooks(byIds(1, 2, 3, 2));
+
+        // Assert
+        assertEquals(2, result.getMatched());
+        assertEquals(2, result.getAffected());
+        assertEquals(1, result.getNotFound());
+        assertEquals(List.of(3), result.getNotFoundIds());
+        assertEquals(2, result.getChunks());
+        verify(bookRepository, times(1)).deleteCategoryLinks(aryEq(new Integer[]{1, 2}));
+        verify(transactionManager, times(2)).commit(any());
+        verify(bookCache, times(1)).clear();
+        verify(authorCache, times(1)).clear();
+        verify(categoryCache, times(1)).clear();
+    }
+
+    @Test
+    void deleteBooks_whenFilterGiven_shouldPageByLastIdUntilShortPage() {
+        // Arrange
+        BookBulkFilterDto filter = new BookBulkFilterDto();
+        filter.setAuthorId(5);
+        filter.setNameContains("50%_");
+        BookBulkSelectionDto selection = new BookBulkSelectionDto();
+        selection.setFilter(filter);
+        when(bookRepository.findIdsByFilter(0, 5, null, "%50\\%\\_%", Limit.of(2)))
+                .thenReturn(List.of(1, 4));
+        when(bookRepository.findIdsByFilter(4, 5, null, "%50\\%\\_%", Limit.of(2)))
+                .thenReturn(List.of(7));
+        when(bookRepository.deleteByIds(anyList()))
+                .thenAnswer(invocation -> invocation.<List<Integer>>getArgument(0).size());
+
+        // Act
+        BulkOperationResultDto result = bookBulkService.deleteBooks(selection);
+
+        // Assert
+        assertEquals(3, result.getMatched());
+        assertEquals(3, result.getAffected());
+        assertEquals(0, result.getNotFound());
+        assertEquals(2, result.getChunks());
+    }
+
+    @Test
+    void deleteBooks_whenBothIdsAndFilterGiven_shouldThrowValidationException() {
+        // Arrange
+        BookBulkSelectionDto selection = byIds(1);
+        selection.setFilter(new BookBulkFilterDto());
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> bookBulkService.deleteBooks(selection));
+        verifyNoInteractions(bookRepository, transactionManager);
+    }
+
+    @Test
+    void patchBooks_whenChunkFails_shouldRollBackOnlyThatChunkAndContinue() {
+        // Arrange
+        BookBulkPatchDto patch = new BookBulkPatchDto();
+        patch.setIds(List.of(1, 2, 3));
+        patch.setAuthorId(7);
+        patch.setAddCategoryIds(List.of(4));
+        Author author = new Author();
+        when(authorRepository.existsById(7)).thenReturn(true);
+        when(authorRepository.getReferenceById(7)).thenReturn(author);
+        when(categoryRepository.findAllById(Set.of(4))).thenReturn(List.of(new Category()));
+        when(bookRepository.findExistingIds(List.of(1, 2))).thenReturn(List.of(1, 2));
+        when(bookRepository.findExistingIds(List.of(3))).thenReturn(List.of(3));
+        when(bookRepository.reassignAuthor(List.of(1, 2), author))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act
+        BulkOperationResultDto result = bookBulkService.patchBooks(patch);
+
+        // Assert
+        assertEquals(3, result.getMatched());
+        assertEquals(1, result.getAffected());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of("[0] duplicate"), result.getErrors());
+        verify(bookRepository, times(1))
+                .insertCategoryLinks(aryEq(new Integer[]{3}), aryEq(new Integer[]{4}));
+        verify(transactionManager, times(1)).rollback(any());
+        verify(bookCache, times(1)).clear();
+    }
+
+    @Test
+    void patchBooks_whenCategoryMissing_shouldThrowBeforeTouchingBooks() {
+        // Arrange
+        BookBulkPatchDto patch = new BookBulkPatchDto();
+        patch.setIds(List.of(1));
+        patch.setRemoveCategoryIds(List.of(4, 5));
+        when(categoryRepository.findAllById(Set.of(4, 5))).thenReturn(List.of(new Category()));
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> bookBulkService.patchBooks(patch));
+        verifyNoInteractions(bookRepository, transactionManager);
+    }
+
+    @Test
+    void patchBooks_whenNothingToChange_shouldThrowValidationException() {
+        // Arrange
+        BookBulkPatchDto patch = new BookBulkPatchDto();
+        patch.setIds(List.of(1));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> bookBulkService.patchBooks(patch));
+        verifyNoInteractions(bookRepository, categoryRepository);
+    }
+}
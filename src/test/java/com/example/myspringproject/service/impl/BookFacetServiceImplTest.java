@@ -0,0 +1,89 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import com.example.myspringproject.dto.get.BookFacetsGetDto;
+import com.example.myspringproject.dto.get.BookFilterDto;
+import com.example.myspringproject.repository.BookViewRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import com.example.myspringproject.service.BookFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookFacetServiceImplTest {
+
+    @Mock
+    private BookViewRepository bookViewRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private BookFacetServiceImpl facetService;
+
+    @BeforeEach
+    void setUp() {
+        facetService = new BookFacetServiceImpl(bookViewRepository,
+                new BookFilterSqlExecutor(bookViewRepository, categoryRepository), 5);
+    }
+
+    @Test
+    void searchFacets_shouldPassTopNToRepository() {
+        // Arrange
+        BookFacetsGetDto facets = new BookFacetsGetDto(3,
+                List.of(new BookCountGetDto(1, "Fiction", 3)), List.of());
+        when(bookViewRepository.searchFacets("tolstoy", null, 5)).thenReturn(facets);
+
+        // Act
+        BookFacetsGetDto result = facetService.searchFacets("tolstoy", null);
+
+        // Assert
+        assertSame(facets, result);
+    }
+
+    @Test
+    void filterFacets_whenCategoryNameUnknown_shouldReturnEmptyWithoutQuery() {
+        // Arrange
+        BookFilterDto dto = new BookFilterDto();
+        dto.setAllCategoryNames(List.of("Unknown"));
+        when(categoryRepository.findByLowerCategoryNameIn(Set.of("unknown")))
+                .thenReturn(List.of());
+
+        // Act
+        BookFacetsGetDto result = facetService.filterFacets(dto);
+
+        // Assert
+        assertEquals(0, result.getTotal());
+        assertTrue(result.getCategories().isEmpty());
+        verify(bookViewRepository, never()).filterFacets(any(), anyInt());
+    }
+
+    @Test
+    void filterFacets_shouldQueryResolvedFilter() {
+        // Arrange
+        BookFilterDto dto = new BookFilterDto();
+        dto.setAnyCategoryIds(List.of(2, 1));
+        dto.setNoAuthorIds(List.of(7));
+        when(bookViewRepository.filterFacets(any(), eq(5))).thenReturn(BookFacetsGetDto.empty());
+
+        // Act
+        facetService.filterFacets(dto);
+
+        // Assert
+        ArgumentCaptor<BookFilter.Resolved> resolved =
+                ArgumentCaptor.forClass(BookFilter.Resolved.class);
+        verify(bookViewRepository).filterFacets(resolved.capture(), eq(5));
+        assertEquals(List.of(Set.of(1, 2)), resolved.getValue().categoryGroups());
+        assertEquals(Set.of(7), resolved.getValue().excludedAuthorIds());
+        verifyNoInteractions(categoryRepository);
+    }
+}
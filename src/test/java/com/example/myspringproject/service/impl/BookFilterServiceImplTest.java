@@ -0,0 +1,112 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.cache.BookFilterCache;
+import com.example.myspringproject.dto.get.BookFilterDto;
+import com.example.myspringproject.exception.ValidationException;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.service.BookFilter;
+import com.example.myspringproject.service.BookFilterExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookFilterServiceImplTest {
+
+    @Mock
+    private BookFilterExecutor executor;
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private BookFilterCache filterCache;
+    private BookFilterServiceImpl filterService;
+
+    @BeforeEach
+    void setUp() {
+        filterCache = new BookFilterCache(Duration.ofNanos(100), clock::get);
+        filterService = new BookFilterServiceImpl(executor, filterCache, 500);
+    }
+
+    @Test
+    void filterBooks_whenLimitOutOfRange_shouldThrowValidationException() {
+        // Arrange
+        BookFilterDto dto = new BookFilterDto();
+        dto.setLimit(501);
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> filterService.filterBooks(dto));
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void filterBooks_whenEquivalentFilterRepeated_shouldServeFromCache() {
+        // Arrange
+        BookFilterDto first = new BookFilterDto();
+        first.setAnyCategoryNames(List.of(" Fiction", "poetry"));
+        first.setAuthorIds(List.of(2, 1));
+        BookFilterDto second = new BookFilterDto();
+        second.setAnyCategoryNames(List.of("POETRY", "fiction", "Fiction"));
+        second.setAuthorIds(List.of(1, 2));
+        List<BookView> books = List.of(new BookView());
+        when(executor.execute(any())).thenReturn(books);
+
+        // Act
+        List<BookView> firstResult = filterService.filterBooks(first);
+        List<BookView> secondResult = filterService.filterBooks(second);
+
+        // Assert
+        assertSame(books, firstResult);
+        assertSame(books, secondResult);
+        ArgumentCaptor<BookFilter> filter = ArgumentCaptor.forClass(BookFilter.class);
+        verify(executor).execute(filter.capture());
+        assertEquals(List.of("fiction", "poetry"), List.copyOf(filter.getValue().anyCategoryNames()));
+    }
+
+    @Test
+    void filterBooks_whenCatalogChangedDuringExecution_shouldNotCacheResult() {
+        // Arrange
+        BookFilterDto dto = new BookFilterDto();
+        dto.setNoCategoryIds(List.of(3));
+        when(executor.execute(any())).thenAnswer(invocation -> {
+            filterCache.clear();
+            return List.of();
+        });
+
+        // Act
+        filterService.filterBooks(dto);
+        filterService.filterBooks(dto);
+
+        // Assert
+        verify(executor, times(2)).execute(any());
+    }
+
+    @Test
+    void filterBooks_whenReadSoonAfterCommit_shouldExpireAfterReplicaLag() {
+        // Arrange
+        BookFilterDto dto = new BookFilterDto();
+        dto.setAuthorIds(List.of(1));
+        when(executor.execute(any())).thenReturn(List.of());
+        filterCache.clear();
+        clock.addAndGet(50);
+        filterService.filterBooks(dto);
+
+        // Act
+        filterService.filterBooks(dto);
+        clock.addAndGet(50);
+        filterService.filterBooks(dto);
+        clock.addAndGet(1_000);
+        filterService.filterBooks(dto);
+
+        // Assert
+        verify(executor, times(2)).execute(any());
+    }
+}
@@ -13,12 +13,15 @@ import com.example.myspringproject.repository.AuthorRepository;
 import com.example.myspringproject.repository.BookRepository;
 import com.example.myspringproject.repository.CategoryRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.*;
 // Unused imports removed: Stream, Collectors
@@ -41,6 +44,9 @@ class BookServiceImplTest {
     @Mock
     private CategoryCache categoryCache;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookServiceImpl bookServiceImpl;
 
@@ -295,11 +301,11 @@ class BookServiceImplTest {
         dto.setAuthorId(1);
         dto.setCategoryIds(List.of(1, 2));
 
-        when(bookRepository.findByAuthorId(dto.getAuthorId())).thenReturn(Collections.emptyList()); // No duplicates
+        when(bookRepository.existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName())).thenReturn(false); // No duplicates
         when(authorRepository.findById(dto.getAuthorId())).thenReturn(Optional.of(author1));
         when(categoryRepository.findAllById(dto.getCategoryIds())).thenReturn(List.of(category1, category2));
         // Mock the save operation to return the book with potentially generated ID
-        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
+        when(bookRepository.saveAndFlush(any(Book.class))).thenAnswer(invocation -> {
             Book bookToSave = invocation.getArgument(0);
             bookToSave.setBookId(3); // Simulate ID generation
             return bookToSave;
@@ -315,14 +321,15 @@ class BookServiceImplTest {
         assertEquals(2, result.getCategories().size());
         assertTrue(result.getCategories().contains(category1));
         assertTrue(result.getCategories().contains(category2));
-        assertTrue(author1.getBooks().contains(result)); // Check bidirectional relationship
-        assertTrue(category1.getBooks().contains(result));
-        assertTrue(category2.getBooks().contains(result));
+        assertFalse(author1.getBooks().contains(result)); // Inverse collections are left untouched
+        assertFalse(category1.getBooks().contains(result));
+        assertFalse(category2.getBooks().contains(result));
 
-        verify(bookRepository, times(1)).findByAuthorId(dto.getAuthorId());
+        verify(bookRepository, times(1)).existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName());
         verify(authorRepository, times(1)).findById(dto.getAuthorId());
         verify(categoryRepository, times(1)).findAllById(dto.getCategoryIds());
-        verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookRepository, times(1)).saveAndFlush(any(Book.class));
+        verify(bookRepository, never()).findByAuthorId(anyInt()); // Author's books are never loaded
         verify(bookCache, times(1)).clear();
         verify(categoryCache, times(1)).clear();
     }
@@ -335,7 +342,7 @@ class BookServiceImplTest {
         dto.setAuthorId(99); // Non-existent author
         dto.setCategoryIds(List.of(1));
 
-        when(bookRepository.findByAuthorId(dto.getAuthorId())).thenReturn(Collections.emptyList());
+        when(bookRepository.existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName())).thenReturn(false);
         when(authorRepository.findById(dto.getAuthorId())).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -344,10 +351,10 @@ class BookServiceImplTest {
         );
         assertEquals("Author not found with ID: " + dto.getAuthorId(), exception.getMessage());
 
-        verify(bookRepository, times(1)).findByAuthorId(dto.getAuthorId());
+        verify(bookRepository, times(1)).existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName());
         verify(authorRepository, times(1)).findById(dto.getAuthorId());
         verify(categoryRepository, never()).findAllById(anyList());
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
         verify(bookCache, never()).clear();
         verify(categoryCache, never()).clear();
     }
@@ -360,7 +367,7 @@ class BookServiceImplTest {
         dto.setAuthorId(1);
         dto.setCategoryIds(List.of(1, 99)); // 99 is non-existent
 
-        when(bookRepository.findByAuthorId(dto.getAuthorId())).thenReturn(Collections.emptyList());
+        when(bookRepository.existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName())).thenReturn(false);
         when(authorRepository.findById(dto.getAuthorId())).thenReturn(Optional.of(author1));
         when(categoryRepository.findAllById(dto.getCategoryIds())).thenReturn(List.of(category1)); // Only returns existing
 
@@ -370,10 +377,10 @@ class BookServiceImplTest {
         );
         assertEquals("Some categories not found", exception.getMessage());
 
-        verify(bookRepository, times(1)).findByAuthorId(dto.getAuthorId());
+        verify(bookRepository, times(1)).existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName());
         verify(authorRepository, times(1)).findById(dto.getAuthorId());
         verify(categoryRepository, times(1)).findAllById(dto.getCategoryIds());
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
         verify(bookCache, never()).clear();
         verify(categoryCache, never()).clear();
     }
@@ -385,8 +392,8 @@ class BookServiceImplTest {
         dto.setName("Test Book 1"); // Existing book name for author1
         dto.setAuthorId(1);
 
-        // Simulate finding an existing book with the same name for this author
-        when(bookRepository.findByAuthorId(dto.getAuthorId())).thenReturn(List.of(book1));
+        // Simulate the indexed lookup finding the same name for this author
+        when(bookRepository.existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName())).thenReturn(true);
 
         // Act & Assert
         ValidationException exception = assertThrows(ValidationException.class,
@@ -395,14 +402,54 @@ class BookServiceImplTest {
         assertEquals(1, exception.getErrors().size());
         assertEquals("У автора уже есть книга с таким названием", exception.getErrors().get(0));
 
-        verify(bookRepository, times(1)).findByAuthorId(dto.getAuthorId());
+        verify(bookRepository, times(1)).existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName());
         verify(authorRepository, never()).findById(anyInt());
         verify(categoryRepository, never()).findAllById(anyList());
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
+        verify(bookCache, never()).clear();
+        verify(categoryCache, never()).clear();
+    }
+
+
+    @Test
+    void createBook_whenConcurrentDuplicateHitsUniqueIndex_shouldThrowValidationException() {
+        // Arrange
+        BookCreateDto dto = new BookCreateDto();
+        dto.setName("Raced Book");
+        dto.setAuthorId(1);
+
+        when(bookRepository.existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName())).thenReturn(false);
+        when(authorRepository.findById(dto.getAuthorId())).thenReturn(Optional.of(author1));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, "ux_books_author_lower_name")));
+
+        // Act & Assert
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookServiceImpl.createBook(dto)
+        );
+        assertEquals("У автора уже есть книга с таким названием", exception.getErrors().get(0));
         verify(bookCache, never()).clear();
         verify(categoryCache, never()).clear();
     }
 
+    @Test
+    void createBook_whenOtherConstraintFails_shouldRethrow() {
+        // Arrange
+        BookCreateDto dto = new BookCreateDto();
+        dto.setName("Broken Book");
+        dto.setAuthorId(1);
+
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("fk",
+                new ConstraintViolationException("fk", null, "fk_books_author"));
+        when(bookRepository.existsByAuthorIdAndNameIgnoreCase(dto.getAuthorId(), dto.getName())).thenReturn(false);
+        when(authorRepository.findById(dto.getAuthorId())).thenReturn(Optional.of(author1));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenThrow(failure);
+
+        // Act & Assert
+        assertSame(failure, assertThrows(DataIntegrityViolationException.class,
+                () -> bookServiceImpl.createBook(dto)));
+    }
+
 
     @Test
     void updateBook_whenValidDto_shouldUpdateAndReturnBook() {
@@ -557,9 +604,6 @@ class BookServiceImplTest {
         when(authorRepository.findAllById(Set.of(1))).thenReturn(List.of(author1));
         when(categoryRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(category1, category2));
         when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0)); // Return the input list
-        // Mock the calls that happen even with empty sets
-        when(authorRepository.findByAuthorNameIn(Collections.emptySet())).thenReturn(Collections.emptyList()); // Removed eq()
-        when(categoryRepository.findByCategoryNameIn(Collections.emptySet())).thenReturn(Collections.emptyList()); // Removed eq()
 
 
         // Act
@@ -574,20 +618,18 @@ class BookServiceImplTest {
         assertEquals(author1, result.get(1).getAuthor());
         assertTrue(result.get(0).getCategories().contains(category1));
         assertTrue(result.get(1).getCategories().contains(category2));
-        // Check bidirectional relationships were updated (assuming saveAll handles this, or it's done before)
-        assertTrue(author1.getBooks().stream().anyMatch(b -> b.getBookName().equals("Bulk Book 1")));
-        assertTrue(author1.getBooks().stream().anyMatch(b -> b.getBookName().equals("Bulk Book 2")));
-        assertTrue(category1.getBooks().stream().anyMatch(b -> b.getBookName().equals("Bulk Book 1")));
-        assertTrue(category2.getBooks().stream().anyMatch(b -> b.getBookName().equals("Bulk Book 2")));
+        // Inverse collections are not initialized just to append the new books
+        assertEquals(2, author1.getBooks().size());
+        assertEquals(2, category1.getBooks().size());
+        assertEquals(1, category2.getBooks().size());
 
 
         verify(authorRepository, times(1)).findAllById(Set.of(1));
         verify(categoryRepository, times(1)).findAllById(Set.of(1, 2));
-        // Verify the name lookups ARE called, but with empty sets
-        verify(authorRepository, times(1)).findByAuthorNameIn(Collections.emptySet()); // Removed eq()
-        verify(categoryRepository, times(1)).findByCategoryNameIn(Collections.emptySet()); // Removed eq()
-        verify(authorRepository, never()).saveAll(anyList()); // No new authors
-        verify(categoryRepository, never()).saveAll(anyList()); // No new categories
+        verify(authorRepository, never()).findByAuthorNameIn(anySet()); // No names to resolve
+        verify(categoryRepository, never()).findByCategoryNameIn(anySet());
+        verify(authorRepository, never()).insertMissingByAuthorName(any());
+        verify(categoryRepository, never()).insertMissingByCategoryName(any());
         verify(bookRepository, times(1)).saveAll(anyList());
         verify(bookCache, times(1)).clear();
         verify(categoryCache, times(1)).clear();
@@ -613,19 +655,11 @@ class BookServiceImplTest {
         newCategory.setCategoryName("New Category");
         newCategory.setBooks(new ArrayList<>());
 
-        // Mock repository calls
-        when(authorRepository.findByAuthorNameIn(Set.of("New Author"))).thenReturn(Collections.emptyList()); // Author doesn't exist
-        when(categoryRepository.findByCategoryNameIn(Set.of("New Category"))).thenReturn(Collections.emptyList()); // Category doesn't exist
-        when(authorRepository.saveAll(anyList())).thenAnswer(invocation -> {
-            List<Author> authorsToSave = invocation.getArgument(0);
-            authorsToSave.get(0).setAuthorId(10); // Simulate ID generation
-            return authorsToSave;
-        });
-        when(categoryRepository.saveAll(anyList())).thenAnswer(invocation -> {
-            List<Category> catsToSave = invocation.getArgument(0);
-            catsToSave.get(0).setCategoryId(10); // Simulate ID generation
-            return catsToSave;
-        });
+        // Mock repository calls: missing names are inserted, then fetched together
+        when(authorRepository.insertMissingByAuthorName(new String[] {"New Author"})).thenReturn(1);
+        when(categoryRepository.insertMissingByCategoryName(new String[] {"New Category"})).thenReturn(1);
+        when(authorRepository.findByAuthorNameIn(Set.of("New Author"))).thenReturn(List.of(newAuthor));
+        when(categoryRepository.findByCategoryNameIn(Set.of("New Category"))).thenReturn(List.of(newCategory));
         when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
         // Mock ID lookups (will be called with empty sets)
         when(authorRepository.findAllById(Collections.emptySet())).thenReturn(Collections.emptyList()); // Removed eq()
@@ -644,10 +678,12 @@ class BookServiceImplTest {
         assertEquals("New Category", result.get(0).getCategories().get(0).getCategoryName());
         assertEquals(10, result.get(0).getCategories().get(0).getCategoryId()); // Check generated ID
 
+        verify(authorRepository, times(1)).insertMissingByAuthorName(new String[] {"New Author"}); // One upsert round-trip
+        verify(categoryRepository, times(1)).insertMissingByCategoryName(new String[] {"New Category"});
         verify(authorRepository, times(1)).findByAuthorNameIn(Set.of("New Author"));
         verify(categoryRepository, times(1)).findByCategoryNameIn(Set.of("New Category"));
-        verify(authorRepository, times(1)).saveAll(anyList()); // New author saved
-        verify(categoryRepository, times(1)).saveAll(anyList()); // New category saved
+        verify(authorRepository, never()).saveAll(anyList());
+        verify(categoryRepository, never()).saveAll(anyList());
         verify(bookRepository, times(1)).saveAll(anyList());
         verify(bookCache, times(1)).clear();
         verify(categoryCache, times(1)).clear();
@@ -688,9 +724,6 @@ class BookServiceImplTest {
 
         when(authorRepository.findAllById(Set.of(99))).thenReturn(Collections.emptyList()); // Author not found
         when(categoryRepository.findAllById(Set.of(1))).thenReturn(List.of(category1));
-        // Mock name lookups (will be called with empty sets)
-        when(authorRepository.findByAuthorNameIn(Collections.emptySet())).thenReturn(Collections.emptyList()); // Removed eq()
-        when(categoryRepository.findByCategoryNameIn(Collections.emptySet())).thenReturn(Collections.emptyList()); // Removed eq()
 
 
         // Act & Assert
@@ -718,9 +751,6 @@ class BookServiceImplTest {
 
         when(authorRepository.findAllById(Set.of(1))).thenReturn(List.of(author1));
         when(categoryRepository.findAllById(Set.of(99))).thenReturn(Collections.emptyList()); // Category not found
-        // Mock name lookups (will be called with empty sets)
-        when(authorRepository.findByAuthorNameIn(Collections.emptySet())).thenReturn(Collections.emptyList()); // Removed eq()
-        when(categoryRepository.findByCategoryNameIn(Collections.emptySet())).thenReturn(Collections.emptyList()); // Removed eq()
 
 
         // Act & Assert
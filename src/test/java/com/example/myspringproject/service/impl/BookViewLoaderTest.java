@@ -0,0 +1,105 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.repository.BookViewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookViewLoaderTest {
+
+    @Mock
+    private BookViewRepository bookViewRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookViewLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        if (loader != null) {
+            loader.destroy();
+        }
+    }
+
+    @Test
+    void load_whenWindowIsZero_shouldReadDirectlyWithoutExecutor() {
+        // Arrange
+        loader = new BookViewLoader(bookViewRepository, transactionManager,
+                Duration.ZERO, 100, 1, Duration.ofSeconds(1));
+        when(bookViewRepository.findById(1)).thenReturn(Optional.of(book(1)));
+
+        // Act
+        Optional<BookView> result = loader.load(1);
+
+        // Assert
+        assertEquals(1, result.orElseThrow().getBookId());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void load_whenNoOtherLoadIsPending_shouldReadWithoutWaitingForWindow() {
+        // Arrange
+        loader = new BookViewLoader(bookViewRepository, transactionManager,
+                Duration.ofHours(1), 100, 1, Duration.ofSeconds(1));
+        when(bookViewRepository.findById(1)).thenReturn(Optional.of(book(1)));
+
+        // Act
+        Optional<BookView> result = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> loader.load(1));
+
+        // Assert
+        assertEquals(1, result.orElseThrow().getBookId());
+        verify(bookViewRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void load_whenAnotherLoadIsPending_shouldJoinBatch() throws Exception {
+        // Arrange
+        loader = new BookViewLoader(bookViewRepository, transactionManager,
+                Duration.ofMillis(1), 100, 1, Duration.ofSeconds(5));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookViewRepository.findById(1)).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(book(1));
+        });
+        when(bookViewRepository.findAllById(Set.of(2))).thenReturn(List.of(book(2)));
+        CompletableFuture<Optional<BookView>> first = CompletableFuture.supplyAsync(() -> loader.load(1));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Optional<BookView> second;
+        try {
+            second = loader.load(2);
+        } finally {
+            release.countDown();
+        }
+
+        // Assert
+        assertEquals(2, second.orElseThrow().getBookId());
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).orElseThrow().getBookId());
+        verify(bookViewRepository, never()).findById(2);
+    }
+
+    private BookView book(int id) {
+        BookView book = new BookView();
+        book.setBookId(id);
+        return book;
+    }
+}
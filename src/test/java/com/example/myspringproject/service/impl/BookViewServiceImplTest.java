@@ -0,0 +1,157 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.BookGetDto;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.repository.AuthorRepository;
+import com.example.myspringproject.repository.BookViewRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookViewServiceImplTest {
+
+    @Mock
+    private BookViewRepository bookViewRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private AuthorRepository authorRepository;
+    @Mock
+    private BookViewLoader bookViewLoader;
+
+    @InjectMocks
+    private BookViewServiceImpl bookViewService;
+
+    private BookView book;
+
+    @BeforeEach
+    void setUp() {
+        book = new BookView();
+        book.setBookId(1);
+        book.setBookName("Book One");
+        book.setAuthorId(1);
+        book.setAuthorName("Author One");
+        book.setCategoryIds(List.of(1, 2));
+        book.setCategoryNames(List.of("Fiction", "Classic"));
+    }
+
+    @Test
+    void findBookById_whenFound_shouldMapToDtoWithoutJoins() {
+        // Arrange
+        when(bookViewLoader.load(1)).thenReturn(Optional.of(book));
+
+        // Act
+        BookGetDto dto = new BookGetDto(bookViewService.findBookById(1));
+
+        // Assert
+        assertEquals(1, dto.getId());
+        assertEquals("Author One", dto.getAuthorName());
+        assertEquals(List.of("Fiction", "Classic"), dto.getCategories());
+    }
+
+    @Test
+    void findBookById_whenMissing_shouldThrowException() {
+        // Arrange
+        when(bookViewLoader.load(99)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> bookViewService.findBookById(99));
+    }
+
+    @Test
+    void findBooksByIds_shouldKeepRequestedOrderAndSkipMissing() {
+        // Arrange
+        BookView second = new BookView();
+        second.setBookId(2);
+        when(bookViewRepository.findAllById(Set.of(1, 2, 99))).thenReturn(List.of(book, second));
+
+        // Act
+        List<BookView> result = bookViewService.findBooksByIds(List.of(2, 99, 1, 2));
+
+        // Assert
+        assertEquals(List.of(second, book), result);
+    }
+
+    @Test
+    void searchBooks_whenNothingFound_shouldThrowException() {
+        // Arrange
+        when(bookViewRepository.search("x", "y")).thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> bookViewService.searchBooks("x", "y"));
+    }
+
+    @Test
+    void findBooksByCategory_whenFound_shouldReturnRows() {
+        // Arrange
+        when(bookViewRepository.findByCategoryName("fic")).thenReturn(List.of(book));
+
+        // Act
+        List<BookView> result = bookViewService.findBooksByCategory("fic");
+
+        // Assert
+        assertEquals(List.of(book), result);
+    }
+
+    @Test
+    void findBooksByCategoryId_whenCategoryMissing_shouldThrowWithoutQueryingView() {
+        // Arrange
+        when(categoryRepository.existsById(5)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class,
+                () -> bookViewService.findBooksByCategoryId(5));
+        verify(bookViewRepository, never()).findByCategoryId(anyInt());
+    }
+
+    @Test
+    void findBooksByCategoryId_whenCategoryExists_shouldQueryView() {
+        // Arrange
+        when(categoryRepository.existsById(1)).thenReturn(true);
+        when(bookViewRepository.findByCategoryId(1)).thenReturn(List.of(book));
+
+        // Act
+        List<BookView> result = bookViewService.findBooksByCategoryId(1);
+
+        // Assert
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void findBooksByAuthor_whenNothingFound_shouldThrowException() {
+        // Arrange
+        when(bookViewRepository.findByAuthorName("Nobody")).thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class,
+                () -> bookViewService.findBooksByAuthor("Nobody"));
+    }
+
+    @Test
+    void findBooksByAuthorId_whenAuthorExists_shouldQueryView() {
+        // Arrange
+        when(authorRepository.existsById(1)).thenReturn(true);
+        when(bookViewRepository.findByAuthorId(1)).thenReturn(List.of(book));
+
+        // Act
+        List<BookView> result = bookViewService.findBooksByAuthorId(1);
+
+        // Assert
+        assertEquals(List.of(book), result);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.CatalogChangeGetDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogChangeBufferTest {
+
+    @Test
+    void offer_whenSameTypeRepeats_shouldCoalesceIntoOneChange() {
+        // Arrange
+        CatalogChangeBuffer buffer = new CatalogChangeBuffer(10);
+
+        // Act
+        boolean first = buffer.offer("books", List.of(3, 1));
+        boolean second = buffer.offer("books", List.of(1, 2));
+        buffer.offer("authors", List.of(7));
+        List<CatalogChangeGetDto> changes = buffer.drain();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(2, changes.size());
+        assertEquals("books", changes.get(0).getType());
+        assertEquals(List.of(1, 2, 3), changes.get(0).getIds());
+        assertEquals("authors", changes.get(1).getType());
+        assertEquals(List.of(7), changes.get(1).getIds());
+    }
+
+    @Test
+    void offer_whenCapacityExceeded_shouldCollapseTypeToReloadAll() {
+        // Arrange
+        CatalogChangeBuffer buffer = new CatalogChangeBuffer(3);
+        buffer.offer("categories", List.of(1));
+        buffer.offer("books", List.of(1, 2));
+
+        // Act
+        buffer.offer("books", List.of(3));
+        buffer.offer("books", List.of(4));
+        buffer.offer("categories", List.of(2));
+        List<CatalogChangeGetDto> changes = buffer.drain();
+
+        // Assert
+        assertEquals("categories", changes.get(0).getType());
+        assertEquals(List.of(1, 2), changes.get(0).getIds());
+        assertEquals("books", changes.get(1).getType());
+        assertNull(changes.get(1).getIds());
+    }
+
+    @Test
+    void drain_whenEmpty_shouldAllowNextOfferToScheduleSending() {
+        // Arrange
+        CatalogChangeBuffer buffer = new CatalogChangeBuffer(10);
+        buffer.offer("books", null);
+
+        // Act
+        List<CatalogChangeGetDto> sent = buffer.drain();
+        boolean whileSending = buffer.offer("books", List.of(5));
+        List<CatalogChangeGetDto> sentNext = buffer.drain();
+        List<CatalogChangeGetDto> nothingLeft = buffer.drain();
+        boolean afterSending = buffer.offer("authors", List.of(1));
+
+        // Assert
+        assertNull(sent.get(0).getIds());
+        assertFalse(whileSending);
+        assertEquals(List.of(5), sentNext.get(0).getIds());
+        assertTrue(nothingLeft.isEmpty());
+        assertTrue(afterSending);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.BookGetDto;
+import com.example.myspringproject.dto.get.CatalogChangeEntryGetDto;
+import com.example.myspringproject.dto.get.CatalogChangesGetDto;
+import com.example.myspringproject.exception.ChangeLogExpiredException;
+import com.example.myspringproject.model.BookView;
+import com.example.myspringproject.model.CatalogChange;
+import com.example.myspringproject.repository.AuthorRepository;
+import com.example.myspringproject.repository.BookViewRepository;
+import com.example.myspringproject.repository.CatalogChangeRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeServiceImplTest {
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+    @Mock
+    private BookViewRepository bookViewRepository;
+    @Mock
+    private AuthorRepository authorRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CatalogChangeServiceImpl changeService;
+
+    @BeforeEach
+    void setUp() {
+        changeService = new CatalogChangeServiceImpl(changeRepository, bookViewRepository,
+                authorRepository, categoryRepository, 100, Duration.ofDays(7));
+    }
+
+    private static CatalogChange change(long version, String type, int id, boolean deleted) {
+        CatalogChange change = new CatalogChange();
+        change.setChangeId(version);
+        change.setVersion(version);
+        change.setEntityType(type);
+        change.setEntityId(id);
+        change.setDeleted(deleted);
+        return change;
+    }
+
+    @Test
+    void findChanges_shouldKeepLatestEntryPerRecordAndReportMissingAsDeleted() {
+        // Arrange
+        BookView book = new BookView();
+        book.setBookId(1);
+        book.setBookName("War and Peace");
+        when(changeRepository.findByVersionGreaterThanOrderByVersion(10, Limit.of(4)))
+                .thenReturn(List.of(change(11, "books", 1, false), change(12, "books", 2, false),
+                        change(13, "books", 1, false), change(14, "books", 3, true)));
+        when(bookViewRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(book));
+
+        // Act
+        CatalogChangesGetDto result = changeService.findChanges(10, 3);
+
+        // Assert
+        assertEquals(13, result.getVersion());
+        assertTrue(result.isHasMore());
+        List<CatalogChangeEntryGetDto> changes = result.getChanges();
+        assertEquals(2, changes.size());
+        assertEquals(2, changes.get(0).getId());
+        assertTrue(changes.get(0).isDeleted());
+        assertNull(changes.get(0).getData());
+        assertEquals(13, changes.get(1).getVersion());
+        assertFalse(changes.get(1).isDeleted());
+        assertEquals("War and Peace", ((BookGetDto) changes.get(1).getData()).getBookName());
+        verifyNoInteractions(authorRepository, categoryRepository);
+    }
+
+    @Test
+    void findChanges_whenSinceBelowPurgedTombstones_shouldThrowChangeLogExpiredException() {
+        // Arrange
+        when(changeRepository.findByVersionGreaterThanOrderByVersion(5, Limit.of(101)))
+                .thenReturn(List.of());
+        when(changeRepository.findPurgedThrough()).thenReturn(8L);
+
+        // Act & Assert
+        assertThrows(ChangeLogExpiredException.class, () -> changeService.findChanges(5, 100));
+    }
+
+    @Test
+    void compact_shouldRaisePurgedThroughBeforeDeletingTombstones() {
+        // Arrange
+        when(changeRepository.findLastTombstoneBefore(any(Instant.class))).thenReturn(42L);
+
+        // Act
+        changeService.compact();
+
+        // Assert
+        var order = inOrder(changeRepository);
+        order.verify(changeRepository).deleteSuperseded();
+        order.verify(changeRepository).raisePurgedThrough(42L);
+        order.verify(changeRepository).deleteTombstonesThrough(42L);
+    }
+}
@@ -1,6 +1,8 @@
 
 package com.example.myspringproject.service.impl;
 
+import com.example.myspringproject.cache.AuthorCache;
+import com.example.myspringproject.cache.BookCache;
 import com.example.myspringproject.cache.CategoryCache;
 import com.example.myspringproject.dto.create.CategoryCreateDto;
 import com.example.myspringproject.dto.update.CategoryUpdateDto;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -35,6 +38,13 @@ class CategoryServiceImplTest {
     private BookRepository bookRepository;
     @Mock
     private CategoryCache categoryCache;
+    @Mock
+    private BookCache bookCache;
+    @Mock
+    private AuthorCache authorCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private CategoryServiceImpl categoryServiceImpl;
@@ -76,7 +86,7 @@ class CategoryServiceImplTest {
         when(categoryRepository.findAll()).thenReturn(List.of(category1, category2));
 
 
-        List<Category> result = categoryServiceImpl.getAllCategories();
+        List<Category> result = categoryServiceImpl.getAllCategories(true);
 
 
         assertNotNull(result);
@@ -93,7 +103,7 @@ class CategoryServiceImplTest {
         when(categoryCache.get(cacheKey)).thenReturn(List.of(category1));
 
 
-        Category result = categoryServiceImpl.getCategoryById(categoryId);
+        Category result = categoryServiceImpl.getCategoryById(categoryId, true);
 
 
         assertNotNull(result);
@@ -112,7 +122,7 @@ class CategoryServiceImplTest {
         when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category1));
 
 
-        Category result = categoryServiceImpl.getCategoryById(categoryId);
+        Category result = categoryServiceImpl.getCategoryById(categoryId, true);
 
 
         assertNotNull(result);
@@ -132,7 +142,7 @@ class CategoryServiceImplTest {
         when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
 
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.getCategoryById(categoryId));
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.getCategoryById(categoryId, true));
         assertEquals("Категория не найдена по id:" + categoryId, exception.getMessage());
         verify(categoryCache, times(1)).containsKey(cacheKey);
         verify(categoryCache, never()).get(anyString());
@@ -148,7 +158,7 @@ class CategoryServiceImplTest {
         when(categoryCache.containsKey(cacheKey)).thenReturn(false);
         when(categoryRepository.findCategoriesByBookId(bookId)).thenReturn(List.of(category1, category2));
 
-        List<Category> result = categoryServiceImpl.findCategoriesByBookId(bookId);
+        List<Category> result = categoryServiceImpl.findCategoriesByBookId(bookId, true);
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -158,12 +168,53 @@ class CategoryServiceImplTest {
         verify(categoryCache, times(1)).put(cacheKey, List.of(category1, category2));
     }
 
+    @Test
+    void findCategoriesByBookId_whenWithoutBooks_shouldUseLightQuery() {
+        int bookId = 2;
+        String cacheKey = "withoutBooks_categoriesByBookId_" + bookId;
+        when(bookRepository.existsById(bookId)).thenReturn(true);
+        when(categoryCache.containsKey(cacheKey)).thenReturn(false);
+        when(categoryRepository.findCategoriesByBookIdWithoutBooks(bookId))
+                .thenReturn(List.of(category1, category2));
+
+        List<Category> result = categoryServiceImpl.findCategoriesByBookId(bookId, false);
+
+        assertEquals(List.of(category1, category2), result);
+        verify(categoryRepository, never()).findCategoriesByBookId(anyInt());
+        verify(categoryCache, times(1)).put(cacheKey, List.of(category1, category2));
+    }
+
+    @Test
+    void getCategoryById_whenWithoutBooks_shouldNotShareCacheKeyWithBooks() {
+        when(categoryCache.containsKey("withoutBooks_category_id_1")).thenReturn(false);
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category1));
+
+        Category result = categoryServiceImpl.getCategoryById(1, false);
+
+        assertEquals(category1, result);
+        verify(categoryCache, times(1)).put("withoutBooks_category_id_1", List.of(category1));
+        verify(categoryCache, never()).put(eq("category_id_1"), anyList());
+    }
+
+    @Test
+    void findCategoriesByBook_whenWithoutBooksAndNotFound_shouldThrowException() {
+        when(categoryCache.containsKey("withoutBooks_categoriesByBook_Missing")).thenReturn(false);
+        when(categoryRepository.findCategoriesByBookWithoutBooks("Missing"))
+                .thenReturn(Collections.emptyList());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> categoryServiceImpl.findCategoriesByBook("Missing", false));
+
+        assertEquals("Категории не найдены по книге: Missing", exception.getMessage());
+        verify(categoryCache, never()).put(anyString(), anyList());
+    }
+
     @Test
     void findCategoriesByBookId_whenBookNotFound_shouldThrowException() {
         int bookId = 99;
         when(bookRepository.existsById(bookId)).thenReturn(false);
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByBookId(bookId));
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByBookId(bookId, true));
 
         assertEquals("Книга не найдена с id: " + bookId, exception.getMessage());
         verify(bookRepository, times(1)).existsById(bookId);
@@ -300,49 +351,50 @@ class CategoryServiceImplTest {
         dto.setName("Updated Fiction");
         dto.setBookIds(List.of(2));
 
+        Category reloaded = new Category();
+        reloaded.setCategoryId(categoryId);
+        reloaded.setCategoryName("Updated Fiction");
+        reloaded.setBooks(new ArrayList<>(List.of(book2)));
 
-        if (book2.getCategories() == null) {
-            book2.setCategories(new ArrayList<>());
-        }
+        when(categoryRepository.findById(categoryId))
+                .thenReturn(Optional.of(category1), Optional.of(reloaded));
 
-        if (category1.getBooks() == null) {
-            category1.setBooks(new ArrayList<>());
-        }
 
+        Category result = categoryServiceImpl.updateCategory(categoryId, dto);
 
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category1));
-        when(bookRepository.findAllById(dto.getBookIds())).thenReturn(List.of(book2));
-        when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> {
 
-            Category catToSave = invocation.getArgument(0);
-            List<Book> newBooks = catToSave.getBooks();
-            if (newBooks != null) {
-                newBooks.forEach(book -> {
-                    if (book.getCategories() == null) book.setCategories(new ArrayList<>());
-                    if (!book.getCategories().contains(catToSave)) {
-                        book.getCategories().add(catToSave);
-                    }
-                });
-            }
-            return catToSave;
-        });
+        assertSame(reloaded, result);
+        assertEquals("Updated Fiction", category1.getCategoryName());
+        assertEquals(List.of(book2), result.getBooks());
 
+        Integer[] bookIds = {2};
+        verify(categoryRepository, times(2)).findById(categoryId);
+        verify(categoryRepository, times(1)).deleteBookLinksExcept(categoryId, bookIds);
+        verify(categoryRepository, times(1)).insertBookLinks(categoryId, bookIds);
+        verify(categoryRepository, never()).save(any(Category.class));
+        verify(categoryCache, times(1)).clear();
+        verify(bookCache, times(1)).clear();
+        verify(authorCache, times(1)).clear();
+    }
 
-        Category result = categoryServiceImpl.updateCategory(categoryId, dto);
+    @Test
+    void updateCategory_whenBookIdsAbsent_shouldOnlyRename() {
 
+        int categoryId = 1;
+        CategoryUpdateDto dto = new CategoryUpdateDto();
+        dto.setName("Updated Fiction");
 
-        assertNotNull(result);
-        assertEquals(categoryId, result.getCategoryId());
-        assertEquals("Updated Fiction", result.getCategoryName());
-        assertNotNull(result.getBooks());
-        assertEquals(1, result.getBooks().size());
-        assertTrue(result.getBooks().contains(book2));
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category1));
 
-        assertTrue(book2.getCategories().contains(category1));
 
-        verify(categoryRepository, times(1)).findById(categoryId);
-        verify(bookRepository, times(1)).findAllById(dto.getBookIds());
-        verify(categoryRepository, times(1)).save(category1);
+        Category result = categoryServiceImpl.updateCategory(categoryId, dto);
+
+
+        assertSame(category1, result);
+        assertEquals("Updated Fiction", result.getCategoryName());
+        assertEquals(List.of(book1, book2), result.getBooks());
+        verify(categoryRepository, never()).deleteBookLinksExcept(anyInt(), any());
+        verify(categoryRepository, never()).insertBookLinks(anyInt(), any());
         verify(categoryCache, times(1)).clear();
     }
 
@@ -360,53 +412,42 @@ class CategoryServiceImplTest {
         assertEquals("Category not found", exception.getMessage());
 
         verify(categoryRepository, times(1)).findById(categoryId);
-        verify(bookRepository, never()).findAllById(anyList());
-        verify(categoryRepository, never()).save(any(Category.class));
+        verify(categoryRepository, never()).deleteBookLinksExcept(anyInt(), any());
+        verify(categoryRepository, never()).insertBookLinks(anyInt(), any());
         verify(categoryCache, never()).clear();
     }
 
     @Test
-    void deleteCategory_whenCategoryExists_shouldDeleteCategoryAndRemoveFromBooks() {
+    void deleteCategory_whenCategoryExists_shouldDeleteLinksAndCategoryWithoutLoadingBooks() {
 
         int categoryId = 1;
-
-        if (book1.getCategories() == null) book1.setCategories(new ArrayList<>());
-        if (book2.getCategories() == null) book2.setCategories(new ArrayList<>());
-        book1.getCategories().add(category1);
-        book2.getCategories().add(category1);
-
-        assertTrue(book1.getCategories().contains(category1));
-        assertTrue(book2.getCategories().contains(category1));
-
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category1));
-        doNothing().when(categoryRepository).delete(category1);
+        when(categoryRepository.deleteBookLinks(categoryId)).thenReturn(2);
+        when(categoryRepository.deleteCategoryById(categoryId)).thenReturn(1);
 
 
         categoryServiceImpl.deleteCategory(categoryId);
 
 
-        verify(categoryRepository, times(1)).findById(categoryId);
-        verify(categoryRepository, times(1)).delete(category1);
+        var inOrder = inOrder(categoryRepository);
+        inOrder.verify(categoryRepository).deleteBookLinks(categoryId);
+        inOrder.verify(categoryRepository).deleteCategoryById(categoryId);
+        verify(categoryRepository, never()).findById(anyInt());
         verify(categoryCache, times(1)).clear();
-
-        assertFalse(book1.getCategories().contains(category1));
-        assertFalse(book2.getCategories().contains(category1));
-
-        assertTrue(book2.getCategories().contains(category2));
+        verify(bookCache, times(1)).clear();
+        verify(authorCache, times(1)).clear();
     }
 
     @Test
     void deleteCategory_whenCategoryNotFound_shouldThrowEntityNotFoundException() {
 
         int categoryId = 99;
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+        when(categoryRepository.deleteCategoryById(categoryId)).thenReturn(0);
 
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.deleteCategory(categoryId));
         assertEquals("Category not found", exception.getMessage());
 
-        verify(categoryRepository, times(1)).findById(categoryId);
-        verify(categoryRepository, never()).delete(any(Category.class));
+        verify(categoryRepository, times(1)).deleteBookLinks(categoryId);
         verify(categoryCache, never()).clear();
     }
 
@@ -422,7 +463,7 @@ class CategoryServiceImplTest {
         when(categoryCache.get(cacheKey)).thenReturn(expectedCategories);
 
 
-        List<Category> result = categoryServiceImpl.findCategoriesByName(name);
+        List<Category> result = categoryServiceImpl.findCategoriesByName(name, true);
 
 
         assertNotNull(result);
@@ -443,7 +484,7 @@ class CategoryServiceImplTest {
         when(categoryRepository.findByCategoryNameContainingIgnoreCase(name)).thenReturn(expectedCategories);
 
 
-        List<Category> result = categoryServiceImpl.findCategoriesByName(name);
+        List<Category> result = categoryServiceImpl.findCategoriesByName(name, true);
 
 
         assertNotNull(result);
@@ -464,7 +505,7 @@ class CategoryServiceImplTest {
         when(categoryRepository.findByCategoryNameContainingIgnoreCase(name)).thenReturn(Collections.emptyList());
 
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByName(name));
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByName(name, true));
         assertEquals("Категории не найдены по имени: " + name, exception.getMessage());
         verify(categoryCache, times(1)).containsKey(cacheKey);
         verify(categoryCache, never()).get(anyString());
@@ -481,7 +522,7 @@ class CategoryServiceImplTest {
         when(categoryCache.get(cacheKey)).thenReturn(Collections.emptyList());
 
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByName(name));
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByName(name, true));
         assertEquals("Категории не найдены по имени: " + name, exception.getMessage());
         verify(categoryCache, times(1)).containsKey(cacheKey);
         verify(categoryCache, times(1)).get(cacheKey);
@@ -501,7 +542,7 @@ class CategoryServiceImplTest {
         when(categoryCache.get(cacheKey)).thenReturn(expectedCategories);
 
 
-        List<Category> result = categoryServiceImpl.findCategoriesByBook(bookName);
+        List<Category> result = categoryServiceImpl.findCategoriesByBook(bookName, true);
 
 
         assertNotNull(result);
@@ -522,7 +563,7 @@ class CategoryServiceImplTest {
         when(categoryRepository.findCategoriesByBook(bookName)).thenReturn(expectedCategories);
 
 
-        List<Category> result = categoryServiceImpl.findCategoriesByBook(bookName);
+        List<Category> result = categoryServiceImpl.findCategoriesByBook(bookName, true);
 
 
         assertNotNull(result);
@@ -543,7 +584,7 @@ class CategoryServiceImplTest {
         when(categoryRepository.findCategoriesByBook(bookName)).thenReturn(Collections.emptyList());
 
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByBook(bookName));
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByBook(bookName, true));
         assertEquals("Категории не найдены по книге: " + bookName, exception.getMessage());
         verify(categoryCache, times(1)).containsKey(cacheKey);
         verify(categoryCache, never()).get(anyString());
@@ -560,7 +601,7 @@ class CategoryServiceImplTest {
         when(categoryCache.get(cacheKey)).thenReturn(Collections.emptyList());
 
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByBook(bookName));
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> categoryServiceImpl.findCategoriesByBook(bookName, true));
         assertEquals("Категории не найдены по книге: " + bookName, exception.getMessage());
         verify(categoryCache, times(1)).containsKey(cacheKey);
         verify(categoryCache, times(1)).get(cacheKey);
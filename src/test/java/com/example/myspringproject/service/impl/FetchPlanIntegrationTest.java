@@ -0,0 +1,197 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.cache.AuthorCache;
+import com.example.myspringproject.cache.BookCache;
+import com.example.myspringproject.cache.CategoryCache;
+import com.example.myspringproject.dto.get.AuthorGetDto;
+import com.example.myspringproject.dto.get.BookGetDto;
+import com.example.myspringproject.dto.get.CategoryGetDto;
+import com.example.myspringproject.model.Author;
+import com.example.myspringproject.model.Book;
+import com.example.myspringproject.model.Category;
+import com.example.myspringproject.repository.AuthorRepository;
+import com.example.myspringproject.repository.BookRepository;
+import com.example.myspringproject.repository.CategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Проверяет, что при выключенном open-in-view сервисы возвращают сущности,
+// из которых DTO собираются без единого запроса после закрытия транзакции.
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false"
+})
+@Import({AuthorServiceImpl.class, BookServiceImpl.class, CategoryServiceImpl.class,
+    AuthorCache.class, BookCache.class, CategoryCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FetchPlanIntegrationTest {
+
+    @Autowired
+    private AuthorServiceImpl authorService;
+    @Autowired
+    private BookServiceImpl bookService;
+    @Autowired
+    private CategoryServiceImpl categoryService;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private AuthorCache authorCache;
+    @Autowired
+    private BookCache bookCache;
+    @Autowired
+    private CategoryCache categoryCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Author author;
+    private Category category;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM author_category");
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        categoryRepository.deleteAll();
+        authorCache.clear();
+        bookCache.clear();
+        categoryCache.clear();
+
+        author = new Author();
+        author.setAuthorName("Author One");
+        author = authorRepository.save(author);
+
+        category = new Category();
+        category.setCategoryName("Fiction");
+        category = categoryRepository.save(category);
+
+        book = new TransactionTemplate(transactionManager).execute(status -> {
+            Book newBook = new Book();
+            newBook.setBookName("Book One");
+            newBook.setAuthor(authorRepository.getReferenceById(author.getAuthorId()));
+            newBook.setCategories(List.of(
+                    categoryRepository.getReferenceById(category.getCategoryId())));
+            return bookRepository.save(newBook);
+        });
+
+        // В PostgreSQL author_category ведут триггеры из миграций; здесь схему
+        // создаёт Hibernate, поэтому строку добавляем сами
+        jdbcTemplate.update("INSERT INTO author_category "
+                + "(author_id, category_id, category_name, book_count) VALUES (?, ?, ?, 1)",
+                author.getAuthorId(), category.getCategoryId(), category.getCategoryName());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void assertNoQueriesWhile(Runnable buildDtos) {
+        long before = statistics.getPrepareStatementCount();
+        buildDtos.run();
+        assertEquals(before, statistics.getPrepareStatementCount(),
+                "DTO построен с ленивой загрузкой после закрытия транзакции");
+    }
+
+    @Test
+    void findBookById_shouldReturnBookWithAuthorAndCategoriesLoaded() {
+        Book found = bookService.findBookById(book.getBookId());
+
+        assertNoQueriesWhile(() -> {
+            BookGetDto dto = new BookGetDto(found);
+            assertEquals("Author One", dto.getAuthorName());
+            assertEquals(List.of("Fiction"), dto.getCategories());
+        });
+    }
+
+    @Test
+    void bookListFinders_shouldReturnBooksWithAuthorAndCategoriesLoaded() {
+        List<Book> byAuthor = bookService.findBooksByAuthorId(author.getAuthorId());
+        List<Book> byCategory = bookService.findBooksByCategory("fic");
+        List<Book> found = bookService.searchBooks("one", "one");
+
+        assertNoQueriesWhile(() -> {
+            byAuthor.forEach(BookGetDto::new);
+            byCategory.forEach(BookGetDto::new);
+            assertEquals(List.of("Fiction"), new BookGetDto(found.get(0)).getCategories());
+        });
+    }
+
+    @Test
+    void authorFinders_shouldReturnAuthorsWithBooksLoaded() {
+        Author byId = authorService.findAuthorById(author.getAuthorId(), true);
+        List<Author> byCategory = authorService.findAuthorsByBookCategory("fic", true);
+        List<Author> byCategoryNative = authorService.findAuthorsByBookCategoryNative("fic");
+        List<Author> byCategoryPrefix = authorService.findAuthorsByBookCategoryPrefix("Fic", true);
+
+        assertNoQueriesWhile(() -> {
+            assertEquals(List.of("Book One"), new AuthorGetDto(byId).getBooks());
+            assertEquals(List.of("Book One"), new AuthorGetDto(byCategory.get(0)).getBooks());
+            assertEquals(List.of("Book One"),
+                    new AuthorGetDto(byCategoryNative.get(0)).getBooks());
+            assertEquals(List.of("Book One"),
+                    new AuthorGetDto(byCategoryPrefix.get(0)).getBooks());
+        });
+    }
+
+    @Test
+    void findAuthorsByIds_whenAuthorCached_shouldNotReadItFromDatabase() {
+        authorService.findAuthorsByIds(List.of(author.getAuthorId()), true);
+        long loadsBefore = statistics.getEntityStatistics(Author.class.getName()).getLoadCount();
+
+        List<Author> found = authorService.findAuthorsByIds(List.of(-1, author.getAuthorId()), true);
+
+        assertEquals(loadsBefore,
+                statistics.getEntityStatistics(Author.class.getName()).getLoadCount());
+        assertNoQueriesWhile(() -> {
+            assertEquals(1, found.size());
+            assertEquals(List.of("Book One"), new AuthorGetDto(found.get(0)).getBooks());
+        });
+    }
+
+    @Test
+    void findByIds_whenWithoutBooks_shouldNotLoadBooks() {
+        List<Author> authors = authorService.findAuthorsByIds(List.of(author.getAuthorId()), false);
+        List<Category> categories =
+                categoryService.getCategoriesByIds(List.of(category.getCategoryId()), false);
+
+        assertFalse(Hibernate.isInitialized(authors.get(0).getBooks()));
+        assertFalse(Hibernate.isInitialized(categories.get(0).getBooks()));
+    }
+
+    @Test
+    void categoryFinders_shouldReturnCategoriesWithBooksLoaded() {
+        Category byId = categoryService.getCategoryById(category.getCategoryId(), true);
+        List<Category> all = categoryService.getAllCategories(true);
+        List<Category> byBook = categoryService.findCategoriesByBookId(book.getBookId(), true);
+
+        assertNoQueriesWhile(() -> {
+            assertEquals(List.of("Book One"), new CategoryGetDto(byId).getBooks());
+            assertEquals(List.of("Book One"), new CategoryGetDto(all.get(0)).getBooks());
+            assertEquals(List.of("Book One"), new CategoryGetDto(byBook.get(0)).getBooks());
+        });
+    }
+}
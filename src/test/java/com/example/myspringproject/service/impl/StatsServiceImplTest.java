@@ -0,0 +1,68 @@
+package com.example.myspringproject.service.impl;
+
+import com.example.myspringproject.dto.get.BookCountGetDto;
+import com.example.myspringproject.exception.ValidationException;
+import com.example.myspringproject.repository.AuthorStatsRepository;
+import com.example.myspringproject.repository.CategoryStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsServiceImplTest {
+
+    @Mock
+    private CategoryStatsRepository categoryStatsRepository;
+    @Mock
+    private AuthorStatsRepository authorStatsRepository;
+
+    private StatsServiceImpl statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new StatsServiceImpl(categoryStatsRepository, authorStatsRepository, 50);
+    }
+
+    @Test
+    void getBooksPerCategory_shouldReturnCountersFromRepository() {
+        // Arrange
+        List<BookCountGetDto> counts = List.of(
+                new BookCountGetDto(1, "Fiction", 3), new BookCountGetDto(2, "Poetry", 0));
+        when(categoryStatsRepository.findBookCounts()).thenReturn(counts);
+
+        // Act
+        List<BookCountGetDto> result = statsService.getBooksPerCategory();
+
+        // Assert
+        assertSame(counts, result);
+    }
+
+    @Test
+    void getTopAuthors_whenLimitInRange_shouldPassLimitToRepository() {
+        // Arrange
+        List<BookCountGetDto> top = List.of(new BookCountGetDto(7, "Author", 12));
+        when(authorStatsRepository.findTop(Limit.of(5))).thenReturn(top);
+
+        // Act
+        List<BookCountGetDto> result = statsService.getTopAuthors(5);
+
+        // Assert
+        assertEquals(top, result);
+    }
+
+    @Test
+    void getTopCategories_whenLimitOutOfRange_shouldThrowValidationException() {
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> statsService.getTopCategories(0));
+        assertThrows(ValidationException.class, () -> statsService.getTopCategories(51));
+        verifyNoInteractions(categoryStatsRepository);
+    }
+}